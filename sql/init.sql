@@ -25,6 +25,74 @@ CREATE INDEX IF NOT EXISTS idx_stocks_symbol ON stocks(symbol);
 CREATE INDEX IF NOT EXISTS idx_stocks_sector ON stocks(sector);
 CREATE INDEX IF NOT EXISTS idx_stocks_market_cap ON stocks(market_cap);
 CREATE INDEX IF NOT EXISTS idx_stocks_current_price ON stocks(current_price);
+CREATE INDEX IF NOT EXISTS idx_stocks_updated_at ON stocks(updated_at, id);
+
+-- Create price history tick table, range-partitioned by day.
+-- Daily partitions are created ahead of time and expired by StockPricePartitionManager.
+CREATE TABLE IF NOT EXISTS stock_prices (
+    stock_id BIGINT NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    price DECIMAL(12, 4) NOT NULL,
+    volume BIGINT,
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL
+) PARTITION BY RANGE (recorded_at);
+
+-- Covering index so symbol/time-window reads are served by index-only scans
+CREATE INDEX IF NOT EXISTS idx_stock_prices_symbol_time ON stock_prices (symbol, recorded_at) INCLUDE (price, volume);
+
+-- Compressed per-symbol, per-day tick blocks for history older than the partition retention window
+CREATE TABLE IF NOT EXISTS stock_price_archive (
+    symbol VARCHAR(10) NOT NULL,
+    day DATE NOT NULL,
+    tick_count INTEGER NOT NULL,
+    data BYTEA NOT NULL,
+    PRIMARY KEY (symbol, day)
+);
+
+-- Deleted stocks, so the change feed can report deletes; pruned after the tombstone retention window
+CREATE TABLE IF NOT EXISTS stock_tombstones (
+    id BIGINT PRIMARY KEY,
+    symbol VARCHAR(10) NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_tombstones_deleted_at ON stock_tombstones (deleted_at, id);
+
+-- Transactional outbox of stock change events, relayed in id order and pruned after the retention window
+CREATE TABLE IF NOT EXISTS stock_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type VARCHAR(24) NOT NULL,
+    stock_id BIGINT,
+    symbol VARCHAR(10) NOT NULL,
+    version BIGINT,
+    price DECIMAL(12, 4),
+    volume BIGINT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Per-user price alerts; an alert is active until fired_at is set
+CREATE TABLE IF NOT EXISTS price_alerts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    symbol VARCHAR(10) NOT NULL,
+    direction VARCHAR(8) NOT NULL,
+    threshold DECIMAL(12, 4) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    fired_at TIMESTAMP WITH TIME ZONE,
+    fired_price DECIMAL(12, 4)
+);
+
+CREATE INDEX IF NOT EXISTS idx_price_alerts_username ON price_alerts (username, id);
+
+-- Last price of each symbol per UTC day, the input to return correlations and betas
+CREATE TABLE IF NOT EXISTS stock_daily_closes (
+    symbol VARCHAR(10) NOT NULL,
+    close_date DATE NOT NULL,
+    close_price DECIMAL(12, 4) NOT NULL,
+    PRIMARY KEY (symbol, close_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_daily_closes_day ON stock_daily_closes (close_date);
 
 -- Insert some sample data
 INSERT INTO stocks (symbol, name, current_price, market_cap, sector, industry, dividend_yield, pe_ratio, eps, fifty_two_week_high, fifty_two_week_low, volume, average_volume, beta, version) VALUES
@@ -0,0 +1,94 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.dto.StockAggregate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Running counts and sums for one group of stocks. Sums are exact (BigDecimal and long), so adding a
+ * stock and later subtracting the same contribution leaves no residue. Each sum keeps its own count of
+ * non-null values, which is what SQL AVG and SUM divide by.
+ */
+final class AggregateTotals {
+
+    private static final int AVERAGE_SCALE = 4;
+
+    private long count;
+    private long priceCount;
+    private BigDecimal priceSum = BigDecimal.ZERO;
+    private long marketCapCount;
+    private long marketCapSum;
+    private long peRatioCount;
+    private BigDecimal peRatioSum = BigDecimal.ZERO;
+    private long volumeCount;
+    private long volumeSum;
+
+    void add(StockContribution contribution) {
+        apply(contribution, 1);
+    }
+
+    void subtract(StockContribution contribution) {
+        apply(contribution, -1);
+    }
+
+    private void apply(StockContribution contribution, int sign) {
+        count += sign;
+        if (contribution.price != null) {
+            priceCount += sign;
+            priceSum = sign > 0 ? priceSum.add(contribution.price) : priceSum.subtract(contribution.price);
+        }
+        if (contribution.marketCap != null) {
+            marketCapCount += sign;
+            marketCapSum += sign * contribution.marketCap;
+        }
+        if (contribution.peRatio != null) {
+            peRatioCount += sign;
+            peRatioSum = sign > 0 ? peRatioSum.add(contribution.peRatio) : peRatioSum.subtract(contribution.peRatio);
+        }
+        if (contribution.volume != null) {
+            volumeCount += sign;
+            volumeSum += sign * contribution.volume;
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    StockAggregate toAggregate() {
+        StockAggregate aggregate = new StockAggregate();
+        aggregate.setCount(count);
+        aggregate.setAveragePrice(average(priceSum, priceCount));
+        aggregate.setAverageMarketCap(average(BigDecimal.valueOf(marketCapSum), marketCapCount));
+        aggregate.setAveragePeRatio(average(peRatioSum, peRatioCount));
+        aggregate.setTotalMarketCap(marketCapCount > 0 ? marketCapSum : null);
+        aggregate.setTotalVolume(volumeCount > 0 ? volumeSum : null);
+        return aggregate;
+    }
+
+    private static BigDecimal average(BigDecimal sum, long n) {
+        return n > 0 ? sum.divide(BigDecimal.valueOf(n), AVERAGE_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AggregateTotals that)) return false;
+        return count == that.count && priceCount == that.priceCount && marketCapCount == that.marketCapCount
+            && marketCapSum == that.marketCapSum && peRatioCount == that.peRatioCount
+            && volumeCount == that.volumeCount && volumeSum == that.volumeSum
+            && priceSum.compareTo(that.priceSum) == 0 && peRatioSum.compareTo(that.peRatioSum) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, priceCount, marketCapCount, marketCapSum, peRatioCount, volumeCount, volumeSum,
+            priceSum.stripTrailingZeros(), peRatioSum.stripTrailingZeros());
+    }
+}
@@ -0,0 +1,97 @@
+package anqorithm.stocks.aggregate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Stock ids ordered by one metric, highest or lowest first with ties by ascending id (the order the SQL
+ * queries use). Setting or removing a stock's value is O(log n); the top k ids are an O(log n + k) prefix
+ * read. Not thread-safe.
+ */
+final class RankedIndex {
+
+    private final boolean descending;
+    private final TreeSet<Entry> ranked;
+    private final Map<Long, Entry> byId = new HashMap<>();
+
+    RankedIndex(boolean descending) {
+        this.descending = descending;
+        Comparator<Entry> byValue = Comparator.comparing(entry -> entry.value);
+        this.ranked = new TreeSet<>((descending ? byValue.reversed() : byValue).thenComparingLong(entry -> entry.id));
+    }
+
+    /**
+     * Rank the stock by the given value, or drop it from the ranking when the value is null
+     */
+    void put(long id, BigDecimal value) {
+        Entry previous = byId.get(id);
+        if (previous != null) {
+            if (value != null && previous.value.compareTo(value) == 0) {
+                return;
+            }
+            ranked.remove(previous);
+            byId.remove(id);
+        }
+        if (value != null) {
+            Entry entry = new Entry(id, value);
+            ranked.add(entry);
+            byId.put(id, entry);
+        }
+    }
+
+    void remove(long id) {
+        put(id, null);
+    }
+
+    /**
+     * Up to limit ids from the top, stopping at the first value not strictly beyond the bound (if any)
+     */
+    List<Long> top(int limit, BigDecimal bound) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+        Iterator<Entry> iterator = ranked.iterator();
+        while (ids.size() < limit && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (bound != null && (descending ? entry.value.compareTo(bound) <= 0 : entry.value.compareTo(bound) >= 0)) {
+                break;
+            }
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * True if both indexes rank the same stocks by equal values
+     */
+    boolean sameEntries(RankedIndex other) {
+        if (byId.size() != other.byId.size()) {
+            return false;
+        }
+        for (Map.Entry<Long, Entry> entry : byId.entrySet()) {
+            Entry theirs = other.byId.get(entry.getKey());
+            if (theirs == null || theirs.value.compareTo(entry.getValue().value) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final BigDecimal value;
+
+        private Entry(long id, BigDecimal value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package anqorithm.stocks.aggregate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.function.Function;
+
+/**
+ * Stock metrics with a maintained ranking. Each ranks in one direction and may only list stocks whose
+ * value is strictly beyond a bound, matching the WHERE clause of the SQL query it replaces.
+ */
+public enum RankedMetric {
+    MARKET_CAP(true, null, row -> row.marketCap != null ? BigDecimal.valueOf(row.marketCap) : null),
+    VOLUME(true, null, row -> row.volume != null ? BigDecimal.valueOf(row.volume) : null),
+    DIVIDEND_YIELD(true, null, row -> row.dividendYield),
+    // current_price / fifty_two_week_low, highest first, above 1.5
+    PRICE_TO_52_WEEK_LOW(true, new BigDecimal("1.5"), row -> ratio(row.price, row.fiftyTwoWeekLow)),
+    // current_price / fifty_two_week_high, lowest first, below 0.7
+    PRICE_TO_52_WEEK_HIGH(false, new BigDecimal("0.7"), row -> ratio(row.price, row.fiftyTwoWeekHigh));
+
+    // Enough digits that distinct ratios of DECIMAL(12, 4) prices never round to the same value
+    private static final MathContext RATIO_CONTEXT = MathContext.DECIMAL128;
+
+    private final boolean descending;
+    private final BigDecimal bound;
+    private final Function<RankedRow, BigDecimal> value;
+
+    RankedMetric(boolean descending, BigDecimal bound, Function<RankedRow, BigDecimal> value) {
+        this.descending = descending;
+        this.bound = bound;
+        this.value = value;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Exclusive bound a value must be beyond, in ranking direction, to be listed; null for none
+     */
+    BigDecimal getBound() {
+        return bound;
+    }
+
+    /**
+     * The row's value for this metric, or null if it is unranked
+     */
+    BigDecimal valueOf(RankedRow row) {
+        return value.apply(row);
+    }
+
+    private static BigDecimal ratio(BigDecimal numerator, BigDecimal denominator) {
+        if (numerator == null || denominator == null || denominator.signum() <= 0) {
+            return null;
+        }
+        return numerator.divide(denominator, RATIO_CONTEXT);
+    }
+}
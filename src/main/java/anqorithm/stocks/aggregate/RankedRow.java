@@ -0,0 +1,46 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.entity.Stock;
+
+import java.math.BigDecimal;
+
+/**
+ * The columns of one stock that its rankings are computed from, as last applied to them
+ */
+final class RankedRow {
+
+    final Long version;
+    final BigDecimal price;
+    final Long marketCap;
+    final Long volume;
+    final BigDecimal dividendYield;
+    final BigDecimal fiftyTwoWeekLow;
+    final BigDecimal fiftyTwoWeekHigh;
+
+    private RankedRow(Long version, BigDecimal price, Long marketCap, Long volume, BigDecimal dividendYield,
+                      BigDecimal fiftyTwoWeekLow, BigDecimal fiftyTwoWeekHigh) {
+        this.version = version;
+        this.price = price;
+        this.marketCap = marketCap;
+        this.volume = volume;
+        this.dividendYield = dividendYield;
+        this.fiftyTwoWeekLow = fiftyTwoWeekLow;
+        this.fiftyTwoWeekHigh = fiftyTwoWeekHigh;
+    }
+
+    static RankedRow of(Stock stock) {
+        return new RankedRow(stock.getVersion(), stock.getCurrentPrice(), stock.getMarketCap(), stock.getVolume(),
+            stock.getDividendYield(), stock.getFiftyTwoWeekLow(), stock.getFiftyTwoWeekHigh());
+    }
+
+    RankedRow withPriceAndVolume(BigDecimal price, Long volume, Long version) {
+        return new RankedRow(version, price, marketCap, volume, dividendYield, fiftyTwoWeekLow, fiftyTwoWeekHigh);
+    }
+
+    /**
+     * True if this state was written after the given version, so an event carrying that version is stale
+     */
+    boolean isNewerThan(Long otherVersion) {
+        return version != null && otherVersion != null && version > otherVersion;
+    }
+}
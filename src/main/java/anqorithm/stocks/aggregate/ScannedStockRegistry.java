@@ -0,0 +1,147 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.outbox.StockEventListener;
+import anqorithm.stocks.service.StockReadService;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An in-memory view of the stocks table, built from a scan and kept current from relayed outbox events.
+ * <p>
+ * Scans are driven by {@link StockRegistryScanner}, which fills every registry from one pass over the table
+ * without holding any registry's lock, so events and reads are not held up for the length of a scan. The
+ * scan may read a row before or after an event that arrives meanwhile, so such events are remembered and
+ * applied again once the scanned state is installed; applying an event is idempotent (price events older
+ * than the applied version are ignored, other changes re-read the row), so replaying one the scan already
+ * reflects is harmless.
+ *
+ * @param <S> what a scan builds
+ */
+abstract class ScannedStockRegistry<S> implements StockEventListener {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected final StockReadService stockReadService;
+    private final String name;
+    private final Counter driftCounter;
+    private StockRegistryScanner scanner;
+
+    private volatile boolean loaded;
+    // Guarded by this: events received since the running scan began, null when no scan is running
+    private List<StockEvent> sinceScan;
+
+    protected ScannedStockRegistry(StockReadService stockReadService, String name, Counter driftCounter) {
+        this.stockReadService = stockReadService;
+        this.name = name;
+        this.driftCounter = driftCounter;
+    }
+
+    /**
+     * False if the registry is switched off and is neither scanned nor maintained
+     */
+    protected boolean isMaintained() {
+        return true;
+    }
+
+    /**
+     * An empty state for a scan to fill
+     */
+    protected abstract S newScan();
+
+    /**
+     * Add one row to a scan; called without the lock, from the scanning thread only
+     */
+    protected abstract void scanned(S scan, Stock stock);
+
+    /**
+     * Take over a completed scan, then apply the events received while it ran. Called with the lock held.
+     * Returns true if a previously installed state had drifted from the scan.
+     */
+    protected abstract boolean install(S scan, List<StockEvent> missed);
+
+    /**
+     * Apply one event to the installed state; called with the lock held
+     */
+    protected abstract void apply(StockEvent event);
+
+    @Override
+    public final synchronized void onEvents(List<StockEvent> events) {
+        if (!isMaintained()) {
+            return;
+        }
+        if (sinceScan != null) {
+            sinceScan.addAll(events);
+        }
+        if (loaded) {
+            applyAll(events);
+        }
+    }
+
+    protected final void applyAll(List<StockEvent> events) {
+        for (StockEvent event : events) {
+            if (event.getStockId() == null) {
+                continue;
+            }
+            try {
+                apply(event);
+            } catch (DataAccessException e) {
+                logger.warn("Could not apply {} to {}, leaving it to reconciliation: {}", event, name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Load the registry through the scanner if it has not been loaded yet. Call before taking the lock to read.
+     */
+    protected final void awaitLoaded() {
+        if (!loaded) {
+            scanner.load();
+        }
+    }
+
+    /**
+     * A scan of its own, for reads while the registry is not maintained
+     */
+    protected final S scanOnce() {
+        S scan = newScan();
+        stockReadService.forEachStock(stock -> scanned(scan, stock));
+        return scan;
+    }
+
+    final boolean isLoaded() {
+        return loaded;
+    }
+
+    final void attach(StockRegistryScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    final synchronized void beginScan() {
+        sinceScan = new ArrayList<>();
+    }
+
+    final synchronized void abandonScan() {
+        sinceScan = null;
+    }
+
+    final synchronized boolean completeScan(S scan, int rows) {
+        List<StockEvent> missed = sinceScan;
+        sinceScan = null;
+        boolean drifted = install(scan, missed != null ? missed : List.of());
+        if (!loaded) {
+            loaded = true;
+            logger.info("Loaded {} from {} rows", name, rows);
+        } else if (drifted) {
+            driftCounter.increment();
+            logger.warn("The {} drifted from SQL; reconciled with {} rows", name, rows);
+        }
+        return drifted;
+    }
+}
@@ -0,0 +1,420 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.dto.SectorIndex;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.service.StockReadService;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Market-cap-weighted index levels per sector, kept in memory so that reading them does not aggregate
+ * the sector's stocks.
+ * <p>
+ * Each stock contributes price &times; shares to its sector's capitalization, with its share count implied
+ * by its market cap at the stored price. The capitalization is an exact long in {@link Tick#PRICE_SCALE}
+ * units, so a tick adjusts it by (new price &minus; old price) &times; shares in O(1). The level is the
+ * capitalization over a divisor chosen so each sector opens every session at {@link #BASE_LEVEL}; when a
+ * stock joins, leaves or changes its market cap, the divisor is scaled so the level does not move, which
+ * keeps it a measure of price changes only. Sessions follow the UTC days of stock_daily_closes, so a load
+ * in the middle of a session values the open at each constituent's last close before the day instead of
+ * rebasing at the current prices.
+ * <p>
+ * The constituents are loaded and re-checked against SQL by the {@link StockRegistryScanner} and kept
+ * current from relayed outbox events (which re-read the row by id). Prices are taken from ticks once a stock
+ * has ticked, since rows can lag the write-behind journal; ticks that arrive before the first load are
+ * kept and applied by it for the same reason.
+ */
+@Component
+public class SectorIndexRegistry extends ScannedStockRegistry<SectorIndexRegistry.Scan>
+        implements TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SectorIndexRegistry.class);
+
+    static final double BASE_LEVEL = 1000;
+    private static final int LEVEL_SCALE = 2;
+    private static final int CLOSE_LOOKBACK_DAYS = 7;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private static final Comparator<SectorIndex> BY_CHANGE = Comparator.comparing(SectorIndex::getChangePercent)
+        .reversed()
+        .thenComparing(SectorIndex::getSector);
+
+    private final StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+    private final LongSupplier clock;
+
+    // All state is guarded by this; null until the first load
+    private Map<Long, Constituent> constituents;
+    private Map<String, Constituent> bySymbol;
+    private final TreeMap<String, Sector> sectors = new TreeMap<>();
+    // Latest scaled price per symbol ticked before the first load
+    private final Map<String, Long> unloadedTicks = new HashMap<>();
+
+    @Autowired
+    public SectorIndexRegistry(StockReadService stockReadService,
+                               StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository,
+                               MeterRegistry meterRegistry) {
+        this(stockReadService, stockDailyCloseJdbcRepository, meterRegistry, System::currentTimeMillis);
+    }
+
+    SectorIndexRegistry(StockReadService stockReadService, StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository,
+                        MeterRegistry meterRegistry, LongSupplier clock) {
+        super(stockReadService, "sector indexes", Counter.builder("stocks.sectors.drift")
+            .description("Reconciliations that found the sector index constituents out of line with SQL")
+            .register(meterRegistry));
+        this.stockDailyCloseJdbcRepository = stockDailyCloseJdbcRepository;
+        this.clock = clock;
+    }
+
+    public Optional<SectorIndex> getIndex(String sector) {
+        awaitLoaded();
+        synchronized (this) {
+            return Optional.ofNullable(sectors.get(sector)).map(Sector::toSectorIndex);
+        }
+    }
+
+    /**
+     * Every sector's index, largest move since the session open first
+     */
+    public List<SectorIndex> getHeatMap() {
+        awaitLoaded();
+        synchronized (this) {
+            List<SectorIndex> result = new ArrayList<>(sectors.size());
+            for (Sector sector : sectors.values()) {
+                result.add(sector.toSectorIndex());
+            }
+            result.sort(BY_CHANGE);
+            return result;
+        }
+    }
+
+    @Override
+    public synchronized void onTick(Tick tick) {
+        // The rows the first load scans can lag the write-behind journal, so it applies these itself
+        if (constituents == null) {
+            if (tick.getScaledPrice() > 0) {
+                unloadedTicks.put(tick.getSymbol(), tick.getScaledPrice());
+            }
+            return;
+        }
+        Constituent constituent = tick.getStockId() != null
+            ? constituents.get(tick.getStockId()) : bySymbol.get(tick.getSymbol());
+        if (constituent == null || tick.getScaledPrice() <= 0) {
+            return;
+        }
+        Sector sector = sectors.get(constituent.sector);
+        sector.capitalization += (tick.getScaledPrice() - constituent.scaledPrice) * constituent.shares;
+        sector.timestamp = Math.max(sector.timestamp, tick.getTimestamp());
+        constituent.scaledPrice = tick.getScaledPrice();
+        constituent.ticked = true;
+    }
+
+    @Override
+    protected void apply(StockEvent event) {
+        // Prices arrive as ticks
+        if (event.getType() == StockEvent.Type.PRICE_VOLUME_CHANGED) {
+            return;
+        }
+        Long id = event.getStockId();
+        replace(id, event.getType() == StockEvent.Type.DELETED ? null : withCurrent(id, reread(id)));
+    }
+
+    private Constituent reread(Long id) {
+        return stockReadService.findById(id).map(SectorIndexRegistry::constituentOf).orElse(null);
+    }
+
+    /**
+     * A scan, with the last closes before today when it is the first load
+     */
+    @Override
+    protected Scan newScan() {
+        if (isLoaded()) {
+            return new Scan(Map.of());
+        }
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(clock.getAsLong()), ZoneOffset.UTC);
+        return new Scan(stockDailyCloseJdbcRepository.findLatestBefore(today, today.minusDays(CLOSE_LOOKBACK_DAYS)));
+    }
+
+    @Override
+    protected void scanned(Scan scan, Stock stock) {
+        Constituent constituent = constituentOf(stock);
+        if (constituent != null) {
+            scan.constituents.put(stock.getId(), constituent);
+        }
+    }
+
+    /**
+     * Catch the scan up with the events it may have read too early, then apply the differences as
+     * constituent changes, so levels carry over
+     */
+    @Override
+    protected boolean install(Scan scanned, List<StockEvent> missed) {
+        Map<Long, Constituent> scan = scanned.constituents;
+        for (StockEvent event : missed) {
+            if (event.getStockId() == null || event.getType() == StockEvent.Type.PRICE_VOLUME_CHANGED) {
+                continue;
+            }
+            Constituent constituent = null;
+            try {
+                constituent = event.getType() == StockEvent.Type.DELETED ? null : reread(event.getStockId());
+            } catch (DataAccessException e) {
+                logger.warn("Could not re-read stock {} for sector indexes: {}", event.getStockId(), e.getMessage());
+                continue;
+            }
+            if (constituent != null) {
+                scan.put(event.getStockId(), constituent);
+            } else {
+                scan.remove(event.getStockId());
+            }
+        }
+
+        if (constituents == null) {
+            load(scan, scanned.closes);
+            return false;
+        }
+        boolean drifted = false;
+        for (Long id : new ArrayList<>(constituents.keySet())) {
+            if (!scan.containsKey(id)) {
+                replace(id, null);
+                drifted = true;
+            }
+        }
+        for (Map.Entry<Long, Constituent> entry : scan.entrySet()) {
+            drifted |= replace(entry.getKey(), withCurrent(entry.getKey(), entry.getValue()));
+        }
+        return drifted;
+    }
+
+    /**
+     * Take the constituents, with prices ticked since startup, and open each sector at the base level as of
+     * its constituents' last closes. Stocks without a stored close open at their stored price.
+     */
+    private void load(Map<Long, Constituent> scan, Map<String, BigDecimal> closes) {
+        constituents = new HashMap<>();
+        bySymbol = new HashMap<>();
+        Map<String, Long> openCapitalization = new HashMap<>();
+        for (Map.Entry<Long, Constituent> entry : scan.entrySet()) {
+            Constituent constituent = entry.getValue();
+            BigDecimal close = closes.get(constituent.symbol);
+            long open = close != null && close.signum() > 0 ? Tick.toScaled(close) : constituent.scaledPrice;
+            openCapitalization.merge(constituent.sector, Math.multiplyExact(open, constituent.shares), Math::addExact);
+            Long ticked = unloadedTicks.get(constituent.symbol);
+            if (ticked != null) {
+                constituent.scaledPrice = ticked;
+                constituent.ticked = true;
+            }
+            add(entry.getKey(), constituent);
+        }
+        unloadedTicks.clear();
+        for (Sector sector : sectors.values()) {
+            sector.divisor = openCapitalization.get(sector.name) / BASE_LEVEL;
+            sector.openLevel = BASE_LEVEL;
+        }
+    }
+
+    /**
+     * Start a new session: each sector is rebased to open at the base level
+     */
+    @Scheduled(cron = "${stocks.sectors.session-start-cron:0 0 0 * * *}", zone = "UTC")
+    public synchronized void startSession() {
+        for (Sector sector : sectors.values()) {
+            sector.divisor = sector.capitalization / BASE_LEVEL;
+            sector.openLevel = BASE_LEVEL;
+        }
+        logger.info("Started a new sector index session for {} sectors", sectors.size());
+    }
+
+    /**
+     * The stock as a constituent at its stored price, or null if it has no sector, market cap or price to
+     * weight it by
+     */
+    private static Constituent constituentOf(Stock stock) {
+        if (stock.getSector() == null || stock.getMarketCap() == null || stock.getMarketCap() <= 0
+                || stock.getCurrentPrice() == null || stock.getCurrentPrice().signum() <= 0) {
+            return null;
+        }
+        long shares = BigDecimal.valueOf(stock.getMarketCap())
+            .divide(stock.getCurrentPrice(), 0, RoundingMode.HALF_UP).longValue();
+        if (shares <= 0) {
+            return null;
+        }
+        return new Constituent(stock.getSymbol(), stock.getSector(), stock.getMarketCap(), shares,
+            Tick.toScaled(stock.getCurrentPrice()));
+    }
+
+    /**
+     * The re-read constituent with what the registry already holds for it: once a stock has ticked its live
+     * price is kept, and its share count is kept while its market cap is unchanged
+     */
+    private Constituent withCurrent(Long id, Constituent next) {
+        Constituent current = constituents.get(id);
+        if (next == null || current == null) {
+            return next;
+        }
+        Constituent constituent = new Constituent(next.symbol, next.sector, next.marketCap,
+            current.marketCap == next.marketCap ? current.shares : next.shares,
+            current.ticked ? current.scaledPrice : next.scaledPrice);
+        constituent.ticked = current.ticked;
+        return constituent;
+    }
+
+    /**
+     * Swap the stock's constituent for a new one, or drop it when next is null, scaling the divisors of the
+     * affected sectors so their levels do not move. Returns true if anything but the price changed.
+     */
+    private boolean replace(Long id, Constituent next) {
+        Constituent previous = constituents.get(id);
+        if (previous != null && next != null && previous.sameWeighting(next)) {
+            return false;
+        }
+        if (previous == null && next == null) {
+            return false;
+        }
+        Set<String> affected = new HashSet<>();
+        Map<String, Double> levels = new HashMap<>();
+        if (previous != null) {
+            affected.add(previous.sector);
+        }
+        if (next != null) {
+            affected.add(next.sector);
+        }
+        for (String name : affected) {
+            Sector sector = sectors.get(name);
+            if (sector != null) {
+                levels.put(name, sector.level());
+            }
+        }
+
+        if (previous != null) {
+            remove(id, previous);
+        }
+        if (next != null) {
+            add(id, next);
+        }
+
+        long timestamp = clock.getAsLong();
+        for (String name : affected) {
+            Sector sector = sectors.get(name);
+            if (sector == null) {
+                continue;
+            }
+            Double level = levels.get(name);
+            if (level == null) {
+                // A new sector starts at the base level
+                sector.divisor = sector.capitalization / BASE_LEVEL;
+                sector.openLevel = BASE_LEVEL;
+            } else {
+                sector.divisor = sector.capitalization / level;
+            }
+            sector.timestamp = Math.max(sector.timestamp, timestamp);
+        }
+        return true;
+    }
+
+    private void add(Long id, Constituent constituent) {
+        constituents.put(id, constituent);
+        bySymbol.put(constituent.symbol, constituent);
+        Sector sector = sectors.computeIfAbsent(constituent.sector, Sector::new);
+        sector.capitalization += constituent.capitalization();
+        sector.count++;
+    }
+
+    private void remove(Long id, Constituent constituent) {
+        constituents.remove(id);
+        bySymbol.remove(constituent.symbol, constituent);
+        Sector sector = sectors.get(constituent.sector);
+        sector.capitalization -= constituent.capitalization();
+        if (--sector.count == 0) {
+            sectors.remove(constituent.sector);
+        }
+    }
+
+    static final class Scan {
+        private final Map<Long, Constituent> constituents = new HashMap<>();
+        private final Map<String, BigDecimal> closes;
+
+        private Scan(Map<String, BigDecimal> closes) {
+            this.closes = closes;
+        }
+    }
+
+    static final class Constituent {
+        private final String symbol;
+        private final String sector;
+        private final long marketCap;
+        private final long shares;
+        private long scaledPrice;
+        private boolean ticked;
+
+        private Constituent(String symbol, String sector, long marketCap, long shares, long scaledPrice) {
+            this.symbol = symbol;
+            this.sector = sector;
+            this.marketCap = marketCap;
+            this.shares = shares;
+            this.scaledPrice = scaledPrice;
+        }
+
+        private long capitalization() {
+            return Math.multiplyExact(scaledPrice, shares);
+        }
+
+        private boolean sameWeighting(Constituent other) {
+            return symbol.equals(other.symbol) && sector.equals(other.sector) && shares == other.shares
+                && scaledPrice == other.scaledPrice;
+        }
+    }
+
+    private final class Sector {
+        private final String name;
+        private long capitalization;
+        private int count;
+        private double divisor;
+        private double openLevel;
+        private long timestamp;
+
+        private Sector(String name) {
+            this.name = name;
+            this.timestamp = clock.getAsLong();
+        }
+
+        private double level() {
+            return divisor > 0 ? capitalization / divisor : BASE_LEVEL;
+        }
+
+        private SectorIndex toSectorIndex() {
+            BigDecimal level = BigDecimal.valueOf(level()).setScale(LEVEL_SCALE, RoundingMode.HALF_UP);
+            BigDecimal open = BigDecimal.valueOf(openLevel).setScale(LEVEL_SCALE, RoundingMode.HALF_UP);
+            BigDecimal change = level.subtract(open);
+            BigDecimal changePercent = open.signum() != 0
+                ? change.multiply(HUNDRED).divide(open, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+            return new SectorIndex(name, level, open, change, changePercent,
+                BigDecimal.valueOf(capitalization, Tick.PRICE_SCALE).setScale(0, RoundingMode.HALF_UP), count,
+                Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+        }
+    }
+}
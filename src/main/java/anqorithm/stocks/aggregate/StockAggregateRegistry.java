@@ -0,0 +1,206 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.dto.StockAggregate;
+import anqorithm.stocks.dto.StockStats;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.service.StockReadService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Market aggregates (counts, averages and totals) overall, per sector and per industry, kept in memory
+ * so that reading them does not scan the stocks table.
+ * <p>
+ * The registry is loaded and reconciled by the {@link StockRegistryScanner} and maintained from relayed
+ * outbox events, which cover every write path. Each stock's last applied contribution is remembered, so an
+ * event is applied as an exact delta: the old contribution is subtracted and the new one added. Price and
+ * volume events carry their new values; other changes re-read the row by id.
+ */
+@Component
+public class StockAggregateRegistry extends ScannedStockRegistry<StockAggregateRegistry.State> {
+
+    private final boolean enabled;
+    private final LongSupplier clock;
+
+    // All state is guarded by this
+    private State state;
+
+    @Autowired
+    public StockAggregateRegistry(StockReadService stockReadService,
+                                  @Value("${stocks.aggregates.enabled:true}") boolean enabled,
+                                  MeterRegistry meterRegistry) {
+        this(stockReadService, enabled, meterRegistry, System::currentTimeMillis);
+    }
+
+    StockAggregateRegistry(StockReadService stockReadService, boolean enabled, MeterRegistry meterRegistry,
+                           LongSupplier clock) {
+        super(stockReadService, "stock aggregates", Counter.builder("stocks.aggregates.drift")
+            .description("Reconciliations that found the in-memory aggregates out of line with SQL")
+            .register(meterRegistry));
+        this.enabled = enabled;
+        this.clock = clock;
+    }
+
+    /**
+     * False when aggregates are switched off; callers should then query SQL, as every read here would
+     * rescan the table
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    protected boolean isMaintained() {
+        return enabled;
+    }
+
+    public StockAggregate getOverall() {
+        return read(current -> current.overall.toAggregate());
+    }
+
+    public Optional<StockAggregate> getBySector(String sector) {
+        return read(current -> Optional.ofNullable(current.bySector.get(sector)).map(AggregateTotals::toAggregate));
+    }
+
+    public Optional<StockAggregate> getByIndustry(String industry) {
+        return read(current -> Optional.ofNullable(current.byIndustry.get(industry)).map(AggregateTotals::toAggregate));
+    }
+
+    public StockStats getStats() {
+        return read(current -> {
+            StockAggregate overall = current.overall.toAggregate();
+            StockStats stats = new StockStats();
+            stats.setTotalStocks(overall.getCount());
+            stats.setAveragePrice(overall.getAveragePrice());
+            stats.setAverageMarketCap(overall.getAverageMarketCap());
+            stats.setAveragePeRatio(overall.getAveragePeRatio());
+            stats.setTotalMarketCap(overall.getTotalMarketCap());
+            stats.setTotalVolume(overall.getTotalVolume());
+            stats.setStocksBySector(counts(current.bySector));
+            stats.setStocksByIndustry(counts(current.byIndustry));
+            stats.setSectors(new ArrayList<>(current.bySector.keySet()));
+            stats.setIndustries(new ArrayList<>(current.byIndustry.keySet()));
+            stats.setGeneratedAt(Instant.ofEpochMilli(clock.getAsLong()).atZone(ZoneOffset.UTC));
+            return stats;
+        });
+    }
+
+    private <T> T read(Function<State, T> reader) {
+        if (!enabled) {
+            return reader.apply(scanOnce());
+        }
+        awaitLoaded();
+        synchronized (this) {
+            return reader.apply(state);
+        }
+    }
+
+    @Override
+    protected void apply(StockEvent event) {
+        Long id = event.getStockId();
+        StockContribution current = state.contributions.get(id);
+        switch (event.getType()) {
+            case DELETED -> state.replace(id, null);
+            case PRICE_VOLUME_CHANGED -> {
+                if (current == null) {
+                    state.replace(id, reread(id));
+                } else if (!current.isNewerThan(event.getVersion())) {
+                    state.replace(id, current.withPriceAndVolume(event.getPrice(), event.getVolume(),
+                        event.getVersion() != null ? event.getVersion() : current.version));
+                }
+            }
+            case CREATED, UPDATED -> state.replace(id, reread(id));
+        }
+    }
+
+    private StockContribution reread(Long id) {
+        return stockReadService.findById(id).map(StockContribution::of).orElse(null);
+    }
+
+    @Override
+    protected State newScan() {
+        return new State();
+    }
+
+    @Override
+    protected void scanned(State scan, Stock stock) {
+        scan.replace(stock.getId(), StockContribution.of(stock));
+    }
+
+    @Override
+    protected boolean install(State scan, List<StockEvent> missed) {
+        State previous = state;
+        state = scan;
+        applyAll(missed);
+        return previous != null && !previous.sameTotals(state);
+    }
+
+    private static Map<String, Long> counts(Map<String, AggregateTotals> groups) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        groups.forEach((name, totals) -> counts.put(name, totals.getCount()));
+        return counts;
+    }
+
+    static final class State {
+        private final Map<Long, StockContribution> contributions = new HashMap<>();
+        private final AggregateTotals overall = new AggregateTotals();
+        private final TreeMap<String, AggregateTotals> bySector = new TreeMap<>();
+        private final TreeMap<String, AggregateTotals> byIndustry = new TreeMap<>();
+
+        /**
+         * Swap the stock's contribution for a new one, or drop it when next is null
+         */
+        void replace(Long id, StockContribution next) {
+            StockContribution previous = next != null ? contributions.put(id, next) : contributions.remove(id);
+            if (previous != null) {
+                overall.subtract(previous);
+                subtract(bySector, previous.sector, previous);
+                subtract(byIndustry, previous.industry, previous);
+            }
+            if (next != null) {
+                overall.add(next);
+                add(bySector, next.sector, next);
+                add(byIndustry, next.industry, next);
+            }
+        }
+
+        boolean sameTotals(State other) {
+            return overall.equals(other.overall) && bySector.equals(other.bySector)
+                && byIndustry.equals(other.byIndustry);
+        }
+
+        private static void add(Map<String, AggregateTotals> groups, String name, StockContribution contribution) {
+            if (name != null) {
+                groups.computeIfAbsent(name, key -> new AggregateTotals()).add(contribution);
+            }
+        }
+
+        private static void subtract(Map<String, AggregateTotals> groups, String name,
+                                     StockContribution contribution) {
+            if (name == null) {
+                return;
+            }
+            AggregateTotals totals = groups.get(name);
+            totals.subtract(contribution);
+            if (totals.isEmpty()) {
+                groups.remove(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.entity.Stock;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * The columns of one stock that feed the aggregates, as last applied to them
+ */
+final class StockContribution {
+
+    final String sector;
+    final String industry;
+    final BigDecimal price;
+    final Long marketCap;
+    final BigDecimal peRatio;
+    final Long volume;
+    final Long version;
+
+    StockContribution(String sector, String industry, BigDecimal price, Long marketCap, BigDecimal peRatio,
+                      Long volume, Long version) {
+        this.sector = sector;
+        this.industry = industry;
+        this.price = price;
+        this.marketCap = marketCap;
+        this.peRatio = peRatio;
+        this.volume = volume;
+        this.version = version;
+    }
+
+    static StockContribution of(Stock stock) {
+        return new StockContribution(stock.getSector(), stock.getIndustry(), stock.getCurrentPrice(),
+            stock.getMarketCap(), stock.getPeRatio(), stock.getVolume(), stock.getVersion());
+    }
+
+    StockContribution withPriceAndVolume(BigDecimal price, Long volume, Long version) {
+        return new StockContribution(sector, industry, price, marketCap, peRatio, volume, version);
+    }
+
+    /**
+     * True if this state was written after the given version, so an event carrying that version is stale
+     */
+    boolean isNewerThan(Long otherVersion) {
+        return version != null && otherVersion != null && version > otherVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StockContribution that)) return false;
+        return Objects.equals(sector, that.sector) && Objects.equals(industry, that.industry)
+            && Objects.equals(price, that.price) && Objects.equals(marketCap, that.marketCap)
+            && Objects.equals(peRatio, that.peRatio) && Objects.equals(volume, that.volume)
+            && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sector, industry, price, marketCap, peRatio, volume, version);
+    }
+}
@@ -0,0 +1,151 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.service.StockReadService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rankings of stock ids by market cap, volume, dividend yield and price relative to the 52-week low and
+ * high, so that the top and performer endpoints read a prefix of an in-memory index instead of sorting
+ * the table (the performer ratios are expressions no column index can serve).
+ * <p>
+ * The rankings are loaded and reconciled by the {@link StockRegistryScanner} and kept current from relayed
+ * outbox events: price and volume events re-rank a stock without a read, other changes re-read the row by
+ * id. Limits above the configured maximum are left to SQL.
+ */
+@Component
+public class StockRankingRegistry extends ScannedStockRegistry<StockRankingRegistry.State> {
+
+    private final boolean enabled;
+    private final int maxLimit;
+
+    // All state is guarded by this
+    private State state;
+
+    @Autowired
+    public StockRankingRegistry(StockReadService stockReadService,
+                                @Value("${stocks.rankings.enabled:true}") boolean enabled,
+                                @Value("${stocks.rankings.max-limit:1000}") int maxLimit,
+                                MeterRegistry meterRegistry) {
+        super(stockReadService, "stock rankings", Counter.builder("stocks.rankings.drift")
+            .description("Reconciliations that found the in-memory rankings out of line with SQL")
+            .register(meterRegistry));
+        this.enabled = enabled;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * True if a top-N read of this size should come from the rankings rather than SQL
+     */
+    public boolean serves(int limit) {
+        return enabled && limit <= maxLimit;
+    }
+
+    @Override
+    protected boolean isMaintained() {
+        return enabled;
+    }
+
+    /**
+     * Ids of the top-ranked stocks for the metric, in ranking order
+     */
+    public List<Long> top(RankedMetric metric, int limit) {
+        if (!enabled) {
+            return scanOnce().indexes.get(metric).top(limit, metric.getBound());
+        }
+        awaitLoaded();
+        synchronized (this) {
+            return state.indexes.get(metric).top(limit, metric.getBound());
+        }
+    }
+
+    @Override
+    protected void apply(StockEvent event) {
+        Long id = event.getStockId();
+        switch (event.getType()) {
+            case DELETED -> state.remove(id);
+            case PRICE_VOLUME_CHANGED -> {
+                RankedRow current = state.rows.get(id);
+                if (current == null) {
+                    reread(id);
+                } else if (!current.isNewerThan(event.getVersion())) {
+                    state.put(id, current.withPriceAndVolume(event.getPrice(), event.getVolume(),
+                        event.getVersion() != null ? event.getVersion() : current.version));
+                }
+            }
+            case CREATED, UPDATED -> reread(id);
+        }
+    }
+
+    private void reread(Long id) {
+        Optional<Stock> stock = stockReadService.findById(id);
+        if (stock.isPresent()) {
+            state.put(id, RankedRow.of(stock.get()));
+        } else {
+            state.remove(id);
+        }
+    }
+
+    @Override
+    protected State newScan() {
+        return new State();
+    }
+
+    @Override
+    protected void scanned(State scan, Stock stock) {
+        scan.put(stock.getId(), RankedRow.of(stock));
+    }
+
+    @Override
+    protected boolean install(State scan, List<StockEvent> missed) {
+        State previous = state;
+        state = scan;
+        applyAll(missed);
+        return previous != null && !previous.sameEntries(state);
+    }
+
+    static final class State {
+        private final Map<RankedMetric, RankedIndex> indexes = new EnumMap<>(RankedMetric.class);
+        private final Map<Long, RankedRow> rows = new HashMap<>();
+
+        private State() {
+            for (RankedMetric metric : RankedMetric.values()) {
+                indexes.put(metric, new RankedIndex(metric.isDescending()));
+            }
+        }
+
+        void put(Long id, RankedRow row) {
+            for (RankedMetric metric : RankedMetric.values()) {
+                indexes.get(metric).put(id, metric.valueOf(row));
+            }
+            rows.put(id, row);
+        }
+
+        void remove(Long id) {
+            for (RankedIndex index : indexes.values()) {
+                index.remove(id);
+            }
+            rows.remove(id);
+        }
+
+        boolean sameEntries(State other) {
+            for (RankedMetric metric : RankedMetric.values()) {
+                if (!indexes.get(metric).sameEntries(other.indexes.get(metric))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
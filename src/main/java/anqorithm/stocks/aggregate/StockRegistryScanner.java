@@ -0,0 +1,112 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.service.StockReadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads and reconciles every {@link ScannedStockRegistry} from one scan of the stocks table, instead of one
+ * scan per registry. The scan runs outside the registries' locks; each registry takes its lock only to
+ * install the result. Registries are loaded together on the first read of any of them.
+ */
+@Component
+public class StockRegistryScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockRegistryScanner.class);
+
+    private final StockReadService stockReadService;
+    private final List<ScannedStockRegistry<?>> registries;
+
+    @Autowired
+    public StockRegistryScanner(StockReadService stockReadService, List<ScannedStockRegistry<?>> registries) {
+        this.stockReadService = stockReadService;
+        this.registries = new ArrayList<>();
+        for (ScannedStockRegistry<?> registry : registries) {
+            registry.attach(this);
+            if (registry.isMaintained()) {
+                this.registries.add(registry);
+            }
+        }
+    }
+
+    /**
+     * Load the registries that are not loaded yet, scanning at most once however many readers are waiting
+     */
+    synchronized void load() {
+        if (registries.stream().anyMatch(registry -> !registry.isLoaded())) {
+            scan();
+        }
+    }
+
+    /**
+     * Rebuild every registry from the stocks table. Returns true if any of them had drifted from SQL.
+     */
+    @Scheduled(fixedDelayString = "${stocks.registries.reconcile-interval-ms:300000}")
+    public synchronized boolean reconcile() {
+        try {
+            return scan();
+        } catch (DataAccessException e) {
+            logger.error("Failed to reconcile stock registries: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean scan() {
+        if (registries.isEmpty()) {
+            return false;
+        }
+        List<Pass<?>> passes = new ArrayList<>(registries.size());
+        for (ScannedStockRegistry<?> registry : registries) {
+            passes.add(Pass.of(registry));
+        }
+        passes.forEach(Pass::begin);
+        int[] rows = new int[1];
+        try {
+            stockReadService.forEachStock(stock -> {
+                rows[0]++;
+                for (Pass<?> pass : passes) {
+                    pass.accept(stock);
+                }
+            });
+        } catch (RuntimeException e) {
+            passes.forEach(Pass::abandon);
+            throw e;
+        }
+        boolean drifted = false;
+        for (Pass<?> pass : passes) {
+            drifted |= pass.complete(rows[0]);
+        }
+        return drifted;
+    }
+
+    private record Pass<S>(ScannedStockRegistry<S> registry, S scan) {
+
+        static <S> Pass<S> of(ScannedStockRegistry<S> registry) {
+            return new Pass<>(registry, registry.newScan());
+        }
+
+        void begin() {
+            registry.beginScan();
+        }
+
+        void accept(Stock stock) {
+            registry.scanned(scan, stock);
+        }
+
+        void abandon() {
+            registry.abandonScan();
+        }
+
+        boolean complete(int rows) {
+            return registry.completeScan(scan, rows);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package anqorithm.stocks.alert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The active alerts of one symbol, in two threshold-ordered maps. Since an alert is removed as soon as a
+ * price satisfies it, every remaining ABOVE threshold is above the last price and every remaining BELOW
+ * threshold below it, so the alerts a new price triggers are a prefix of one map and a suffix of the other:
+ * O(log n + k) to find and remove them.
+ */
+final class AlertBook {
+
+    private final TreeMap<Long, List<PriceAlert>> above = new TreeMap<>();
+    private final TreeMap<Long, List<PriceAlert>> below = new TreeMap<>();
+    private int size;
+
+    synchronized void add(PriceAlert alert) {
+        side(alert).computeIfAbsent(alert.getScaledThreshold(), threshold -> new ArrayList<>(1)).add(alert);
+        size++;
+    }
+
+    synchronized boolean remove(PriceAlert alert) {
+        TreeMap<Long, List<PriceAlert>> side = side(alert);
+        List<PriceAlert> alerts = side.get(alert.getScaledThreshold());
+        if (alerts == null || !alerts.remove(alert)) {
+            return false;
+        }
+        if (alerts.isEmpty()) {
+            side.remove(alert.getScaledThreshold());
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Remove and return the alerts the price triggers; null (not an empty list) when there are none,
+     * which is nearly every tick
+     */
+    synchronized List<PriceAlert> trigger(long scaledPrice) {
+        List<PriceAlert> triggered = null;
+        while (!above.isEmpty() && above.firstKey() <= scaledPrice) {
+            triggered = drain(above.pollFirstEntry(), triggered);
+        }
+        while (!below.isEmpty() && below.lastKey() >= scaledPrice) {
+            triggered = drain(below.pollLastEntry(), triggered);
+        }
+        return triggered;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private List<PriceAlert> drain(Map.Entry<Long, List<PriceAlert>> entry, List<PriceAlert> triggered) {
+        if (triggered == null) {
+            triggered = new ArrayList<>(entry.getValue().size());
+        }
+        triggered.addAll(entry.getValue());
+        size -= entry.getValue().size();
+        return triggered;
+    }
+
+    private TreeMap<Long, List<PriceAlert>> side(PriceAlert alert) {
+        return alert.getDirection() == PriceAlert.Direction.ABOVE ? above : below;
+    }
+}
@@ -0,0 +1,65 @@
+package anqorithm.stocks.alert;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Active price alerts of every symbol, indexed by threshold so a price update only touches the alerts it
+ * triggers. Thread-safe; each symbol's alerts are guarded by their own lock.
+ */
+public final class AlertIndex {
+
+    private final Map<String, AlertBook> books = new ConcurrentHashMap<>();
+    private final Map<Long, PriceAlert> alerts = new ConcurrentHashMap<>();
+
+    public void add(PriceAlert alert) {
+        if (alerts.putIfAbsent(alert.getId(), alert) == null) {
+            books.computeIfAbsent(alert.getSymbol(), symbol -> new AlertBook()).add(alert);
+        }
+    }
+
+    /**
+     * Remove an active alert; returns false if it is unknown or has already been triggered
+     */
+    public boolean remove(long id) {
+        PriceAlert alert = alerts.get(id);
+        if (alert == null) {
+            return false;
+        }
+        AlertBook book = books.get(alert.getSymbol());
+        if (book == null || !book.remove(alert)) {
+            return false;
+        }
+        alerts.remove(id);
+        return true;
+    }
+
+    /**
+     * Remove and return the symbol's alerts triggered by the price, scaled as by
+     * {@link anqorithm.stocks.tick.Tick#toScaled}
+     */
+    public List<PriceAlert> trigger(String symbol, long scaledPrice) {
+        AlertBook book = books.get(symbol);
+        if (book == null) {
+            return List.of();
+        }
+        List<PriceAlert> triggered = book.trigger(scaledPrice);
+        if (triggered == null) {
+            return List.of();
+        }
+        for (PriceAlert alert : triggered) {
+            alerts.remove(alert.getId());
+        }
+        return triggered;
+    }
+
+    public int size() {
+        return alerts.size();
+    }
+
+    public void clear() {
+        books.clear();
+        alerts.clear();
+    }
+}
@@ -0,0 +1,159 @@
+package anqorithm.stocks.alert;
+
+import anqorithm.stocks.tick.Tick;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * A user's request to be notified once a symbol trades at or beyond a threshold price.
+ * An alert fires at most once; the fired copy carries the price and time that triggered it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class PriceAlert {
+
+    public enum Direction {
+        /** Fires on the first price at or above the threshold */
+        ABOVE,
+        /** Fires on the first price at or below the threshold */
+        BELOW
+    }
+
+    private final long id;
+    private final String username;
+    private final String symbol;
+    private final Direction direction;
+    private final long scaledThreshold;
+    private final long createdAt;
+    private final Long firedAt;
+    private final Long scaledFiredPrice;
+
+    public PriceAlert(long id, String username, String symbol, Direction direction, BigDecimal threshold,
+                      long createdAt) {
+        this(id, username, symbol, direction, Tick.toScaled(threshold), createdAt, null, null);
+    }
+
+    private PriceAlert(long id, String username, String symbol, Direction direction, long scaledThreshold,
+                       long createdAt, Long firedAt, Long scaledFiredPrice) {
+        this.id = id;
+        this.username = username;
+        this.symbol = symbol;
+        this.direction = Objects.requireNonNull(direction, "direction");
+        this.scaledThreshold = scaledThreshold;
+        this.createdAt = createdAt;
+        this.firedAt = firedAt;
+        this.scaledFiredPrice = scaledFiredPrice;
+    }
+
+    /**
+     * Whether a price, scaled as by {@link Tick#toScaled}, satisfies this alert
+     */
+    public boolean isTriggeredBy(long scaledPrice) {
+        return direction == Direction.ABOVE ? scaledPrice >= scaledThreshold : scaledPrice <= scaledThreshold;
+    }
+
+    /**
+     * A copy of this alert fired by the given price at the given time
+     */
+    public PriceAlert fire(long scaledPrice, long timestamp) {
+        return new PriceAlert(id, username, symbol, direction, scaledThreshold, createdAt, timestamp, scaledPrice);
+    }
+
+    /**
+     * This alert as {@code id,direction,threshold,createdAt,firedAt,firedPrice,symbol,username}, with prices
+     * scaled, the fired fields empty while active, and the symbol and username URL-encoded
+     */
+    public String toPayload() {
+        return id + "," + direction + "," + scaledThreshold + "," + createdAt + "," +
+            (firedAt != null ? firedAt : "") + "," + (scaledFiredPrice != null ? scaledFiredPrice : "") + "," +
+            URLEncoder.encode(symbol, StandardCharsets.UTF_8) + "," + URLEncoder.encode(username, StandardCharsets.UTF_8);
+    }
+
+    public static PriceAlert parse(String payload) {
+        String[] parts = payload.split(",", -1);
+        if (parts.length != 8 || parts[4].isEmpty() != parts[5].isEmpty()) {
+            throw new IllegalArgumentException("Malformed price alert: " + payload);
+        }
+        try {
+            return new PriceAlert(Long.parseLong(parts[0]), URLDecoder.decode(parts[7], StandardCharsets.UTF_8),
+                URLDecoder.decode(parts[6], StandardCharsets.UTF_8), Direction.valueOf(parts[1]),
+                Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                parts[4].isEmpty() ? null : Long.valueOf(parts[4]), parts[5].isEmpty() ? null : Long.valueOf(parts[5]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed price alert: " + payload, e);
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getUsername() {
+        return username;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public BigDecimal getThreshold() {
+        return Tick.fromScaled(scaledThreshold);
+    }
+
+    @JsonIgnore
+    public long getScaledThreshold() {
+        return scaledThreshold;
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    public ZonedDateTime getCreatedAt() {
+        return toDateTime(createdAt);
+    }
+
+    public boolean isFired() {
+        return firedAt != null;
+    }
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    public ZonedDateTime getFiredAt() {
+        return firedAt != null ? toDateTime(firedAt) : null;
+    }
+
+    public BigDecimal getFiredPrice() {
+        return scaledFiredPrice != null ? Tick.fromScaled(scaledFiredPrice) : null;
+    }
+
+    @JsonIgnore
+    public long getCreatedAtMillis() {
+        return createdAt;
+    }
+
+    @JsonIgnore
+    public Long getFiredAtMillis() {
+        return firedAt;
+    }
+
+    private static ZonedDateTime toDateTime(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC);
+    }
+
+    @Override
+    public String toString() {
+        return "PriceAlert{id=" + id + ", symbol=" + symbol + ", direction=" + direction +
+            ", threshold=" + getThreshold() + (firedAt != null ? ", firedPrice=" + getFiredPrice() : "") + "}";
+    }
+}
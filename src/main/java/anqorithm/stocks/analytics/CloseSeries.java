@@ -0,0 +1,55 @@
+package anqorithm.stocks.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One symbol's daily closes in ascending day order, held in primitive arrays
+ */
+public final class CloseSeries {
+
+    private final String symbol;
+    private int[] days = new int[64];
+    private double[] closes = new double[64];
+    private int size;
+
+    public CloseSeries(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Append a close; days must be added in ascending order and closes must be positive
+     */
+    public void add(LocalDate day, double close) {
+        int epochDay = Math.toIntExact(day.toEpochDay());
+        if (size > 0 && epochDay <= days[size - 1]) {
+            throw new IllegalArgumentException("Closes of " + symbol + " must be added in ascending day order");
+        }
+        if (!(close > 0)) {
+            throw new IllegalArgumentException("Closes of " + symbol + " must be positive");
+        }
+        if (size == days.length) {
+            days = Arrays.copyOf(days, size * 2);
+            closes = Arrays.copyOf(closes, size * 2);
+        }
+        days[size] = epochDay;
+        closes[size] = close;
+        size++;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int day(int index) {
+        return days[index];
+    }
+
+    double close(int index) {
+        return closes[index];
+    }
+}
@@ -0,0 +1,34 @@
+package anqorithm.stocks.analytics;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a body for every index of a range, halving the range until it is at most grain indexes long
+ */
+final class RangeTask extends RecursiveAction {
+
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final IntConsumer body;
+
+    RangeTask(int from, int to, int grain, IntConsumer body) {
+        this.from = from;
+        this.to = to;
+        this.grain = Math.max(1, grain);
+        this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+    }
+}
@@ -0,0 +1,40 @@
+package anqorithm.stocks.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Daily log returns of several symbols over the days on which all of them have a close. Row i holds the
+ * returns of the i-th series, and column k the return from the k-th to the (k+1)-th common day.
+ */
+public final class ReturnMatrix {
+
+    private final int[] days;
+    private final double[][] returns;
+
+    ReturnMatrix(int[] days, double[][] returns) {
+        this.days = days;
+        this.returns = returns;
+    }
+
+    public int getObservations() {
+        return Math.max(0, days.length - 1);
+    }
+
+    /**
+     * First common day, or null when there is none
+     */
+    public LocalDate getFrom() {
+        return days.length > 0 ? LocalDate.ofEpochDay(days[0]) : null;
+    }
+
+    /**
+     * Last common day, or null when there is none
+     */
+    public LocalDate getTo() {
+        return days.length > 0 ? LocalDate.ofEpochDay(days[days.length - 1]) : null;
+    }
+
+    double[][] returns() {
+        return returns;
+    }
+}
@@ -0,0 +1,223 @@
+package anqorithm.stocks.analytics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Correlations and betas of daily log returns, split across a fork/join pool.
+ * <p>
+ * For a correlation matrix every return series is standardized once (centered and scaled to unit norm), so
+ * each coefficient is a single dot product of two primitive arrays. The n(n+1)/2 dot products are split by
+ * row, pairing row k with row n-1-k so every task does the same amount of work. Betas are independent per
+ * symbol and are computed in one pass over the days the symbol shares with the benchmark.
+ */
+public final class ReturnStatistics {
+
+    // Floating point operations a task should do before it is worth forking
+    private static final long MIN_TASK_WORK = 1 << 16;
+
+    /**
+     * Log returns of each series between consecutive days on which every series has a close, in series order
+     */
+    public static ReturnMatrix alignedLogReturns(List<CloseSeries> series) {
+        int n = series.size();
+        int[] cursors = new int[n];
+        int[][] positions = new int[n][];
+        int shortest = Integer.MAX_VALUE;
+        for (int s = 0; s < n; s++) {
+            shortest = Math.min(shortest, series.get(s).size());
+        }
+        if (n == 0 || shortest == 0) {
+            return new ReturnMatrix(new int[0], new double[n][0]);
+        }
+        for (int s = 0; s < n; s++) {
+            positions[s] = new int[shortest];
+        }
+        int[] days = new int[shortest];
+        int common = 0;
+
+        // Advance every cursor to the largest current day until all agree or one series runs out
+        outer:
+        while (true) {
+            int day = Integer.MIN_VALUE;
+            for (int s = 0; s < n; s++) {
+                if (cursors[s] == series.get(s).size()) {
+                    break outer;
+                }
+                day = Math.max(day, series.get(s).day(cursors[s]));
+            }
+            boolean aligned = true;
+            for (int s = 0; s < n; s++) {
+                CloseSeries current = series.get(s);
+                while (cursors[s] < current.size() && current.day(cursors[s]) < day) {
+                    cursors[s]++;
+                }
+                if (cursors[s] == current.size()) {
+                    break outer;
+                }
+                aligned &= current.day(cursors[s]) == day;
+            }
+            if (aligned) {
+                days[common] = day;
+                for (int s = 0; s < n; s++) {
+                    positions[s][common] = cursors[s]++;
+                }
+                common++;
+            }
+        }
+
+        double[][] returns = new double[n][Math.max(0, common - 1)];
+        for (int s = 0; s < n; s++) {
+            CloseSeries current = series.get(s);
+            for (int k = 0; k + 1 < common; k++) {
+                returns[s][k] = Math.log(current.close(positions[s][k + 1]) / current.close(positions[s][k]));
+            }
+        }
+        return new ReturnMatrix(Arrays.copyOf(days, common), returns);
+    }
+
+    /**
+     * Pearson correlation of every pair of rows. A row without variance has NaN correlations, including with
+     * itself.
+     */
+    public static double[][] correlations(ReturnMatrix matrix, ForkJoinPool pool) {
+        double[][] returns = matrix.returns();
+        int n = returns.length;
+        double[][] standardized = new double[n][];
+        for (int i = 0; i < n; i++) {
+            standardized[i] = standardize(returns[i]);
+        }
+
+        double[][] result = new double[n][n];
+        long rowWork = Math.max(1L, (long) n * matrix.getObservations());
+        int grain = (int) Math.max(1L, MIN_TASK_WORK / rowWork);
+        // Row i fills the cells (i, j) and (j, i) for j >= i, so no two tasks write the same cell
+        pool.invoke(new RangeTask(0, (n + 1) / 2, grain, k -> {
+            correlateRow(standardized, k, result);
+            if (n - 1 - k != k) {
+                correlateRow(standardized, n - 1 - k, result);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Beta of each series against the benchmark, NaN where fewer than minObservations returns overlap
+     */
+    public static double[] betas(List<CloseSeries> series, CloseSeries benchmark, int minObservations,
+                                 ForkJoinPool pool) {
+        double[] result = new double[series.size()];
+        // Each beta is one merge over roughly the benchmark's days
+        int grain = (int) Math.max(1L, MIN_TASK_WORK / Math.max(1, benchmark.size()));
+        pool.invoke(new RangeTask(0, series.size(), grain,
+            i -> result[i] = beta(series.get(i), benchmark, minObservations)));
+        return result;
+    }
+
+    /**
+     * Covariance of the series' log returns with the benchmark's over their variance, using the returns
+     * between consecutive days both have a close on. NaN with fewer than minObservations returns or a flat
+     * benchmark.
+     */
+    public static double beta(CloseSeries series, CloseSeries benchmark, int minObservations) {
+        int i = 0;
+        int j = 0;
+        double previousClose = Double.NaN;
+        double previousBenchmark = Double.NaN;
+        long n = 0;
+        double meanX = 0;
+        double meanY = 0;
+        double coMoment = 0;
+        double moment = 0;
+        while (i < series.size() && j < benchmark.size()) {
+            int day = series.day(i);
+            int benchmarkDay = benchmark.day(j);
+            if (day < benchmarkDay) {
+                i++;
+            } else if (day > benchmarkDay) {
+                j++;
+            } else {
+                double close = series.close(i++);
+                double benchmarkClose = benchmark.close(j++);
+                if (!Double.isNaN(previousClose)) {
+                    // Welford's update of the means and co-moments, stable over long windows
+                    double x = Math.log(close / previousClose);
+                    double y = Math.log(benchmarkClose / previousBenchmark);
+                    n++;
+                    double dx = x - meanX;
+                    meanX += dx / n;
+                    double dy = y - meanY;
+                    meanY += dy / n;
+                    coMoment += dx * (y - meanY);
+                    moment += dy * (y - meanY);
+                }
+                previousClose = close;
+                previousBenchmark = benchmarkClose;
+            }
+        }
+        return n >= minObservations && moment > 0 ? coMoment / moment : Double.NaN;
+    }
+
+    private static void correlateRow(double[][] standardized, int i, double[][] result) {
+        double[] row = standardized[i];
+        for (int j = i; j < standardized.length; j++) {
+            double correlation = row != null && standardized[j] != null
+                ? Math.max(-1, Math.min(1, dot(row, standardized[j]))) : Double.NaN;
+            result[i][j] = correlation;
+            result[j][i] = correlation;
+        }
+    }
+
+    /**
+     * The returns centered on their mean and scaled to unit norm, or null when they have no variance
+     */
+    static double[] standardize(double[] returns) {
+        int m = returns.length;
+        double sum = 0;
+        for (double value : returns) {
+            sum += value;
+        }
+        double mean = m > 0 ? sum / m : 0;
+        double[] result = new double[m];
+        double squares = 0;
+        for (int k = 0; k < m; k++) {
+            result[k] = returns[k] - mean;
+            squares += result[k] * result[k];
+        }
+        if (!(squares > 0)) {
+            return null;
+        }
+        double scale = 1 / Math.sqrt(squares);
+        for (int k = 0; k < m; k++) {
+            result[k] *= scale;
+        }
+        return result;
+    }
+
+    /**
+     * Dot product with four independent accumulators, so the additions do not wait on each other
+     */
+    static double dot(double[] a, double[] b) {
+        int m = Math.min(a.length, b.length);
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int k = 0;
+        for (; k + 3 < m; k += 4) {
+            s0 += a[k] * b[k];
+            s1 += a[k + 1] * b[k + 1];
+            s2 += a[k + 2] * b[k + 2];
+            s3 += a[k + 3] * b[k + 3];
+        }
+        for (; k < m; k++) {
+            s0 += a[k] * b[k];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private ReturnStatistics() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
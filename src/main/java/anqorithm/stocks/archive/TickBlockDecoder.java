@@ -0,0 +1,86 @@
+package anqorithm.stocks.archive;
+
+/**
+ * Streaming cursor over a block written by {@link TickBlockEncoder}.
+ * Ticks are decoded one at a time, so reading a block never materializes more than the current tick.
+ * <pre>
+ * TickBlockDecoder decoder = new TickBlockDecoder(block);
+ * while (decoder.next()) {
+ *     use(decoder.timestamp(), decoder.scaledPrice(), decoder.volume());
+ * }
+ * </pre>
+ */
+public final class TickBlockDecoder {
+
+    private final int count;
+    private final VarInts.Reader timestamps;
+    private final VarInts.Reader prices;
+    private final VarInts.Reader volumes;
+
+    private int index = -1;
+    private long timestamp;
+    private long delta;
+    private long scaledPrice;
+    private long volume;
+
+    public TickBlockDecoder(byte[] block) {
+        if (block.length == 0 || block[0] != TickBlockEncoder.VERSION) {
+            throw new IllegalArgumentException("Unsupported tick block version");
+        }
+        VarInts.Reader header = new VarInts.Reader(block, 1, block.length);
+        this.count = (int) header.readUnsigned();
+        int timestampBytes = (int) header.readUnsigned();
+        int priceBytes = (int) header.readUnsigned();
+        int timestampStart = header.position();
+        int priceStart = timestampStart + timestampBytes;
+        int volumeStart = priceStart + priceBytes;
+        this.timestamps = new VarInts.Reader(block, timestampStart, priceStart);
+        this.prices = new VarInts.Reader(block, priceStart, volumeStart);
+        this.volumes = new VarInts.Reader(block, volumeStart, block.length);
+    }
+
+    /**
+     * Advance to the next tick, returning false once the block is exhausted
+     */
+    public boolean next() {
+        if (index + 1 >= count) {
+            return false;
+        }
+        index++;
+        if (index == 0) {
+            timestamp = timestamps.readSigned();
+            scaledPrice = prices.readSigned();
+            volume = volumes.readSigned();
+        } else {
+            delta += timestamps.readSigned();
+            timestamp += delta;
+            scaledPrice += prices.readSigned();
+            volume += volumes.readSigned();
+        }
+        return true;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public long scaledPrice() {
+        return scaledPrice;
+    }
+
+    public long volume() {
+        return volume;
+    }
+
+    /**
+     * False if the tick was recorded without a volume, in which case {@link #volume()} is
+     * {@link TickBlockEncoder#NO_VOLUME}
+     */
+    public boolean hasVolume() {
+        return volume != TickBlockEncoder.NO_VOLUME;
+    }
+}
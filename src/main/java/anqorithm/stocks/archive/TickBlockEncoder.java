@@ -0,0 +1,74 @@
+package anqorithm.stocks.archive;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Encodes one symbol's ticks into a compact columnar block for cold storage.
+ * <p>
+ * Timestamps are stored as delta-of-deltas, so a steady tick rate costs one byte per tick;
+ * scaled prices and cumulative volumes are stored as deltas from the previous tick.
+ * Every value is a zigzag varint, and each column is laid out contiguously:
+ * <pre>
+ * version (1 byte) | count | timestamp column length | price column length | timestamps | prices | volumes
+ * </pre>
+ * Ticks must be added in timestamp order. A tick recorded without a volume is added with {@link #NO_VOLUME};
+ * real volumes are never negative.
+ */
+public final class TickBlockEncoder {
+
+    static final int VERSION = 1;
+
+    public static final long NO_VOLUME = -1;
+
+    private final ByteArrayOutputStream timestamps = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream prices = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream volumes = new ByteArrayOutputStream();
+
+    private int count;
+    private long lastTimestamp;
+    private long lastDelta;
+    private long lastPrice;
+    private long lastVolume;
+
+    public void add(long timestamp, long scaledPrice, long volume) {
+        if (count > 0 && timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Ticks must be added in timestamp order");
+        }
+        if (count == 0) {
+            VarInts.writeSigned(timestamps, timestamp);
+            VarInts.writeSigned(prices, scaledPrice);
+            VarInts.writeSigned(volumes, volume);
+        } else {
+            long delta = timestamp - lastTimestamp;
+            VarInts.writeSigned(timestamps, delta - lastDelta);
+            VarInts.writeSigned(prices, scaledPrice - lastPrice);
+            VarInts.writeSigned(volumes, volume - lastVolume);
+            lastDelta = delta;
+        }
+        lastTimestamp = timestamp;
+        lastPrice = scaledPrice;
+        lastVolume = volume;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream block = new ByteArrayOutputStream(
+            16 + timestamps.size() + prices.size() + volumes.size());
+        block.write(VERSION);
+        VarInts.writeUnsigned(block, count);
+        VarInts.writeUnsigned(block, timestamps.size());
+        VarInts.writeUnsigned(block, prices.size());
+        block.writeBytes(timestamps.toByteArray());
+        block.writeBytes(prices.toByteArray());
+        block.writeBytes(volumes.toByteArray());
+        return block.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package anqorithm.stocks.archive;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * LEB128 varints with zigzag encoding for signed values, so small negative deltas stay small
+ */
+final class VarInts {
+
+    private VarInts() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Sequential reader over a region of a block
+     */
+    static final class Reader {
+
+        private final byte[] bytes;
+        private final int end;
+        private int position;
+
+        Reader(byte[] bytes, int start, int end) {
+            if (start < 0 || end > bytes.length || start > end) {
+                throw new IllegalArgumentException("Corrupt tick block: column out of bounds");
+            }
+            this.bytes = bytes;
+            this.position = start;
+            this.end = end;
+        }
+
+        long readUnsigned() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= end) {
+                    throw new IllegalArgumentException("Corrupt tick block: truncated varint");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Corrupt tick block: varint too long");
+        }
+
+        long readSigned() {
+            long encoded = readUnsigned();
+            return (encoded >>> 1) ^ -(encoded & 1);
+        }
+
+        int position() {
+            return position;
+        }
+    }
+}
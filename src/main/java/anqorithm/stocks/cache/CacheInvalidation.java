@@ -0,0 +1,112 @@
+package anqorithm.stocks.cache;
+
+import anqorithm.stocks.entity.Stock;
+
+import java.util.Objects;
+
+/**
+ * Compact description of a committed stock change, sent between instances as
+ * {@code kind,id,version,symbol}. The version is empty when the writer does not know it.
+ */
+public final class CacheInvalidation {
+
+    public enum Kind {
+        /**
+         * Price or volume changed; sector and industry lists are unaffected
+         */
+        UPDATE('U'),
+
+        /**
+         * Created or edited; sector and industry lists may have changed
+         */
+        MODIFY('M'),
+
+        /**
+         * Deleted
+         */
+        DELETE('D');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        static Kind fromCode(char code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown cache invalidation kind: " + code);
+        }
+    }
+
+    private final Kind kind;
+    private final Long id;
+    private final Long version;
+    private final String symbol;
+
+    public CacheInvalidation(Kind kind, Long id, Long version, String symbol) {
+        this.kind = kind;
+        this.id = id;
+        this.version = version;
+        this.symbol = symbol;
+    }
+
+    public static CacheInvalidation of(Kind kind, Stock stock) {
+        return new CacheInvalidation(kind, stock.getId(), stock.getVersion(), stock.getSymbol());
+    }
+
+    public String toPayload() {
+        return kind.code + "," + (id != null ? id : "") + "," + (version != null ? version : "") + ","
+            + (symbol != null ? symbol : "");
+    }
+
+    public static CacheInvalidation parse(String payload) {
+        String[] parts = payload.split(",", 4);
+        if (parts.length != 4 || parts[0].length() != 1) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + payload);
+        }
+        return new CacheInvalidation(
+            Kind.fromCode(parts[0].charAt(0)),
+            parts[1].isEmpty() ? null : Long.valueOf(parts[1]),
+            parts[2].isEmpty() ? null : Long.valueOf(parts[2]),
+            parts[3].isEmpty() ? null : parts[3]
+        );
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CacheInvalidation that)) return false;
+        return kind == that.kind && Objects.equals(id, that.id) && Objects.equals(version, that.version)
+            && Objects.equals(symbol, that.symbol);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, id, version, symbol);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" + toPayload() + "}";
+    }
+}
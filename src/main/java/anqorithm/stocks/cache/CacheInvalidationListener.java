@@ -0,0 +1,265 @@
+package anqorithm.stocks.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies {@link CacheInvalidation}s from every instance, including this one, to the local caches.
+ * <p>
+ * A background thread holds a dedicated connection (outside the pool) that LISTENs on
+ * {@link CacheInvalidationPublisher#CHANNEL}. Notifications that arrive together are applied as one batch
+ * with duplicate keys collapsed. The last version seen per stock is tracked: a version that skips ahead means
+ * a notification was lost, and since anything else may have been lost with it, all stock caches are cleared.
+ * The same happens on every (re)connect, because notifications sent while disconnected are gone.
+ * <p>
+ * The same connection also LISTENs on the channel of every {@link NotificationHandler} bean and hands each
+ * its payloads.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    static final String STOCKS_CACHE = "stocks";
+    static final String SECTORS_CACHE = "sectors";
+    static final String INDUSTRIES_CACHE = "industries";
+
+    private final CacheManager cacheManager;
+    private final CacheInvalidationPublisher publisher;
+    private final ObjectProvider<NotificationHandler> handlerProvider;
+    private final DataSourceProperties dataSourceProperties;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final Counter received;
+    private final Counter gaps;
+
+    // Only touched by the listener thread, or by tests through apply()
+    private final Map<Long, Long> lastVersions = new HashMap<>();
+
+    private volatile Map<String, NotificationHandler> handlers = Map.of();
+    private volatile boolean running;
+    private Thread thread;
+
+    @Autowired
+    public CacheInvalidationListener(CacheManager cacheManager, CacheInvalidationPublisher publisher,
+                                     ObjectProvider<NotificationHandler> handlerProvider,
+                                     DataSourceProperties dataSourceProperties,
+                                     @Value("${stocks.cache.invalidation.poll-timeout-ms:500}") int pollTimeoutMillis,
+                                     @Value("${stocks.cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMillis,
+                                     MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.publisher = publisher;
+        this.handlerProvider = handlerProvider;
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.received = Counter.builder("stocks.cache.invalidations")
+            .description("Cache invalidation notifications received from all instances")
+            .register(meterRegistry);
+        this.gaps = Counter.builder("stocks.cache.invalidation.gaps")
+            .description("Lost invalidations detected by version gaps")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        Map<String, NotificationHandler> byChannel = new HashMap<>();
+        handlerProvider.orderedStream().forEach(handler -> byChannel.put(handler.getChannel(), handler));
+        handlers = byChannel;
+        if (!publisher.isActive()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CacheInvalidationPublisher.CHANNEL);
+                    for (String channel : handlers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                logger.info("Listening for cache invalidations on {}", CacheInvalidationPublisher.CHANNEL);
+                clearAll();
+                handlers.forEach((channel, handler) -> listening(channel, handler));
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null && notifications.length > 0) {
+                        dispatch(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation listener disconnected, retrying in {} ms: {}",
+                    reconnectDelayMillis, e.getMessage());
+                sleep();
+            }
+        }
+    }
+
+    private void dispatch(PGNotification[] notifications) {
+        List<CacheInvalidation> batch = new ArrayList<>(notifications.length);
+        Map<String, List<String>> payloads = new LinkedHashMap<>();
+        for (PGNotification notification : notifications) {
+            if (!CacheInvalidationPublisher.CHANNEL.equals(notification.getName())) {
+                payloads.computeIfAbsent(notification.getName(), channel -> new ArrayList<>())
+                    .add(notification.getParameter());
+                continue;
+            }
+            try {
+                batch.add(CacheInvalidation.parse(notification.getParameter()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring cache invalidation: {}", e.getMessage());
+            }
+        }
+        if (!batch.isEmpty()) {
+            apply(batch);
+        }
+        payloads.forEach(this::handle);
+    }
+
+    private void listening(String channel, NotificationHandler handler) {
+        try {
+            handler.onListening();
+        } catch (RuntimeException e) {
+            logger.error("Handler of {} failed to resume: {}", channel, e.getMessage());
+        }
+    }
+
+    /**
+     * Hand the payloads to the channel's handler; a failing handler does not stop the listener
+     */
+    void handle(String channel, List<String> payloads) {
+        NotificationHandler handler = handlers.get(channel);
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.onNotifications(payloads);
+        } catch (RuntimeException e) {
+            logger.error("Handler of {} failed on {} notifications: {}", channel, payloads.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Evict everything the batch touches, collapsing repeated keys. Returns false if a gap forced a full clear.
+     */
+    boolean apply(List<CacheInvalidation> batch) {
+        received.increment(batch.size());
+        Set<Object> stockKeys = new LinkedHashSet<>();
+        boolean listsChanged = false;
+        boolean gap = false;
+
+        for (CacheInvalidation invalidation : batch) {
+            if (invalidation.getId() != null) {
+                stockKeys.add(invalidation.getId());
+                gap |= trackVersion(invalidation);
+            }
+            if (invalidation.getSymbol() != null) {
+                stockKeys.add(invalidation.getSymbol());
+            }
+            listsChanged |= invalidation.getKind() != CacheInvalidation.Kind.UPDATE;
+        }
+
+        if (gap) {
+            gaps.increment();
+            logger.warn("Cache invalidation gap detected, clearing all stock caches");
+            clearAll();
+            return false;
+        }
+        Cache stocks = cacheManager.getCache(STOCKS_CACHE);
+        if (stocks != null) {
+            stockKeys.forEach(stocks::evict);
+        }
+        if (listsChanged) {
+            clear(SECTORS_CACHE);
+            clear(INDUSTRIES_CACHE);
+        }
+        return true;
+    }
+
+    private boolean trackVersion(CacheInvalidation invalidation) {
+        Long id = invalidation.getId();
+        if (invalidation.getKind() == CacheInvalidation.Kind.DELETE || invalidation.getVersion() == null) {
+            // Unknown version: stop tracking until the next versioned message
+            lastVersions.remove(id);
+            return false;
+        }
+        Long last = lastVersions.get(id);
+        long version = invalidation.getVersion();
+        if (last == null || version > last) {
+            lastVersions.put(id, version);
+        }
+        return last != null && version > last + 1;
+    }
+
+    private void clearAll() {
+        lastVersions.clear();
+        clear(STOCKS_CACHE);
+        clear(SECTORS_CACHE);
+        clear(INDUSTRIES_CACHE);
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
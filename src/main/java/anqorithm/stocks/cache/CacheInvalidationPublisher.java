@@ -0,0 +1,105 @@
+package anqorithm.stocks.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Broadcasts {@link CacheInvalidation}s, and the messages of any {@link NotificationHandler}, to every instance
+ * through PostgreSQL NOTIFY.
+ * <p>
+ * NOTIFY is transactional: issued inside a write transaction, the message is delivered only if and when
+ * that transaction commits, so listeners never evict ahead of the data they will reload. On any other
+ * database, or with invalidation disabled, a {@link CacheInvalidation} is applied to this instance's caches
+ * instead, now and again after commit, and other messages are dropped.
+ */
+@Component
+public class CacheInvalidationPublisher {
+
+    public static final String CHANNEL = "stock_cache_invalidation";
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private volatile Boolean postgres;
+
+    @Autowired
+    public CacheInvalidationPublisher(JdbcTemplate jdbcTemplate, CacheManager cacheManager,
+                                      @Value("${stocks.cache.invalidation.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+    }
+
+    public void publish(CacheInvalidation invalidation) {
+        if (!isActive()) {
+            evictLocally(invalidation);
+            return;
+        }
+        publish(CHANNEL, invalidation.toPayload());
+    }
+
+    public void publish(String channel, String payload) {
+        if (!isActive()) {
+            return;
+        }
+        jdbcTemplate.queryForRowSet(NOTIFY, channel, payload);
+    }
+
+    /**
+     * Whether messages reach every instance through NOTIFY
+     */
+    public boolean isActive() {
+        if (!enabled) {
+            return false;
+        }
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        return postgres;
+    }
+
+    private void evictLocally(CacheInvalidation invalidation) {
+        evict(invalidation);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(invalidation);
+                }
+            });
+        }
+    }
+
+    private void evict(CacheInvalidation invalidation) {
+        Cache stocks = cacheManager.getCache(CacheInvalidationListener.STOCKS_CACHE);
+        if (stocks != null) {
+            if (invalidation.getId() != null) {
+                stocks.evict(invalidation.getId());
+            }
+            if (invalidation.getSymbol() != null) {
+                stocks.evict(invalidation.getSymbol());
+            }
+        }
+        if (invalidation.getKind() != CacheInvalidation.Kind.UPDATE) {
+            clear(CacheInvalidationListener.SECTORS_CACHE);
+            clear(CacheInvalidationListener.INDUSTRIES_CACHE);
+        }
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package anqorithm.stocks.cache;
+
+import java.util.List;
+
+/**
+ * Receives the payloads sent with {@link CacheInvalidationPublisher#publish(String, String)} on one channel,
+ * from every instance including this one. Called on the {@link CacheInvalidationListener} thread with the
+ * payloads that arrived together, in order.
+ */
+public interface NotificationHandler {
+
+    String getChannel();
+
+    void onNotifications(List<String> payloads);
+
+    /**
+     * Called each time the listener (re)connects; whatever was sent while it was disconnected is lost
+     */
+    default void onListening() {
+    }
+}
@@ -0,0 +1,80 @@
+package anqorithm.stocks.candle;
+
+/**
+ * Mutable OHLCV bar with prices scaled by {@link anqorithm.stocks.tick.Tick#PRICE_SCALE}
+ */
+public final class Bar {
+
+    long start;
+    long open;
+    long high;
+    long low;
+    long close;
+    long volume;
+
+    Bar(long start, long open, long high, long low, long close, long volume) {
+        this.start = start;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    static Bar opening(long start, long price, long volume) {
+        return new Bar(start, price, price, price, price, volume);
+    }
+
+    void update(long price, long volumeDelta) {
+        if (price > high) {
+            high = price;
+        }
+        if (price < low) {
+            low = price;
+        }
+        close = price;
+        volume += volumeDelta;
+    }
+
+    /**
+     * Fold a later bar into this one
+     */
+    void merge(Bar later) {
+        if (later.high > high) {
+            high = later.high;
+        }
+        if (later.low < low) {
+            low = later.low;
+        }
+        close = later.close;
+        volume += later.volume;
+    }
+
+    Bar copy() {
+        return new Bar(start, open, high, low, close, volume);
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getOpen() {
+        return open;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+}
@@ -0,0 +1,92 @@
+package anqorithm.stocks.candle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental OHLCV aggregation for one symbol across every native {@link Resolution}.
+ * <p>
+ * Ticks carry the stock's cumulative session volume, so each bar's volume is the increase in
+ * cumulative volume observed while it was open. A drop in cumulative volume is treated as a
+ * session reset and the new value counts as fresh volume.
+ */
+public class CandleAggregator {
+
+    private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+    private final Bar[] openBars = new Bar[RESOLUTIONS.length];
+    private final CandleStore[] stores = new CandleStore[RESOLUTIONS.length];
+    private long lastCumulativeVolume = -1;
+
+    public CandleAggregator(int maxBarsPerResolution) {
+        for (int i = 0; i < RESOLUTIONS.length; i++) {
+            stores[i] = new CandleStore(maxBarsPerResolution);
+        }
+    }
+
+    public synchronized void onTick(long timestamp, long scaledPrice, long cumulativeVolume) {
+        long volumeDelta = volumeDelta(cumulativeVolume);
+        for (int i = 0; i < RESOLUTIONS.length; i++) {
+            long start = RESOLUTIONS[i].bucketStart(timestamp);
+            Bar open = openBars[i];
+            if (open == null) {
+                openBars[i] = Bar.opening(start, scaledPrice, volumeDelta);
+            } else if (start > open.start) {
+                stores[i].append(open);
+                openBars[i] = Bar.opening(start, scaledPrice, volumeDelta);
+            } else {
+                // Ticks that arrive late for an already rolled bucket are folded into the open bar
+                open.update(scaledPrice, volumeDelta);
+            }
+        }
+    }
+
+    /**
+     * Bars of the given length starting in [from, to), including the currently open bar
+     */
+    public synchronized List<Bar> candles(long bucketMillis, long from, long to) {
+        Resolution source = Resolution.nativeSourceFor(bucketMillis);
+        int index = source.ordinal();
+        long alignedFrom = Resolution.bucketStart(from, bucketMillis);
+
+        List<Bar> bars = stores[index].range(alignedFrom, to);
+        Bar open = openBars[index];
+        if (open != null && open.start >= alignedFrom && open.start < to) {
+            bars.add(open.copy());
+        }
+        return bucketMillis == source.getMillis() ? bars : downsample(bars, bucketMillis);
+    }
+
+    public synchronized long memoryBytes() {
+        long bytes = 0;
+        for (CandleStore store : stores) {
+            bytes += store.memoryBytes();
+        }
+        return bytes;
+    }
+
+    static List<Bar> downsample(List<Bar> bars, long bucketMillis) {
+        List<Bar> merged = new ArrayList<>();
+        Bar current = null;
+        for (Bar bar : bars) {
+            long start = Resolution.bucketStart(bar.start, bucketMillis);
+            if (current == null || start != current.start) {
+                current = bar.copy();
+                current.start = start;
+                merged.add(current);
+            } else {
+                current.merge(bar);
+            }
+        }
+        return merged;
+    }
+
+    private long volumeDelta(long cumulativeVolume) {
+        long previous = lastCumulativeVolume;
+        lastCumulativeVolume = cumulativeVolume;
+        if (previous < 0) {
+            return 0;
+        }
+        return cumulativeVolume >= previous ? cumulativeVolume - previous : cumulativeVolume;
+    }
+}
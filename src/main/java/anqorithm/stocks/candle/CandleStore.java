@@ -0,0 +1,115 @@
+package anqorithm.stocks.candle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact column store of completed bars for one symbol and resolution.
+ * Bars are appended in time order into parallel long arrays that grow on demand up to
+ * {@code maxBars}; beyond that the oldest bars are overwritten. Not thread-safe.
+ */
+class CandleStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxBars;
+    private long[] starts;
+    private long[] opens;
+    private long[] highs;
+    private long[] lows;
+    private long[] closes;
+    private long[] volumes;
+    private int head;
+    private int size;
+
+    CandleStore(int maxBars) {
+        if (maxBars < 1) {
+            throw new IllegalArgumentException("maxBars must be positive: " + maxBars);
+        }
+        this.maxBars = maxBars;
+        int capacity = Math.min(INITIAL_CAPACITY, maxBars);
+        this.starts = new long[capacity];
+        this.opens = new long[capacity];
+        this.highs = new long[capacity];
+        this.lows = new long[capacity];
+        this.closes = new long[capacity];
+        this.volumes = new long[capacity];
+    }
+
+    void append(Bar bar) {
+        if (size == starts.length && size < maxBars) {
+            grow();
+        }
+        int index;
+        if (size < starts.length) {
+            index = (head + size) % starts.length;
+            size++;
+        } else {
+            index = head;
+            head = (head + 1) % starts.length;
+        }
+        starts[index] = bar.start;
+        opens[index] = bar.open;
+        highs[index] = bar.high;
+        lows[index] = bar.low;
+        closes[index] = bar.close;
+        volumes[index] = bar.volume;
+    }
+
+    /**
+     * Bars whose start lies in [from, to), oldest first
+     */
+    List<Bar> range(long from, long to) {
+        List<Bar> bars = new ArrayList<>();
+        for (int i = firstIndexAtOrAfter(from); i < size; i++) {
+            int index = (head + i) % starts.length;
+            if (starts[index] >= to) {
+                break;
+            }
+            bars.add(new Bar(starts[index], opens[index], highs[index], lows[index], closes[index], volumes[index]));
+        }
+        return bars;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return 6L * Long.BYTES * starts.length;
+    }
+
+    private int firstIndexAtOrAfter(long from) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[(head + mid) % starts.length] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void grow() {
+        int capacity = Math.min(starts.length * 2, maxBars);
+        starts = unwrap(starts, capacity);
+        opens = unwrap(opens, capacity);
+        highs = unwrap(highs, capacity);
+        lows = unwrap(lows, capacity);
+        closes = unwrap(closes, capacity);
+        volumes = unwrap(volumes, capacity);
+        head = 0;
+    }
+
+    private long[] unwrap(long[] column, int capacity) {
+        long[] grown = Arrays.copyOfRange(column, head, head + capacity);
+        if (head > 0) {
+            System.arraycopy(column, 0, grown, column.length - head, head);
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,58 @@
+package anqorithm.stocks.candle;
+
+import java.time.Duration;
+
+/**
+ * Bar resolutions that are aggregated natively from ticks. Any other resolution that is a whole
+ * multiple of {@link #M1} is served by downsampling the coarsest native resolution that divides it.
+ */
+public enum Resolution {
+
+    M1("1m", Duration.ofMinutes(1)),
+    M5("5m", Duration.ofMinutes(5)),
+    H1("1h", Duration.ofHours(1)),
+    D1("1d", Duration.ofDays(1));
+
+    private final String label;
+    private final long millis;
+
+    Resolution(String label, Duration duration) {
+        this.label = label;
+        this.millis = duration.toMillis();
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Start of the UTC-aligned bucket containing the given epoch millisecond
+     */
+    public long bucketStart(long timestamp) {
+        return bucketStart(timestamp, millis);
+    }
+
+    public static long bucketStart(long timestamp, long bucketMillis) {
+        return timestamp - Math.floorMod(timestamp, bucketMillis);
+    }
+
+    /**
+     * Coarsest native resolution whose bars can be merged into bars of the given length
+     */
+    public static Resolution nativeSourceFor(long bucketMillis) {
+        if (bucketMillis <= 0 || bucketMillis % M1.millis != 0) {
+            throw new IllegalArgumentException("Resolution must be a positive whole number of minutes");
+        }
+        Resolution source = M1;
+        for (Resolution resolution : values()) {
+            if (bucketMillis % resolution.millis == 0) {
+                source = resolution;
+            }
+        }
+        return source;
+    }
+}
@@ -0,0 +1,71 @@
+package anqorithm.stocks.codec;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Compact binary encoding of a list of stocks, served for {@code Accept: application/x-stocks-binary}.
+ * <p>
+ * Integers are LEB128 varints, signed ones zigzag-encoded first. Strings are a varint byte length
+ * followed by UTF-8. Sectors and industries are written once in a shared dictionary and referenced by
+ * index. Decimals are scaled longs at the scale of their column, and timestamps are epoch microseconds.
+ * <pre>
+ * list:  version (1 byte) | count | dictionary size | dictionary strings | stocks
+ * stock: presence bitmap | the present fields, in bit order
+ * </pre>
+ * <table>
+ *   <caption>Fields, by presence bit</caption>
+ *   <tr><th>Bit</th><th>Field</th><th>Encoding</th></tr>
+ *   <tr><td>0</td><td>id</td><td>signed varint</td></tr>
+ *   <tr><td>1</td><td>symbol</td><td>string</td></tr>
+ *   <tr><td>2</td><td>name</td><td>string</td></tr>
+ *   <tr><td>3</td><td>currentPrice</td><td>signed varint, scale 4</td></tr>
+ *   <tr><td>4</td><td>marketCap</td><td>signed varint</td></tr>
+ *   <tr><td>5</td><td>sector</td><td>dictionary index</td></tr>
+ *   <tr><td>6</td><td>industry</td><td>dictionary index</td></tr>
+ *   <tr><td>7</td><td>dividendYield</td><td>signed varint, scale 4</td></tr>
+ *   <tr><td>8</td><td>peRatio</td><td>signed varint, scale 2</td></tr>
+ *   <tr><td>9</td><td>eps</td><td>signed varint, scale 2</td></tr>
+ *   <tr><td>10</td><td>fiftyTwoWeekHigh</td><td>signed varint, scale 4</td></tr>
+ *   <tr><td>11</td><td>fiftyTwoWeekLow</td><td>signed varint, scale 4</td></tr>
+ *   <tr><td>12</td><td>volume</td><td>signed varint</td></tr>
+ *   <tr><td>13</td><td>averageVolume</td><td>signed varint</td></tr>
+ *   <tr><td>14</td><td>beta</td><td>signed varint, scale 4</td></tr>
+ *   <tr><td>15</td><td>createdAt</td><td>signed varint, epoch microseconds</td></tr>
+ *   <tr><td>16</td><td>updatedAt</td><td>signed varint, epoch microseconds</td></tr>
+ *   <tr><td>17</td><td>version</td><td>signed varint</td></tr>
+ * </table>
+ * Decimals with more fraction digits than their column are rounded half-up, as the database would store them.
+ */
+public final class StockBinaryFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-stocks-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    static final int VERSION = 1;
+
+    static final int ID = 0;
+    static final int SYMBOL = 1;
+    static final int NAME = 2;
+    static final int CURRENT_PRICE = 3;
+    static final int MARKET_CAP = 4;
+    static final int SECTOR = 5;
+    static final int INDUSTRY = 6;
+    static final int DIVIDEND_YIELD = 7;
+    static final int PE_RATIO = 8;
+    static final int EPS = 9;
+    static final int FIFTY_TWO_WEEK_HIGH = 10;
+    static final int FIFTY_TWO_WEEK_LOW = 11;
+    static final int VOLUME = 12;
+    static final int AVERAGE_VOLUME = 13;
+    static final int BETA = 14;
+    static final int CREATED_AT = 15;
+    static final int UPDATED_AT = 16;
+    static final int STOCK_VERSION = 17;
+
+    static final int PRICE_SCALE = 4;
+    static final int RATIO_SCALE = 2;
+
+    private StockBinaryFormat() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
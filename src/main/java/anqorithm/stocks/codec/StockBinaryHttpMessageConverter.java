@@ -0,0 +1,91 @@
+package anqorithm.stocks.codec;
+
+import anqorithm.stocks.dto.ProjectedStockList;
+import anqorithm.stocks.entity.Stock;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+
+/**
+ * Reads and writes {@code List<Stock>} bodies as {@link StockBinaryFormat#MEDIA_TYPE}.
+ * Registered after the JSON converter, so it is only chosen when a client asks for the binary type.
+ */
+public class StockBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<?>> {
+
+    public StockBinaryHttpMessageConverter() {
+        super(StockBinaryFormat.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return elementType(type) == Stock.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        // Field projections are declined by class, so content negotiation answers 406 or falls back to JSON
+        if (!supports(clazz) || ProjectedStockList.class.isAssignableFrom(clazz) || !canWrite(mediaType)) {
+            return false;
+        }
+        // List<?> endpoints may also return stocks; other elements are still checked when writing
+        Type element = type != null ? elementType(type) : null;
+        return element == null || element == Stock.class || element instanceof WildcardType;
+    }
+
+    @Override
+    protected void writeInternal(List<?> list, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        for (Object element : list) {
+            if (!(element instanceof Stock)) {
+                throw new HttpMessageNotWritableException(
+                    StockBinaryFormat.MEDIA_TYPE_VALUE + " only encodes whole stocks, not field projections");
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<Stock> stocks = (List<Stock>) list;
+        new StockBinaryWriter(outputMessage.getBody()).write(stocks);
+    }
+
+    @Override
+    public List<?> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return decode(inputMessage);
+    }
+
+    @Override
+    protected List<?> readInternal(Class<? extends List<?>> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return decode(inputMessage);
+    }
+
+    private static List<Stock> decode(HttpInputMessage inputMessage) throws IOException {
+        try {
+            return StockBinaryReader.decode(inputMessage.getBody().readAllBytes());
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    private static Type elementType(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw
+                && List.class.isAssignableFrom(raw)) {
+            return parameterized.getActualTypeArguments()[0];
+        }
+        return null;
+    }
+}
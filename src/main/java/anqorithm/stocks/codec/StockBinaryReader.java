@@ -0,0 +1,153 @@
+package anqorithm.stocks.codec;
+
+import anqorithm.stocks.entity.Stock;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static anqorithm.stocks.codec.StockBinaryFormat.*;
+
+/**
+ * Decodes a {@link StockBinaryFormat} payload back into stocks, for Java clients and for binary request bodies.
+ * Depends only on {@link Stock}, so clients can copy it alongside the entity.
+ * <pre>
+ * List&lt;Stock&gt; stocks = StockBinaryReader.decode(responseBytes);
+ * </pre>
+ * Malformed input is rejected with an {@link IllegalArgumentException}.
+ */
+public final class StockBinaryReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    private StockBinaryReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static List<Stock> decode(byte[] bytes) {
+        return new StockBinaryReader(bytes).readList();
+    }
+
+    private List<Stock> readList() {
+        if (bytes.length == 0 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported stock list version");
+        }
+        position = 1;
+        int count = readLength();
+        String[] dictionary = new String[checkedCount(readLength())];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString();
+        }
+
+        List<Stock> stocks = new ArrayList<>(checkedCount(count));
+        for (int i = 0; i < count; i++) {
+            stocks.add(readStock(dictionary));
+        }
+        if (position != bytes.length) {
+            throw new IllegalArgumentException("Corrupt stock list: trailing bytes");
+        }
+        return stocks;
+    }
+
+    /**
+     * Every dictionary entry and stock takes at least one byte, so a count beyond the remaining bytes is corrupt
+     */
+    private int checkedCount(int count) {
+        if (count > bytes.length - position) {
+            throw new IllegalArgumentException("Corrupt stock list: count exceeds payload");
+        }
+        return count;
+    }
+
+    private Stock readStock(String[] dictionary) {
+        long presence = readUnsigned();
+        Stock stock = new Stock();
+        stock.setVolume(null);
+        stock.setAverageVolume(null);
+        if (has(presence, ID)) stock.setId(readSigned());
+        if (has(presence, SYMBOL)) stock.setSymbol(readString());
+        if (has(presence, NAME)) stock.setName(readString());
+        if (has(presence, CURRENT_PRICE)) stock.setCurrentPrice(readDecimal(PRICE_SCALE));
+        if (has(presence, MARKET_CAP)) stock.setMarketCap(readSigned());
+        if (has(presence, SECTOR)) stock.setSector(readDictionary(dictionary));
+        if (has(presence, INDUSTRY)) stock.setIndustry(readDictionary(dictionary));
+        if (has(presence, DIVIDEND_YIELD)) stock.setDividendYield(readDecimal(PRICE_SCALE));
+        if (has(presence, PE_RATIO)) stock.setPeRatio(readDecimal(RATIO_SCALE));
+        if (has(presence, EPS)) stock.setEps(readDecimal(RATIO_SCALE));
+        if (has(presence, FIFTY_TWO_WEEK_HIGH)) stock.setFiftyTwoWeekHigh(readDecimal(PRICE_SCALE));
+        if (has(presence, FIFTY_TWO_WEEK_LOW)) stock.setFiftyTwoWeekLow(readDecimal(PRICE_SCALE));
+        if (has(presence, VOLUME)) stock.setVolume(readSigned());
+        if (has(presence, AVERAGE_VOLUME)) stock.setAverageVolume(readSigned());
+        if (has(presence, BETA)) stock.setBeta(readDecimal(PRICE_SCALE));
+        if (has(presence, CREATED_AT)) stock.setCreatedAt(readTimestamp());
+        if (has(presence, UPDATED_AT)) stock.setUpdatedAt(readTimestamp());
+        if (has(presence, STOCK_VERSION)) stock.setVersion(readSigned());
+        return stock;
+    }
+
+    private static boolean has(long presence, int bit) {
+        return (presence & (1L << bit)) != 0;
+    }
+
+    private String readDictionary(String[] dictionary) {
+        long index = readUnsigned();
+        if (index < 0 || index >= dictionary.length) {
+            throw new IllegalArgumentException("Corrupt stock list: dictionary index out of range");
+        }
+        return dictionary[(int) index];
+    }
+
+    private BigDecimal readDecimal(int scale) {
+        return BigDecimal.valueOf(readSigned(), scale);
+    }
+
+    private ZonedDateTime readTimestamp() {
+        long micros = readSigned();
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000);
+        return instant.atZone(ZoneOffset.UTC);
+    }
+
+    private String readString() {
+        int length = readLength();
+        if (length > bytes.length - position) {
+            throw new IllegalArgumentException("Corrupt stock list: truncated string");
+        }
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private int readLength() {
+        // A ten-byte varint can set the sign bit, which would otherwise pass as a negative length
+        long value = readUnsigned();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Corrupt stock list: length out of range");
+        }
+        return (int) value;
+    }
+
+    private long readSigned() {
+        long encoded = readUnsigned();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    private long readUnsigned() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Corrupt stock list: truncated varint");
+            }
+            byte b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Corrupt stock list: varint too long");
+    }
+}
@@ -0,0 +1,174 @@
+package anqorithm.stocks.codec;
+
+import anqorithm.stocks.entity.Stock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static anqorithm.stocks.codec.StockBinaryFormat.*;
+
+/**
+ * Writes stocks in the {@link StockBinaryFormat} encoding through a small reusable buffer.
+ * Not thread-safe; use one writer per response.
+ */
+public final class StockBinaryWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    public StockBinaryWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Encode a whole list into a byte array
+     */
+    public static byte[] encode(List<Stock> stocks) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + stocks.size() * 48);
+        try {
+            new StockBinaryWriter(bytes).write(stocks);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public void write(List<Stock> stocks) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Stock stock : stocks) {
+            addToDictionary(dictionary, stock.getSector());
+            addToDictionary(dictionary, stock.getIndustry());
+        }
+
+        writeByte(VERSION);
+        writeUnsigned(stocks.size());
+        writeUnsigned(dictionary.size());
+        for (String entry : dictionary.keySet()) {
+            writeString(entry);
+        }
+        for (Stock stock : stocks) {
+            writeStock(stock, dictionary);
+        }
+        flush();
+    }
+
+    private void writeStock(Stock stock, Map<String, Integer> dictionary) throws IOException {
+        writeUnsigned(presence(stock));
+        if (stock.getId() != null) writeSigned(stock.getId());
+        if (stock.getSymbol() != null) writeString(stock.getSymbol());
+        if (stock.getName() != null) writeString(stock.getName());
+        if (stock.getCurrentPrice() != null) writeDecimal(stock.getCurrentPrice(), PRICE_SCALE);
+        if (stock.getMarketCap() != null) writeSigned(stock.getMarketCap());
+        if (stock.getSector() != null) writeUnsigned(dictionary.get(stock.getSector()));
+        if (stock.getIndustry() != null) writeUnsigned(dictionary.get(stock.getIndustry()));
+        if (stock.getDividendYield() != null) writeDecimal(stock.getDividendYield(), PRICE_SCALE);
+        if (stock.getPeRatio() != null) writeDecimal(stock.getPeRatio(), RATIO_SCALE);
+        if (stock.getEps() != null) writeDecimal(stock.getEps(), RATIO_SCALE);
+        if (stock.getFiftyTwoWeekHigh() != null) writeDecimal(stock.getFiftyTwoWeekHigh(), PRICE_SCALE);
+        if (stock.getFiftyTwoWeekLow() != null) writeDecimal(stock.getFiftyTwoWeekLow(), PRICE_SCALE);
+        if (stock.getVolume() != null) writeSigned(stock.getVolume());
+        if (stock.getAverageVolume() != null) writeSigned(stock.getAverageVolume());
+        if (stock.getBeta() != null) writeDecimal(stock.getBeta(), PRICE_SCALE);
+        if (stock.getCreatedAt() != null) writeSigned(epochMicros(stock.getCreatedAt()));
+        if (stock.getUpdatedAt() != null) writeSigned(epochMicros(stock.getUpdatedAt()));
+        if (stock.getVersion() != null) writeSigned(stock.getVersion());
+    }
+
+    private static long presence(Stock stock) {
+        long bits = 0;
+        bits |= bit(ID, stock.getId());
+        bits |= bit(SYMBOL, stock.getSymbol());
+        bits |= bit(NAME, stock.getName());
+        bits |= bit(CURRENT_PRICE, stock.getCurrentPrice());
+        bits |= bit(MARKET_CAP, stock.getMarketCap());
+        bits |= bit(SECTOR, stock.getSector());
+        bits |= bit(INDUSTRY, stock.getIndustry());
+        bits |= bit(DIVIDEND_YIELD, stock.getDividendYield());
+        bits |= bit(PE_RATIO, stock.getPeRatio());
+        bits |= bit(EPS, stock.getEps());
+        bits |= bit(FIFTY_TWO_WEEK_HIGH, stock.getFiftyTwoWeekHigh());
+        bits |= bit(FIFTY_TWO_WEEK_LOW, stock.getFiftyTwoWeekLow());
+        bits |= bit(VOLUME, stock.getVolume());
+        bits |= bit(AVERAGE_VOLUME, stock.getAverageVolume());
+        bits |= bit(BETA, stock.getBeta());
+        bits |= bit(CREATED_AT, stock.getCreatedAt());
+        bits |= bit(UPDATED_AT, stock.getUpdatedAt());
+        bits |= bit(STOCK_VERSION, stock.getVersion());
+        return bits;
+    }
+
+    private static long bit(int index, Object value) {
+        return value != null ? 1L << index : 0;
+    }
+
+    private static void addToDictionary(Map<String, Integer> dictionary, String value) {
+        if (value != null) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+    }
+
+    private static long epochMicros(ZonedDateTime timestamp) {
+        Instant instant = timestamp.toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private void writeDecimal(BigDecimal value, int scale) throws IOException {
+        writeSigned(value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(bytes.length);
+        if (bytes.length > buffer.length - position) {
+            flush();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeSigned(long value) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    private void writeUnsigned(long value) throws IOException {
+        // A 64-bit varint is at most 10 bytes
+        if (buffer.length - position < 10) {
+            flush();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
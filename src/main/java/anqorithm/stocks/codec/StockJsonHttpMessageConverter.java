@@ -0,0 +1,92 @@
+package anqorithm.stocks.codec;
+
+import anqorithm.stocks.dto.StockBatchResult;
+import anqorithm.stocks.dto.StockPage;
+import anqorithm.stocks.entity.Stock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+
+/**
+ * Writes stock lists, {@link StockPage} and {@link StockBatchResult} responses with {@link StockJsonWriter}
+ * instead of reflective Jackson serialization. Registered ahead of the Jackson converter for writing only;
+ * content the writer does not handle is passed to the application's {@link ObjectMapper} unchanged.
+ */
+public class StockJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public StockJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StockPage.class == clazz || StockBatchResult.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!supports(clazz) || !canWrite(mediaType)) {
+            return false;
+        }
+        if (!List.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        // Only lists declared as stocks, or as List<?> by endpoints that may return field projections
+        return type instanceof ParameterizedType parameterized
+            && (parameterized.getActualTypeArguments()[0] == Stock.class
+                || parameterized.getActualTypeArguments()[0] instanceof WildcardType);
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        OutputStream body = outputMessage.getBody();
+        if (value instanceof StockPage page && StockJsonWriter.canWrite(page.getStocks())) {
+            new StockJsonWriter(body).writePage(page);
+        } else if (value instanceof StockBatchResult result) {
+            new StockJsonWriter(body).writeBatchResult(result);
+        } else if (value instanceof List<?> list && StockJsonWriter.canWrite(list)) {
+            new StockJsonWriter(body).writeList(list);
+        } else {
+            objectMapper.writeValue(StreamUtils.nonClosing(body), value);
+        }
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("StockJsonHttpMessageConverter is write-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("StockJsonHttpMessageConverter is write-only", inputMessage);
+    }
+}
@@ -0,0 +1,413 @@
+package anqorithm.stocks.codec;
+
+import anqorithm.stocks.dto.StockBatchResult;
+import anqorithm.stocks.dto.StockPage;
+import anqorithm.stocks.entity.Stock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams stocks, projected stock rows and their envelopes as JSON straight into UTF-8 bytes, producing
+ * exactly what the application's Jackson configuration would: declaration order, nulls omitted, decimals
+ * as {@link BigDecimal#toString()}, timestamps in UTC with Stock's millisecond pattern.
+ * <p>
+ * Property names are pre-encoded, and longs, plain decimals and timestamps are written digit by digit into
+ * a reusable buffer, so a row costs no intermediate strings. Not thread-safe; use one writer per response.
+ */
+public final class StockJsonWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // Matches Stock's @JsonFormat in the UTC context time zone; only used outside years 0..9999
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneOffset.UTC);
+
+    private static final byte[] ID = name("id");
+    private static final byte[] SYMBOL = name("symbol");
+    private static final byte[] NAME = name("name");
+    private static final byte[] CURRENT_PRICE = name("currentPrice");
+    private static final byte[] MARKET_CAP = name("marketCap");
+    private static final byte[] SECTOR = name("sector");
+    private static final byte[] INDUSTRY = name("industry");
+    private static final byte[] DIVIDEND_YIELD = name("dividendYield");
+    private static final byte[] PE_RATIO = name("peRatio");
+    private static final byte[] EPS = name("eps");
+    private static final byte[] FIFTY_TWO_WEEK_HIGH = name("fiftyTwoWeekHigh");
+    private static final byte[] FIFTY_TWO_WEEK_LOW = name("fiftyTwoWeekLow");
+    private static final byte[] VOLUME = name("volume");
+    private static final byte[] AVERAGE_VOLUME = name("averageVolume");
+    private static final byte[] BETA = name("beta");
+    private static final byte[] CREATED_AT = name("createdAt");
+    private static final byte[] UPDATED_AT = name("updatedAt");
+    private static final byte[] VERSION = name("version");
+
+    private static final byte[] STOCKS = name("stocks");
+    private static final byte[] CURRENT_PAGE = name("currentPage");
+    private static final byte[] TOTAL_ITEMS = name("totalItems");
+    private static final byte[] TOTAL_PAGES = name("totalPages");
+    private static final byte[] HAS_NEXT = name("hasNext");
+    private static final byte[] HAS_PREVIOUS = name("hasPrevious");
+    private static final byte[] CREATED = name("created");
+    private static final byte[] SKIPPED = name("skipped");
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private boolean first;
+
+    public StockJsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Whether every element is a stock or a projected row of plain values, i.e. something this writer handles
+     */
+    public static boolean canWrite(List<?> items) {
+        for (Object item : items) {
+            if (item instanceof Map<?, ?> row) {
+                for (Map.Entry<?, ?> entry : row.entrySet()) {
+                    if (!(entry.getKey() instanceof String) || !isPlainValue(entry.getValue())) {
+                        return false;
+                    }
+                }
+            } else if (!(item instanceof Stock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void writePage(StockPage page) throws IOException {
+        writeByte('{');
+        first = true;
+        writeName(STOCKS);
+        writeItems(page.getStocks());
+        writeName(CURRENT_PAGE);
+        writeLong(page.getCurrentPage());
+        writeName(TOTAL_ITEMS);
+        writeLong(page.getTotalItems());
+        writeName(TOTAL_PAGES);
+        writeLong(page.getTotalPages());
+        writeName(HAS_NEXT);
+        writeBoolean(page.isHasNext());
+        writeName(HAS_PREVIOUS);
+        writeBoolean(page.isHasPrevious());
+        writeByte('}');
+        flush();
+    }
+
+    public void writeBatchResult(StockBatchResult result) throws IOException {
+        writeByte('{');
+        first = true;
+        writeName(CREATED);
+        writeLong(result.getCreated());
+        writeName(SKIPPED);
+        writeLong(result.getSkipped());
+        if (result.getStocks() != null) {
+            writeName(STOCKS);
+            writeItems(result.getStocks());
+        }
+        writeByte('}');
+        flush();
+    }
+
+    public void writeList(List<?> items) throws IOException {
+        writeItems(items);
+        flush();
+    }
+
+    private void writeItems(List<?> items) throws IOException {
+        writeByte('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            Object item = items.get(i);
+            if (item instanceof Stock stock) {
+                writeStock(stock);
+            } else {
+                writeRow((Map<?, ?>) item);
+            }
+        }
+        writeByte(']');
+    }
+
+    private void writeStock(Stock stock) throws IOException {
+        writeByte('{');
+        first = true;
+        if (stock.getId() != null) { writeName(ID); writeLong(stock.getId()); }
+        if (stock.getSymbol() != null) { writeName(SYMBOL); writeString(stock.getSymbol()); }
+        if (stock.getName() != null) { writeName(NAME); writeString(stock.getName()); }
+        if (stock.getCurrentPrice() != null) { writeName(CURRENT_PRICE); writeDecimal(stock.getCurrentPrice()); }
+        if (stock.getMarketCap() != null) { writeName(MARKET_CAP); writeLong(stock.getMarketCap()); }
+        if (stock.getSector() != null) { writeName(SECTOR); writeString(stock.getSector()); }
+        if (stock.getIndustry() != null) { writeName(INDUSTRY); writeString(stock.getIndustry()); }
+        if (stock.getDividendYield() != null) { writeName(DIVIDEND_YIELD); writeDecimal(stock.getDividendYield()); }
+        if (stock.getPeRatio() != null) { writeName(PE_RATIO); writeDecimal(stock.getPeRatio()); }
+        if (stock.getEps() != null) { writeName(EPS); writeDecimal(stock.getEps()); }
+        if (stock.getFiftyTwoWeekHigh() != null) { writeName(FIFTY_TWO_WEEK_HIGH); writeDecimal(stock.getFiftyTwoWeekHigh()); }
+        if (stock.getFiftyTwoWeekLow() != null) { writeName(FIFTY_TWO_WEEK_LOW); writeDecimal(stock.getFiftyTwoWeekLow()); }
+        if (stock.getVolume() != null) { writeName(VOLUME); writeLong(stock.getVolume()); }
+        if (stock.getAverageVolume() != null) { writeName(AVERAGE_VOLUME); writeLong(stock.getAverageVolume()); }
+        if (stock.getBeta() != null) { writeName(BETA); writeDecimal(stock.getBeta()); }
+        if (stock.getCreatedAt() != null) { writeName(CREATED_AT); writeTimestamp(stock.getCreatedAt()); }
+        if (stock.getUpdatedAt() != null) { writeName(UPDATED_AT); writeTimestamp(stock.getUpdatedAt()); }
+        if (stock.getVersion() != null) { writeName(VERSION); writeLong(stock.getVersion()); }
+        writeByte('}');
+        first = false;
+    }
+
+    private void writeRow(Map<?, ?> row) throws IOException {
+        writeByte('{');
+        boolean firstEntry = true;
+        for (Map.Entry<?, ?> entry : row.entrySet()) {
+            if (!firstEntry) {
+                writeByte(',');
+            }
+            firstEntry = false;
+            writeString((String) entry.getKey());
+            writeByte(':');
+            Object value = entry.getValue();
+            if (value == null) {
+                writeAscii("null");
+            } else if (value instanceof String text) {
+                writeString(text);
+            } else if (value instanceof BigDecimal decimal) {
+                writeDecimal(decimal);
+            } else if (value instanceof Boolean bool) {
+                writeBoolean(bool);
+            } else {
+                writeLong(((Number) value).longValue());
+            }
+        }
+        writeByte('}');
+        first = false;
+    }
+
+    private static boolean isPlainValue(Object value) {
+        return value == null || value instanceof String || value instanceof BigDecimal || value instanceof Long
+            || value instanceof Integer || value instanceof Boolean;
+    }
+
+    private static byte[] name(String name) {
+        return ("\"" + name + "\":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private void writeName(byte[] name) throws IOException {
+        if (!first) {
+            writeByte(',');
+        }
+        first = false;
+        ensure(name.length);
+        System.arraycopy(name, 0, buffer, position, name.length);
+        position += name.length;
+    }
+
+    private void writeBoolean(boolean value) throws IOException {
+        writeAscii(value ? "true" : "false");
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        writeDigits(value, digitCount(value));
+    }
+
+    /**
+     * Writes the same text as {@link BigDecimal#toString()}: plain notation whenever the adjusted exponent is at
+     * least -6 and the scale is not negative, which covers every stored price and ratio. Anything else, or any
+     * value too wide for a long, falls back to toString().
+     */
+    private void writeDecimal(BigDecimal value) throws IOException {
+        int scale = value.scale();
+        int precision = value.precision();
+        if (scale < 0 || precision > 18 || precision - 1 - scale < -6) {
+            writeAscii(value.toString());
+            return;
+        }
+        // A scale-0 view of a compact decimal hands back its long without building a BigInteger
+        long unscaled = value.scaleByPowerOfTen(scale).longValueExact();
+        ensure(22);
+        if (unscaled < 0) {
+            buffer[position++] = '-';
+            unscaled = -unscaled;
+        }
+        if (scale == 0) {
+            writeDigits(unscaled, digitCount(unscaled));
+            return;
+        }
+        long integerPart = unscaled / POWERS_OF_TEN[scale];
+        writeDigits(integerPart, digitCount(integerPart));
+        buffer[position++] = '.';
+        writeDigits(unscaled % POWERS_OF_TEN[scale], scale);
+    }
+
+    /**
+     * Formats the UTC civil date and time from the epoch second directly (days-to-civil conversion), so no
+     * Instant or LocalDateTime is created per value
+     */
+    private void writeTimestamp(ZonedDateTime timestamp) throws IOException {
+        long epochSecond = timestamp.toEpochSecond();
+        long secondOfDay = Math.floorMod(epochSecond, 86_400L);
+        long z = Math.floorDiv(epochSecond, 86_400L) + 719_468;
+        long era = Math.floorDiv(z, 146_097L);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            writeString(TIMESTAMP_FORMAT.format(timestamp));
+            return;
+        }
+        ensure(26);
+        buffer[position++] = '"';
+        writeDigits(year, 4);
+        buffer[position++] = '-';
+        writeDigits(month, 2);
+        buffer[position++] = '-';
+        writeDigits(day, 2);
+        buffer[position++] = 'T';
+        writeDigits(secondOfDay / 3_600, 2);
+        buffer[position++] = ':';
+        writeDigits(secondOfDay / 60 % 60, 2);
+        buffer[position++] = ':';
+        writeDigits(secondOfDay % 60, 2);
+        buffer[position++] = '.';
+        writeDigits(timestamp.getNano() / 1_000_000, 3);
+        buffer[position++] = 'Z';
+        buffer[position++] = '"';
+    }
+
+    /**
+     * Write a non-negative value as exactly {@code digits} digits, zero-padded; the caller ensures room
+     */
+    private void writeDigits(long value, int digits) {
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * A quoted string escaped as Jackson's UTF-8 generator does: quote, backslash and control characters, with
+     * the short forms for \b \t \n \f \r, and surrogates as hex escapes; everything else as UTF-8
+     */
+    private void writeString(String value) throws IOException {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            // Worst case is a 6-byte escape
+            ensure(6);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                writeEscape(c);
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) {
+        char shortForm = switch (c) {
+            case '\b' -> 'b';
+            case '\t' -> 't';
+            case '\n' -> 'n';
+            case '\f' -> 'f';
+            case '\r' -> 'r';
+            default -> 0;
+        };
+        if (shortForm == 0) {
+            writeEscape(c);
+        } else {
+            buffer[position++] = '\\';
+            buffer[position++] = (byte) shortForm;
+        }
+    }
+
+    private void writeEscape(char c) {
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[c >> 12];
+        buffer[position++] = HEX[(c >> 8) & 0xF];
+        buffer[position++] = HEX[(c >> 4) & 0xF];
+        buffer[position++] = HEX[c & 0xF];
+    }
+
+    private void writeAscii(String text) throws IOException {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            flush();
+            if (bytes > buffer.length) {
+                throw new IllegalStateException("Value of " + bytes + " bytes exceeds the JSON buffer");
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
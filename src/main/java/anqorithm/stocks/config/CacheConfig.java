@@ -12,7 +12,7 @@ public class CacheConfig {
 
     @Bean
     public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("stocks", "sectors", "industries");
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("stocks", "sectors", "industries", "watchlists");
         cacheManager.setAllowNullValues(false);
         return cacheManager;
     }
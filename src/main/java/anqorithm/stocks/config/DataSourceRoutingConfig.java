@@ -0,0 +1,102 @@
+package anqorithm.stocks.config;
+
+import anqorithm.stocks.config.ReplicaRoutingProperties.ReplicaProperties;
+import anqorithm.stocks.datasource.ReadYourWritesTracker;
+import anqorithm.stocks.datasource.Replica;
+import anqorithm.stocks.datasource.ReplicaLagMonitor;
+import anqorithm.stocks.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with one that routes read-only transactions to replicas.
+ * Only active with {@code stocks.datasource.routing.enabled=true}; otherwise the single primary pool is used.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "stocks.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaRoutingProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReplicaProperties replicaProperties = properties.getReplicas().get(i);
+            String name = "replica-" + i;
+            HikariDataSource pool = replicaPool(primaryDataSource, replicaProperties, name);
+            replicas.add(new Replica(name, pool, () -> activeConnections(pool)));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getSelection(),
+            properties.getFailureBackoff().toMillis(),
+            new ReadYourWritesTracker(properties.getReadYourWritesWindow()),
+            DataSourceRoutingConfig::currentUser, properties.getDefaultMaxStaleness(), meterRegistry);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource.getReplicas(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // Defer fetching a connection until the first statement, when the read-only flag is known
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static HikariDataSource replicaPool(HikariDataSource primary, ReplicaProperties replica, String name) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            config.setUsername(replica.getUsername());
+        }
+        if (replica.getPassword() != null) {
+            config.setPassword(replica.getPassword());
+        }
+        config.setPoolName(name);
+        // A replica that is down at startup must not stop the application; reads fall back to the primary
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    private static int activeConnections(HikariDataSource pool) {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        return poolBean != null ? poolBean.getActiveConnections() : 0;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
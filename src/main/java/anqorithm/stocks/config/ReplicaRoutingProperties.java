@@ -0,0 +1,102 @@
+package anqorithm.stocks.config;
+
+import anqorithm.stocks.datasource.ReplicaSelection;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing settings, bound from {@code stocks.datasource.routing.*}.
+ * Replica pools inherit every {@code spring.datasource.hikari.*} setting of the primary pool.
+ */
+@ConfigurationProperties(prefix = "stocks.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled;
+    private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+    private Duration failureBackoff = Duration.ofSeconds(30);
+    private Duration readYourWritesWindow = Duration.ZERO;
+    private Duration defaultMaxStaleness = Duration.ofSeconds(5);
+    private List<ReplicaProperties> replicas = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public ReplicaSelection getSelection() {
+        return selection;
+    }
+
+    public void setSelection(ReplicaSelection selection) {
+        this.selection = selection;
+    }
+
+    public Duration getFailureBackoff() {
+        return failureBackoff;
+    }
+
+    public void setFailureBackoff(Duration failureBackoff) {
+        this.failureBackoff = failureBackoff;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public Duration getDefaultMaxStaleness() {
+        return defaultMaxStaleness;
+    }
+
+    public void setDefaultMaxStaleness(Duration defaultMaxStaleness) {
+        this.defaultMaxStaleness = defaultMaxStaleness;
+    }
+
+    public List<ReplicaProperties> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<ReplicaProperties> replicas) {
+        this.replicas = replicas;
+    }
+
+    public static class ReplicaProperties {
+
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package anqorithm.stocks.config;
+
+import anqorithm.stocks.codec.StockBinaryHttpMessageConverter;
+import anqorithm.stocks.codec.StockJsonHttpMessageConverter;
+import anqorithm.stocks.datasource.MaxStalenessInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new MaxStalenessInterceptor());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson for stock responses; the binary converter last, so that Accept: */* still negotiates JSON
+        converters.add(0, new StockJsonHttpMessageConverter(objectMapper));
+        converters.add(new StockBinaryHttpMessageConverter());
+    }
+}
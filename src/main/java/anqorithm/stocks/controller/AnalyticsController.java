@@ -0,0 +1,34 @@
+package anqorithm.stocks.controller;
+
+import anqorithm.stocks.dto.CorrelationMatrix;
+import anqorithm.stocks.service.CorrelationService;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+@Validated
+@Timed
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+    private final CorrelationService correlationService;
+
+    @Autowired
+    public AnalyticsController(CorrelationService correlationService) {
+        this.correlationService = correlationService;
+    }
+
+    @GetMapping("/correlation")
+    public ResponseEntity<CorrelationMatrix> getCorrelation(@RequestParam List<String> symbols) {
+        logger.info("Getting correlation matrix for {} symbols", symbols.size());
+        return ResponseEntity.ok(correlationService.getCorrelation(symbols));
+    }
+}
@@ -0,0 +1,147 @@
+package anqorithm.stocks.controller;
+
+import anqorithm.stocks.dto.Candle;
+import anqorithm.stocks.dto.PricePoint;
+import anqorithm.stocks.dto.StockMover;
+import anqorithm.stocks.dto.TickSeries;
+import anqorithm.stocks.dto.VolumeSpike;
+import anqorithm.stocks.service.CandleService;
+import anqorithm.stocks.service.MoversService;
+import anqorithm.stocks.service.PriceArchiveService;
+import anqorithm.stocks.service.PriceHistoryService;
+import anqorithm.stocks.service.RecentTickService;
+import anqorithm.stocks.service.VolumeAverageService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/stocks")
+@Validated
+@Timed
+public class MarketDataController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataController.class);
+    private final PriceHistoryService priceHistoryService;
+    private final RecentTickService recentTickService;
+    private final CandleService candleService;
+    private final PriceArchiveService priceArchiveService;
+    private final MoversService moversService;
+    private final VolumeAverageService volumeAverageService;
+
+    @Autowired
+    public MarketDataController(PriceHistoryService priceHistoryService, RecentTickService recentTickService,
+                                CandleService candleService, PriceArchiveService priceArchiveService,
+                                MoversService moversService, VolumeAverageService volumeAverageService) {
+        this.priceHistoryService = priceHistoryService;
+        this.recentTickService = recentTickService;
+        this.candleService = candleService;
+        this.priceArchiveService = priceArchiveService;
+        this.moversService = moversService;
+        this.volumeAverageService = volumeAverageService;
+    }
+
+    @GetMapping("/{symbol}/history")
+    public ResponseEntity<List<PricePoint>> getPriceHistory(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(defaultValue = "1000") @Min(1) int limit) {
+
+        Instant end = to != null ? to.toInstant() : Instant.now();
+        Instant start = from != null ? from.toInstant() : end.minus(Duration.ofDays(1));
+
+        logger.info("Getting price history for {} from {} to {}", symbol, start, end);
+        List<PricePoint> history = priceHistoryService.findHistory(symbol, start, end, limit);
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping("/{symbol}/history/archive")
+    public ResponseEntity<List<PricePoint>> getArchivedPriceHistory(
+            @PathVariable String symbol,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to,
+            @RequestParam(defaultValue = "1000") @Min(1) int limit) {
+
+        logger.info("Getting archived price history for {} from {} to {}", symbol, from, to);
+        List<PricePoint> history = priceArchiveService.findHistory(symbol, from.toInstant(), to.toInstant(), limit);
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping("/history/archive/stats")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        return ResponseEntity.ok(priceArchiveService.getStats());
+    }
+
+    @GetMapping("/movers")
+    public ResponseEntity<List<StockMover>> getMovers(
+            @RequestParam(defaultValue = "up") String direction,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int limit) {
+
+        logger.info("Getting top {} movers {}", limit, direction);
+        List<StockMover> movers = moversService.getMovers(MoversService.Direction.parse(direction), limit);
+        return ResponseEntity.ok(movers);
+    }
+
+    @GetMapping("/volume-spikes")
+    public ResponseEntity<List<VolumeSpike>> getVolumeSpikes(
+            @RequestParam(required = false) Double multiplier,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int limit) {
+
+        logger.info("Getting top {} volume spikes above {}x average", limit,
+            multiplier != null ? multiplier : volumeAverageService.getSpikeMultiplier());
+        List<VolumeSpike> spikes = volumeAverageService.getSpikes(multiplier, limit);
+        return ResponseEntity.ok(spikes);
+    }
+
+    @GetMapping("/{symbol}/ticks")
+    public ResponseEntity<TickSeries> getRecentTicks(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "5m") String window) {
+
+        logger.info("Getting recent ticks for {} over {}", symbol, window);
+        TickSeries ticks = recentTickService.getRecentTicks(symbol, DurationStyle.detectAndParse(window));
+        return ResponseEntity.ok(ticks);
+    }
+
+    @GetMapping("/{symbol}/candles")
+    public ResponseEntity<List<Candle>> getCandles(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime to) {
+
+        Duration bucket = DurationStyle.detectAndParse(resolution);
+        Instant end = to != null ? to.toInstant() : Instant.now();
+        Instant start = from != null ? from.toInstant() : end.minus(bucket.multipliedBy(100));
+
+        logger.info("Getting {} candles for {} from {} to {}", resolution, symbol, start, end);
+        List<Candle> candles = candleService.getCandles(symbol, bucket, start, end);
+        return ResponseEntity.ok(candles);
+    }
+
+    @GetMapping("/ticks/stats")
+    public ResponseEntity<Map<String, Object>> getTickBufferStats() {
+        Map<String, Object> stats = Map.of(
+            "symbols", recentTickService.getSymbolCount(),
+            "capacityPerSymbol", recentTickService.getCapacityPerSymbol(),
+            "memoryPerSymbolBytes", recentTickService.getMemoryPerSymbolBytes(),
+            "totalMemoryBytes", recentTickService.getTotalMemoryBytes()
+        );
+        return ResponseEntity.ok(stats);
+    }
+}
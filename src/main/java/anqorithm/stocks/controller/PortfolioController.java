@@ -0,0 +1,35 @@
+package anqorithm.stocks.controller;
+
+import anqorithm.stocks.dto.PortfolioValuation;
+import anqorithm.stocks.dto.PortfolioValuationRequest;
+import anqorithm.stocks.service.PortfolioValuationService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/portfolios")
+@Validated
+@Timed
+public class PortfolioController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioController.class);
+
+    private final PortfolioValuationService portfolioValuationService;
+
+    @Autowired
+    public PortfolioController(PortfolioValuationService portfolioValuationService) {
+        this.portfolioValuationService = portfolioValuationService;
+    }
+
+    @PostMapping("/valuation")
+    public ResponseEntity<PortfolioValuation> valuePortfolio(@Valid @RequestBody PortfolioValuationRequest request) {
+        logger.info("Valuing portfolio of {} holdings", request.getHoldings().size());
+        return ResponseEntity.ok(portfolioValuationService.value(request.getHoldings()));
+    }
+}
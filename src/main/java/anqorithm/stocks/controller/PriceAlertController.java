@@ -0,0 +1,72 @@
+package anqorithm.stocks.controller;
+
+import anqorithm.stocks.alert.PriceAlert;
+import anqorithm.stocks.dto.PriceAlertRequest;
+import anqorithm.stocks.service.PriceAlertService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/alerts")
+@Validated
+@Timed
+public class PriceAlertController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceAlertController.class);
+
+    private final PriceAlertService priceAlertService;
+
+    @Autowired
+    public PriceAlertController(PriceAlertService priceAlertService) {
+        this.priceAlertService = priceAlertService;
+    }
+
+    @PostMapping
+    public ResponseEntity<PriceAlert> createAlert(@Valid @RequestBody PriceAlertRequest request,
+                                                  Authentication authentication) {
+        logger.info("Creating price alert for {} on {} at {}", authentication.getName(), request.getSymbol(),
+            request.getThreshold());
+        PriceAlert alert = priceAlertService.create(authentication.getName(), request.getSymbol(),
+            request.getThreshold(), request.getDirection());
+        return ResponseEntity.status(HttpStatus.CREATED).body(alert);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PriceAlert>> getAlerts(Authentication authentication) {
+        return ResponseEntity.ok(priceAlertService.findByUsername(authentication.getName()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> deleteAlert(@PathVariable @Positive Long id,
+                                                           Authentication authentication) {
+        logger.info("Deleting price alert {} of {}", id, authentication.getName());
+        if (!priceAlertService.delete(authentication.getName(), id)) {
+            throw new EntityNotFoundException("Price alert not found with id: " + id);
+        }
+        return ResponseEntity.ok(Map.of(
+            "message", "Price alert successfully deleted",
+            "id", id
+        ));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts(Authentication authentication) {
+        logger.info("Opening price alert stream for {}", authentication.getName());
+        return priceAlertService.subscribe(authentication.getName());
+    }
+}
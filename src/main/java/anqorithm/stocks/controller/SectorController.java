@@ -0,0 +1,40 @@
+package anqorithm.stocks.controller;
+
+import anqorithm.stocks.aggregate.SectorIndexRegistry;
+import anqorithm.stocks.dto.SectorIndex;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/sectors")
+@Validated
+@Timed
+public class SectorController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SectorController.class);
+    private final SectorIndexRegistry sectorIndexRegistry;
+
+    @Autowired
+    public SectorController(SectorIndexRegistry sectorIndexRegistry) {
+        this.sectorIndexRegistry = sectorIndexRegistry;
+    }
+
+    @GetMapping("/{sector}/index")
+    public ResponseEntity<SectorIndex> getSectorIndex(@PathVariable String sector) {
+        logger.info("Getting index level for sector: {}", sector);
+        return ResponseEntity.of(sectorIndexRegistry.getIndex(sector));
+    }
+
+    @GetMapping("/heat-map")
+    public ResponseEntity<List<SectorIndex>> getHeatMap() {
+        logger.info("Getting sector heat map");
+        return ResponseEntity.ok(sectorIndexRegistry.getHeatMap());
+    }
+}
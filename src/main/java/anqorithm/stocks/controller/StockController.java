@@ -1,11 +1,27 @@
 package anqorithm.stocks.controller;
 
+import anqorithm.stocks.aggregate.StockAggregateRegistry;
+import anqorithm.stocks.codec.StockBinaryFormat;
+import anqorithm.stocks.datasource.MaxStaleness;
+import anqorithm.stocks.dto.StockAggregate;
+import anqorithm.stocks.dto.StockBatchResult;
+import anqorithm.stocks.dto.StockChangeFeed;
+import anqorithm.stocks.dto.StockPage;
+import anqorithm.stocks.dto.StockStats;
 import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.exception.ChangeCursorExpiredException;
+import anqorithm.stocks.exception.OutboxOffsetExpiredException;
 import anqorithm.stocks.exception.StockAlreadyExistsException;
 import anqorithm.stocks.exception.StockNotFoundException;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.outbox.StockEventRelay;
+import anqorithm.stocks.service.FieldProjection;
+import anqorithm.stocks.service.StockChangeService;
 import anqorithm.stocks.service.StockService;
+import anqorithm.stocks.service.StockStatsService;
 import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import org.slf4j.Logger;
@@ -16,9 +32,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.math.BigDecimal;
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,37 +49,111 @@ public class StockController {
 
     private static final Logger logger = LoggerFactory.getLogger(StockController.class);
     private final StockService stockService;
+    private final StockChangeService stockChangeService;
+    private final StockEventRelay stockEventRelay;
+    private final StockStatsService stockStatsService;
+    private final StockAggregateRegistry stockAggregateRegistry;
 
     @Autowired
-    public StockController(StockService stockService) {
+    public StockController(StockService stockService, StockChangeService stockChangeService,
+                           StockEventRelay stockEventRelay, StockStatsService stockStatsService,
+                           StockAggregateRegistry stockAggregateRegistry) {
         this.stockService = stockService;
+        this.stockChangeService = stockChangeService;
+        this.stockEventRelay = stockEventRelay;
+        this.stockStatsService = stockStatsService;
+        this.stockAggregateRegistry = stockAggregateRegistry;
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllStocks(
+    public ResponseEntity<StockPage> getAllStocks(
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "20") @Min(1) int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDirection) {
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting all stocks - page: {}, size: {}, sortBy: {}, sortDirection: {}", 
                    page, size, sortBy, sortDirection);
         
+        FieldProjection projection = FieldProjection.parse(fields);
+        if (projection != null) {
+            List<Map<String, Object>> stocks = stockService.findAllPaged(projection, page, size, sortBy, sortDirection);
+            long totalItems = stockService.getTotalCount();
+            int totalPages = (int) ((totalItems + size - 1) / size);
+            return ResponseEntity.ok(new StockPage(stocks, page, totalItems, totalPages,
+                page + 1 < totalPages, page > 0));
+        }
+
         Page<Stock> stockPage = stockService.findAllPaged(page, size, sortBy, sortDirection);
         
-        Map<String, Object> response = Map.of(
-            "stocks", stockPage.getContent(),
-            "currentPage", stockPage.getNumber(),
-            "totalItems", stockPage.getTotalElements(),
-            "totalPages", stockPage.getTotalPages(),
-            "hasNext", stockPage.hasNext(),
-            "hasPrevious", stockPage.hasPrevious()
+        StockPage response = new StockPage(
+            stockPage.getContent(),
+            stockPage.getNumber(),
+            stockPage.getTotalElements(),
+            stockPage.getTotalPages(),
+            stockPage.hasNext(),
+            stockPage.hasPrevious()
         );
         
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * {@link #getAllStocks} for binary clients; the page metadata moves to headers since the body is a bare list
+     */
+    @GetMapping(produces = StockBinaryFormat.MEDIA_TYPE_VALUE)
+    public ResponseEntity<List<Stock>> getAllStocksBinary(
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+
+        logger.info("Getting all stocks as binary - page: {}, size: {}, sortBy: {}, sortDirection: {}",
+                   page, size, sortBy, sortDirection);
+
+        Page<Stock> stockPage = stockService.findAllPaged(page, size, sortBy, sortDirection);
+        return ResponseEntity.ok()
+            .header("X-Total-Count", String.valueOf(stockPage.getTotalElements()))
+            .header("X-Total-Pages", String.valueOf(stockPage.getTotalPages()))
+            .body(stockPage.getContent());
+    }
+
+    @GetMapping("/changes")
+    public DeferredResult<StockChangeFeed> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit,
+            @RequestParam(defaultValue = "0") @Min(0) int waitSeconds) {
+
+        logger.debug("Getting stock changes since: {}, limit: {}, waitSeconds: {}", since, limit, waitSeconds);
+        return stockChangeService.pollChanges(since, limit, Duration.ofSeconds(waitSeconds));
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> getEvents(
+            @RequestParam(defaultValue = "0") @Min(0) long after,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(5000) int limit) {
+
+        logger.debug("Getting stock events after offset: {}, limit: {}", after, limit);
+        List<StockEvent> events;
+        try {
+            events = stockEventRelay.findEvents(after, limit);
+        } catch (OutboxOffsetExpiredException e) {
+            // Same contract as an expired change cursor: the client has to resynchronize from GET /stocks
+            throw new ChangeCursorExpiredException(e.getMessage());
+        }
+        long offset = events.isEmpty() ? after : events.get(events.size() - 1).getOffset();
+
+        Map<String, Object> response = Map.of(
+            "events", events,
+            "offset", offset,
+            "relayedOffset", stockEventRelay.getRelayedOffset()
+        );
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
+    @MaxStaleness("0s")
     public ResponseEntity<Stock> getStockById(@PathVariable @Positive Long id) {
         logger.info("Getting stock by id: {}", id);
         
@@ -71,6 +163,7 @@ public class StockController {
     }
 
     @GetMapping("/symbol/{symbol}")
+    @MaxStaleness("0s")
     public ResponseEntity<Stock> getStockBySymbol(@PathVariable String symbol) {
         logger.info("Getting stock by symbol: {}", symbol);
         
@@ -169,19 +262,25 @@ public class StockController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Stock>> searchStocks(
+    public ResponseEntity<List<?>> searchStocks(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String symbol,
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(1) int size) {
+            @RequestParam(defaultValue = "20") @Min(1) int size,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Searching stocks - name: {}, symbol: {}", name, symbol);
         
-        List<Stock> stocks;
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks;
         if (name != null && !name.trim().isEmpty()) {
-            stocks = stockService.searchByName(name.trim(), page, size);
+            stocks = projection != null
+                ? stockService.searchByName(projection, name.trim(), page, size)
+                : stockService.searchByName(name.trim(), page, size);
         } else if (symbol != null && !symbol.trim().isEmpty()) {
-            stocks = stockService.searchBySymbol(symbol.trim(), page, size);
+            stocks = projection != null
+                ? stockService.searchBySymbol(projection, symbol.trim(), page, size)
+                : stockService.searchBySymbol(symbol.trim(), page, size);
         } else {
             throw new IllegalArgumentException("Either name or symbol parameter must be provided");
         }
@@ -190,96 +289,145 @@ public class StockController {
     }
 
     @GetMapping("/sector/{sector}")
-    public ResponseEntity<List<Stock>> getStocksBySector(
+    public ResponseEntity<List<?>> getStocksBySector(
             @PathVariable String sector,
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(1) int size) {
+            @RequestParam(defaultValue = "20") @Min(1) int size,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting stocks by sector: {}", sector);
-        List<Stock> stocks = stockService.findBySector(sector, page, size);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.findBySector(projection, sector, page, size)
+            : stockService.findBySector(sector, page, size);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/industry/{industry}")
-    public ResponseEntity<List<Stock>> getStocksByIndustry(
+    public ResponseEntity<List<?>> getStocksByIndustry(
             @PathVariable String industry,
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(1) int size) {
+            @RequestParam(defaultValue = "20") @Min(1) int size,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting stocks by industry: {}", industry);
-        List<Stock> stocks = stockService.findByIndustry(industry, page, size);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.findByIndustry(projection, industry, page, size)
+            : stockService.findByIndustry(industry, page, size);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/price-range")
-    public ResponseEntity<List<Stock>> getStocksByPriceRange(
+    public ResponseEntity<List<?>> getStocksByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(1) int size) {
+            @RequestParam(defaultValue = "20") @Min(1) int size,
+            @RequestParam(required = false) String fields) {
         
         if (minPrice.compareTo(maxPrice) > 0) {
             throw new IllegalArgumentException("minPrice cannot be greater than maxPrice");
         }
         
         logger.info("Getting stocks by price range: {} - {}", minPrice, maxPrice);
-        List<Stock> stocks = stockService.findByPriceRange(minPrice, maxPrice, page, size);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.findByPriceRange(projection, minPrice, maxPrice, page, size)
+            : stockService.findByPriceRange(minPrice, maxPrice, page, size);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/top/market-cap")
-    public ResponseEntity<List<Stock>> getTopStocksByMarketCap(
-            @RequestParam(defaultValue = "10") @Min(1) int limit) {
+    public ResponseEntity<List<?>> getTopStocksByMarketCap(
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting top {} stocks by market cap", limit);
-        List<Stock> stocks = stockService.findTopByMarketCap(limit);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.findTopByMarketCap(projection, limit)
+            : stockService.findTopByMarketCap(limit);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/top/volume")
-    public ResponseEntity<List<Stock>> getTopStocksByVolume(
-            @RequestParam(defaultValue = "10") @Min(1) int limit) {
+    public ResponseEntity<List<?>> getTopStocksByVolume(
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting top {} stocks by volume", limit);
-        List<Stock> stocks = stockService.findTopByVolume(limit);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.findTopByVolume(projection, limit)
+            : stockService.findTopByVolume(limit);
+        return ResponseEntity.ok(stocks);
+    }
+
+    @GetMapping("/top/dividend-yield")
+    public ResponseEntity<List<?>> getTopStocksByDividendYield(
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(required = false) String fields) {
+        
+        logger.info("Getting top {} stocks by dividend yield", limit);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.findTopByDividendYield(projection, limit)
+            : stockService.findTopByDividendYield(limit);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/performers/high")
-    public ResponseEntity<List<Stock>> getHighPerformers(
-            @RequestParam(defaultValue = "10") @Min(1) int limit) {
+    public ResponseEntity<List<?>> getHighPerformers(
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting top {} high performers", limit);
-        List<Stock> stocks = stockService.getHighPerformers(limit);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.getHighPerformers(projection, limit)
+            : stockService.getHighPerformers(limit);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/performers/low")
-    public ResponseEntity<List<Stock>> getLowPerformers(
-            @RequestParam(defaultValue = "10") @Min(1) int limit) {
+    public ResponseEntity<List<?>> getLowPerformers(
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting top {} low performers", limit);
-        List<Stock> stocks = stockService.getLowPerformers(limit);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.getLowPerformers(projection, limit)
+            : stockService.getLowPerformers(limit);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/value-stocks")
-    public ResponseEntity<List<Stock>> getValueStocks(
+    public ResponseEntity<List<?>> getValueStocks(
             @RequestParam(defaultValue = "15.0") BigDecimal maxPeRatio,
-            @RequestParam(defaultValue = "10") @Min(1) int limit) {
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting value stocks with PE ratio <= {}", maxPeRatio);
-        List<Stock> stocks = stockService.getValueStocks(maxPeRatio, limit);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.getValueStocks(projection, maxPeRatio, limit)
+            : stockService.getValueStocks(maxPeRatio, limit);
         return ResponseEntity.ok(stocks);
     }
 
     @GetMapping("/dividend-stocks")
-    public ResponseEntity<List<Stock>> getDividendStocks(
+    public ResponseEntity<List<?>> getDividendStocks(
             @RequestParam(defaultValue = "0.02") BigDecimal minDividendYield,
-            @RequestParam(defaultValue = "10") @Min(1) int limit) {
+            @RequestParam(defaultValue = "10") @Min(1) int limit,
+            @RequestParam(required = false) String fields) {
         
         logger.info("Getting dividend stocks with yield >= {}", minDividendYield);
-        List<Stock> stocks = stockService.getDividendStocks(minDividendYield, limit);
+        FieldProjection projection = FieldProjection.parse(fields);
+        List<?> stocks = projection != null
+            ? stockService.getDividendStocks(projection, minDividendYield, limit)
+            : stockService.getDividendStocks(minDividendYield, limit);
         return ResponseEntity.ok(stocks);
     }
 
@@ -297,20 +445,36 @@ public class StockController {
         return ResponseEntity.ok(industries);
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<StockStats> getMarketStats() {
+        logger.info("Getting market statistics");
+        return ResponseEntity.ok(stockStatsService.getStats());
+    }
+
+    @GetMapping("/stats/sector/{sector}")
+    public ResponseEntity<StockAggregate> getSectorStats(@PathVariable String sector) {
+        logger.info("Getting statistics for sector: {}", sector);
+        return ResponseEntity.of(stockAggregateRegistry.getBySector(sector));
+    }
+
+    @GetMapping("/stats/industry/{industry}")
+    public ResponseEntity<StockAggregate> getIndustryStats(@PathVariable String industry) {
+        logger.info("Getting statistics for industry: {}", industry);
+        return ResponseEntity.of(stockAggregateRegistry.getByIndustry(industry));
+    }
+
     @GetMapping("/stats/count")
     public ResponseEntity<Map<String, Object>> getStockStats() {
         logger.info("Getting stock statistics");
         
-        Long totalCount = stockService.getTotalCount();
-        List<String> sectors = stockService.getDistinctSectors();
-        List<String> industries = stockService.getDistinctIndustries();
+        StockStats marketStats = stockStatsService.getStats();
         
         Map<String, Object> stats = Map.of(
-            "totalStocks", totalCount,
-            "totalSectors", sectors.size(),
-            "totalIndustries", industries.size(),
-            "sectors", sectors,
-            "industries", industries
+            "totalStocks", marketStats.getTotalStocks(),
+            "totalSectors", marketStats.getSectors().size(),
+            "totalIndustries", marketStats.getIndustries().size(),
+            "sectors", marketStats.getSectors(),
+            "industries", marketStats.getIndustries()
         );
         
         return ResponseEntity.ok(stats);
@@ -326,7 +490,7 @@ public class StockController {
     }
 
     @PostMapping("/batch")
-    public ResponseEntity<Map<String, Object>> createStocksBatch(@Valid @RequestBody List<Stock> stocks) {
+    public ResponseEntity<StockBatchResult> createStocksBatch(@Valid @RequestBody List<Stock> stocks) {
         logger.info("Creating batch of {} stocks", stocks.size());
         
         List<Stock> createdStocks = stocks.stream()
@@ -334,10 +498,10 @@ public class StockController {
             .map(stockService::create)
             .toList();
         
-        Map<String, Object> response = Map.of(
-            "created", createdStocks.size(),
-            "skipped", stocks.size() - createdStocks.size(),
-            "stocks", createdStocks
+        StockBatchResult response = new StockBatchResult(
+            createdStocks.size(),
+            stocks.size() - createdStocks.size(),
+            createdStocks
         );
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -0,0 +1,91 @@
+package anqorithm.stocks.controller;
+
+import anqorithm.stocks.dto.WatchlistRequest;
+import anqorithm.stocks.dto.WatchlistResponse;
+import anqorithm.stocks.service.WatchlistService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/watchlists")
+@Validated
+@Timed
+public class WatchlistController {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchlistController.class);
+
+    private final WatchlistService watchlistService;
+
+    @Autowired
+    public WatchlistController(WatchlistService watchlistService) {
+        this.watchlistService = watchlistService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<WatchlistResponse>> getWatchlists(Authentication authentication) {
+        return ResponseEntity.ok(watchlistService.findByUsername(authentication.getName()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<WatchlistResponse> getWatchlist(@PathVariable @Positive Long id,
+                                                          Authentication authentication) {
+        return ResponseEntity.ok(watchlistService.findById(authentication.getName(), id));
+    }
+
+    @PostMapping
+    public ResponseEntity<WatchlistResponse> createWatchlist(@Valid @RequestBody WatchlistRequest request,
+                                                             Authentication authentication) {
+        logger.info("Creating watchlist '{}' for {}", request.getName(), authentication.getName());
+        WatchlistResponse watchlist = watchlistService.create(authentication.getName(), request.getName(),
+            request.getSymbols());
+        return ResponseEntity.status(HttpStatus.CREATED).body(watchlist);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<WatchlistResponse> updateWatchlist(@PathVariable @Positive Long id,
+                                                             @Valid @RequestBody WatchlistRequest request,
+                                                             Authentication authentication) {
+        logger.info("Updating watchlist {} of {}", id, authentication.getName());
+        return ResponseEntity.ok(watchlistService.update(authentication.getName(), id, request.getName(),
+            request.getSymbols()));
+    }
+
+    @PostMapping("/{id}/symbols/{symbol}")
+    public ResponseEntity<WatchlistResponse> addSymbol(@PathVariable @Positive Long id, @PathVariable String symbol,
+                                                       Authentication authentication) {
+        return ResponseEntity.ok(watchlistService.addSymbol(authentication.getName(), id, symbol));
+    }
+
+    @DeleteMapping("/{id}/symbols/{symbol}")
+    public ResponseEntity<WatchlistResponse> removeSymbol(@PathVariable @Positive Long id,
+                                                          @PathVariable String symbol,
+                                                          Authentication authentication) {
+        return ResponseEntity.ok(watchlistService.removeSymbol(authentication.getName(), id, symbol));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> deleteWatchlist(@PathVariable @Positive Long id,
+                                                               Authentication authentication) {
+        logger.info("Deleting watchlist {} of {}", id, authentication.getName());
+        if (!watchlistService.delete(authentication.getName(), id)) {
+            throw new EntityNotFoundException("Watchlist not found with id: " + id);
+        }
+        return ResponseEntity.ok(Map.of(
+            "message", "Watchlist successfully deleted",
+            "id", id
+        ));
+    }
+}
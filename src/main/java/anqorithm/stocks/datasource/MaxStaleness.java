@@ -0,0 +1,20 @@
+package anqorithm.stocks.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * How stale the replica data read by an endpoint may be, as a duration such as {@code "0s"} or {@code "5s"}.
+ * Zero always reads from the primary. A client can tighten the bound with the
+ * {@value MaxStalenessInterceptor#HEADER} request header but never loosen it.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxStaleness {
+
+    String value();
+}
@@ -0,0 +1,58 @@
+package anqorithm.stocks.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Resolves the staleness bound of a request from the handler's {@link MaxStaleness} and the
+ * {@value #HEADER} header, keeping the stricter of the two, and exposes it through {@link StalenessContext}.
+ */
+public class MaxStalenessInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Max-Staleness";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Duration bound = null;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            MaxStaleness annotation = handlerMethod.getMethodAnnotation(MaxStaleness.class);
+            if (annotation == null) {
+                annotation = handlerMethod.getBeanType().getAnnotation(MaxStaleness.class);
+            }
+            if (annotation != null) {
+                bound = DurationStyle.detectAndParse(annotation.value());
+            }
+        }
+
+        String header = request.getHeader(HEADER);
+        if (header != null && !header.isBlank()) {
+            Duration requested;
+            try {
+                requested = DurationStyle.detectAndParse(header.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(HEADER + " must be a duration such as 5s or 500ms");
+            }
+            if (requested.isNegative()) {
+                throw new IllegalArgumentException(HEADER + " cannot be negative");
+            }
+            if (bound == null || requested.compareTo(bound) < 0) {
+                bound = requested;
+            }
+        }
+
+        if (bound != null) {
+            StalenessContext.set(bound);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        StalenessContext.clear();
+    }
+}
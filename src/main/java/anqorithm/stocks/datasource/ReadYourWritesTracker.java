@@ -0,0 +1,59 @@
+package anqorithm.stocks.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers when each user last wrote, so their reads can stay on the primary
+ * until replicas have had time to catch up. A zero window disables pinning.
+ */
+public class ReadYourWritesTracker {
+
+    // Above this many tracked users, expired entries are swept on the next write
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this(window, System::currentTimeMillis);
+    }
+
+    ReadYourWritesTracker(Duration window, LongSupplier clock) {
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    public void recordWrite(String user) {
+        if (user == null || windowMillis <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        lastWrites.put(user, now);
+        if (lastWrites.size() > SWEEP_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowMillis);
+        }
+    }
+
+    public boolean isPinned(String user) {
+        if (user == null || windowMillis <= 0) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(user);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (clock.getAsLong() - writtenAt < windowMillis) {
+            return true;
+        }
+        lastWrites.remove(user, writtenAt);
+        return false;
+    }
+
+    public int getTrackedUsers() {
+        return lastWrites.size();
+    }
+}
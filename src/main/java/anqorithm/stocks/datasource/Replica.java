@@ -0,0 +1,66 @@
+package anqorithm.stocks.datasource;
+
+import javax.sql.DataSource;
+import java.util.function.IntSupplier;
+
+/**
+ * A read replica pool together with the routing state kept for it
+ */
+public class Replica {
+
+    /**
+     * Lag before the first successful poll, or after a failed one
+     */
+    public static final long UNKNOWN_LAG = Long.MAX_VALUE;
+
+    private final String name;
+    private final DataSource dataSource;
+    private final IntSupplier activeConnections;
+
+    private volatile long unavailableUntil;
+    private volatile long lagMillis = UNKNOWN_LAG;
+
+    public Replica(String name, DataSource dataSource, IntSupplier activeConnections) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.activeConnections = activeConnections;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections.getAsInt();
+    }
+
+    public boolean isAvailable(long now) {
+        return now >= unavailableUntil;
+    }
+
+    /**
+     * Whether the replica's last measured lag fits within the staleness bound
+     */
+    public boolean isWithin(long maxStalenessMillis) {
+        return lagMillis <= maxStalenessMillis;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public void setLagMillis(long lagMillis) {
+        this.lagMillis = lagMillis;
+    }
+
+    /**
+     * Take the replica out of rotation until the given time after a failed connection attempt
+     */
+    public void markUnavailable(long until) {
+        this.unavailableUntil = until;
+    }
+}
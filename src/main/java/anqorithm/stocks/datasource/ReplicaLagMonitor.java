@@ -0,0 +1,92 @@
+package anqorithm.stocks.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Polls every replica's replay position against the primary's WAL position and records the lag on the replica.
+ * <p>
+ * A replica that has replayed everything the primary had written when polled has zero lag; otherwise the
+ * lag is the age of the last transaction it replayed. On databases without streaming replication
+ * (e.g. two local H2 instances) replicas are treated as up to date. A failed poll makes the lag unknown,
+ * which keeps the replica out of every bounded read. Lag is exported as {@code stocks.datasource.replica.lag}.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String PRIMARY_WAL_POSITION = "SELECT pg_current_wal_lsn()::text";
+    static final String REPLICA_LAG =
+        "SELECT pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) AS behind_bytes, " +
+        "EXTRACT(EPOCH FROM (clock_timestamp() - pg_last_xact_replay_timestamp())) * 1000 AS replay_age_ms";
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final Map<Replica, JdbcTemplate> replicaTemplates;
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = List.copyOf(replicas);
+        this.replicaTemplates = new IdentityHashMap<>();
+        for (Replica replica : replicas) {
+            replicaTemplates.put(replica, new JdbcTemplate(replica.getDataSource()));
+            Gauge.builder("stocks.datasource.replica.lag", replica,
+                    r -> r.getLagMillis() == Replica.UNKNOWN_LAG ? Double.NaN : r.getLagMillis())
+                .description("Replication lag of a read replica as of the last poll")
+                .tag("replica", replica.getName())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stocks.datasource.routing.lag-poll-interval-ms:1000}")
+    public void poll() {
+        String primaryPosition;
+        try {
+            primaryPosition = isPostgres() ? primary.queryForObject(PRIMARY_WAL_POSITION, String.class) : null;
+        } catch (DataAccessException e) {
+            logger.warn("Cannot read primary WAL position, replica lag unknown: {}", e.getMessage());
+            replicas.forEach(replica -> replica.setLagMillis(Replica.UNKNOWN_LAG));
+            return;
+        }
+        for (Replica replica : replicas) {
+            replica.setLagMillis(measure(replica, primaryPosition));
+        }
+    }
+
+    private long measure(Replica replica, String primaryPosition) {
+        if (primaryPosition == null) {
+            return 0;
+        }
+        try {
+            Map<String, Object> row = replicaTemplates.get(replica).queryForMap(REPLICA_LAG, primaryPosition);
+            Number behindBytes = (Number) row.get("behind_bytes");
+            if (behindBytes == null || behindBytes.doubleValue() <= 0) {
+                // Caught up, or not a standby at all
+                return 0;
+            }
+            Number replayAge = (Number) row.get("replay_age_ms");
+            return replayAge != null ? Math.max(0, replayAge.longValue()) : Replica.UNKNOWN_LAG;
+        } catch (DataAccessException e) {
+            logger.warn("Cannot measure lag of {}: {}", replica.getName(), e.getMessage());
+            return Replica.UNKNOWN_LAG;
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = primary.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
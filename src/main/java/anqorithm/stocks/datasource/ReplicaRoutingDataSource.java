@@ -0,0 +1,167 @@
+package anqorithm.stocks.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The transaction's read-only flag is only known once the transaction has started, so this must sit
+ * behind a {@code LazyConnectionDataSourceProxy}. A replica that fails to hand out a connection is
+ * taken out of rotation for the failure backoff and the read falls back to the next replica or the primary.
+ * Users who wrote within the read-your-writes window keep reading from the primary.
+ * <p>
+ * Only replicas whose last measured lag fits the request's staleness bound ({@link StalenessContext},
+ * or the default bound) are eligible; a zero bound always reads from the primary.
+ * Every routing decision is counted in {@code stocks.datasource.routing} by target and reason.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final long failureBackoffMillis;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Supplier<String> currentUser;
+    private final Duration defaultMaxStaleness;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaSelection selection,
+                                    long failureBackoffMillis, ReadYourWritesTracker readYourWritesTracker,
+                                    Supplier<String> currentUser, Duration defaultMaxStaleness,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.failureBackoffMillis = failureBackoffMillis;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.currentUser = currentUser;
+        this.defaultMaxStaleness = defaultMaxStaleness;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite(currentUser.get());
+            }
+            return openPrimary(opener, "write");
+        }
+        if (readYourWritesTracker.isPinned(currentUser.get())) {
+            return openPrimary(opener, "read-your-writes");
+        }
+        Duration bound = StalenessContext.get() != null ? StalenessContext.get() : defaultMaxStaleness;
+        long maxStalenessMillis = bound.toMillis();
+        if (maxStalenessMillis <= 0) {
+            return openPrimary(opener, "staleness");
+        }
+
+        boolean failed = false;
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            long now = System.currentTimeMillis();
+            Replica replica = select(now, maxStalenessMillis);
+            if (replica == null) {
+                break;
+            }
+            try {
+                Connection connection = opener.open(replica.getDataSource());
+                count(replica.getName(), "replica");
+                return connection;
+            } catch (SQLException e) {
+                logger.warn("Replica {} unavailable, backing off for {} ms: {}",
+                    replica.getName(), failureBackoffMillis, e.getMessage());
+                replica.markUnavailable(now + failureBackoffMillis);
+                failed = true;
+            }
+        }
+        return openPrimary(opener, failed ? "failover" : "staleness");
+    }
+
+    private Connection openPrimary(ConnectionOpener opener, String reason) throws SQLException {
+        count("primary", reason);
+        return opener.open(primary);
+    }
+
+    private void count(String target, String reason) {
+        meterRegistry.counter("stocks.datasource.routing", "target", target, "reason", reason).increment();
+    }
+
+    /**
+     * Choose among the replicas in rotation that are within the staleness bound, or null if there are none
+     */
+    Replica select(long now, long maxStalenessMillis) {
+        if (selection == ReplicaSelection.LEAST_CONNECTIONS) {
+            Replica best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (Replica replica : replicas) {
+                if (replica.isAvailable(now) && replica.isWithin(maxStalenessMillis)) {
+                    int active = replica.getActiveConnections();
+                    if (active < bestActive) {
+                        best = replica;
+                        bestActive = active;
+                    }
+                }
+            }
+            return best;
+        }
+
+        int start = nextReplica.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.isAvailable(now) && replica.isWithin(maxStalenessMillis)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Close the replica pools; the primary pool is owned by the application context
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close replica {}: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,17 @@
+package anqorithm.stocks.datasource;
+
+/**
+ * How a read-only transaction picks among the available replicas
+ */
+public enum ReplicaSelection {
+
+    /**
+     * Rotate through replicas in order
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Pick the replica whose pool has the fewest connections in use
+     */
+    LEAST_CONNECTIONS
+}
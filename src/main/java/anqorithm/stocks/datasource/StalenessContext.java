@@ -0,0 +1,30 @@
+package anqorithm.stocks.datasource;
+
+import java.time.Duration;
+
+/**
+ * Holds the staleness bound of the request being served on the current thread
+ */
+public final class StalenessContext {
+
+    private static final ThreadLocal<Duration> MAX_STALENESS = new ThreadLocal<>();
+
+    private StalenessContext() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static void set(Duration maxStaleness) {
+        MAX_STALENESS.set(maxStaleness);
+    }
+
+    /**
+     * The bound for the current request, or null if it did not ask for one
+     */
+    public static Duration get() {
+        return MAX_STALENESS.get();
+    }
+
+    public static void clear() {
+        MAX_STALENESS.remove();
+    }
+}
@@ -0,0 +1,116 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Pairwise correlations of daily log returns and betas against the benchmark, as returned by
+ * {@code GET /analytics/correlation}. Rows and columns of the matrix follow {@code symbols}; undefined
+ * coefficients (a flat price series) and betas without enough overlapping closes are null.
+ */
+public class CorrelationMatrix {
+
+    private List<String> symbols;
+    private List<String> excludedSymbols;
+    private LocalDate from;
+    private LocalDate to;
+    private int observations;
+    private List<List<BigDecimal>> correlations;
+    private String benchmark;
+    private List<BigDecimal> betas;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime generatedAt;
+
+    public CorrelationMatrix() {}
+
+    public CorrelationMatrix(List<String> symbols, List<String> excludedSymbols, LocalDate from, LocalDate to,
+                             int observations, List<List<BigDecimal>> correlations, String benchmark,
+                             List<BigDecimal> betas, ZonedDateTime generatedAt) {
+        this.symbols = symbols;
+        this.excludedSymbols = excludedSymbols;
+        this.from = from;
+        this.to = to;
+        this.observations = observations;
+        this.correlations = correlations;
+        this.benchmark = benchmark;
+        this.betas = betas;
+        this.generatedAt = generatedAt;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public List<String> getExcludedSymbols() {
+        return excludedSymbols;
+    }
+
+    public void setExcludedSymbols(List<String> excludedSymbols) {
+        this.excludedSymbols = excludedSymbols;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int getObservations() {
+        return observations;
+    }
+
+    public void setObservations(int observations) {
+        this.observations = observations;
+    }
+
+    public List<List<BigDecimal>> getCorrelations() {
+        return correlations;
+    }
+
+    public void setCorrelations(List<List<BigDecimal>> correlations) {
+        this.correlations = correlations;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public void setBenchmark(String benchmark) {
+        this.benchmark = benchmark;
+    }
+
+    public List<BigDecimal> getBetas() {
+        return betas;
+    }
+
+    public void setBetas(List<BigDecimal> betas) {
+        this.betas = betas;
+    }
+
+    public ZonedDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(ZonedDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
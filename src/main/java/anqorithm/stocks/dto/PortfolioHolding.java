@@ -0,0 +1,47 @@
+package anqorithm.stocks.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+/**
+ * One (symbol, quantity) pair of a portfolio to value
+ */
+public class PortfolioHolding {
+
+    @NotBlank(message = "Symbol is required")
+    @Size(max = 10, message = "Symbol must not exceed 10 characters")
+    private String symbol;
+
+    @NotNull(message = "Quantity is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Quantity must be greater than 0")
+    @Digits(integer = 12, fraction = 6, message = "Quantity must have at most 12 integer and 6 fraction digits")
+    private BigDecimal quantity;
+
+    public PortfolioHolding() {}
+
+    public PortfolioHolding(String symbol, BigDecimal quantity) {
+        this.symbol = symbol;
+        this.quantity = quantity;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,86 @@
+package anqorithm.stocks.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A valued holding: its price, market value and share of the portfolio's total value
+ */
+public class PortfolioPosition {
+
+    private String symbol;
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private BigDecimal value;
+    private BigDecimal weight;
+    private String sector;
+    private BigDecimal beta;
+
+    public PortfolioPosition() {}
+
+    public PortfolioPosition(String symbol, BigDecimal quantity, BigDecimal price, BigDecimal value,
+                             BigDecimal weight, String sector, BigDecimal beta) {
+        this.symbol = symbol;
+        this.quantity = quantity;
+        this.price = price;
+        this.value = value;
+        this.weight = weight;
+        this.sector = sector;
+        this.beta = beta;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public void setValue(BigDecimal value) {
+        this.value = value;
+    }
+
+    public BigDecimal getWeight() {
+        return weight;
+    }
+
+    public void setWeight(BigDecimal weight) {
+        this.weight = weight;
+    }
+
+    public String getSector() {
+        return sector;
+    }
+
+    public void setSector(String sector) {
+        this.sector = sector;
+    }
+
+    public BigDecimal getBeta() {
+        return beta;
+    }
+
+    public void setBeta(BigDecimal beta) {
+        this.beta = beta;
+    }
+}
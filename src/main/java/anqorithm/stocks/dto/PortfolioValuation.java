@@ -0,0 +1,86 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of {@code POST /portfolios/valuation}. Values are exact; weights are fractions of the total value
+ * rounded to 6 places. Weighted beta only covers positions whose stock has a beta, and symbols without a
+ * stock are listed in {@code unknownSymbols} instead of being valued.
+ */
+public class PortfolioValuation {
+
+    private BigDecimal totalValue;
+    private BigDecimal weightedBeta;
+    private Map<String, BigDecimal> sectorWeights;
+    private List<PortfolioPosition> positions;
+    private List<String> unknownSymbols;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime valuedAt;
+
+    public PortfolioValuation() {}
+
+    public PortfolioValuation(BigDecimal totalValue, BigDecimal weightedBeta, Map<String, BigDecimal> sectorWeights,
+                              List<PortfolioPosition> positions, List<String> unknownSymbols,
+                              ZonedDateTime valuedAt) {
+        this.totalValue = totalValue;
+        this.weightedBeta = weightedBeta;
+        this.sectorWeights = sectorWeights;
+        this.positions = positions;
+        this.unknownSymbols = unknownSymbols;
+        this.valuedAt = valuedAt;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public BigDecimal getWeightedBeta() {
+        return weightedBeta;
+    }
+
+    public void setWeightedBeta(BigDecimal weightedBeta) {
+        this.weightedBeta = weightedBeta;
+    }
+
+    public Map<String, BigDecimal> getSectorWeights() {
+        return sectorWeights;
+    }
+
+    public void setSectorWeights(Map<String, BigDecimal> sectorWeights) {
+        this.sectorWeights = sectorWeights;
+    }
+
+    public List<PortfolioPosition> getPositions() {
+        return positions;
+    }
+
+    public void setPositions(List<PortfolioPosition> positions) {
+        this.positions = positions;
+    }
+
+    public List<String> getUnknownSymbols() {
+        return unknownSymbols;
+    }
+
+    public void setUnknownSymbols(List<String> unknownSymbols) {
+        this.unknownSymbols = unknownSymbols;
+    }
+
+    public ZonedDateTime getValuedAt() {
+        return valuedAt;
+    }
+
+    public void setValuedAt(ZonedDateTime valuedAt) {
+        this.valuedAt = valuedAt;
+    }
+}
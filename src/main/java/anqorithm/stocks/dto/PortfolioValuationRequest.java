@@ -0,0 +1,29 @@
+package anqorithm.stocks.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /portfolios/valuation}; a symbol listed more than once is valued at its total quantity
+ */
+public class PortfolioValuationRequest {
+
+    @NotEmpty(message = "At least one holding is required")
+    private List<@Valid PortfolioHolding> holdings;
+
+    public PortfolioValuationRequest() {}
+
+    public PortfolioValuationRequest(List<PortfolioHolding> holdings) {
+        this.holdings = holdings;
+    }
+
+    public List<PortfolioHolding> getHoldings() {
+        return holdings;
+    }
+
+    public void setHoldings(List<PortfolioHolding> holdings) {
+        this.holdings = holdings;
+    }
+}
@@ -0,0 +1,60 @@
+package anqorithm.stocks.dto;
+
+import anqorithm.stocks.alert.PriceAlert;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of {@code POST /alerts}. Without a direction, the alert fires when the price crosses the threshold
+ * from where it is now.
+ */
+public class PriceAlertRequest {
+
+    @NotBlank(message = "Symbol is required")
+    @Size(max = 10, message = "Symbol must not exceed 10 characters")
+    private String symbol;
+
+    @NotNull(message = "Threshold is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Threshold must be greater than 0")
+    @Digits(integer = 8, fraction = 4, message = "Threshold must have at most 8 integer and 4 fraction digits")
+    private BigDecimal threshold;
+
+    private PriceAlert.Direction direction;
+
+    public PriceAlertRequest() {}
+
+    public PriceAlertRequest(String symbol, BigDecimal threshold, PriceAlert.Direction direction) {
+        this.symbol = symbol;
+        this.threshold = threshold;
+        this.direction = direction;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(BigDecimal threshold) {
+        this.threshold = threshold;
+    }
+
+    public PriceAlert.Direction getDirection() {
+        return direction;
+    }
+
+    public void setDirection(PriceAlert.Direction direction) {
+        this.direction = direction;
+    }
+}
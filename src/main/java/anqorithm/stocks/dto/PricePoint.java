@@ -0,0 +1,47 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+public class PricePoint {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime timestamp;
+
+    private BigDecimal price;
+    private Long volume;
+
+    public PricePoint() {}
+
+    public PricePoint(ZonedDateTime timestamp, BigDecimal price, Long volume) {
+        this.timestamp = timestamp;
+        this.price = price;
+        this.volume = volume;
+    }
+
+    public ZonedDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(ZonedDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(Long volume) {
+        this.volume = volume;
+    }
+}
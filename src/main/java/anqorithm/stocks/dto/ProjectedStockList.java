@@ -0,0 +1,19 @@
+package anqorithm.stocks.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stocks narrowed to a {@code ?fields=} projection, one ordered map of JSON names per stock.
+ * A distinct list type so that message converters which only encode whole stocks can decline it by class.
+ */
+public class ProjectedStockList extends ArrayList<Map<String, Object>> {
+
+    public ProjectedStockList() {
+    }
+
+    public ProjectedStockList(Collection<? extends Map<String, Object>> rows) {
+        super(rows);
+    }
+}
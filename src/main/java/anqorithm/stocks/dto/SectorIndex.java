@@ -0,0 +1,102 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * A market-cap-weighted sector index level and its move since the session open, as returned by
+ * {@code GET /sectors/{sector}/index} and listed by {@code GET /sectors/heat-map}
+ */
+public class SectorIndex {
+
+    private String sector;
+    private BigDecimal level;
+    private BigDecimal openLevel;
+    private BigDecimal change;
+    private BigDecimal changePercent;
+    private BigDecimal marketCap;
+    private int constituents;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime timestamp;
+
+    public SectorIndex() {}
+
+    public SectorIndex(String sector, BigDecimal level, BigDecimal openLevel, BigDecimal change,
+                       BigDecimal changePercent, BigDecimal marketCap, int constituents, ZonedDateTime timestamp) {
+        this.sector = sector;
+        this.level = level;
+        this.openLevel = openLevel;
+        this.change = change;
+        this.changePercent = changePercent;
+        this.marketCap = marketCap;
+        this.constituents = constituents;
+        this.timestamp = timestamp;
+    }
+
+    public String getSector() {
+        return sector;
+    }
+
+    public void setSector(String sector) {
+        this.sector = sector;
+    }
+
+    public BigDecimal getLevel() {
+        return level;
+    }
+
+    public void setLevel(BigDecimal level) {
+        this.level = level;
+    }
+
+    public BigDecimal getOpenLevel() {
+        return openLevel;
+    }
+
+    public void setOpenLevel(BigDecimal openLevel) {
+        this.openLevel = openLevel;
+    }
+
+    public BigDecimal getChange() {
+        return change;
+    }
+
+    public void setChange(BigDecimal change) {
+        this.change = change;
+    }
+
+    public BigDecimal getChangePercent() {
+        return changePercent;
+    }
+
+    public void setChangePercent(BigDecimal changePercent) {
+        this.changePercent = changePercent;
+    }
+
+    public BigDecimal getMarketCap() {
+        return marketCap;
+    }
+
+    public void setMarketCap(BigDecimal marketCap) {
+        this.marketCap = marketCap;
+    }
+
+    public int getConstituents() {
+        return constituents;
+    }
+
+    public void setConstituents(int constituents) {
+        this.constituents = constituents;
+    }
+
+    public ZonedDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(ZonedDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
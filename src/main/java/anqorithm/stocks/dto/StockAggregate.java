@@ -0,0 +1,67 @@
+package anqorithm.stocks.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Count, averages and totals over a set of stocks: all of them, or one sector or industry.
+ * Averages skip stocks without a value and are null when none has one.
+ */
+public class StockAggregate {
+
+    private long count;
+    private BigDecimal averagePrice;
+    private BigDecimal averageMarketCap;
+    private BigDecimal averagePeRatio;
+    private Long totalMarketCap;
+    private Long totalVolume;
+
+    public StockAggregate() {}
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public BigDecimal getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(BigDecimal averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public BigDecimal getAverageMarketCap() {
+        return averageMarketCap;
+    }
+
+    public void setAverageMarketCap(BigDecimal averageMarketCap) {
+        this.averageMarketCap = averageMarketCap;
+    }
+
+    public BigDecimal getAveragePeRatio() {
+        return averagePeRatio;
+    }
+
+    public void setAveragePeRatio(BigDecimal averagePeRatio) {
+        this.averagePeRatio = averagePeRatio;
+    }
+
+    public Long getTotalMarketCap() {
+        return totalMarketCap;
+    }
+
+    public void setTotalMarketCap(Long totalMarketCap) {
+        this.totalMarketCap = totalMarketCap;
+    }
+
+    public Long getTotalVolume() {
+        return totalVolume;
+    }
+
+    public void setTotalVolume(Long totalVolume) {
+        this.totalVolume = totalVolume;
+    }
+}
@@ -0,0 +1,49 @@
+package anqorithm.stocks.dto;
+
+import anqorithm.stocks.entity.Stock;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Outcome of {@code POST /stocks/batch}: the stocks created and how many were skipped as duplicates
+ */
+@JsonPropertyOrder({"created", "skipped", "stocks"})
+public class StockBatchResult {
+
+    private int created;
+    private int skipped;
+    private List<Stock> stocks;
+
+    public StockBatchResult() {}
+
+    public StockBatchResult(int created, int skipped, List<Stock> stocks) {
+        this.created = created;
+        this.skipped = skipped;
+        this.stocks = stocks;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public List<Stock> getStocks() {
+        return stocks;
+    }
+
+    public void setStocks(List<Stock> stocks) {
+        this.stocks = stocks;
+    }
+}
@@ -0,0 +1,97 @@
+package anqorithm.stocks.dto;
+
+import anqorithm.stocks.entity.Stock;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.ZonedDateTime;
+
+/**
+ * One entry of the stock change feed: the current state of a created or updated stock, or a tombstone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockChange {
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+
+    private Type type;
+    private Long id;
+    private String symbol;
+    private Long version;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSSXXX")
+    private ZonedDateTime changedAt;
+
+    private Stock stock;
+
+    public StockChange() {}
+
+    public StockChange(Type type, Long id, String symbol, Long version, ZonedDateTime changedAt, Stock stock) {
+        this.type = type;
+        this.id = id;
+        this.symbol = symbol;
+        this.version = version;
+        this.changedAt = changedAt;
+        this.stock = stock;
+    }
+
+    public static StockChange upsert(Stock stock) {
+        return new StockChange(Type.UPSERT, stock.getId(), stock.getSymbol(), stock.getVersion(),
+            stock.getUpdatedAt(), stock);
+    }
+
+    public static StockChange delete(Long id, String symbol, ZonedDateTime deletedAt) {
+        return new StockChange(Type.DELETE, id, symbol, null, deletedAt, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public ZonedDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(ZonedDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public Stock getStock() {
+        return stock;
+    }
+
+    public void setStock(Stock stock) {
+        this.stock = stock;
+    }
+}
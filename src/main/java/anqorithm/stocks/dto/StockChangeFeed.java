@@ -0,0 +1,46 @@
+package anqorithm.stocks.dto;
+
+import java.util.List;
+
+/**
+ * A page of the stock change feed. Pass {@code cursor} back as {@code since} to continue;
+ * {@code hasMore} means another page is already available.
+ */
+public class StockChangeFeed {
+
+    private List<StockChange> changes;
+    private String cursor;
+    private boolean hasMore;
+
+    public StockChangeFeed() {}
+
+    public StockChangeFeed(List<StockChange> changes, String cursor, boolean hasMore) {
+        this.changes = changes;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<StockChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<StockChange> changes) {
+        this.changes = changes;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
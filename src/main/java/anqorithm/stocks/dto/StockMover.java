@@ -0,0 +1,81 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * A stock's move since its session reference price, as listed by {@code GET /stocks/movers}
+ */
+public class StockMover {
+
+    private String symbol;
+    private BigDecimal price;
+    private BigDecimal referencePrice;
+    private BigDecimal change;
+    private BigDecimal changePercent;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime timestamp;
+
+    public StockMover() {}
+
+    public StockMover(String symbol, BigDecimal price, BigDecimal referencePrice, BigDecimal change,
+                      BigDecimal changePercent, ZonedDateTime timestamp) {
+        this.symbol = symbol;
+        this.price = price;
+        this.referencePrice = referencePrice;
+        this.change = change;
+        this.changePercent = changePercent;
+        this.timestamp = timestamp;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getReferencePrice() {
+        return referencePrice;
+    }
+
+    public void setReferencePrice(BigDecimal referencePrice) {
+        this.referencePrice = referencePrice;
+    }
+
+    public BigDecimal getChange() {
+        return change;
+    }
+
+    public void setChange(BigDecimal change) {
+        this.change = change;
+    }
+
+    public BigDecimal getChangePercent() {
+        return changePercent;
+    }
+
+    public void setChangePercent(BigDecimal changePercent) {
+        this.changePercent = changePercent;
+    }
+
+    public ZonedDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(ZonedDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
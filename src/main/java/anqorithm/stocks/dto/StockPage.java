@@ -0,0 +1,79 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * One page of {@code GET /stocks}. Holds either whole stocks or field projections.
+ */
+@JsonPropertyOrder({"stocks", "currentPage", "totalItems", "totalPages", "hasNext", "hasPrevious"})
+public class StockPage {
+
+    private List<?> stocks;
+    private int currentPage;
+    private long totalItems;
+    private int totalPages;
+    private boolean hasNext;
+    private boolean hasPrevious;
+
+    public StockPage() {}
+
+    public StockPage(List<?> stocks, int currentPage, long totalItems, int totalPages,
+                     boolean hasNext, boolean hasPrevious) {
+        this.stocks = stocks;
+        this.currentPage = currentPage;
+        this.totalItems = totalItems;
+        this.totalPages = totalPages;
+        this.hasNext = hasNext;
+        this.hasPrevious = hasPrevious;
+    }
+
+    public List<?> getStocks() {
+        return stocks;
+    }
+
+    public void setStocks(List<?> stocks) {
+        this.stocks = stocks;
+    }
+
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    public void setCurrentPage(int currentPage) {
+        this.currentPage = currentPage;
+    }
+
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(long totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public boolean isHasPrevious() {
+        return hasPrevious;
+    }
+
+    public void setHasPrevious(boolean hasPrevious) {
+        this.hasPrevious = hasPrevious;
+    }
+}
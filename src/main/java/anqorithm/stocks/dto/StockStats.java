@@ -0,0 +1,119 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Market-wide aggregates for {@code GET /stocks/stats}. Averages skip stocks without a value;
+ * {@code generatedAt} tells how old a cached snapshot is.
+ */
+public class StockStats {
+
+    private long totalStocks;
+    private BigDecimal averagePrice;
+    private BigDecimal averageMarketCap;
+    private BigDecimal averagePeRatio;
+    private Long totalMarketCap;
+    private Long totalVolume;
+    private List<String> sectors;
+    private List<String> industries;
+    private Map<String, Long> stocksBySector;
+    private Map<String, Long> stocksByIndustry;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime generatedAt;
+
+    public StockStats() {}
+
+    public long getTotalStocks() {
+        return totalStocks;
+    }
+
+    public void setTotalStocks(long totalStocks) {
+        this.totalStocks = totalStocks;
+    }
+
+    public BigDecimal getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(BigDecimal averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public BigDecimal getAverageMarketCap() {
+        return averageMarketCap;
+    }
+
+    public void setAverageMarketCap(BigDecimal averageMarketCap) {
+        this.averageMarketCap = averageMarketCap;
+    }
+
+    public BigDecimal getAveragePeRatio() {
+        return averagePeRatio;
+    }
+
+    public void setAveragePeRatio(BigDecimal averagePeRatio) {
+        this.averagePeRatio = averagePeRatio;
+    }
+
+    public Long getTotalMarketCap() {
+        return totalMarketCap;
+    }
+
+    public void setTotalMarketCap(Long totalMarketCap) {
+        this.totalMarketCap = totalMarketCap;
+    }
+
+    public Long getTotalVolume() {
+        return totalVolume;
+    }
+
+    public void setTotalVolume(Long totalVolume) {
+        this.totalVolume = totalVolume;
+    }
+
+    public List<String> getSectors() {
+        return sectors;
+    }
+
+    public void setSectors(List<String> sectors) {
+        this.sectors = sectors;
+    }
+
+    public List<String> getIndustries() {
+        return industries;
+    }
+
+    public void setIndustries(List<String> industries) {
+        this.industries = industries;
+    }
+
+    public Map<String, Long> getStocksBySector() {
+        return stocksBySector;
+    }
+
+    public void setStocksBySector(Map<String, Long> stocksBySector) {
+        this.stocksBySector = stocksBySector;
+    }
+
+    public Map<String, Long> getStocksByIndustry() {
+        return stocksByIndustry;
+    }
+
+    public void setStocksByIndustry(Map<String, Long> stocksByIndustry) {
+        this.stocksByIndustry = stocksByIndustry;
+    }
+
+    public ZonedDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(ZonedDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
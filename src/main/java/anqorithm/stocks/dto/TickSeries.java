@@ -0,0 +1,66 @@
+package anqorithm.stocks.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Column-oriented tick window: element i of each array describes the same tick.
+ * Timestamps are epoch milliseconds, oldest first.
+ */
+public class TickSeries {
+
+    private String symbol;
+    private int count;
+    private long[] timestamps;
+    private BigDecimal[] prices;
+    private long[] volumes;
+
+    public TickSeries() {}
+
+    public TickSeries(String symbol, long[] timestamps, BigDecimal[] prices, long[] volumes) {
+        this.symbol = symbol;
+        this.count = timestamps.length;
+        this.timestamps = timestamps;
+        this.prices = prices;
+        this.volumes = volumes;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    public BigDecimal[] getPrices() {
+        return prices;
+    }
+
+    public void setPrices(BigDecimal[] prices) {
+        this.prices = prices;
+    }
+
+    public long[] getVolumes() {
+        return volumes;
+    }
+
+    public void setVolumes(long[] volumes) {
+        this.volumes = volumes;
+    }
+}
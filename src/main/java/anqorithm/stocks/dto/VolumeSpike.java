@@ -0,0 +1,70 @@
+package anqorithm.stocks.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * A symbol whose current volume is a multiple of its moving average, as listed by {@code GET /stocks/volume-spikes}
+ */
+public class VolumeSpike {
+
+    private String symbol;
+    private long volume;
+    private long averageVolume;
+    private BigDecimal ratio;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime timestamp;
+
+    public VolumeSpike() {}
+
+    public VolumeSpike(String symbol, long volume, long averageVolume, BigDecimal ratio, ZonedDateTime timestamp) {
+        this.symbol = symbol;
+        this.volume = volume;
+        this.averageVolume = averageVolume;
+        this.ratio = ratio;
+        this.timestamp = timestamp;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(long volume) {
+        this.volume = volume;
+    }
+
+    public long getAverageVolume() {
+        return averageVolume;
+    }
+
+    public void setAverageVolume(long averageVolume) {
+        this.averageVolume = averageVolume;
+    }
+
+    public BigDecimal getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(BigDecimal ratio) {
+        this.ratio = ratio;
+    }
+
+    public ZonedDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(ZonedDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
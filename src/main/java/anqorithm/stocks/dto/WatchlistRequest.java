@@ -0,0 +1,44 @@
+package anqorithm.stocks.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /watchlists} and {@code PUT /watchlists/{id}}. Symbols are case-insensitive and
+ * duplicates are dropped, keeping the first position.
+ */
+public class WatchlistRequest {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must not exceed 100 characters")
+    private String name;
+
+    @NotNull(message = "Symbols are required")
+    private List<@NotBlank @Size(max = 10, message = "Symbol must not exceed 10 characters") String> symbols;
+
+    public WatchlistRequest() {}
+
+    public WatchlistRequest(String name, List<String> symbols) {
+        this.name = name;
+        this.symbols = symbols;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+}
@@ -0,0 +1,94 @@
+package anqorithm.stocks.dto;
+
+import anqorithm.stocks.entity.Stock;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * A watchlist and its symbols; {@code stocks} holds the full rows of the symbols that still have a stock,
+ * in watchlist order, and is only present on {@code GET /watchlists/{id}}
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WatchlistResponse {
+
+    private Long id;
+    private String name;
+    private List<String> symbols;
+    private List<Stock> stocks;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime createdAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX")
+    private ZonedDateTime updatedAt;
+
+    public WatchlistResponse() {}
+
+    public WatchlistResponse(Long id, String name, List<String> symbols, List<Stock> stocks,
+                             ZonedDateTime createdAt, ZonedDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.symbols = symbols;
+        this.stocks = stocks;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * A copy carrying the hydrated stock rows
+     */
+    public WatchlistResponse withStocks(List<Stock> stocks) {
+        return new WatchlistResponse(id, name, symbols, stocks, createdAt, updatedAt);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public List<Stock> getStocks() {
+        return stocks;
+    }
+
+    public void setStocks(List<Stock> stocks) {
+        this.stocks = stocks;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(ZonedDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(ZonedDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -15,7 +15,8 @@ import java.util.Objects;
         @Index(name = "idx_stocks_symbol", columnList = "symbol"),
         @Index(name = "idx_stocks_sector", columnList = "sector"),
         @Index(name = "idx_stocks_market_cap", columnList = "market_cap"),
-        @Index(name = "idx_stocks_current_price", columnList = "current_price")
+        @Index(name = "idx_stocks_current_price", columnList = "current_price"),
+        @Index(name = "idx_stocks_updated_at", columnList = "updated_at, id")
 })
 @NamedQueries({
         @NamedQuery(name = "Stock.findBySymbol", query = "SELECT s FROM Stock s WHERE s.symbol = :symbol"),
@@ -242,10 +243,18 @@ public class Stock {
         return createdAt;
     }
 
+    public void setCreatedAt(ZonedDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public ZonedDateTime getUpdatedAt() {
         return updatedAt;
     }
 
+    public void setUpdatedAt(ZonedDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public Long getVersion() {
         return version;
     }
@@ -0,0 +1,94 @@
+package anqorithm.stocks.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A named, ordered list of stock symbols owned by one user. Symbols are stored as given rather than as
+ * stock ids, so a deleted or renamed stock simply drops out when the list is hydrated.
+ */
+@Entity
+@Table(name = "watchlists",
+    indexes = @Index(name = "idx_watchlists_user_id", columnList = "user_id"),
+    uniqueConstraints = @UniqueConstraint(name = "uk_watchlists_user_name", columnNames = {"user_id", "name"}))
+public class Watchlist {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @ElementCollection
+    @CollectionTable(name = "watchlist_symbols", joinColumns = @JoinColumn(name = "watchlist_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "symbol", nullable = false, length = 10)
+    private List<String> symbols = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private ZonedDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @UpdateTimestamp
+    private ZonedDateTime updatedAt;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    public Watchlist() {}
+
+    public Watchlist(User user, String name, List<String> symbols) {
+        this.user = user;
+        this.name = name;
+        this.symbols = new ArrayList<>(symbols);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols.clear();
+        this.symbols.addAll(symbols);
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
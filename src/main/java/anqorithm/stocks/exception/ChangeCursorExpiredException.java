@@ -0,0 +1,8 @@
+package anqorithm.stocks.exception;
+
+public class ChangeCursorExpiredException extends RuntimeException {
+
+    public ChangeCursorExpiredException(String message) {
+        super(message);
+    }
+}
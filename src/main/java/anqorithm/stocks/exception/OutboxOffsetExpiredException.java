@@ -0,0 +1,8 @@
+package anqorithm.stocks.exception;
+
+public class OutboxOffsetExpiredException extends RuntimeException {
+
+    public OutboxOffsetExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package anqorithm.stocks.journal;
+
+/**
+ * When journal writes are forced from the page cache to the storage device.
+ * Every policy survives a JVM crash because mapped pages belong to the kernel;
+ * only {@link #ALWAYS} also survives a power loss without losing acknowledged ticks.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Force the written record before the append returns
+     */
+    ALWAYS,
+
+    /**
+     * Force dirty pages on a fixed schedule
+     */
+    INTERVAL,
+
+    /**
+     * Leave write-back entirely to the operating system
+     */
+    NEVER
+}
@@ -0,0 +1,119 @@
+package anqorithm.stocks.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed-size binary journal entry holding the full price/volume state of one stock after an update.
+ * <pre>
+ * offset size field
+ *  0      8   sequence (starts at 1, 0 marks unwritten space)
+ *  8      8   timestamp, epoch millis
+ * 16      8   stock id
+ * 24      8   price scaled by Tick.PRICE_SCALE
+ * 32      8   cumulative volume
+ * 40     10   symbol, US-ASCII, zero padded
+ * 50     10   reserved
+ * 60      4   CRC32C of bytes 0-59
+ * </pre>
+ */
+public final class JournalRecord {
+
+    public static final int SIZE = 64;
+    static final int SYMBOL_LENGTH = 10;
+    private static final int SYMBOL_OFFSET = 40;
+    private static final int CHECKSUM_OFFSET = 60;
+
+    private final long sequence;
+    private final long timestamp;
+    private final long stockId;
+    private final long scaledPrice;
+    private final long volume;
+    private final String symbol;
+
+    public JournalRecord(long sequence, long timestamp, long stockId, long scaledPrice, long volume, String symbol) {
+        if (symbol.length() > SYMBOL_LENGTH) {
+            throw new IllegalArgumentException("Symbol too long for journal record: " + symbol);
+        }
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.stockId = stockId;
+        this.scaledPrice = scaledPrice;
+        this.volume = volume;
+        this.symbol = symbol;
+    }
+
+    /**
+     * Write this record at the given absolute position without moving the buffer's position
+     */
+    void writeTo(ByteBuffer buffer, int position) {
+        buffer.putLong(position, sequence);
+        buffer.putLong(position + 8, timestamp);
+        buffer.putLong(position + 16, stockId);
+        buffer.putLong(position + 24, scaledPrice);
+        buffer.putLong(position + 32, volume);
+        byte[] symbolBytes = symbol.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < SYMBOL_LENGTH; i++) {
+            buffer.put(position + SYMBOL_OFFSET + i, i < symbolBytes.length ? symbolBytes[i] : 0);
+        }
+        for (int i = SYMBOL_OFFSET + SYMBOL_LENGTH; i < CHECKSUM_OFFSET; i++) {
+            buffer.put(position + i, (byte) 0);
+        }
+        buffer.putInt(position + CHECKSUM_OFFSET, checksum(buffer, position));
+    }
+
+    /**
+     * Read the record at the given absolute position, or null if the slot is unwritten or torn
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int position) {
+        long sequence = buffer.getLong(position);
+        if (sequence <= 0 || buffer.getInt(position + CHECKSUM_OFFSET) != checksum(buffer, position)) {
+            return null;
+        }
+        byte[] symbolBytes = new byte[SYMBOL_LENGTH];
+        int length = 0;
+        while (length < SYMBOL_LENGTH && buffer.get(position + SYMBOL_OFFSET + length) != 0) {
+            symbolBytes[length] = buffer.get(position + SYMBOL_OFFSET + length);
+            length++;
+        }
+        return new JournalRecord(
+            sequence,
+            buffer.getLong(position + 8),
+            buffer.getLong(position + 16),
+            buffer.getLong(position + 24),
+            buffer.getLong(position + 32),
+            new String(symbolBytes, 0, length, StandardCharsets.US_ASCII)
+        );
+    }
+
+    private static int checksum(ByteBuffer buffer, int position) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getStockId() {
+        return stockId;
+    }
+
+    public long getScaledPrice() {
+        return scaledPrice;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+}
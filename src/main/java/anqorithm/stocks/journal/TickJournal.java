@@ -0,0 +1,206 @@
+package anqorithm.stocks.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of {@link JournalRecord}s stored in fixed-size, memory-mapped segment files.
+ * <p>
+ * Segments are named after the sequence of their first record, so lexical order is replay order.
+ * A separate checkpoint file holds the highest sequence known to be applied to the database;
+ * records at or below it are skipped on replay and segments wholly below it are deleted.
+ */
+public class TickJournal implements Closeable {
+
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final FsyncPolicy fsyncPolicy;
+    private final List<Long> segmentBases = new ArrayList<>();
+
+    private MappedByteBuffer current;
+    private int currentRecords;
+    private long nextSequence;
+    private long checkpoint;
+
+    public TickJournal(Path directory, long segmentBytes, FsyncPolicy fsyncPolicy) {
+        if (segmentBytes < JournalRecord.SIZE || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between " + JournalRecord.SIZE + " bytes and 2GB");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = (int) (segmentBytes / JournalRecord.SIZE);
+        this.fsyncPolicy = fsyncPolicy;
+        try {
+            Files.createDirectories(directory);
+            this.checkpoint = readCheckpoint();
+            for (Path segment : listSegments()) {
+                segmentBases.add(baseOf(segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open tick journal in " + directory, e);
+        }
+        this.nextSequence = checkpoint + 1;
+    }
+
+    /**
+     * Feed every valid record above the checkpoint to the consumer, oldest first.
+     * Reading stops at the first unwritten or torn record of each segment. Returns the record count.
+     */
+    public synchronized long replay(Consumer<JournalRecord> consumer) {
+        long replayed = 0;
+        for (long base : segmentBases) {
+            MappedByteBuffer segment = map(segmentPath(base));
+            for (int i = 0; i < recordsPerSegment && (long) (i + 1) * JournalRecord.SIZE <= segment.capacity(); i++) {
+                JournalRecord record = JournalRecord.readFrom(segment, i * JournalRecord.SIZE);
+                if (record == null) {
+                    break;
+                }
+                nextSequence = Math.max(nextSequence, record.getSequence() + 1);
+                if (record.getSequence() > checkpoint) {
+                    consumer.accept(record);
+                    replayed++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Append a record and return its sequence. With {@link FsyncPolicy#ALWAYS} the record is on disk when this returns.
+     */
+    public synchronized long append(long timestamp, long stockId, long scaledPrice, long volume, String symbol) {
+        if (current == null || currentRecords == recordsPerSegment) {
+            roll();
+        }
+        long sequence = nextSequence++;
+        int position = currentRecords * JournalRecord.SIZE;
+        new JournalRecord(sequence, timestamp, stockId, scaledPrice, volume, symbol).writeTo(current, position);
+        currentRecords++;
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            current.force(position, JournalRecord.SIZE);
+        }
+        return sequence;
+    }
+
+    /**
+     * Force the active segment to disk
+     */
+    public synchronized void sync() {
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    /**
+     * Record that everything up to and including the sequence has been applied, and delete the
+     * segments that no longer hold anything newer
+     */
+    public synchronized void checkpoint(long sequence) {
+        if (sequence <= checkpoint) {
+            return;
+        }
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            ByteBuffer bytes = ByteBuffer.allocate(Long.BYTES).putLong(0, sequence);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(bytes);
+                channel.force(true);
+            }
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            checkpoint = sequence;
+
+            // A segment can go once the next segment starts at or below the checkpoint + 1
+            while (segmentBases.size() > 1 && segmentBases.get(1) <= checkpoint + 1) {
+                Files.deleteIfExists(segmentPath(segmentBases.remove(0)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write tick journal checkpoint", e);
+        }
+    }
+
+    public synchronized long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segmentBases.size();
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    @Override
+    public synchronized void close() {
+        sync();
+        current = null;
+    }
+
+    private void roll() {
+        if (current != null) {
+            current.force();
+        }
+        long base = nextSequence;
+        current = map(segmentPath(base));
+        currentRecords = 0;
+        // A crash right after a roll can leave an empty segment that starts at this very sequence
+        if (segmentBases.isEmpty() || segmentBases.get(segmentBases.size() - 1) != base) {
+            segmentBases.add(base);
+        }
+    }
+
+    private MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * JournalRecord.SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map tick journal segment " + path, e);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private static long baseOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
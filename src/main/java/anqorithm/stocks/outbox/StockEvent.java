@@ -0,0 +1,110 @@
+package anqorithm.stocks.outbox;
+
+import anqorithm.stocks.entity.Stock;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Compact record of one committed stock mutation, as stored in the outbox and relayed to
+ * {@link StockEventListener}s. The offset is the outbox row id: unique, and increasing in commit
+ * order once relayed. Version is null when the writer does not know it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class StockEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        PRICE_VOLUME_CHANGED,
+        DELETED
+    }
+
+    private final long offset;
+    private final Type type;
+    private final Long stockId;
+    private final String symbol;
+    private final Long version;
+    private final BigDecimal price;
+    private final Long volume;
+    private final long timestamp;
+
+    public StockEvent(long offset, Type type, Long stockId, String symbol, Long version,
+                      BigDecimal price, Long volume, long timestamp) {
+        this.offset = offset;
+        this.type = Objects.requireNonNull(type, "type");
+        this.stockId = stockId;
+        this.symbol = symbol;
+        this.version = version;
+        this.price = price;
+        this.volume = volume;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * An event for the current state of a stock, not yet assigned an offset
+     */
+    public static StockEvent of(Type type, Stock stock, long timestamp) {
+        if (type == Type.DELETED) {
+            return new StockEvent(0, type, stock.getId(), stock.getSymbol(), null, null, null, timestamp);
+        }
+        return new StockEvent(0, type, stock.getId(), stock.getSymbol(), stock.getVersion(),
+            stock.getCurrentPrice(), stock.getVolume(), timestamp);
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getStockId() {
+        return stockId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Long getVolume() {
+        return volume;
+    }
+
+    /**
+     * Epoch milliseconds at which the mutation was written
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StockEvent that)) return false;
+        return offset == that.offset && timestamp == that.timestamp && type == that.type
+            && Objects.equals(stockId, that.stockId) && Objects.equals(symbol, that.symbol)
+            && Objects.equals(version, that.version) && Objects.equals(price, that.price)
+            && Objects.equals(volume, that.volume);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, type, stockId, symbol, version, price, volume, timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return "StockEvent{" + offset + " " + type + " " + symbol + "}";
+    }
+}
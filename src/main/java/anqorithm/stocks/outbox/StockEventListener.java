@@ -0,0 +1,13 @@
+package anqorithm.stocks.outbox;
+
+import java.util.List;
+
+/**
+ * In-process subscriber to committed stock mutations relayed from the outbox by {@link StockEventRelay}.
+ * Batches arrive in offset order on the relay thread, each event exactly once per process, and
+ * implementations should return quickly.
+ */
+public interface StockEventListener {
+
+    void onEvents(List<StockEvent> events);
+}
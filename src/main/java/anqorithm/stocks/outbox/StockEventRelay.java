@@ -0,0 +1,280 @@
+package anqorithm.stocks.outbox;
+
+import anqorithm.stocks.exception.OutboxOffsetExpiredException;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Relays committed outbox events to every in-process {@link StockEventListener}, in offset order.
+ * <p>
+ * Offsets are assigned at insert, not at commit, so a transaction that is still open leaves a hole that a
+ * later commit will fill. The relay only advances through contiguous offsets and waits at a hole for up to
+ * the gap timeout; after that it moves on, but keeps the skipped offsets and looks for them again on every
+ * poll for the late-commit window. A transaction that commits after its offset was skipped is then relayed
+ * out of order, which listeners tolerate since they already ignore events older than the version they hold.
+ * Holes still empty after the window are taken to be rolled-back inserts. Each instance relays
+ * independently from the newest offset at startup. Relayed rows are pruned once older than the retention
+ * window, which is also how far back {@link #replay} can go.
+ */
+@Component
+public class StockEventRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockEventRelay.class);
+    // Bounds the skipped offsets kept for re-checking, and the IN list a single hole can add
+    private static final int MAX_SKIPPED = 10_000;
+
+    private final StockOutboxJdbcRepository stockOutboxJdbcRepository;
+    private final ObjectProvider<StockEventListener> listenerProvider;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final long lateCommitWindowMillis;
+    private final Duration retention;
+    private final LongSupplier clock;
+    private final Counter relayedCounter;
+    private final Counter skippedCounter;
+    private final Counter lateCounter;
+    private final Timer lagTimer;
+
+    private List<StockEventListener> listeners;
+    private volatile long relayedOffset;
+    private long gapOffset = -1;
+    private long gapSince;
+    // Skipped offsets to look for again, mapped to when they were skipped
+    private final NavigableMap<Long, Long> skipped = new TreeMap<>();
+
+    @Autowired
+    public StockEventRelay(StockOutboxJdbcRepository stockOutboxJdbcRepository,
+                           ObjectProvider<StockEventListener> listenerProvider,
+                           @Value("${stocks.outbox.batch-size:500}") int batchSize,
+                           @Value("${stocks.outbox.gap-timeout:2s}") Duration gapTimeout,
+                           @Value("${stocks.outbox.late-commit-window:10m}") Duration lateCommitWindow,
+                           @Value("${stocks.outbox.retention:1h}") Duration retention,
+                           MeterRegistry meterRegistry) {
+        this(stockOutboxJdbcRepository, listenerProvider, batchSize, gapTimeout, lateCommitWindow, retention,
+            meterRegistry, System::currentTimeMillis);
+    }
+
+    StockEventRelay(StockOutboxJdbcRepository stockOutboxJdbcRepository,
+                    ObjectProvider<StockEventListener> listenerProvider, int batchSize, Duration gapTimeout,
+                    Duration lateCommitWindow, Duration retention, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.stockOutboxJdbcRepository = stockOutboxJdbcRepository;
+        this.listenerProvider = listenerProvider;
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.lateCommitWindowMillis = lateCommitWindow.toMillis();
+        this.retention = retention;
+        this.clock = clock;
+        this.relayedCounter = Counter.builder("stocks.outbox.relayed")
+            .description("Outbox events relayed to in-process listeners")
+            .register(meterRegistry);
+        this.skippedCounter = Counter.builder("stocks.outbox.skipped")
+            .description("Outbox offsets skipped after the gap timeout")
+            .register(meterRegistry);
+        this.lateCounter = Counter.builder("stocks.outbox.late")
+            .description("Outbox events relayed out of order after their offset was skipped")
+            .register(meterRegistry);
+        this.lagTimer = Timer.builder("stocks.outbox.relay.lag")
+            .description("Time from writing an outbox event to relaying it")
+            .register(meterRegistry);
+        Gauge.builder("stocks.outbox.relayed.offset", this, StockEventRelay::getRelayedOffset)
+            .description("Offset of the last relayed outbox event")
+            .register(meterRegistry);
+        Gauge.builder("stocks.outbox.skipped.pending", this, StockEventRelay::getSkippedCount)
+            .description("Skipped outbox offsets still checked for a late commit")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        stockOutboxJdbcRepository.createTable();
+        listeners = listenerProvider.orderedStream().toList();
+        relayedOffset = stockOutboxJdbcRepository.findMaxOffset();
+        logger.info("Relaying stock events after offset {} to {} listeners", relayedOffset, listeners.size());
+    }
+
+    /**
+     * Relay every committed event after the current offset, and any skipped offset that has committed since.
+     * Returns the number of events relayed.
+     */
+    @Scheduled(fixedDelayString = "${stocks.outbox.relay-interval-ms:100}")
+    public synchronized int relay() {
+        int relayed = 0;
+        try {
+            relayed += relayLate();
+            List<StockEvent> ready;
+            do {
+                ready = contiguous(stockOutboxJdbcRepository.findAfter(relayedOffset, Long.MAX_VALUE, batchSize));
+                if (ready.isEmpty()) {
+                    break;
+                }
+                dispatch(listeners, ready);
+                relayedOffset = ready.get(ready.size() - 1).getOffset();
+                relayed += ready.size();
+                record(ready);
+            } while (ready.size() == batchSize);
+        } catch (DataAccessException e) {
+            logger.error("Outbox relay failed after offset {}: {}", relayedOffset, e.getMessage());
+        }
+        return relayed;
+    }
+
+    /**
+     * Relay the skipped offsets that have committed since, then stop looking for those older than the window
+     */
+    private int relayLate() {
+        if (skipped.isEmpty()) {
+            return 0;
+        }
+        List<Long> offsets = new ArrayList<>(skipped.keySet());
+        List<StockEvent> late = new ArrayList<>();
+        for (int from = 0; from < offsets.size(); from += batchSize) {
+            late.addAll(stockOutboxJdbcRepository.findByOffsets(
+                offsets.subList(from, Math.min(offsets.size(), from + batchSize))));
+        }
+        if (!late.isEmpty()) {
+            for (StockEvent event : late) {
+                skipped.remove(event.getOffset());
+            }
+            logger.warn("Relaying {} outbox events that committed after their offsets were skipped", late.size());
+            dispatch(listeners, late);
+            lateCounter.increment(late.size());
+            record(late);
+        }
+        long now = clock.getAsLong();
+        skipped.values().removeIf(since -> now - since >= lateCommitWindowMillis);
+        return late.size();
+    }
+
+    private void record(List<StockEvent> events) {
+        long now = clock.getAsLong();
+        relayedCounter.increment(events.size());
+        for (StockEvent event : events) {
+            lagTimer.record(Math.max(0, now - event.getTimestamp()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Deliver the retained events after {@code afterOffset} up to the relayed offset to one listener, e.g. to
+     * rebuild an in-memory index. Live relaying pauses meanwhile, so the listener sees no gap or overlap
+     * between the replay and the next live batch. Returns the last offset delivered.
+     */
+    public synchronized long replay(long afterOffset, StockEventListener listener) {
+        checkRetained(afterOffset);
+        long offset = afterOffset;
+        List<StockEvent> batch;
+        do {
+            batch = stockOutboxJdbcRepository.findAfter(offset, relayedOffset, batchSize);
+            if (!batch.isEmpty()) {
+                dispatch(List.of(listener), batch);
+                offset = batch.get(batch.size() - 1).getOffset();
+            }
+        } while (batch.size() == batchSize);
+        return Math.max(offset, relayedOffset);
+    }
+
+    /**
+     * Up to {@code limit} retained, already relayed events after {@code afterOffset}
+     */
+    public List<StockEvent> findEvents(long afterOffset, int limit) {
+        checkRetained(afterOffset);
+        return stockOutboxJdbcRepository.findAfter(afterOffset, relayedOffset, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${stocks.outbox.prune-interval-ms:60000}")
+    public void prune() {
+        try {
+            Instant cutoff = Instant.ofEpochMilli(clock.getAsLong()).minus(retention);
+            int pruned = stockOutboxJdbcRepository.deleteRelayedBefore(relayedOffset, cutoff);
+            if (pruned > 0) {
+                logger.debug("Pruned {} relayed outbox events older than {}", pruned, retention);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Failed to prune outbox: {}", e.getMessage());
+        }
+    }
+
+    public long getRelayedOffset() {
+        return relayedOffset;
+    }
+
+    public synchronized int getSkippedCount() {
+        return skipped.size();
+    }
+
+    private void checkRetained(long afterOffset) {
+        if (afterOffset >= relayedOffset) {
+            return;
+        }
+        Long minOffset = stockOutboxJdbcRepository.findMinOffset();
+        if (minOffset == null || afterOffset < minOffset - 1) {
+            throw new OutboxOffsetExpiredException("Events after offset " + afterOffset
+                + " have been pruned from the outbox (retention " + retention + ")");
+        }
+    }
+
+    /**
+     * The prefix of a batch that continues the relayed offset without holes, skipping holes older than the gap
+     * timeout and keeping their offsets to look for again
+     */
+    private List<StockEvent> contiguous(List<StockEvent> batch) {
+        long expected = relayedOffset + 1;
+        int end = 0;
+        for (StockEvent event : batch) {
+            if (event.getOffset() != expected) {
+                long now = clock.getAsLong();
+                if (gapOffset != expected) {
+                    gapOffset = expected;
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMillis) {
+                    break;
+                }
+                logger.warn("Skipping outbox offsets {}..{} that have not committed", expected, event.getOffset() - 1);
+                skippedCounter.increment(event.getOffset() - expected);
+                long first = Math.max(expected, event.getOffset() - MAX_SKIPPED);
+                for (long offset = first; offset < event.getOffset(); offset++) {
+                    skipped.put(offset, now);
+                }
+                while (skipped.size() > MAX_SKIPPED) {
+                    skipped.pollFirstEntry();
+                }
+            }
+            expected = event.getOffset() + 1;
+            end++;
+        }
+        return batch.subList(0, end);
+    }
+
+    private static void dispatch(List<StockEventListener> targets, List<StockEvent> events) {
+        for (StockEventListener listener : targets) {
+            try {
+                listener.onEvents(events);
+            } catch (RuntimeException e) {
+                logger.warn("Stock event listener {} failed for offsets {}..{}: {}",
+                    listener.getClass().getSimpleName(), events.get(0).getOffset(),
+                    events.get(events.size() - 1).getOffset(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package anqorithm.stocks.repository.jdbc;
+
+import anqorithm.stocks.alert.PriceAlert;
+import anqorithm.stocks.repository.queries.PriceAlertQueries;
+import anqorithm.stocks.tick.Tick;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC Repository for user price alerts. Active alerts are loaded once and then indexed in memory;
+ * the table is written when an alert is created, fired or deleted.
+ */
+@Repository
+public class PriceAlertJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<PriceAlert> ALERT_ROW_MAPPER = (rs, rowNum) -> {
+        PriceAlert alert = new PriceAlert(
+            rs.getLong("id"),
+            rs.getString("username"),
+            rs.getString("symbol"),
+            PriceAlert.Direction.valueOf(rs.getString("direction")),
+            rs.getBigDecimal("threshold"),
+            rs.getObject("created_at", OffsetDateTime.class).toInstant().toEpochMilli());
+        OffsetDateTime firedAt = rs.getObject("fired_at", OffsetDateTime.class);
+        BigDecimal firedPrice = rs.getBigDecimal("fired_price");
+        return firedAt != null && firedPrice != null
+            ? alert.fire(Tick.toScaled(firedPrice), firedAt.toInstant().toEpochMilli())
+            : alert;
+    };
+
+    public void createTable() {
+        jdbcTemplate.execute(PriceAlertQueries.CREATE_TABLE);
+        jdbcTemplate.execute(PriceAlertQueries.CREATE_INDEX);
+    }
+
+    /**
+     * Insert a new alert and return its generated id
+     */
+    public long insert(String username, String symbol, PriceAlert.Direction direction, BigDecimal threshold,
+                       long createdAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(PriceAlertQueries.INSERT, new String[] {"id"});
+            ps.setString(1, username);
+            ps.setString(2, symbol);
+            ps.setString(3, direction.name());
+            ps.setBigDecimal(4, threshold);
+            ps.setObject(5, toOffsetDateTime(createdAt));
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * Mark fired alerts in one batch. Returns the update count per alert: 0 for one that was deleted or
+     * already marked.
+     */
+    public int[] batchMarkFired(List<PriceAlert> fired) {
+        if (fired.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(PriceAlertQueries.MARK_FIRED, fired, fired.size(), (ps, alert) -> {
+            ps.setObject(1, toOffsetDateTime(alert.getFiredAtMillis()));
+            ps.setBigDecimal(2, alert.getFiredPrice());
+            ps.setLong(3, alert.getId());
+        })[0];
+    }
+
+    public boolean deleteByIdAndUsername(long id, String username) {
+        return jdbcTemplate.update(PriceAlertQueries.DELETE_BY_ID_AND_USERNAME, id, username) > 0;
+    }
+
+    public int deleteFiredBefore(Instant cutoff) {
+        return jdbcTemplate.update(PriceAlertQueries.DELETE_FIRED_BEFORE, OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC));
+    }
+
+    /**
+     * Stream every alert that has not fired, without materializing them all
+     */
+    public void forEachActive(Consumer<PriceAlert> consumer) {
+        jdbcTemplate.query(PriceAlertQueries.FIND_ACTIVE,
+            (RowCallbackHandler) rs -> consumer.accept(ALERT_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    public List<PriceAlert> findByUsername(String username) {
+        return jdbcTemplate.query(PriceAlertQueries.FIND_BY_USERNAME, ALERT_ROW_MAPPER, username);
+    }
+
+    public long countActiveByUsername(String username) {
+        Long count = jdbcTemplate.queryForObject(PriceAlertQueries.COUNT_ACTIVE_BY_USERNAME, Long.class, username);
+        return count != null ? count : 0;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(long millis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,99 @@
+package anqorithm.stocks.repository.jdbc;
+
+import anqorithm.stocks.repository.queries.StockQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC Repository for batched write-behind updates to the stocks table.
+ * Per-entity JPA saves would defeat batching here, so this is the one place stocks rows
+ * are written outside the JPA repositories.
+ */
+@Repository
+public class StockBatchJdbcRepository {
+
+    private static final int MAX_SYMBOLS_PER_QUERY = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public int[] batchUpdatePriceAndVolume(List<PriceVolumeUpdate> updates) {
+        if (updates.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(StockQueries.UPDATE_PRICE_AND_VOLUME_BY_SYMBOL, updates, updates.size(),
+            (ps, update) -> {
+                ps.setBigDecimal(1, update.price());
+                ps.setLong(2, update.volume());
+                ps.setBigDecimal(3, update.fiftyTwoWeekHigh());
+                ps.setBigDecimal(4, update.fiftyTwoWeekLow());
+                ps.setString(5, update.symbol());
+            })[0];
+    }
+
+    public int[] batchUpdateAverageVolume(List<AverageVolumeUpdate> updates) {
+        if (updates.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(StockQueries.UPDATE_AVERAGE_VOLUME_BY_SYMBOL, updates, updates.size(),
+            (ps, update) -> {
+                ps.setLong(1, update.averageVolume());
+                ps.setString(2, update.symbol());
+            })[0];
+    }
+
+    public int[] batchUpdateBeta(List<BetaUpdate> updates) {
+        if (updates.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(StockQueries.UPDATE_BETA_BY_SYMBOL, updates, updates.size(),
+            (ps, update) -> {
+                ps.setBigDecimal(1, update.beta());
+                ps.setString(2, update.symbol());
+            })[0];
+    }
+
+    /**
+     * Id, symbol and version of the stocks with the given symbols, queried in chunks of at most 1000 symbols
+     */
+    public List<StockVersion> findVersionsBySymbols(Collection<String> symbols) {
+        List<String> all = new ArrayList<>(symbols);
+        List<StockVersion> versions = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += MAX_SYMBOLS_PER_QUERY) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + MAX_SYMBOLS_PER_QUERY));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            versions.addAll(jdbcTemplate.query(String.format(StockQueries.FIND_VERSIONS_BY_SYMBOLS, placeholders),
+                (rs, rowNum) -> new StockVersion(rs.getLong("id"), rs.getString("symbol"), rs.getLong("version")),
+                chunk.toArray()));
+        }
+        return versions;
+    }
+
+    /**
+     * Latest price and cumulative volume for one symbol, and its 52-week high and low when they changed
+     * (null keeps the stored value)
+     */
+    public record PriceVolumeUpdate(String symbol, BigDecimal price, long volume,
+                                    BigDecimal fiftyTwoWeekHigh, BigDecimal fiftyTwoWeekLow) {
+
+        public PriceVolumeUpdate(String symbol, BigDecimal price, long volume) {
+            this(symbol, price, volume, null, null);
+        }
+    }
+
+    public record AverageVolumeUpdate(String symbol, long averageVolume) {
+    }
+
+    public record BetaUpdate(String symbol, BigDecimal beta) {
+    }
+
+    public record StockVersion(long id, String symbol, long version) {
+    }
+}
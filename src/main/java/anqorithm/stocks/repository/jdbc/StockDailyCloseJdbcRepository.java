@@ -0,0 +1,119 @@
+package anqorithm.stocks.repository.jdbc;
+
+import anqorithm.stocks.repository.queries.StockDailyCloseQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC Repository for the last price of each symbol per UTC day
+ */
+@Repository
+public class StockDailyCloseJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void createTable() {
+        jdbcTemplate.execute(StockDailyCloseQueries.CREATE_TABLE);
+        jdbcTemplate.execute(StockDailyCloseQueries.CREATE_DAY_INDEX);
+    }
+
+    /**
+     * Write the closes, replacing any already stored for the same symbol and day. Returns the number written.
+     */
+    public int batchUpsert(List<DailyClose> closes) {
+        if (closes.isEmpty()) {
+            return 0;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(StockDailyCloseQueries.UPDATE_CLOSE, closes, closes.size(),
+            (ps, close) -> {
+                ps.setBigDecimal(1, close.close());
+                ps.setString(2, close.symbol());
+                ps.setDate(3, Date.valueOf(close.day()));
+            })[0];
+
+        List<DailyClose> inserts = new ArrayList<>();
+        for (int i = 0; i < closes.size(); i++) {
+            if (updated[i] == 0) {
+                inserts.add(closes.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(StockDailyCloseQueries.INSERT_CLOSE, inserts, inserts.size(),
+                (ps, close) -> {
+                    ps.setString(1, close.symbol());
+                    ps.setDate(2, Date.valueOf(close.day()));
+                    ps.setBigDecimal(3, close.close());
+                });
+        }
+        return closes.size();
+    }
+
+    public int deleteBefore(LocalDate day) {
+        return jdbcTemplate.update(StockDailyCloseQueries.DELETE_BEFORE, Date.valueOf(day));
+    }
+
+    /**
+     * Stream every close on or after the day, ordered by symbol and then day
+     */
+    public void forEachSince(LocalDate from, DailyCloseHandler handler) {
+        jdbcTemplate.query(StockDailyCloseQueries.FIND_SINCE, rowHandler(handler), Date.valueOf(from));
+    }
+
+    /**
+     * Stream the closes of the given symbols on or after the day, ordered by symbol and then day
+     */
+    public void forEachBySymbolsSince(Collection<String> symbols, LocalDate from, DailyCloseHandler handler) {
+        if (symbols.isEmpty()) {
+            return;
+        }
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < symbols.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        Object[] args = new Object[symbols.size() + 1];
+        int i = 0;
+        for (String symbol : symbols) {
+            args[i++] = symbol;
+        }
+        args[i] = Date.valueOf(from);
+        jdbcTemplate.query(String.format(StockDailyCloseQueries.FIND_BY_SYMBOLS_SINCE, placeholders),
+            rowHandler(handler), args);
+    }
+
+    /**
+     * Each symbol's last close on a day from {@code from} up to but excluding {@code before}
+     */
+    public Map<String, BigDecimal> findLatestBefore(LocalDate before, LocalDate from) {
+        Map<String, BigDecimal> closes = new HashMap<>();
+        jdbcTemplate.query(StockDailyCloseQueries.FIND_LATEST_BEFORE,
+            (RowCallbackHandler) rs -> closes.put(rs.getString("symbol"), rs.getBigDecimal("close_price")),
+            Date.valueOf(from), Date.valueOf(before));
+        return closes;
+    }
+
+    private static RowCallbackHandler rowHandler(DailyCloseHandler handler) {
+        return rs -> handler.accept(rs.getString("symbol"), rs.getDate("close_date").toLocalDate(),
+            rs.getDouble("close_price"));
+    }
+
+    public record DailyClose(String symbol, LocalDate day, BigDecimal close) {
+    }
+
+    @FunctionalInterface
+    public interface DailyCloseHandler {
+
+        void accept(String symbol, LocalDate day, double close);
+    }
+}
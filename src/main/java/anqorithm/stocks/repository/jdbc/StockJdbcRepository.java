@@ -13,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -209,6 +210,20 @@ public class StockJdbcRepository {
         return findBySector(sector, pageable); // Reuse existing method
     }
 
+    // Change feed
+    /**
+     * Stocks changed after the (updatedAt, id) position and no later than upTo, in (updated_at, id) order.
+     * The returned stocks carry their version and updated_at.
+     */
+    public List<Stock> findChangedSince(OffsetDateTime afterUpdatedAt, long afterId, OffsetDateTime upTo, int limit) {
+        return jdbcTemplate.query(StockQueries.FIND_CHANGED_SINCE, (rs, rowNum) -> {
+            Stock stock = STOCK_ROW_MAPPER.mapRow(rs, rowNum);
+            stock.setVersion(rs.getLong("version"));
+            stock.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class).toZonedDateTime());
+            return stock;
+        }, afterUpdatedAt, afterUpdatedAt, afterId, upTo, limit);
+    }
+
     // Inner class for row mapping
     private static class StockRowMapper implements RowMapper<Stock> {
         @Override
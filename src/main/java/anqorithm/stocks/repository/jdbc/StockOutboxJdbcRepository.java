@@ -0,0 +1,103 @@
+package anqorithm.stocks.repository.jdbc;
+
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.queries.StockOutboxQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC Repository for the transactional outbox of stock change events.
+ * Events are inserted in the transaction of the mutation they describe.
+ */
+@Repository
+public class StockOutboxJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<StockEvent> EVENT_ROW_MAPPER = (rs, rowNum) -> new StockEvent(
+            rs.getLong("id"),
+            StockEvent.Type.valueOf(rs.getString("event_type")),
+            rs.getObject("stock_id", Long.class),
+            rs.getString("symbol"),
+            rs.getObject("version", Long.class),
+            rs.getBigDecimal("price"),
+            rs.getObject("volume", Long.class),
+            rs.getObject("created_at", OffsetDateTime.class).toInstant().toEpochMilli());
+
+    public void createTable() {
+        jdbcTemplate.execute(StockOutboxQueries.CREATE_TABLE);
+    }
+
+    public int insert(StockEvent event) {
+        return jdbcTemplate.update(StockOutboxQueries.INSERT, ps -> bind(ps, event));
+    }
+
+    public int[] batchInsert(List<StockEvent> events) {
+        if (events.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(StockOutboxQueries.INSERT, events, events.size(),
+            StockOutboxJdbcRepository::bind)[0];
+    }
+
+    /**
+     * Events with offsets in (afterOffset, upToOffset], oldest first
+     */
+    public List<StockEvent> findAfter(long afterOffset, long upToOffset, int limit) {
+        return jdbcTemplate.query(StockOutboxQueries.FIND_AFTER, EVENT_ROW_MAPPER, afterOffset, upToOffset, limit);
+    }
+
+    /**
+     * The events among the given offsets that exist, oldest first
+     */
+    public List<StockEvent> findByOffsets(Collection<Long> offsets) {
+        if (offsets.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < offsets.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return jdbcTemplate.query(String.format(StockOutboxQueries.FIND_BY_IDS, placeholders), EVENT_ROW_MAPPER,
+                offsets.toArray());
+    }
+
+    /**
+     * Lowest retained offset, or null if the outbox is empty
+     */
+    public Long findMinOffset() {
+        return jdbcTemplate.queryForObject(StockOutboxQueries.FIND_MIN_ID, Long.class);
+    }
+
+    public long findMaxOffset() {
+        Long max = jdbcTemplate.queryForObject(StockOutboxQueries.FIND_MAX_ID, Long.class);
+        return max != null ? max : 0;
+    }
+
+    public int deleteRelayedBefore(long relayedOffset, Instant cutoff) {
+        return jdbcTemplate.update(StockOutboxQueries.DELETE_RELAYED_BEFORE, relayedOffset,
+                OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC));
+    }
+
+    private static void bind(PreparedStatement ps, StockEvent event) throws SQLException {
+        ps.setString(1, event.getType().name());
+        ps.setObject(2, event.getStockId(), Types.BIGINT);
+        ps.setString(3, event.getSymbol());
+        ps.setObject(4, event.getVersion(), Types.BIGINT);
+        ps.setBigDecimal(5, event.getPrice());
+        ps.setObject(6, event.getVolume(), Types.BIGINT);
+        ps.setObject(7, OffsetDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,45 @@
+package anqorithm.stocks.repository.jdbc;
+
+import anqorithm.stocks.repository.queries.StockPriceArchiveQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC Repository for compressed per-symbol, per-day tick blocks (PostgreSQL only).
+ */
+@Repository
+public class StockPriceArchiveJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void createTable() {
+        jdbcTemplate.execute(StockPriceArchiveQueries.CREATE_TABLE);
+    }
+
+    public int insertBlock(String symbol, LocalDate day, int tickCount, byte[] data) {
+        return jdbcTemplate.update(StockPriceArchiveQueries.INSERT_BLOCK, symbol, day, tickCount, data);
+    }
+
+    /**
+     * Blocks of a symbol for the inclusive day range, oldest first
+     */
+    public List<byte[]> findBlocksBySymbolBetween(String symbol, LocalDate fromDay, LocalDate toDay) {
+        return jdbcTemplate.query(StockPriceArchiveQueries.FIND_BLOCKS_BY_SYMBOL_BETWEEN,
+                (rs, rowNum) -> rs.getBytes("data"), symbol, fromDay, toDay);
+    }
+
+    public boolean existsByDay(LocalDate day) {
+        Boolean exists = jdbcTemplate.queryForObject(StockPriceArchiveQueries.EXISTS_BY_DAY, Boolean.class, day);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    public Map<String, Object> findStats() {
+        return jdbcTemplate.queryForMap(StockPriceArchiveQueries.FIND_STATS);
+    }
+}
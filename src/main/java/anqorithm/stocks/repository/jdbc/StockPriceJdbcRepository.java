@@ -0,0 +1,143 @@
+package anqorithm.stocks.repository.jdbc;
+
+import anqorithm.stocks.archive.TickBlockEncoder;
+import anqorithm.stocks.dto.PricePoint;
+import anqorithm.stocks.repository.queries.StockPriceQueries;
+import anqorithm.stocks.tick.Tick;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC Repository for the append-only stock_prices tick table.
+ * Ticks have no identity and are only ever inserted in batches, so this repository
+ * bypasses JPA for both reads and writes.
+ */
+@Repository
+public class StockPriceJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<PricePoint> PRICE_POINT_ROW_MAPPER = new PricePointRowMapper();
+
+    public int batchInsert(List<Tick> ticks, int batchSize) {
+        int[][] counts = jdbcTemplate.batchUpdate(StockPriceQueries.INSERT_TICK, ticks, batchSize, (ps, tick) -> {
+            if (tick.getStockId() != null) {
+                ps.setLong(1, tick.getStockId());
+            } else {
+                ps.setNull(1, Types.BIGINT);
+            }
+            ps.setString(2, tick.getSymbol());
+            ps.setBigDecimal(3, tick.getPrice());
+            if (tick.hasVolume()) {
+                ps.setLong(4, tick.getVolume());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setObject(5, toOffsetDateTime(tick.getTimestamp()));
+        });
+        int total = 0;
+        for (int[] batch : counts) {
+            total += batch.length;
+        }
+        return total;
+    }
+
+    public List<PricePoint> findBySymbolBetween(String symbol, Instant from, Instant to, int limit) {
+        return jdbcTemplate.query(StockPriceQueries.FIND_BY_SYMBOL_BETWEEN, PRICE_POINT_ROW_MAPPER,
+                symbol, from.atOffset(ZoneOffset.UTC), to.atOffset(ZoneOffset.UTC), limit);
+    }
+
+    /**
+     * Stream every tick of a symbol in the window, oldest first, into the encoder; a NULL volume is added as
+     * {@link TickBlockEncoder#NO_VOLUME}
+     */
+    public void encodeBySymbolBetween(String symbol, Instant from, Instant to, TickBlockEncoder encoder) {
+        jdbcTemplate.query(StockPriceQueries.FIND_ALL_BY_SYMBOL_BETWEEN, (RowCallbackHandler) rs -> {
+                long timestamp = rs.getObject("recorded_at", OffsetDateTime.class).toInstant().toEpochMilli();
+                long scaledPrice = Tick.toScaled(rs.getBigDecimal("price"));
+                long volume = rs.getLong("volume");
+                encoder.add(timestamp, scaledPrice, rs.wasNull() ? TickBlockEncoder.NO_VOLUME : volume);
+            },
+            symbol, from.atOffset(ZoneOffset.UTC), to.atOffset(ZoneOffset.UTC));
+    }
+
+    public List<String> findSymbolsBetween(Instant from, Instant to) {
+        return jdbcTemplate.queryForList(StockPriceQueries.FIND_SYMBOLS_BETWEEN, String.class,
+                from.atOffset(ZoneOffset.UTC), to.atOffset(ZoneOffset.UTC));
+    }
+
+    // Partition management (PostgreSQL only)
+    public boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    public void createParentTable() {
+        jdbcTemplate.execute(StockPriceQueries.CREATE_PARENT_TABLE);
+        jdbcTemplate.execute(StockPriceQueries.CREATE_SYMBOL_TIME_INDEX);
+        jdbcTemplate.execute(StockPriceQueries.CREATE_DEFAULT_PARTITION);
+    }
+
+    public void createDailyPartition(LocalDate day) {
+        jdbcTemplate.execute(String.format(StockPriceQueries.CREATE_PARTITION,
+                partitionName(day), day + " 00:00:00+00", day.plusDays(1) + " 00:00:00+00"));
+    }
+
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.execute(String.format(StockPriceQueries.DROP_PARTITION, partitionName));
+    }
+
+    public int deleteDefaultPartitionBefore(LocalDate day) {
+        return jdbcTemplate.update(StockPriceQueries.DELETE_DEFAULT_PARTITION_BEFORE,
+                day.atStartOfDay().atOffset(ZoneOffset.UTC));
+    }
+
+    public List<String> findPartitionNames() {
+        return jdbcTemplate.queryForList(StockPriceQueries.FIND_PARTITIONS, String.class);
+    }
+
+    public Map<String, Object> findTableSize() {
+        return jdbcTemplate.queryForMap(StockPriceQueries.FIND_TABLE_SIZE);
+    }
+
+    public static String partitionName(LocalDate day) {
+        return StockPriceQueries.PARTITION_PREFIX + day.toString().replace("-", "");
+    }
+
+    private static OffsetDateTime toOffsetDateTime(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atOffset(ZoneOffset.UTC);
+    }
+
+    // Inner class for row mapping
+    private static class PricePointRowMapper implements RowMapper<PricePoint> {
+        @Override
+        public PricePoint mapRow(ResultSet rs, int rowNum) throws SQLException {
+            OffsetDateTime recordedAt = rs.getObject("recorded_at", OffsetDateTime.class);
+            PricePoint point = new PricePoint();
+            point.setTimestamp(recordedAt.atZoneSameInstant(ZoneOffset.UTC));
+            point.setPrice(rs.getBigDecimal("price"));
+
+            long volume = rs.getLong("volume");
+            if (!rs.wasNull()) {
+                point.setVolume(volume);
+            }
+            return point;
+        }
+    }
+}
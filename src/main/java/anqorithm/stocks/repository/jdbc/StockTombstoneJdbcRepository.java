@@ -0,0 +1,44 @@
+package anqorithm.stocks.repository.jdbc;
+
+import anqorithm.stocks.repository.queries.StockTombstoneQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * JDBC Repository for tombstones of deleted stocks, read by the change feed.
+ */
+@Repository
+public class StockTombstoneJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void createTable() {
+        jdbcTemplate.execute(StockTombstoneQueries.CREATE_TABLE);
+        jdbcTemplate.execute(StockTombstoneQueries.CREATE_INDEX);
+    }
+
+    public int insert(long id, String symbol, OffsetDateTime deletedAt) {
+        return jdbcTemplate.update(StockTombstoneQueries.INSERT, id, symbol, deletedAt);
+    }
+
+    public int deleteOlderThan(OffsetDateTime cutoff) {
+        return jdbcTemplate.update(StockTombstoneQueries.DELETE_OLDER_THAN, cutoff);
+    }
+
+    /**
+     * Tombstones after the (deletedAt, id) position and no later than upTo, in (deleted_at, id) order
+     */
+    public List<Tombstone> findDeletedSince(OffsetDateTime afterDeletedAt, long afterId, OffsetDateTime upTo, int limit) {
+        return jdbcTemplate.query(StockTombstoneQueries.FIND_DELETED_SINCE, (rs, rowNum) -> new Tombstone(
+                rs.getLong("id"), rs.getString("symbol"), rs.getObject("deleted_at", OffsetDateTime.class)),
+                afterDeletedAt, afterDeletedAt, afterId, upTo, limit);
+    }
+
+    public record Tombstone(long id, String symbol, OffsetDateTime deletedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package anqorithm.stocks.repository.jpa;
+
+import anqorithm.stocks.entity.Watchlist;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WatchlistRepository extends JpaRepository<Watchlist, Long> {
+
+    @EntityGraph(attributePaths = "symbols")
+    List<Watchlist> findByUserUsernameOrderById(String username);
+
+    Optional<Watchlist> findByIdAndUserUsername(Long id, String username);
+
+    long countByUserUsername(String username);
+
+    boolean existsByUserUsernameAndName(String username, String name);
+}
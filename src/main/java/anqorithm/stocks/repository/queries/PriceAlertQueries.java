@@ -0,0 +1,54 @@
+package anqorithm.stocks.repository.queries;
+
+/**
+ * Centralized SQL queries for the price_alerts table of user price alerts
+ */
+public final class PriceAlertQueries {
+
+    // Table and column constants
+    public static final String TABLE_NAME = "price_alerts";
+    public static final String ALL_COLUMNS = "id, username, symbol, direction, threshold, created_at, fired_at, fired_price";
+
+    public static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+        "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+        "username VARCHAR(50) NOT NULL, " +
+        "symbol VARCHAR(10) NOT NULL, " +
+        "direction VARCHAR(8) NOT NULL, " +
+        "threshold DECIMAL(12, 4) NOT NULL, " +
+        "created_at TIMESTAMP WITH TIME ZONE NOT NULL, " +
+        "fired_at TIMESTAMP WITH TIME ZONE, " +
+        "fired_price DECIMAL(12, 4))";
+
+    public static final String CREATE_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_price_alerts_username ON " + TABLE_NAME + " (username, id)";
+
+    // Write queries
+    public static final String INSERT =
+        "INSERT INTO " + TABLE_NAME + " (username, symbol, direction, threshold, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    // Only the first writer marks an alert fired, and a deleted alert is never marked
+    public static final String MARK_FIRED =
+        "UPDATE " + TABLE_NAME + " SET fired_at = ?, fired_price = ? WHERE id = ? AND fired_at IS NULL";
+
+    public static final String DELETE_BY_ID_AND_USERNAME =
+        "DELETE FROM " + TABLE_NAME + " WHERE id = ? AND username = ?";
+
+    public static final String DELETE_FIRED_BEFORE =
+        "DELETE FROM " + TABLE_NAME + " WHERE fired_at < ?";
+
+    // Read queries
+    public static final String FIND_ACTIVE =
+        "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME + " WHERE fired_at IS NULL";
+
+    public static final String FIND_BY_USERNAME =
+        "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME + " WHERE username = ? ORDER BY id";
+
+    public static final String COUNT_ACTIVE_BY_USERNAME =
+        "SELECT COUNT(*) FROM " + TABLE_NAME + " WHERE username = ? AND fired_at IS NULL";
+
+    // Private constructor to prevent instantiation
+    private PriceAlertQueries() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
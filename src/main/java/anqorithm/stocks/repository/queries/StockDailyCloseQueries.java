@@ -0,0 +1,51 @@
+package anqorithm.stocks.repository.queries;
+
+/**
+ * Centralized SQL queries for the stock_daily_closes table of last prices per symbol and UTC day
+ */
+public final class StockDailyCloseQueries {
+
+    // Table and column constants
+    public static final String TABLE_NAME = "stock_daily_closes";
+
+    public static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+        "symbol VARCHAR(10) NOT NULL, " +
+        "close_date DATE NOT NULL, " +
+        "close_price DECIMAL(12, 4) NOT NULL, " +
+        "PRIMARY KEY (symbol, close_date))";
+
+    // Reads by symbol are served by the primary key; the purge and the full scan by day use this
+    public static final String CREATE_DAY_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_stock_daily_closes_day ON " + TABLE_NAME + " (close_date)";
+
+    // Write queries - a close is updated in place, and inserted when the update found no row
+    public static final String UPDATE_CLOSE =
+        "UPDATE " + TABLE_NAME + " SET close_price = ? WHERE symbol = ? AND close_date = ?";
+
+    public static final String INSERT_CLOSE =
+        "INSERT INTO " + TABLE_NAME + " (symbol, close_date, close_price) VALUES (?, ?, ?)";
+
+    public static final String DELETE_BEFORE =
+        "DELETE FROM " + TABLE_NAME + " WHERE close_date < ?";
+
+    // Read queries
+    public static final String FIND_SINCE =
+        "SELECT symbol, close_date, close_price FROM " + TABLE_NAME + " WHERE close_date >= ? ORDER BY symbol, close_date";
+
+    public static final String FIND_BY_SYMBOLS_SINCE =
+        "SELECT symbol, close_date, close_price FROM " + TABLE_NAME +
+        " WHERE symbol IN (%s) AND close_date >= ? ORDER BY symbol, close_date";
+
+    // The last close of each symbol on a day in [from, before)
+    public static final String FIND_LATEST_BEFORE =
+        "SELECT c.symbol, c.close_price FROM " + TABLE_NAME + " c JOIN (" +
+        "SELECT symbol, MAX(close_date) AS close_date FROM " + TABLE_NAME +
+        " WHERE close_date >= ? AND close_date < ? GROUP BY symbol) l" +
+        " ON c.symbol = l.symbol AND c.close_date = l.close_date";
+
+    // Private constructor to prevent instantiation
+    private StockDailyCloseQueries() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
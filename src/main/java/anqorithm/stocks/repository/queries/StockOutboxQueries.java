@@ -0,0 +1,48 @@
+package anqorithm.stocks.repository.queries;
+
+/**
+ * Centralized SQL queries for the stock_outbox table of stock change events
+ */
+public final class StockOutboxQueries {
+
+    // Table and column constants
+    public static final String TABLE_NAME = "stock_outbox";
+    public static final String ALL_COLUMNS = "id, event_type, stock_id, symbol, version, price, volume, created_at";
+
+    public static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+        "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+        "event_type VARCHAR(24) NOT NULL, " +
+        "stock_id BIGINT, " +
+        "symbol VARCHAR(10) NOT NULL, " +
+        "version BIGINT, " +
+        "price DECIMAL(12, 4), " +
+        "volume BIGINT, " +
+        "created_at TIMESTAMP WITH TIME ZONE NOT NULL)";
+
+    // Write queries
+    public static final String INSERT =
+        "INSERT INTO " + TABLE_NAME + " (event_type, stock_id, symbol, version, price, volume, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public static final String DELETE_RELAYED_BEFORE =
+        "DELETE FROM " + TABLE_NAME + " WHERE id <= ? AND created_at < ?";
+
+    // Read queries
+    public static final String FIND_AFTER =
+        "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME + " WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+
+    public static final String FIND_BY_IDS =
+        "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME + " WHERE id IN (%s) ORDER BY id";
+
+    public static final String FIND_MIN_ID =
+        "SELECT MIN(id) FROM " + TABLE_NAME;
+
+    public static final String FIND_MAX_ID =
+        "SELECT COALESCE(MAX(id), 0) FROM " + TABLE_NAME;
+
+    // Private constructor to prevent instantiation
+    private StockOutboxQueries() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
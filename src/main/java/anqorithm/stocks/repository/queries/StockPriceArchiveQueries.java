@@ -0,0 +1,39 @@
+package anqorithm.stocks.repository.queries;
+
+/**
+ * Centralized SQL queries for the stock_price_archive table of compressed tick blocks
+ */
+public final class StockPriceArchiveQueries {
+
+    // Table and column constants
+    public static final String TABLE_NAME = "stock_price_archive";
+
+    public static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+        "symbol VARCHAR(10) NOT NULL, " +
+        "day DATE NOT NULL, " +
+        "tick_count INTEGER NOT NULL, " +
+        "data BYTEA NOT NULL, " +
+        "PRIMARY KEY (symbol, day))";
+
+    // Write queries - archiving a day twice keeps the first block
+    public static final String INSERT_BLOCK =
+        "INSERT INTO " + TABLE_NAME + " (symbol, day, tick_count, data) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (symbol, day) DO NOTHING";
+
+    // Read queries
+    public static final String FIND_BLOCKS_BY_SYMBOL_BETWEEN =
+        "SELECT day, data FROM " + TABLE_NAME + " WHERE symbol = ? AND day >= ? AND day <= ? ORDER BY day";
+
+    public static final String EXISTS_BY_DAY =
+        "SELECT COUNT(*) > 0 FROM " + TABLE_NAME + " WHERE day = ?";
+
+    public static final String FIND_STATS =
+        "SELECT COUNT(*) AS blocks, COALESCE(SUM(tick_count), 0) AS ticks, " +
+        "COALESCE(SUM(pg_column_size(data)), 0) AS stored_bytes FROM " + TABLE_NAME;
+
+    // Private constructor to prevent instantiation
+    private StockPriceArchiveQueries() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,74 @@
+package anqorithm.stocks.repository.queries;
+
+/**
+ * Centralized SQL queries for the stock_prices tick table
+ */
+public final class StockPriceQueries {
+
+    // Table and column constants
+    public static final String TABLE_NAME = "stock_prices";
+    public static final String PARTITION_PREFIX = TABLE_NAME + "_p";
+    public static final String DEFAULT_PARTITION = TABLE_NAME + "_default";
+
+    // Write queries
+    public static final String INSERT_TICK =
+        "INSERT INTO " + TABLE_NAME + " (stock_id, symbol, price, volume, recorded_at) VALUES (?, ?, ?, ?, ?)";
+
+    // Read queries - column list matches idx_stock_prices_symbol_time so the planner can use an index-only scan
+    public static final String FIND_BY_SYMBOL_BETWEEN =
+        "SELECT recorded_at, price, volume FROM " + TABLE_NAME +
+        " WHERE symbol = ? AND recorded_at >= ? AND recorded_at < ? ORDER BY recorded_at LIMIT ?";
+
+    public static final String FIND_ALL_BY_SYMBOL_BETWEEN =
+        "SELECT recorded_at, price, volume FROM " + TABLE_NAME +
+        " WHERE symbol = ? AND recorded_at >= ? AND recorded_at < ? ORDER BY recorded_at";
+
+    public static final String FIND_SYMBOLS_BETWEEN =
+        "SELECT DISTINCT symbol FROM " + TABLE_NAME + " WHERE recorded_at >= ? AND recorded_at < ? ORDER BY symbol";
+
+    // Partition management (PostgreSQL only)
+    public static final String CREATE_PARENT_TABLE =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+        "stock_id BIGINT NOT NULL, " +
+        "symbol VARCHAR(10) NOT NULL, " +
+        "price DECIMAL(12, 4) NOT NULL, " +
+        "volume BIGINT, " +
+        "recorded_at TIMESTAMP WITH TIME ZONE NOT NULL" +
+        ") PARTITION BY RANGE (recorded_at)";
+
+    public static final String CREATE_SYMBOL_TIME_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_stock_prices_symbol_time ON " + TABLE_NAME +
+        " (symbol, recorded_at) INCLUDE (price, volume)";
+
+    public static final String CREATE_PARTITION =
+        "CREATE TABLE IF NOT EXISTS %s PARTITION OF " + TABLE_NAME + " FOR VALUES FROM ('%s') TO ('%s')";
+
+    // Catches ticks outside the pre-created days (clock skew, late replays) so they do not fail their batch
+    public static final String CREATE_DEFAULT_PARTITION =
+        "CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE_NAME + " DEFAULT";
+
+    public static final String DELETE_DEFAULT_PARTITION_BEFORE =
+        "DELETE FROM " + DEFAULT_PARTITION + " WHERE recorded_at < ?";
+
+    public static final String DROP_PARTITION =
+        "DROP TABLE IF EXISTS %s";
+
+    public static final String FIND_PARTITIONS =
+        "SELECT c.relname FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid " +
+        "JOIN pg_class p ON p.oid = i.inhparent " +
+        "WHERE p.relname = '" + TABLE_NAME + "' ORDER BY c.relname";
+
+    // On-disk size (heap, indexes and TOAST) and estimated row count across all partitions
+    public static final String FIND_TABLE_SIZE =
+        "SELECT COALESCE(SUM(pg_total_relation_size(c.oid)), 0) AS total_bytes, " +
+        "COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::BIGINT AS estimated_rows FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid " +
+        "JOIN pg_class p ON p.oid = i.inhparent " +
+        "WHERE p.relname = '" + TABLE_NAME + "'";
+
+    // Private constructor to prevent instantiation
+    private StockPriceQueries() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
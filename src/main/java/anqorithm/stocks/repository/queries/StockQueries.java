@@ -101,6 +101,29 @@ public final class StockQueries {
     public static final String FIND_NEAR_52_WEEK_LOW = 
         "SELECT " + ALL_COLUMNS + " FROM " + TABLE_NAME + " WHERE current_price <= fifty_two_week_low * 1.1";
 
+    // Write-behind batch updates
+    public static final String UPDATE_PRICE_AND_VOLUME_BY_SYMBOL =
+        "UPDATE " + TABLE_NAME + " SET current_price = ?, volume = ?, " +
+        "fifty_two_week_high = COALESCE(?, fifty_two_week_high), fifty_two_week_low = COALESCE(?, fifty_two_week_low), " +
+        "version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE symbol = ?";
+
+    // Derived values written in batches; like any other write they bump the version and updated_at
+    public static final String UPDATE_AVERAGE_VOLUME_BY_SYMBOL =
+        "UPDATE " + TABLE_NAME + " SET average_volume = ?, version = version + 1, updated_at = CURRENT_TIMESTAMP " +
+        "WHERE symbol = ?";
+
+    // The committed identity of rows written by symbol, for their outbox events and cache invalidations
+    public static final String FIND_VERSIONS_BY_SYMBOLS =
+        "SELECT id, symbol, version FROM " + TABLE_NAME + " WHERE symbol IN (%s)";
+
+    public static final String UPDATE_BETA_BY_SYMBOL =
+        "UPDATE " + TABLE_NAME + " SET beta = ?, version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE symbol = ?";
+
+    // Change feed: rows whose (updated_at, id) is after the cursor, up to the settled horizon
+    public static final String FIND_CHANGED_SINCE =
+        "SELECT " + ALL_COLUMNS + ", version, updated_at FROM " + TABLE_NAME +
+        " WHERE (updated_at > ? OR (updated_at = ? AND id > ?)) AND updated_at <= ? ORDER BY updated_at, id LIMIT ?";
+
     // Utility method to add pagination to any query
     public static String addPagination(String baseQuery) {
         return baseQuery + " LIMIT ? OFFSET ?";
@@ -0,0 +1,36 @@
+package anqorithm.stocks.repository.queries;
+
+/**
+ * Centralized SQL queries for the stock_tombstones table recording deleted stocks for the change feed
+ */
+public final class StockTombstoneQueries {
+
+    // Table and column constants
+    public static final String TABLE_NAME = "stock_tombstones";
+
+    public static final String CREATE_TABLE =
+        "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+        "id BIGINT PRIMARY KEY, " +
+        "symbol VARCHAR(10) NOT NULL, " +
+        "deleted_at TIMESTAMP WITH TIME ZONE NOT NULL)";
+
+    public static final String CREATE_INDEX =
+        "CREATE INDEX IF NOT EXISTS idx_stock_tombstones_deleted_at ON " + TABLE_NAME + " (deleted_at, id)";
+
+    // Write queries
+    public static final String INSERT =
+        "INSERT INTO " + TABLE_NAME + " (id, symbol, deleted_at) VALUES (?, ?, ?)";
+
+    public static final String DELETE_OLDER_THAN =
+        "DELETE FROM " + TABLE_NAME + " WHERE deleted_at < ?";
+
+    // Read queries
+    public static final String FIND_DELETED_SINCE =
+        "SELECT id, symbol, deleted_at FROM " + TABLE_NAME +
+        " WHERE (deleted_at > ? OR (deleted_at = ? AND id > ?)) AND deleted_at <= ? ORDER BY deleted_at, id LIMIT ?";
+
+    // Private constructor to prevent instantiation
+    private StockTombstoneQueries() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,91 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.candle.Bar;
+import anqorithm.stocks.candle.CandleAggregator;
+import anqorithm.stocks.candle.Resolution;
+import anqorithm.stocks.dto.Candle;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds 1m/5m/1h/1d OHLCV candles incrementally from the tick stream.
+ * Open bars live in memory and completed bars are rolled into a compact per-symbol column store,
+ * so serving candles never touches raw ticks.
+ */
+@Service
+public class CandleService implements TickListener {
+
+    private final Map<String, CandleAggregator> aggregators = new ConcurrentHashMap<>();
+    private final int maxBarsPerResolution;
+    private final int maxCandlesPerRequest;
+
+    @Autowired
+    public CandleService(@Value("${stocks.candles.max-bars-per-resolution:1440}") int maxBarsPerResolution,
+                         @Value("${stocks.candles.max-per-request:5000}") int maxCandlesPerRequest,
+                         MeterRegistry meterRegistry) {
+        this.maxBarsPerResolution = maxBarsPerResolution;
+        this.maxCandlesPerRequest = maxCandlesPerRequest;
+
+        Gauge.builder("stocks.candles.memory", this, CandleService::getMemoryBytes)
+            .description("Memory held by completed candle stores")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onTick(Tick tick) {
+        aggregators.computeIfAbsent(tick.getSymbol(), symbol -> new CandleAggregator(maxBarsPerResolution))
+            .onTick(tick.getTimestamp(), tick.getScaledPrice(), tick.getVolume());
+    }
+
+    public List<Candle> getCandles(String symbol, Duration resolution, Instant from, Instant to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+        long bucketMillis = resolution.toMillis();
+        // Rejects resolutions that cannot be built from native bars before they reach the range check
+        Resolution.nativeSourceFor(bucketMillis);
+        if ((to.toEpochMilli() - from.toEpochMilli()) / bucketMillis > maxCandlesPerRequest) {
+            throw new IllegalArgumentException("Requested range exceeds " + maxCandlesPerRequest + " candles");
+        }
+
+        CandleAggregator aggregator = aggregators.get(symbol.toUpperCase());
+        if (aggregator == null) {
+            return List.of();
+        }
+        return aggregator.candles(bucketMillis, from.toEpochMilli(), to.toEpochMilli()).stream()
+            .map(CandleService::toCandle)
+            .toList();
+    }
+
+    public long getMemoryBytes() {
+        long bytes = 0;
+        for (CandleAggregator aggregator : aggregators.values()) {
+            bytes += aggregator.memoryBytes();
+        }
+        return bytes;
+    }
+
+    private static Candle toCandle(Bar bar) {
+        return new Candle(
+            Instant.ofEpochMilli(bar.getStart()).atZone(ZoneOffset.UTC),
+            Tick.fromScaled(bar.getOpen()),
+            Tick.fromScaled(bar.getHigh()),
+            Tick.fromScaled(bar.getLow()),
+            Tick.fromScaled(bar.getClose()),
+            bar.getVolume()
+        );
+    }
+}
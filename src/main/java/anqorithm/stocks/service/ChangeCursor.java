@@ -0,0 +1,84 @@
+package anqorithm.stocks.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in the stock change feed: the (timestamp, id) of the last change a client has seen.
+ * Timestamps are kept at the database's microsecond precision so the position round-trips exactly.
+ * Clients only ever see the opaque encoded form.
+ */
+final class ChangeCursor implements Comparable<ChangeCursor> {
+
+    static final ChangeCursor START = new ChangeCursor(0, 0);
+
+    private final long epochMicros;
+    private final long id;
+
+    ChangeCursor(long epochMicros, long id) {
+        this.epochMicros = epochMicros;
+        this.id = id;
+    }
+
+    static ChangeCursor of(Instant timestamp, long id) {
+        return new ChangeCursor(ChronoUnit.MICROS.between(Instant.EPOCH, timestamp), id);
+    }
+
+    static ChangeCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = decoded.indexOf(':');
+            return new ChangeCursor(Long.parseLong(decoded.substring(0, separator)),
+                Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid change cursor: " + cursor);
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((epochMicros + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    Instant getTimestamp() {
+        return Instant.EPOCH.plus(epochMicros, ChronoUnit.MICROS);
+    }
+
+    OffsetDateTime getOffsetDateTime() {
+        return OffsetDateTime.ofInstant(getTimestamp(), ZoneOffset.UTC);
+    }
+
+    long getId() {
+        return id;
+    }
+
+    @Override
+    public int compareTo(ChangeCursor other) {
+        int byTime = Long.compare(epochMicros, other.epochMicros);
+        return byTime != 0 ? byTime : Long.compare(id, other.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChangeCursor that)) return false;
+        return epochMicros == that.epochMicros && id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(epochMicros) * 31 + Long.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeCursor{" + getTimestamp() + ", " + id + "}";
+    }
+}
@@ -0,0 +1,281 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.analytics.CloseSeries;
+import anqorithm.stocks.analytics.ReturnMatrix;
+import anqorithm.stocks.analytics.ReturnStatistics;
+import anqorithm.stocks.dto.CorrelationMatrix;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.BetaUpdate;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository.DailyCloseHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Correlation matrices and betas computed from the stored daily closes.
+ * <p>
+ * Closes are read in one ordered query into primitive per-symbol series, and the statistics are computed
+ * on a dedicated fork/join pool by {@link ReturnStatistics}. Correlation matrices are kept per requested
+ * symbol list for a TTL. Once a day, every symbol's beta against the benchmark over the window is written
+ * to {@code stocks.beta}, replacing the client-supplied value, through the {@link DerivedValueWriter} so that
+ * each stock's version is bumped and every instance evicts it.
+ */
+@Service
+public class CorrelationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CorrelationService.class);
+    private static final int SCALE = 4;
+    private static final int MAX_CACHED_MATRICES = 256;
+    // The largest value stocks.beta (DECIMAL(6, 4), non-negative) can hold
+    private static final BigDecimal MAX_BETA = new BigDecimal("99.9999");
+
+    private final StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+    private final DerivedValueWriter derivedValueWriter;
+    private final String benchmark;
+    private final int windowDays;
+    private final int minObservations;
+    private final int maxSymbols;
+    private final long ttlMillis;
+    private final ForkJoinPool pool;
+    private final LongSupplier clock;
+
+    private final Timer correlationTimer;
+    private final Timer betaTimer;
+
+    private final Map<List<String>, Snapshot> matrices = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CorrelationService(StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository,
+                              DerivedValueWriter derivedValueWriter,
+                              @Value("${stocks.analytics.benchmark:SPY}") String benchmark,
+                              @Value("${stocks.analytics.window-days:365}") int windowDays,
+                              @Value("${stocks.analytics.min-observations:20}") int minObservations,
+                              @Value("${stocks.analytics.max-symbols:200}") int maxSymbols,
+                              @Value("${stocks.analytics.correlation-ttl:15m}") Duration ttl,
+                              @Value("${stocks.analytics.parallelism:0}") int parallelism,
+                              MeterRegistry meterRegistry) {
+        this(stockDailyCloseJdbcRepository, derivedValueWriter, benchmark, windowDays,
+            minObservations, maxSymbols, ttl, newPool(parallelism), meterRegistry, System::currentTimeMillis);
+    }
+
+    CorrelationService(StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository,
+                       DerivedValueWriter derivedValueWriter, String benchmark, int windowDays, int minObservations, int maxSymbols, Duration ttl,
+                       ForkJoinPool pool, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (minObservations < 2) {
+            throw new IllegalArgumentException("stocks.analytics.min-observations must be at least 2");
+        }
+        this.stockDailyCloseJdbcRepository = stockDailyCloseJdbcRepository;
+        this.derivedValueWriter = derivedValueWriter;
+        this.benchmark = benchmark.toUpperCase();
+        this.windowDays = windowDays;
+        this.minObservations = minObservations;
+        this.maxSymbols = maxSymbols;
+        this.ttlMillis = ttl.toMillis();
+        this.pool = pool;
+        this.clock = clock;
+
+        this.correlationTimer = Timer.builder("stocks.analytics.correlation")
+            .description("Time to compute a correlation matrix from daily closes")
+            .register(meterRegistry);
+        this.betaTimer = Timer.builder("stocks.analytics.beta")
+            .description("Time to recompute and store every stock's beta")
+            .register(meterRegistry);
+    }
+
+    private static ForkJoinPool newPool(int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Correlations of the symbols' daily log returns over the days all of them closed, with their betas.
+     * Symbols with too few closes in the window are listed as excluded.
+     */
+    public CorrelationMatrix getCorrelation(List<String> symbols) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                normalized.add(symbol.trim().toUpperCase());
+            }
+        }
+        if (normalized.size() < 2) {
+            throw new IllegalArgumentException("At least two distinct symbols are required");
+        }
+        if (normalized.size() > maxSymbols) {
+            throw new IllegalArgumentException("At most " + maxSymbols + " symbols can be correlated at once");
+        }
+
+        List<String> key = List.copyOf(normalized);
+        long now = clock.getAsLong();
+        Snapshot cached = matrices.get(key);
+        if (cached != null && now - cached.computedAt < ttlMillis) {
+            return cached.matrix;
+        }
+        Timer.Sample sample = Timer.start();
+        CorrelationMatrix matrix = compute(key, now);
+        sample.stop(correlationTimer);
+        if (matrices.size() >= MAX_CACHED_MATRICES) {
+            matrices.values().removeIf(snapshot -> now - snapshot.computedAt >= ttlMillis);
+            if (matrices.size() >= MAX_CACHED_MATRICES) {
+                matrices.clear();
+            }
+        }
+        matrices.put(key, new Snapshot(matrix, now));
+        return matrix;
+    }
+
+    private CorrelationMatrix compute(List<String> symbols, long now) {
+        List<String> query = new ArrayList<>(symbols);
+        if (!symbols.contains(benchmark)) {
+            query.add(benchmark);
+        }
+        Map<String, CloseSeries> closes = load(handler ->
+            stockDailyCloseJdbcRepository.forEachBySymbolsSince(query, windowStart(now), handler));
+
+        List<String> included = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        List<CloseSeries> series = new ArrayList<>();
+        for (String symbol : symbols) {
+            CloseSeries current = closes.get(symbol);
+            if (current != null && current.size() > minObservations) {
+                included.add(symbol);
+                series.add(current);
+            } else {
+                excluded.add(symbol);
+            }
+        }
+        if (series.size() < 2) {
+            throw new IllegalArgumentException("At least two of the symbols need " + (minObservations + 1)
+                + " daily closes in the last " + windowDays + " days");
+        }
+
+        ReturnMatrix returns = ReturnStatistics.alignedLogReturns(series);
+        if (returns.getObservations() < minObservations) {
+            throw new IllegalArgumentException("The symbols share only " + returns.getObservations()
+                + " daily returns; at least " + minObservations + " are required");
+        }
+        double[][] correlations = ReturnStatistics.correlations(returns, pool);
+
+        List<List<BigDecimal>> rows = new ArrayList<>(correlations.length);
+        for (double[] row : correlations) {
+            List<BigDecimal> values = new ArrayList<>(row.length);
+            for (double value : row) {
+                values.add(round(value));
+            }
+            rows.add(values);
+        }
+        List<BigDecimal> betas = null;
+        CloseSeries benchmarkSeries = closes.get(benchmark);
+        if (benchmarkSeries != null) {
+            betas = new ArrayList<>(series.size());
+            for (double beta : ReturnStatistics.betas(series, benchmarkSeries, minObservations, pool)) {
+                betas.add(round(beta));
+            }
+        }
+        return new CorrelationMatrix(included, excluded, returns.getFrom(), returns.getTo(),
+            returns.getObservations(), rows, benchmark, betas, Instant.ofEpochMilli(now).atZone(ZoneOffset.UTC));
+    }
+
+    /**
+     * Recompute every stock's beta against the benchmark from the window's daily closes and store it.
+     * Stocks without enough closes, or whose beta is outside what the column holds, keep their stored beta.
+     * Returns the number of stocks updated.
+     */
+    @Scheduled(cron = "${stocks.analytics.beta-cron:0 15 1 * * *}", zone = "UTC")
+    public int recomputeBetas() {
+        Timer.Sample sample = Timer.start();
+        try {
+            return updateBetas();
+        } catch (DataAccessException | TransactionException e) {
+            logger.error("Failed to recompute betas: {}", e.getMessage());
+            return 0;
+        } finally {
+            sample.stop(betaTimer);
+        }
+    }
+
+    private int updateBetas() {
+        LocalDate from = windowStart(clock.getAsLong());
+        Map<String, CloseSeries> closes = load(handler -> stockDailyCloseJdbcRepository.forEachSince(from, handler));
+        CloseSeries benchmarkSeries = closes.get(benchmark);
+        if (benchmarkSeries == null) {
+            logger.warn("No daily closes for benchmark {} since {}; betas were not recomputed", benchmark, from);
+            return 0;
+        }
+
+        List<CloseSeries> series = new ArrayList<>(closes.values());
+        double[] betas = ReturnStatistics.betas(series, benchmarkSeries, minObservations, pool);
+        List<BetaUpdate> updates = new ArrayList<>(series.size());
+        int outOfRange = 0;
+        for (int i = 0; i < betas.length; i++) {
+            BigDecimal beta = round(betas[i]);
+            if (beta == null) {
+                continue;
+            }
+            if (beta.signum() < 0 || beta.compareTo(MAX_BETA) > 0) {
+                outOfRange++;
+                continue;
+            }
+            updates.add(new BetaUpdate(series.get(i).getSymbol(), beta));
+        }
+
+        int written = derivedValueWriter.writeBetas(updates);
+        logger.info("Recomputed betas against {} for {} of {} symbols ({} outside the stored range)",
+            benchmark, written, series.size(), outOfRange);
+        return written;
+    }
+
+    private static Map<String, CloseSeries> load(Consumer<DailyCloseHandler> query) {
+        Map<String, CloseSeries> closes = new LinkedHashMap<>();
+        query.accept((symbol, day, close) -> {
+            if (close > 0) {
+                closes.computeIfAbsent(symbol, CloseSeries::new).add(day, close);
+            }
+        });
+        return closes;
+    }
+
+    private LocalDate windowStart(long now) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(now), ZoneOffset.UTC).minusDays(windowDays);
+    }
+
+    private static BigDecimal round(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    private record Snapshot(CorrelationMatrix matrix, long computedAt) {
+    }
+}
@@ -0,0 +1,137 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository.DailyClose;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Records each symbol's last price per UTC day into stock_daily_closes, the daily series that betas and
+ * correlations are computed from.
+ * <p>
+ * Ticks only replace the pending close of their symbol and day in memory; the changed closes are written in
+ * one batch on a fixed delay, so today's close is rewritten at most once per flush however often a symbol
+ * ticks. Closes older than the retention are purged daily.
+ */
+@Service
+public class DailyCloseService implements TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyCloseService.class);
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+    private final int retentionDays;
+    private final LongSupplier clock;
+
+    // Both guarded by this
+    private final Map<SymbolDay, Long> pending = new LinkedHashMap<>();
+    private final Map<String, Long> latest = new HashMap<>();
+
+    @Autowired
+    public DailyCloseService(StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository,
+                             @Value("${stocks.closes.retention-days:800}") int retentionDays,
+                             MeterRegistry meterRegistry) {
+        this(stockDailyCloseJdbcRepository, retentionDays, meterRegistry, System::currentTimeMillis);
+    }
+
+    DailyCloseService(StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository, int retentionDays,
+                      MeterRegistry meterRegistry, LongSupplier clock) {
+        this.stockDailyCloseJdbcRepository = stockDailyCloseJdbcRepository;
+        this.retentionDays = retentionDays;
+        this.clock = clock;
+
+        Gauge.builder("stocks.closes.pending", this, DailyCloseService::getPendingCount)
+            .description("Daily closes waiting to be written")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        stockDailyCloseJdbcRepository.createTable();
+    }
+
+    @Override
+    public synchronized void onTick(Tick tick) {
+        // A tick that arrives after a newer one for the symbol must not replace its close
+        Long previous = latest.get(tick.getSymbol());
+        if (previous != null && previous > tick.getTimestamp()) {
+            return;
+        }
+        latest.put(tick.getSymbol(), tick.getTimestamp());
+        long epochDay = Math.floorDiv(tick.getTimestamp(), DAY_MILLIS);
+        pending.put(new SymbolDay(tick.getSymbol(), epochDay), tick.getScaledPrice());
+    }
+
+    /**
+     * Write the closes changed since the last flush in one batch; on failure they are kept for the next one
+     * unless a newer close for the same day replaced them meanwhile
+     */
+    @Scheduled(fixedDelayString = "${stocks.closes.flush-interval-ms:60000}")
+    public int flush() {
+        Map<SymbolDay, Long> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        List<DailyClose> closes = new ArrayList<>(batch.size());
+        batch.forEach((key, scaledPrice) -> closes.add(
+            new DailyClose(key.symbol(), LocalDate.ofEpochDay(key.epochDay()), Tick.fromScaled(scaledPrice))));
+        try {
+            return stockDailyCloseJdbcRepository.batchUpsert(closes);
+        } catch (DataAccessException e) {
+            logger.error("Failed to write {} daily closes, will retry: {}", closes.size(), e.getMessage());
+            synchronized (this) {
+                batch.forEach(pending::putIfAbsent);
+            }
+            return 0;
+        }
+    }
+
+    @Scheduled(cron = "${stocks.closes.purge-cron:0 45 0 * * *}", zone = "UTC")
+    public void purge() {
+        try {
+            LocalDate cutoff = LocalDate.ofEpochDay(Math.floorDiv(clock.getAsLong(), DAY_MILLIS) - retentionDays);
+            int purged = stockDailyCloseJdbcRepository.deleteBefore(cutoff);
+            if (purged > 0) {
+                logger.info("Purged {} daily closes before {}", purged, cutoff);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Failed to purge daily closes: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private record SymbolDay(String symbol, long epochDay) {
+    }
+}
@@ -0,0 +1,100 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.cache.CacheInvalidation;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.AverageVolumeUpdate;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.BetaUpdate;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.StockVersion;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes values derived from other data to many stocks in one batch, as ordinary changes.
+ * <p>
+ * The batch update bumps each row's version and updated_at. An {@link StockEvent.Type#UPDATED} event for each
+ * row written goes to the outbox in the same transaction. Once it commits, other instances are told to evict
+ * the stocks from their caches, just as after a JPA update.
+ */
+@Service
+public class DerivedValueWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DerivedValueWriter.class);
+
+    private final StockBatchJdbcRepository stockBatchJdbcRepository;
+    private final StockOutboxJdbcRepository stockOutboxJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Autowired
+    public DerivedValueWriter(StockBatchJdbcRepository stockBatchJdbcRepository,
+                              StockOutboxJdbcRepository stockOutboxJdbcRepository,
+                              PlatformTransactionManager transactionManager,
+                              CacheInvalidationPublisher cacheInvalidationPublisher) {
+        this.stockBatchJdbcRepository = stockBatchJdbcRepository;
+        this.stockOutboxJdbcRepository = stockOutboxJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+    }
+
+    /**
+     * Write the average volumes. Returns the number of stocks updated.
+     */
+    public int writeAverageVolumes(List<AverageVolumeUpdate> updates) {
+        return write(updates, AverageVolumeUpdate::symbol, stockBatchJdbcRepository::batchUpdateAverageVolume);
+    }
+
+    /**
+     * Write the betas. Returns the number of stocks updated.
+     */
+    public int writeBetas(List<BetaUpdate> updates) {
+        return write(updates, BetaUpdate::symbol, stockBatchJdbcRepository::batchUpdateBeta);
+    }
+
+    private <T> int write(List<T> updates, Function<T, String> symbol, Function<List<T>, int[]> batchUpdate) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        List<String> symbols = new ArrayList<>(updates.size());
+        for (T update : updates) {
+            symbols.add(symbol.apply(update));
+        }
+        List<StockVersion> written = transactionTemplate.execute(status -> {
+            batchUpdate.apply(updates);
+            // Read back in the same transaction, so these are the versions being committed
+            List<StockVersion> rows = stockBatchJdbcRepository.findVersionsBySymbols(symbols);
+            long now = System.currentTimeMillis();
+            List<StockEvent> events = new ArrayList<>(rows.size());
+            for (StockVersion row : rows) {
+                events.add(new StockEvent(0, StockEvent.Type.UPDATED, row.id(), row.symbol(), row.version(), null,
+                    null, now));
+            }
+            stockOutboxJdbcRepository.batchInsert(events);
+            return rows;
+        });
+        publishInvalidations(written);
+        return written.size();
+    }
+
+    private void publishInvalidations(List<StockVersion> written) {
+        try {
+            for (StockVersion row : written) {
+                cacheInvalidationPublisher.publish(new CacheInvalidation(CacheInvalidation.Kind.UPDATE, row.id(),
+                    row.version(), row.symbol()));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not publish cache invalidations for {} stocks: {}", written.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package anqorithm.stocks.service;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A client-selected subset of stock fields, from a {@code ?fields=symbol,currentPrice} parameter.
+ * <p>
+ * The projection narrows both ends: only the selected columns are read, and each row is mapped straight
+ * into an ordered map of the selected JSON names, without materializing a {@link anqorithm.stocks.entity.Stock}.
+ */
+public final class FieldProjection implements RowMapper<Map<String, Object>> {
+
+    private final List<StockField> fields;
+    private final String columns;
+
+    private FieldProjection(List<StockField> fields) {
+        this.fields = fields;
+        this.columns = fields.stream().map(StockField::getColumn).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Parse a comma-separated list of JSON field names. Returns null when no fields were requested, so the
+     * caller serves full stocks; unknown names are rejected.
+     */
+    public static FieldProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<StockField> selected = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                selected.add(StockField.fromJsonName(trimmed));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "'; allowed fields are "
+                    + Arrays.stream(StockField.values()).map(StockField::getJsonName).collect(Collectors.joining(", ")));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return new FieldProjection(List.copyOf(selected));
+    }
+
+    public List<StockField> getFields() {
+        return fields;
+    }
+
+    /**
+     * The SELECT clause for these fields followed by {@code fromClause}, e.g. "FROM stocks WHERE ..."
+     */
+    public String select(String fromClause) {
+        return "SELECT " + columns + " " + fromClause;
+    }
+
+    @Override
+    public Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+        for (int i = 0; i < fields.size(); i++) {
+            StockField field = fields.get(i);
+            Object value = field.read(rs, i + 1);
+            // Nulls are left out, as they are when serializing a full Stock
+            if (value != null) {
+                row.put(field.getJsonName(), value);
+            }
+        }
+        return row;
+    }
+}
@@ -0,0 +1,82 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.tick.RollingExtremes;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains each symbol's 52-week high and low from the prices passed through the update path.
+ * <p>
+ * A symbol's {@link RollingExtremes} is seeded from its stored extremes the first time it is priced (they
+ * are treated as observed that day) and then fed every new price, keyed by UTC day. The caller writes the
+ * resulting extremes in the same statement as the price; an explicit edit of the stored extremes should
+ * {@link #forget} the symbol so it is reseeded from them.
+ */
+@Service
+public class FiftyTwoWeekRangeService {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final Map<String, RollingExtremes> ranges = new ConcurrentHashMap<>();
+    private final int windowDays;
+
+    @Autowired
+    public FiftyTwoWeekRangeService(@Value("${stocks.fifty-two-week.window-days:364}") int windowDays,
+                                    MeterRegistry meterRegistry) {
+        this.windowDays = windowDays;
+
+        Gauge.builder("stocks.fifty-two-week.symbols", ranges, Map::size)
+            .description("Symbols with a maintained 52-week range")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Feed the stock's current price and set its 52-week high and low from the rolling extremes.
+     * Returns true if either of them changed.
+     */
+    public boolean observe(Stock stock, long timestamp) {
+        long day = Math.floorDiv(timestamp, DAY_MILLIS);
+        long price = Tick.toScaled(stock.getCurrentPrice());
+        RollingExtremes extremes = ranges.computeIfAbsent(stock.getSymbol(), symbol -> new RollingExtremes(windowDays));
+
+        BigDecimal high;
+        BigDecimal low;
+        synchronized (extremes) {
+            if (extremes.isEmpty()) {
+                long storedHigh = stock.getFiftyTwoWeekHigh() != null ? Tick.toScaled(stock.getFiftyTwoWeekHigh()) : price;
+                long storedLow = stock.getFiftyTwoWeekLow() != null ? Tick.toScaled(stock.getFiftyTwoWeekLow()) : price;
+                extremes.add(day, storedHigh, storedLow);
+            }
+            extremes.add(day, price);
+            high = Tick.fromScaled(extremes.high());
+            low = Tick.fromScaled(extremes.low());
+        }
+
+        if (sameValue(high, stock.getFiftyTwoWeekHigh()) && sameValue(low, stock.getFiftyTwoWeekLow())) {
+            return false;
+        }
+        stock.setFiftyTwoWeekHigh(high);
+        stock.setFiftyTwoWeekLow(low);
+        return true;
+    }
+
+    /**
+     * Drop the symbol's rolling extremes so its next price reseeds them from the stored values
+     */
+    public void forget(String symbol) {
+        ranges.remove(symbol);
+    }
+
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        return b != null && a.compareTo(b) == 0;
+    }
+}
@@ -0,0 +1,241 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.StockMover;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.outbox.StockEventListener;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Biggest gainers and losers of the current session, maintained from the tick stream.
+ * <p>
+ * Every symbol has a reference price: its session open (first tick of the session) or, with
+ * {@link Reference#PREVIOUS_CLOSE}, its last price of the previous session. After a restart the previous
+ * session's prices are taken from the last stored daily closes before the current UTC day, read once at
+ * startup; a symbol without one falls back to its first tick. Symbols are kept in one set ordered by
+ * relative change, so a tick costs O(log n) and the top k in either direction is a walk from one end of
+ * the set, O(k). A new session starts on the configured cron, and deleted stocks are dropped as their
+ * outbox events are relayed.
+ */
+@Service
+public class MoversService implements TickListener, StockEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoversService.class);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final int CLOSE_LOOKBACK_DAYS = 7;
+
+    private static final Comparator<Mover> BY_CHANGE = Comparator.comparingDouble((Mover mover) -> mover.change)
+        .thenComparing(mover -> mover.symbol);
+
+    public enum Reference {
+        SESSION_OPEN,
+        PREVIOUS_CLOSE
+    }
+
+    public enum Direction {
+        UP,
+        DOWN;
+
+        public static Direction parse(String value) {
+            for (Direction direction : values()) {
+                if (direction.name().equalsIgnoreCase(value)) {
+                    return direction;
+                }
+            }
+            throw new IllegalArgumentException("direction must be 'up' or 'down'");
+        }
+    }
+
+    private final Reference reference;
+    private final StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+    private final LongSupplier clock;
+
+    // All guarded by this; a mover is removed from ranked before its change is updated
+    private final Map<String, Mover> movers = new HashMap<>();
+    private final TreeSet<Mover> ranked = new TreeSet<>(BY_CHANGE);
+    // Stored closes, in Tick.PRICE_SCALE units, of symbols that have not ticked since startup
+    private final Map<String, Long> previousCloses = new HashMap<>();
+
+    @Autowired
+    public MoversService(@Value("${stocks.movers.reference:PREVIOUS_CLOSE}") Reference reference,
+                         StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository,
+                         MeterRegistry meterRegistry) {
+        this(reference, stockDailyCloseJdbcRepository, meterRegistry, System::currentTimeMillis);
+    }
+
+    MoversService(Reference reference, StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository,
+                  MeterRegistry meterRegistry, LongSupplier clock) {
+        this.reference = reference;
+        this.stockDailyCloseJdbcRepository = stockDailyCloseJdbcRepository;
+        this.clock = clock;
+
+        Gauge.builder("stocks.movers.symbols", this, MoversService::getSymbolCount)
+            .description("Symbols ranked by change since their session reference price")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take each symbol's previous close from the stored daily closes, replacing references that were
+     * taken from a first tick in the meantime
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedPreviousCloses() {
+        if (reference != Reference.PREVIOUS_CLOSE) {
+            return;
+        }
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(clock.getAsLong()), ZoneOffset.UTC);
+        Map<String, BigDecimal> closes;
+        try {
+            closes = stockDailyCloseJdbcRepository.findLatestBefore(today, today.minusDays(CLOSE_LOOKBACK_DAYS));
+        } catch (DataAccessException e) {
+            logger.warn("Could not read previous closes; movers are measured from each symbol's first tick: {}",
+                e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            closes.forEach((symbol, close) -> {
+                if (close.signum() <= 0) {
+                    return;
+                }
+                long scaled = Tick.toScaled(close);
+                Mover mover = movers.get(symbol);
+                if (mover == null) {
+                    previousCloses.put(symbol, scaled);
+                } else if (mover.provisional) {
+                    ranked.remove(mover);
+                    mover.referencePrice = scaled;
+                    mover.provisional = false;
+                    mover.update(mover.price, mover.timestamp);
+                    ranked.add(mover);
+                }
+            });
+        }
+        logger.info("Seeded movers with {} previous closes", closes.size());
+    }
+
+    @Override
+    public synchronized void onTick(Tick tick) {
+        Mover mover = movers.get(tick.getSymbol());
+        if (mover == null) {
+            Long close = previousCloses.remove(tick.getSymbol());
+            mover = new Mover(tick.getSymbol(), close != null ? close : tick.getScaledPrice());
+            mover.provisional = close == null && reference == Reference.PREVIOUS_CLOSE;
+            movers.put(mover.symbol, mover);
+        } else {
+            ranked.remove(mover);
+        }
+        mover.update(tick.getScaledPrice(), tick.getTimestamp());
+        ranked.add(mover);
+    }
+
+    @Override
+    public synchronized void onEvents(List<StockEvent> events) {
+        for (StockEvent event : events) {
+            if (event.getType() == StockEvent.Type.DELETED && event.getSymbol() != null) {
+                Mover mover = movers.remove(event.getSymbol());
+                if (mover != null) {
+                    ranked.remove(mover);
+                }
+                previousCloses.remove(event.getSymbol());
+            }
+        }
+    }
+
+    /**
+     * Up to limit symbols that moved in the given direction, largest relative move first
+     */
+    public synchronized List<StockMover> getMovers(Direction direction, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        List<StockMover> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        Iterator<Mover> iterator = direction == Direction.UP ? ranked.descendingIterator() : ranked.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            Mover mover = iterator.next();
+            if (direction == Direction.UP ? mover.change <= 0 : mover.change >= 0) {
+                break;
+            }
+            result.add(mover.toStockMover());
+        }
+        return result;
+    }
+
+    /**
+     * Start a new session: each symbol's reference becomes its last price, or is taken from its next tick
+     */
+    @Scheduled(cron = "${stocks.movers.session-start-cron:0 0 0 * * *}", zone = "UTC")
+    public synchronized void startSession() {
+        ranked.clear();
+        if (reference == Reference.SESSION_OPEN) {
+            movers.clear();
+        } else {
+            for (Mover mover : movers.values()) {
+                mover.referencePrice = mover.price;
+                mover.provisional = false;
+                mover.change = 0;
+                ranked.add(mover);
+            }
+        }
+        logger.info("Started a new movers session for {} symbols", movers.size());
+    }
+
+    public synchronized int getSymbolCount() {
+        return movers.size();
+    }
+
+    private static final class Mover {
+        private final String symbol;
+        private long referencePrice;
+        // Taken from a first tick, for want of a stored previous close
+        private boolean provisional;
+        private long price;
+        private long timestamp;
+        private double change;
+
+        private Mover(String symbol, long referencePrice) {
+            this.symbol = symbol;
+            this.referencePrice = referencePrice;
+        }
+
+        private void update(long price, long timestamp) {
+            this.price = price;
+            this.timestamp = timestamp;
+            this.change = (double) (price - referencePrice) / referencePrice;
+        }
+
+        private StockMover toStockMover() {
+            long difference = price - referencePrice;
+            BigDecimal changePercent = BigDecimal.valueOf(difference).multiply(HUNDRED)
+                .divide(BigDecimal.valueOf(referencePrice), 2, RoundingMode.HALF_UP);
+            return new StockMover(symbol, Tick.fromScaled(price), Tick.fromScaled(referencePrice),
+                Tick.fromScaled(difference), changePercent,
+                Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.PortfolioHolding;
+import anqorithm.stocks.dto.PortfolioPosition;
+import anqorithm.stocks.dto.PortfolioValuation;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Values a portfolio of holdings in one call.
+ * <p>
+ * Stocks come from the {@code stocks} cache, keyed by upper-case symbol as {@link StockService#findBySymbol}
+ * caches them; the misses are read in one query and put in the cache. A symbol's price is its newest tick when
+ * it has ticked since startup, which also covers updates still waiting in the write-behind journal, and the
+ * stock's stored price otherwise. All sums are exact; only weights and the weighted beta are rounded.
+ */
+@Service
+public class PortfolioValuationService {
+
+    static final String UNCLASSIFIED_SECTOR = "Unclassified";
+    private static final String STOCKS_CACHE = "stocks";
+    private static final int WEIGHT_SCALE = 6;
+    private static final int BETA_SCALE = 4;
+
+    private final StockReadService stockReadService;
+    private final RecentTickService recentTickService;
+    private final CacheManager cacheManager;
+    private final int maxHoldings;
+    private final LongSupplier clock;
+
+    private final Timer computeTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    @Autowired
+    public PortfolioValuationService(StockReadService stockReadService, RecentTickService recentTickService,
+                                     CacheManager cacheManager,
+                                     @Value("${stocks.portfolio.max-holdings:5000}") int maxHoldings,
+                                     MeterRegistry meterRegistry) {
+        this(stockReadService, recentTickService, cacheManager, maxHoldings, meterRegistry, System::currentTimeMillis);
+    }
+
+    PortfolioValuationService(StockReadService stockReadService, RecentTickService recentTickService,
+                              CacheManager cacheManager, int maxHoldings, MeterRegistry meterRegistry,
+                              LongSupplier clock) {
+        this.stockReadService = stockReadService;
+        this.recentTickService = recentTickService;
+        this.cacheManager = cacheManager;
+        this.maxHoldings = maxHoldings;
+        this.clock = clock;
+
+        this.computeTimer = Timer.builder("stocks.portfolio.valuation")
+            .description("Time to value a portfolio once its stocks are resolved")
+            .register(meterRegistry);
+        this.cacheHits = Counter.builder("stocks.portfolio.stock.lookups")
+            .tag("result", "hit")
+            .description("Portfolio stocks resolved from the stock cache or the database")
+            .register(meterRegistry);
+        this.cacheMisses = Counter.builder("stocks.portfolio.stock.lookups")
+            .tag("result", "miss")
+            .description("Portfolio stocks resolved from the stock cache or the database")
+            .register(meterRegistry);
+    }
+
+    public PortfolioValuation value(List<PortfolioHolding> holdings) {
+        if (holdings.isEmpty()) {
+            throw new IllegalArgumentException("At least one holding is required");
+        }
+        if (holdings.size() > maxHoldings) {
+            throw new IllegalArgumentException("At most " + maxHoldings + " holdings can be valued at once");
+        }
+
+        Map<String, BigDecimal> quantities = new LinkedHashMap<>();
+        for (PortfolioHolding holding : holdings) {
+            quantities.merge(holding.getSymbol().toUpperCase(), holding.getQuantity(), BigDecimal::add);
+        }
+        Map<String, Stock> stocks = resolve(quantities.keySet());
+
+        Timer.Sample sample = Timer.start();
+        PortfolioValuation valuation = compute(quantities, stocks);
+        sample.stop(computeTimer);
+        return valuation;
+    }
+
+    private Map<String, Stock> resolve(Iterable<String> symbols) {
+        Map<String, Stock> stocks = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        Cache cache = cacheManager.getCache(STOCKS_CACHE);
+        for (String symbol : symbols) {
+            Stock stock = cache != null ? cache.get(symbol, Stock.class) : null;
+            if (stock != null) {
+                stocks.put(symbol, stock);
+            } else {
+                misses.add(symbol);
+            }
+        }
+        cacheHits.increment(stocks.size());
+        cacheMisses.increment(misses.size());
+
+        if (misses.isEmpty()) {
+            return stocks;
+        }
+        for (Stock stock : stockReadService.findBySymbols(misses)) {
+            stocks.put(stock.getSymbol(), stock);
+            if (cache != null) {
+                cache.put(stock.getSymbol(), stock);
+            }
+        }
+        return stocks;
+    }
+
+    private PortfolioValuation compute(Map<String, BigDecimal> quantities, Map<String, Stock> stocks) {
+        List<PortfolioPosition> positions = new ArrayList<>(stocks.size());
+        List<String> unknownSymbols = new ArrayList<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal betaValue = BigDecimal.ZERO;
+        BigDecimal betaExposure = BigDecimal.ZERO;
+        Map<String, BigDecimal> sectorValues = new HashMap<>();
+
+        for (Map.Entry<String, BigDecimal> entry : quantities.entrySet()) {
+            Stock stock = stocks.get(entry.getKey());
+            BigDecimal price = stock != null ? priceOf(stock) : null;
+            if (price == null) {
+                unknownSymbols.add(entry.getKey());
+                continue;
+            }
+            BigDecimal value = price.multiply(entry.getValue());
+            String sector = stock.getSector() != null ? stock.getSector() : UNCLASSIFIED_SECTOR;
+            totalValue = totalValue.add(value);
+            sectorValues.merge(sector, value, BigDecimal::add);
+            if (stock.getBeta() != null) {
+                betaValue = betaValue.add(value);
+                betaExposure = betaExposure.add(value.multiply(stock.getBeta()));
+            }
+            positions.add(new PortfolioPosition(entry.getKey(), entry.getValue(), price, value, null,
+                stock.getSector(), stock.getBeta()));
+        }
+
+        BigDecimal weightedBeta = null;
+        Map<String, BigDecimal> sectorWeights = new LinkedHashMap<>();
+        if (totalValue.signum() != 0) {
+            for (PortfolioPosition position : positions) {
+                position.setWeight(weight(position.getValue(), totalValue));
+            }
+            List<Map.Entry<String, BigDecimal>> sectors = new ArrayList<>(sectorValues.entrySet());
+            sectors.sort(Map.Entry.<String, BigDecimal>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+            for (Map.Entry<String, BigDecimal> sector : sectors) {
+                sectorWeights.put(sector.getKey(), weight(sector.getValue(), totalValue));
+            }
+        }
+        if (betaValue.signum() != 0) {
+            weightedBeta = betaExposure.divide(betaValue, BETA_SCALE, RoundingMode.HALF_UP);
+        }
+        return new PortfolioValuation(totalValue, weightedBeta, sectorWeights, positions, unknownSymbols,
+            Instant.ofEpochMilli(clock.getAsLong()).atZone(ZoneOffset.UTC));
+    }
+
+    private BigDecimal priceOf(Stock stock) {
+        OptionalLong latest = recentTickService.getLatestPrice(stock.getSymbol());
+        return latest.isPresent() ? Tick.fromScaled(latest.getAsLong()) : stock.getCurrentPrice();
+    }
+
+    private static BigDecimal weight(BigDecimal value, BigDecimal total) {
+        return value.divide(total, WEIGHT_SCALE, RoundingMode.HALF_UP);
+    }
+}
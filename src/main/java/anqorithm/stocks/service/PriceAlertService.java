@@ -0,0 +1,331 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.alert.AlertIndex;
+import anqorithm.stocks.alert.PriceAlert;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.cache.NotificationHandler;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.exception.StockNotFoundException;
+import anqorithm.stocks.repository.jdbc.PriceAlertJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Price alerts evaluated on every tick.
+ * <p>
+ * Active alerts are loaded at startup and kept in an {@link AlertIndex}, so a tick costs one threshold lookup
+ * per symbol plus the alerts it actually triggers. Ticks are only published on the instance that wrote the
+ * price, so every instance must hold every active alert: creates, deletes and fires are announced on
+ * {@link #CHANNEL} and applied to the index of each instance, and the active alerts are reloaded whenever the
+ * listener reconnects, in case some were missed.
+ * <p>
+ * Triggered alerts are queued in process; a dispatcher marks them fired in one batch. Only the instance whose
+ * update marked an alert announces it; each instance then drops it from its index and pushes it to its
+ * owner's {@code /alerts/stream} connections open there. Without NOTIFY (any database but PostgreSQL) all of
+ * this stays local. An alert deleted before it is dispatched is marked by nobody and not delivered.
+ */
+@Service
+public class PriceAlertService implements TickListener, NotificationHandler {
+
+    static final String CHANNEL = "price_alert_changes";
+
+    // Message kinds on the channel, each followed by a comma and the alert, or just its id for a delete
+    private static final char CREATED = 'C';
+    private static final char DELETED = 'D';
+    private static final char FIRED = 'F';
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceAlertService.class);
+    private static final int DISPATCH_BATCH_SIZE = 1000;
+
+    private final PriceAlertJdbcRepository priceAlertJdbcRepository;
+    private final StockReadService stockReadService;
+    private final CacheInvalidationPublisher publisher;
+    private final int maxPerUser;
+    private final Duration firedRetention;
+    private final Duration streamTimeout;
+    private final LongSupplier clock;
+
+    private final AlertIndex index = new AlertIndex();
+    private final Queue<PriceAlert> triggered = new ConcurrentLinkedQueue<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Counter firedCounter;
+
+    @Autowired
+    public PriceAlertService(PriceAlertJdbcRepository priceAlertJdbcRepository, StockReadService stockReadService,
+                             CacheInvalidationPublisher publisher,
+                             @Value("${stocks.alerts.max-per-user:100}") int maxPerUser,
+                             @Value("${stocks.alerts.fired-retention:7d}") Duration firedRetention,
+                             @Value("${stocks.alerts.stream-timeout:30m}") Duration streamTimeout,
+                             MeterRegistry meterRegistry) {
+        this(priceAlertJdbcRepository, stockReadService, publisher, maxPerUser, firedRetention, streamTimeout, meterRegistry,
+            System::currentTimeMillis);
+    }
+
+    PriceAlertService(PriceAlertJdbcRepository priceAlertJdbcRepository, StockReadService stockReadService,
+                      CacheInvalidationPublisher publisher, int maxPerUser, Duration firedRetention, Duration streamTimeout, MeterRegistry meterRegistry,
+                      LongSupplier clock) {
+        this.priceAlertJdbcRepository = priceAlertJdbcRepository;
+        this.stockReadService = stockReadService;
+        this.publisher = publisher;
+        this.maxPerUser = maxPerUser;
+        this.firedRetention = firedRetention;
+        this.streamTimeout = streamTimeout;
+        this.clock = clock;
+
+        this.firedCounter = Counter.builder("stocks.alerts.fired")
+            .description("Price alerts fired and marked")
+            .register(meterRegistry);
+        Gauge.builder("stocks.alerts.active", index, AlertIndex::size)
+            .description("Price alerts waiting for their threshold")
+            .register(meterRegistry);
+        Gauge.builder("stocks.alerts.pending", triggered, Queue::size)
+            .description("Triggered price alerts waiting to be dispatched")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        priceAlertJdbcRepository.createTable();
+        priceAlertJdbcRepository.forEachActive(index::add);
+        logger.info("Loaded {} active price alerts", index.size());
+    }
+
+    /**
+     * Create an alert on the symbol's price. Without a direction, it is taken from which side of the
+     * current price the threshold is on; an alert the current price already satisfies is rejected.
+     */
+    public PriceAlert create(String username, String symbol, BigDecimal threshold, PriceAlert.Direction direction) {
+        if (threshold == null || threshold.signum() <= 0) {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+        String upperSymbol = symbol.toUpperCase();
+        Stock stock = stockReadService.findBySymbol(upperSymbol)
+            .orElseThrow(() -> StockNotFoundException.bySymbol(upperSymbol));
+        long price = Tick.toScaled(stock.getCurrentPrice());
+        long scaledThreshold = Tick.toScaled(threshold);
+
+        if (direction == null) {
+            if (scaledThreshold == price) {
+                throw new IllegalArgumentException(upperSymbol + " is already at " + threshold);
+            }
+            direction = scaledThreshold > price ? PriceAlert.Direction.ABOVE : PriceAlert.Direction.BELOW;
+        } else if (direction == PriceAlert.Direction.ABOVE ? price >= scaledThreshold : price <= scaledThreshold) {
+            throw new IllegalArgumentException(upperSymbol + " is already at or " + direction.name().toLowerCase() +
+                " " + threshold);
+        }
+        if (priceAlertJdbcRepository.countActiveByUsername(username) >= maxPerUser) {
+            throw new IllegalArgumentException("At most " + maxPerUser + " active alerts are allowed per user");
+        }
+
+        long createdAt = clock.getAsLong();
+        BigDecimal scaled = Tick.fromScaled(scaledThreshold);
+        long id = priceAlertJdbcRepository.insert(username, upperSymbol, direction, scaled, createdAt);
+        PriceAlert alert = new PriceAlert(id, username, upperSymbol, direction, scaled, createdAt);
+        index.add(alert);
+        announce(CREATED, alert.toPayload());
+        return alert;
+    }
+
+    /**
+     * The user's alerts, active and fired, oldest first
+     */
+    public List<PriceAlert> findByUsername(String username) {
+        return priceAlertJdbcRepository.findByUsername(username);
+    }
+
+    /**
+     * Delete one of the user's alerts; returns false if they have no alert with that id
+     */
+    public boolean delete(String username, long id) {
+        if (!priceAlertJdbcRepository.deleteByIdAndUsername(id, username)) {
+            return false;
+        }
+        index.remove(id);
+        announce(DELETED, String.valueOf(id));
+        return true;
+    }
+
+    @Override
+    public void onTick(Tick tick) {
+        List<PriceAlert> alerts = index.trigger(tick.getSymbol(), tick.getScaledPrice());
+        for (PriceAlert alert : alerts) {
+            triggered.add(alert.fire(tick.getScaledPrice(), tick.getTimestamp()));
+        }
+    }
+
+    /**
+     * Mark queued alerts fired and announce the ones this call marked. Returns the number announced.
+     */
+    @Scheduled(fixedDelayString = "${stocks.alerts.dispatch-interval-ms:100}")
+    public int dispatch() {
+        int announced = 0;
+        List<PriceAlert> batch;
+        while (!(batch = poll()).isEmpty()) {
+            int[] counts;
+            try {
+                counts = priceAlertJdbcRepository.batchMarkFired(batch);
+            } catch (DataAccessException e) {
+                logger.error("Failed to mark {} price alerts fired, will retry: {}", batch.size(), e.getMessage());
+                triggered.addAll(batch);
+                return announced;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                // A driver may report success without a count; only 0 means nothing was marked
+                if (counts[i] != 0) {
+                    firedCounter.increment();
+                    fired(batch.get(i));
+                    announced++;
+                }
+            }
+        }
+        return announced;
+    }
+
+    @Override
+    public String getChannel() {
+        return CHANNEL;
+    }
+
+    /**
+     * Alerts created, deleted and fired on any instance, this one included
+     */
+    @Override
+    public void onNotifications(List<String> payloads) {
+        for (String payload : payloads) {
+            try {
+                apply(payload);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring price alert change: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Add the active alerts announced while the listener was disconnected
+     */
+    @Override
+    public void onListening() {
+        priceAlertJdbcRepository.forEachActive(index::add);
+    }
+
+    private void apply(String payload) {
+        if (payload.length() < 2 || payload.charAt(1) != ',') {
+            throw new IllegalArgumentException("Malformed price alert change: " + payload);
+        }
+        String body = payload.substring(2);
+        switch (payload.charAt(0)) {
+            case CREATED -> index.add(PriceAlert.parse(body));
+            case DELETED -> index.remove(Long.parseLong(body));
+            case FIRED -> {
+                PriceAlert alert = PriceAlert.parse(body);
+                index.remove(alert.getId());
+                deliver(alert);
+            }
+            default -> throw new IllegalArgumentException("Unknown price alert change: " + payload);
+        }
+    }
+
+    /**
+     * Open a stream of the user's alerts as they fire
+     */
+    public SseEmitter subscribe(String username) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(username, user -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${stocks.alerts.purge-interval-ms:3600000}")
+    public void purgeFired() {
+        try {
+            int purged = priceAlertJdbcRepository.deleteFiredBefore(
+                Instant.ofEpochMilli(clock.getAsLong()).minus(firedRetention));
+            if (purged > 0) {
+                logger.info("Purged {} fired price alerts", purged);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Failed to purge fired price alerts: {}", e.getMessage());
+        }
+    }
+
+    public int getActiveCount() {
+        return index.size();
+    }
+
+    public int getPendingCount() {
+        return triggered.size();
+    }
+
+    private List<PriceAlert> poll() {
+        List<PriceAlert> batch = new ArrayList<>();
+        PriceAlert alert;
+        while (batch.size() < DISPATCH_BATCH_SIZE && (alert = triggered.poll()) != null) {
+            batch.add(alert);
+        }
+        return batch;
+    }
+
+    private void fired(PriceAlert alert) {
+        if (!announce(FIRED, alert.toPayload())) {
+            deliver(alert);
+        }
+    }
+
+    /**
+     * Announce a change to every instance. Returns false if it was not sent, so only this instance knows.
+     */
+    private boolean announce(char kind, String body) {
+        try {
+            if (publisher.isActive()) {
+                publisher.publish(CHANNEL, kind + "," + body);
+                return true;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not announce price alert change {}: {}", kind, e.getMessage());
+        }
+        return false;
+    }
+
+    private void deliver(PriceAlert alert) {
+        List<SseEmitter> emitters = subscribers.get(alert.getUsername());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("alert").id(String.valueOf(alert.getId())).data(alert));
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping alert stream of {}: {}", alert.getUsername(), e.getMessage());
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
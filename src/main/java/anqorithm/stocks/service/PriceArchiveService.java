@@ -0,0 +1,186 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.archive.TickBlockDecoder;
+import anqorithm.stocks.archive.TickBlockEncoder;
+import anqorithm.stocks.dto.PricePoint;
+import anqorithm.stocks.repository.jdbc.StockPriceArchiveJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockPriceJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves cold price history into compressed per-symbol, per-day blocks.
+ * <p>
+ * Once a stock_prices partition is older than the configured number of days, each symbol's ticks for that
+ * day are encoded with {@link TickBlockEncoder} and stored in stock_price_archive, which outlives the
+ * partition retention window. Archived history is decoded tick by tick on read. A day's blocks are written in
+ * one transaction, so a day is either fully archived or retried on the next run.
+ * Like partitioning, archiving is PostgreSQL only.
+ */
+@Service
+public class PriceArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceArchiveService.class);
+
+    private final StockPriceJdbcRepository stockPriceJdbcRepository;
+    private final StockPriceArchiveJdbcRepository stockPriceArchiveJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int archiveAfterDays;
+    private final int maxQueryLimit;
+
+    private final LongAdder decodedTicks = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+
+    @Autowired
+    public PriceArchiveService(StockPriceJdbcRepository stockPriceJdbcRepository,
+                               StockPriceArchiveJdbcRepository stockPriceArchiveJdbcRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${stocks.archive.after-days:2}") int archiveAfterDays,
+                               @Value("${stocks.history.max-query-limit:10000}") int maxQueryLimit) {
+        this.stockPriceJdbcRepository = stockPriceJdbcRepository;
+        this.stockPriceArchiveJdbcRepository = stockPriceArchiveJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveAfterDays = archiveAfterDays;
+        this.maxQueryLimit = maxQueryLimit;
+    }
+
+    @Scheduled(cron = "${stocks.archive.cron:0 30 0 * * *}", zone = "UTC")
+    public void archive() {
+        try {
+            if (!stockPriceJdbcRepository.isPostgres()) {
+                logger.debug("Skipping price archiving: database is not PostgreSQL");
+                return;
+            }
+            stockPriceArchiveJdbcRepository.createTable();
+            archivePartitions(LocalDate.now(ZoneOffset.UTC));
+        } catch (DataAccessException e) {
+            logger.error("Price archiving failed: {}", e.getMessage());
+        }
+    }
+
+    List<LocalDate> archivePartitions(LocalDate today) {
+        LocalDate cutoff = today.minusDays(archiveAfterDays);
+        List<LocalDate> archived = new ArrayList<>();
+        for (String name : stockPriceJdbcRepository.findPartitionNames()) {
+            LocalDate day = StockPricePartitionManager.parsePartitionDay(name);
+            if (day != null && day.isBefore(cutoff) && !stockPriceArchiveJdbcRepository.existsByDay(day)) {
+                transactionTemplate.executeWithoutResult(status -> archiveDay(day));
+                archived.add(day);
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Encode and store one block per symbol for the given UTC day. Returns the number of ticks archived.
+     */
+    long archiveDay(LocalDate day) {
+        Instant from = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        long ticks = 0;
+        long bytes = 0;
+        List<String> symbols = stockPriceJdbcRepository.findSymbolsBetween(from, to);
+        for (String symbol : symbols) {
+            TickBlockEncoder encoder = new TickBlockEncoder();
+            stockPriceJdbcRepository.encodeBySymbolBetween(symbol, from, to, encoder);
+            if (encoder.isEmpty()) {
+                continue;
+            }
+            byte[] block = encoder.toByteArray();
+            stockPriceArchiveJdbcRepository.insertBlock(symbol, day, encoder.size(), block);
+            ticks += encoder.size();
+            bytes += block.length;
+        }
+        logger.info("Archived {} ticks for {} symbols on {} into {} bytes", ticks, symbols.size(), day, bytes);
+        return ticks;
+    }
+
+    public List<PricePoint> findHistory(String symbol, Instant from, Instant to, int limit) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+        int boundedLimit = Math.min(limit, maxQueryLimit);
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<byte[]> blocks = stockPriceArchiveJdbcRepository.findBlocksBySymbolBetween(symbol.toUpperCase(),
+                LocalDate.ofInstant(from, ZoneOffset.UTC), LocalDate.ofInstant(to, ZoneOffset.UTC));
+
+        List<PricePoint> points = new ArrayList<>();
+        long started = System.nanoTime();
+        long decoded = 0;
+        for (byte[] block : blocks) {
+            TickBlockDecoder decoder = new TickBlockDecoder(block);
+            while (points.size() < boundedLimit && decoder.next()) {
+                decoded++;
+                long timestamp = decoder.timestamp();
+                if (timestamp >= toMillis) {
+                    break;
+                }
+                if (timestamp >= fromMillis) {
+                    points.add(new PricePoint(Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC),
+                            Tick.fromScaled(decoder.scaledPrice()), decoder.hasVolume() ? decoder.volume() : null));
+                }
+            }
+        }
+        decodedTicks.add(decoded);
+        decodeNanos.add(System.nanoTime() - started);
+        return points;
+    }
+
+    /**
+     * Archive size against the live tick table, plus decode throughput since startup
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long decoded = decodedTicks.sum();
+        long nanos = decodeNanos.sum();
+        stats.put("decodedTicks", decoded);
+        stats.put("decodeTicksPerSecond", nanos > 0 ? decoded * 1_000_000_000L / nanos : 0L);
+        if (!stockPriceJdbcRepository.isPostgres()) {
+            return stats;
+        }
+
+        Map<String, Object> archive = stockPriceArchiveJdbcRepository.findStats();
+        long archivedTicks = ((Number) archive.get("ticks")).longValue();
+        long storedBytes = ((Number) archive.get("stored_bytes")).longValue();
+        Map<String, Object> table = stockPriceJdbcRepository.findTableSize();
+        long tableBytes = ((Number) table.get("total_bytes")).longValue();
+        long tableRows = ((Number) table.get("estimated_rows")).longValue();
+
+        BigDecimal archiveBytesPerTick = perTick(storedBytes, archivedTicks);
+        BigDecimal tableBytesPerTick = perTick(tableBytes, tableRows);
+        stats.put("archivedBlocks", ((Number) archive.get("blocks")).longValue());
+        stats.put("archivedTicks", archivedTicks);
+        stats.put("archiveBytes", storedBytes);
+        stats.put("archiveBytesPerTick", archiveBytesPerTick);
+        stats.put("tableBytes", tableBytes);
+        stats.put("tableBytesPerTick", tableBytesPerTick);
+        stats.put("compressionRatio", archiveBytesPerTick.signum() > 0
+                ? tableBytesPerTick.divide(archiveBytesPerTick, 1, RoundingMode.HALF_UP) : BigDecimal.ZERO);
+        return stats;
+    }
+
+    private static BigDecimal perTick(long bytes, long ticks) {
+        return ticks > 0 ? BigDecimal.valueOf(bytes).divide(BigDecimal.valueOf(ticks), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+    }
+}
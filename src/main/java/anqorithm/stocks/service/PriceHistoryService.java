@@ -0,0 +1,104 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.PricePoint;
+import anqorithm.stocks.repository.jdbc.StockPriceJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Records every accepted tick into the stock_prices history table.
+ * Ticks are buffered in memory and written with JDBC batch inserts on a fixed delay,
+ * so the request path never waits on an INSERT. When the writer falls behind and the buffer
+ * is full, ticks are dropped from history and counted rather than blocking the tick publisher.
+ */
+@Service
+public class PriceHistoryService implements TickListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    private final StockPriceJdbcRepository stockPriceJdbcRepository;
+    private final BlockingQueue<Tick> buffer;
+    private final int batchSize;
+    private final int maxQueryLimit;
+    private final Counter droppedCounter;
+
+    @Autowired
+    public PriceHistoryService(StockPriceJdbcRepository stockPriceJdbcRepository,
+                               @Value("${stocks.history.buffer-capacity:50000}") int bufferCapacity,
+                               @Value("${stocks.history.batch-size:500}") int batchSize,
+                               @Value("${stocks.history.max-query-limit:10000}") int maxQueryLimit,
+                               MeterRegistry meterRegistry) {
+        this.stockPriceJdbcRepository = stockPriceJdbcRepository;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.maxQueryLimit = maxQueryLimit;
+
+        this.droppedCounter = Counter.builder("stocks.history.dropped")
+            .description("Ticks left out of price history because the write buffer was full")
+            .register(meterRegistry);
+        Gauge.builder("stocks.history.pending", this, PriceHistoryService::getPendingCount)
+            .description("Ticks buffered for the next price history write")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onTick(Tick tick) {
+        // Listeners run on the publisher's thread, so only the scheduled flush may wait on the database
+        if (!buffer.offer(tick)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stocks.history.flush-interval-ms:500}")
+    public int flush() {
+        int written = 0;
+        List<Tick> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                written += stockPriceJdbcRepository.batchInsert(batch, batchSize);
+            } catch (DataAccessException e) {
+                logger.error("Failed to write {} price history ticks: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public List<PricePoint> findHistory(String symbol, Instant from, Instant to, int limit) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+        int boundedLimit = Math.min(limit, maxQueryLimit);
+        return stockPriceJdbcRepository.findBySymbolBetween(symbol.toUpperCase(), from, to, boundedLimit);
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    public long getDroppedCount() {
+        return (long) droppedCounter.count();
+    }
+}
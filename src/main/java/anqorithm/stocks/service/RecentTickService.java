@@ -0,0 +1,107 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.TickSeries;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickListener;
+import anqorithm.stocks.tick.TickRingBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the most recent ticks of every symbol in memory for intraday charts.
+ * Each symbol gets its own {@link TickRingBuffer}, sized from the configured memory budget per symbol.
+ */
+@Service
+public class RecentTickService implements TickListener {
+
+    private final Map<String, TickRingBuffer> buffers = new ConcurrentHashMap<>();
+    private final int capacityPerSymbol;
+
+    @Autowired
+    public RecentTickService(@Value("${stocks.ticks.memory-per-symbol:96KB}") DataSize memoryPerSymbol,
+                             MeterRegistry meterRegistry) {
+        this.capacityPerSymbol = capacityFor(memoryPerSymbol);
+
+        Gauge.builder("stocks.ticks.symbols", buffers, Map::size)
+            .description("Symbols with an in-memory tick buffer")
+            .register(meterRegistry);
+        Gauge.builder("stocks.ticks.memory", this, RecentTickService::getTotalMemoryBytes)
+            .description("Memory held by in-memory tick buffers")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onTick(Tick tick) {
+        buffers.computeIfAbsent(tick.getSymbol(), symbol -> new TickRingBuffer(capacityPerSymbol))
+            .add(tick.getTimestamp(), tick.getScaledPrice(), tick.getVolume());
+    }
+
+    public TickSeries getRecentTicks(String symbol, Duration window) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        String upperSymbol = symbol.toUpperCase();
+        TickRingBuffer buffer = buffers.get(upperSymbol);
+        if (buffer == null) {
+            return new TickSeries(upperSymbol, new long[0], new BigDecimal[0], new long[0]);
+        }
+
+        TickRingBuffer.Snapshot snapshot = buffer.snapshotSince(System.currentTimeMillis() - window.toMillis());
+        int count = snapshot.size();
+        long[] timestamps = new long[count];
+        BigDecimal[] prices = new BigDecimal[count];
+        long[] volumes = new long[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = snapshot.timestampAt(i);
+            prices[i] = Tick.fromScaled(snapshot.priceAt(i));
+            volumes[i] = snapshot.volumeAt(i);
+        }
+        return new TickSeries(upperSymbol, timestamps, prices, volumes);
+    }
+
+    /**
+     * Scaled price of the symbol's newest tick, if it has ticked since startup
+     */
+    public OptionalLong getLatestPrice(String symbol) {
+        TickRingBuffer buffer = buffers.get(symbol);
+        return buffer != null ? buffer.latestPrice() : OptionalLong.empty();
+    }
+
+    public int getCapacityPerSymbol() {
+        return capacityPerSymbol;
+    }
+
+    public long getMemoryPerSymbolBytes() {
+        return (long) capacityPerSymbol * TickRingBuffer.BYTES_PER_TICK;
+    }
+
+    public int getSymbolCount() {
+        return buffers.size();
+    }
+
+    public long getTotalMemoryBytes() {
+        return buffers.size() * getMemoryPerSymbolBytes();
+    }
+
+    /**
+     * Largest power-of-two tick capacity that fits in the given memory budget
+     */
+    static int capacityFor(DataSize memoryPerSymbol) {
+        long ticks = memoryPerSymbol.toBytes() / TickRingBuffer.BYTES_PER_TICK;
+        if (ticks < 1) {
+            throw new IllegalArgumentException("Tick memory per symbol must hold at least one tick: " + memoryPerSymbol);
+        }
+        return Integer.highestOneBit((int) Math.min(ticks, 1 << 30));
+    }
+}
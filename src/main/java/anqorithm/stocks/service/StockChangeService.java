@@ -0,0 +1,222 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.StockChange;
+import anqorithm.stocks.dto.StockChangeFeed;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.exception.ChangeCursorExpiredException;
+import anqorithm.stocks.repository.jdbc.StockJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockTombstoneJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockTombstoneJdbcRepository.Tombstone;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Incremental "changes since" feed over the stocks table for downstream mirrors.
+ * <p>
+ * Changes are ordered by (updated_at, id), merged with tombstones of deleted stocks, and paged with an
+ * opaque cursor holding the last position returned. Rows younger than the settle window are held back:
+ * updated_at is stamped before commit, so a slow transaction can commit a timestamp that is already
+ * behind a faster one, and the window gives it time to land before the cursor moves past it.
+ * <p>
+ * Long-polling clients wait on a {@link DeferredResult} instead of a request thread; one scheduled check
+ * re-queries every waiting cursor (waiters that share a cursor share the query) and answers those that
+ * now have changes.
+ */
+@Service
+public class StockChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockChangeService.class);
+
+    private final StockJdbcRepository stockJdbcRepository;
+    private final StockTombstoneJdbcRepository stockTombstoneJdbcRepository;
+    private final Duration settleWindow;
+    private final Duration tombstoneRetention;
+    private final Duration maxWait;
+    private final LongSupplier clock;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public StockChangeService(StockJdbcRepository stockJdbcRepository,
+                              StockTombstoneJdbcRepository stockTombstoneJdbcRepository,
+                              @Value("${stocks.changes.settle-window:1s}") Duration settleWindow,
+                              @Value("${stocks.changes.tombstone-retention:7d}") Duration tombstoneRetention,
+                              @Value("${stocks.changes.max-wait:30s}") Duration maxWait,
+                              MeterRegistry meterRegistry) {
+        this(stockJdbcRepository, stockTombstoneJdbcRepository, settleWindow, tombstoneRetention, maxWait,
+            meterRegistry, System::currentTimeMillis);
+    }
+
+    StockChangeService(StockJdbcRepository stockJdbcRepository,
+                       StockTombstoneJdbcRepository stockTombstoneJdbcRepository,
+                       Duration settleWindow, Duration tombstoneRetention, Duration maxWait,
+                       MeterRegistry meterRegistry, LongSupplier clock) {
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.stockTombstoneJdbcRepository = stockTombstoneJdbcRepository;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+        this.maxWait = maxWait;
+        this.clock = clock;
+        Gauge.builder("stocks.changes.waiters", waiters, Set::size)
+            .description("Change feed requests currently long-polling")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        stockTombstoneJdbcRepository.createTable();
+    }
+
+    /**
+     * Record that a stock was deleted; call inside the deleting transaction
+     */
+    public void recordDeletion(long id, String symbol) {
+        stockTombstoneJdbcRepository.insert(id, symbol, now().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    /**
+     * Up to {@code limit} changes after {@code since}, oldest first. A missing cursor starts from the beginning.
+     */
+    public StockChangeFeed findChanges(String since, int limit) {
+        ChangeCursor cursor = ChangeCursor.decode(since);
+        OffsetDateTime now = now();
+        if (!cursor.equals(ChangeCursor.START)
+                && cursor.getTimestamp().isBefore(now.minus(tombstoneRetention).toInstant())) {
+            throw new ChangeCursorExpiredException("Change cursor is older than the " + tombstoneRetention.toDays()
+                + " day tombstone retention; resynchronize from GET /stocks");
+        }
+        OffsetDateTime upTo = now.minus(settleWindow);
+        OffsetDateTime after = cursor.getOffsetDateTime();
+
+        List<Stock> stocks = stockJdbcRepository.findChangedSince(after, cursor.getId(), upTo, limit + 1);
+        List<Tombstone> tombstones = stockTombstoneJdbcRepository.findDeletedSince(after, cursor.getId(), upTo, limit + 1);
+
+        List<StockChange> changes = new ArrayList<>(Math.min(limit + 1, stocks.size() + tombstones.size()));
+        int s = 0;
+        int t = 0;
+        while (changes.size() <= limit && (s < stocks.size() || t < tombstones.size())) {
+            boolean takeStock = t >= tombstones.size() || (s < stocks.size()
+                && positionOf(stocks.get(s)).compareTo(positionOf(tombstones.get(t))) < 0);
+            if (takeStock) {
+                changes.add(StockChange.upsert(stocks.get(s++)));
+            } else {
+                Tombstone tombstone = tombstones.get(t++);
+                changes.add(StockChange.delete(tombstone.id(), tombstone.symbol(),
+                    tombstone.deletedAt().toZonedDateTime()));
+            }
+        }
+
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes.remove(limit);
+        }
+        ChangeCursor next = changes.isEmpty() ? cursor : positionOf(changes.get(changes.size() - 1));
+        return new StockChangeFeed(changes, next.encode(), hasMore);
+    }
+
+    /**
+     * Like {@link #findChanges}, but when there is nothing new, wait up to {@code wait} (capped at the
+     * configured maximum) for changes before answering with an empty page.
+     */
+    public DeferredResult<StockChangeFeed> pollChanges(String since, int limit, Duration wait) {
+        StockChangeFeed feed = findChanges(since, limit);
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        if (!feed.getChanges().isEmpty() || timeout.isZero() || timeout.isNegative()) {
+            DeferredResult<StockChangeFeed> result = new DeferredResult<>();
+            result.setResult(feed);
+            return result;
+        }
+
+        DeferredResult<StockChangeFeed> result = new DeferredResult<>(timeout.toMillis(), () -> feed);
+        Waiter waiter = new Waiter(feed.getCursor(), limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${stocks.changes.poll-interval-ms:500}")
+    public void checkWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        Map<Waiter.Key, List<Waiter>> byCursor = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            byCursor.computeIfAbsent(waiter.key(), key -> new ArrayList<>()).add(waiter);
+        }
+        for (Map.Entry<Waiter.Key, List<Waiter>> entry : byCursor.entrySet()) {
+            try {
+                StockChangeFeed feed = findChanges(entry.getKey().cursor(), entry.getKey().limit());
+                if (!feed.getChanges().isEmpty()) {
+                    entry.getValue().forEach(waiter -> waiter.result().setResult(feed));
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Change feed check failed for {} waiters: {}", entry.getValue().size(), e.getMessage());
+            } catch (ChangeCursorExpiredException e) {
+                entry.getValue().forEach(waiter -> waiter.result().setErrorResult(e));
+            }
+        }
+    }
+
+    @Scheduled(cron = "${stocks.changes.prune-cron:0 15 * * * *}", zone = "UTC")
+    public void pruneTombstones() {
+        try {
+            int pruned = stockTombstoneJdbcRepository.deleteOlderThan(now().minus(tombstoneRetention));
+            if (pruned > 0) {
+                logger.info("Pruned {} stock tombstones older than {}", pruned, tombstoneRetention);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Failed to prune stock tombstones: {}", e.getMessage());
+        }
+    }
+
+    int getWaiterCount() {
+        return waiters.size();
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(clock.getAsLong()), ZoneOffset.UTC);
+    }
+
+    private static ChangeCursor positionOf(Stock stock) {
+        return ChangeCursor.of(stock.getUpdatedAt().toInstant(), stock.getId());
+    }
+
+    private static ChangeCursor positionOf(Tombstone tombstone) {
+        return ChangeCursor.of(tombstone.deletedAt().toInstant(), tombstone.id());
+    }
+
+    private static ChangeCursor positionOf(StockChange change) {
+        return ChangeCursor.of(change.getChangedAt().toInstant(), change.getId());
+    }
+
+    private record Waiter(String cursor, int limit, DeferredResult<StockChangeFeed> result) {
+
+        Key key() {
+            return new Key(cursor, limit);
+        }
+
+        record Key(String cursor, int limit) {
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package anqorithm.stocks.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Stock attributes that can be requested individually, by their JSON name, with the column backing each.
+ * Values are read in the same JSON shape as the full {@link anqorithm.stocks.entity.Stock} serialization.
+ */
+public enum StockField {
+
+    ID("id", "id", Kind.LONG),
+    SYMBOL("symbol", "symbol", Kind.STRING),
+    NAME("name", "name", Kind.STRING),
+    CURRENT_PRICE("currentPrice", "current_price", Kind.DECIMAL),
+    MARKET_CAP("marketCap", "market_cap", Kind.LONG),
+    SECTOR("sector", "sector", Kind.STRING),
+    INDUSTRY("industry", "industry", Kind.STRING),
+    DIVIDEND_YIELD("dividendYield", "dividend_yield", Kind.DECIMAL),
+    PE_RATIO("peRatio", "pe_ratio", Kind.DECIMAL),
+    EPS("eps", "eps", Kind.DECIMAL),
+    FIFTY_TWO_WEEK_HIGH("fiftyTwoWeekHigh", "fifty_two_week_high", Kind.DECIMAL),
+    FIFTY_TWO_WEEK_LOW("fiftyTwoWeekLow", "fifty_two_week_low", Kind.DECIMAL),
+    VOLUME("volume", "volume", Kind.LONG),
+    AVERAGE_VOLUME("averageVolume", "average_volume", Kind.LONG),
+    BETA("beta", "beta", Kind.DECIMAL),
+    CREATED_AT("createdAt", "created_at", Kind.TIMESTAMP),
+    UPDATED_AT("updatedAt", "updated_at", Kind.TIMESTAMP),
+    VERSION("version", "version", Kind.LONG);
+
+    private enum Kind {
+        STRING, DECIMAL, LONG, TIMESTAMP
+    }
+
+    // Matches the @JsonFormat pattern of Stock's timestamps
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneOffset.UTC);
+
+    private final String jsonName;
+    private final String column;
+    private final Kind kind;
+
+    StockField(String jsonName, String column, Kind kind) {
+        this.jsonName = jsonName;
+        this.column = column;
+        this.kind = kind;
+    }
+
+    public static StockField fromJsonName(String jsonName) {
+        for (StockField field : values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown stock field: " + jsonName);
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Read this field from the given 1-based result set column
+     */
+    Object read(ResultSet rs, int index) throws SQLException {
+        return switch (kind) {
+            case STRING -> rs.getString(index);
+            case DECIMAL -> rs.getBigDecimal(index);
+            case LONG -> rs.getObject(index, Long.class);
+            case TIMESTAMP -> {
+                OffsetDateTime value = rs.getObject(index, OffsetDateTime.class);
+                yield value != null ? TIMESTAMP_FORMAT.format(value) : null;
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.repository.jdbc.StockPriceJdbcRepository;
+import anqorithm.stocks.repository.queries.StockPriceQueries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the daily range partitions of stock_prices in shape: partitions for the next
+ * few days are created ahead of time and partitions older than the retention window are dropped.
+ * A default partition takes ticks outside the created days; its rows past the retention window are deleted.
+ * Partitioning is a PostgreSQL feature, so on any other database this manager does nothing.
+ */
+@Service
+public class StockPricePartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPricePartitionManager.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final StockPriceJdbcRepository stockPriceJdbcRepository;
+    private final int daysAhead;
+    private final int retentionDays;
+
+    @Autowired
+    public StockPricePartitionManager(StockPriceJdbcRepository stockPriceJdbcRepository,
+                                      @Value("${stocks.history.partition.days-ahead:3}") int daysAhead,
+                                      @Value("${stocks.history.partition.retention-days:90}") int retentionDays) {
+        this.stockPriceJdbcRepository = stockPriceJdbcRepository;
+        this.daysAhead = daysAhead;
+        this.retentionDays = retentionDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${stocks.history.partition.cron:0 5 0 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        try {
+            if (!stockPriceJdbcRepository.isPostgres()) {
+                logger.debug("Skipping stock_prices partition maintenance: database is not PostgreSQL");
+                return;
+            }
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            stockPriceJdbcRepository.createParentTable();
+            createPartitions(today);
+            dropExpiredPartitions(today);
+        } catch (DataAccessException e) {
+            logger.error("stock_prices partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    void createPartitions(LocalDate today) {
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            try {
+                stockPriceJdbcRepository.createDailyPartition(day);
+            } catch (DataAccessException e) {
+                // PostgreSQL refuses a partition whose range already has rows in the default partition
+                logger.error("Failed to create stock_prices partition for {}, its ticks stay in {}: {}",
+                        day, StockPriceQueries.DEFAULT_PARTITION, e.getMessage());
+            }
+        }
+    }
+
+    List<String> dropExpiredPartitions(LocalDate today) {
+        LocalDate cutoff = today.minusDays(retentionDays);
+        List<String> dropped = new ArrayList<>();
+        for (String name : stockPriceJdbcRepository.findPartitionNames()) {
+            LocalDate day = parsePartitionDay(name);
+            if (day != null && day.isBefore(cutoff)) {
+                stockPriceJdbcRepository.dropPartition(name);
+                dropped.add(name);
+            }
+        }
+        if (!dropped.isEmpty()) {
+            logger.info("Dropped {} expired stock_prices partitions", dropped.size());
+        }
+        int purged = stockPriceJdbcRepository.deleteDefaultPartitionBefore(cutoff);
+        if (purged > 0) {
+            logger.info("Deleted {} expired ticks from {}", purged, StockPriceQueries.DEFAULT_PARTITION);
+        }
+        return dropped;
+    }
+
+    static LocalDate parsePartitionDay(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(StockPriceQueries.PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(StockPriceQueries.PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
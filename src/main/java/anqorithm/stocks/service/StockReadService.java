@@ -1,9 +1,12 @@
 package anqorithm.stocks.service;
 
+import anqorithm.stocks.dto.ProjectedStockList;
+import anqorithm.stocks.dto.StockStats;
 import anqorithm.stocks.entity.Stock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
@@ -11,12 +14,61 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class StockReadService {
 
+    // FROM clauses shared by the full-row queries and their field projections
+    private static final String ALL = "FROM stocks ORDER BY id LIMIT ? OFFSET ?";
+    private static final String BY_SECTOR = "FROM stocks WHERE sector = ? ORDER BY market_cap DESC LIMIT ? OFFSET ?";
+    private static final String BY_INDUSTRY = "FROM stocks WHERE industry = ? ORDER BY market_cap DESC LIMIT ? OFFSET ?";
+    private static final String BY_PRICE_RANGE = "FROM stocks WHERE current_price BETWEEN ? AND ? ORDER BY current_price ASC LIMIT ? OFFSET ?";
+    private static final String TOP_BY_MARKET_CAP = "FROM stocks WHERE market_cap IS NOT NULL ORDER BY market_cap DESC, id LIMIT ?";
+    private static final String TOP_BY_VOLUME = "FROM stocks WHERE volume IS NOT NULL ORDER BY volume DESC, id LIMIT ?";
+    private static final String TOP_BY_DIVIDEND_YIELD = "FROM stocks WHERE dividend_yield IS NOT NULL ORDER BY dividend_yield DESC, id LIMIT ?";
+    private static final String BY_NAME_SEARCH = "FROM stocks WHERE UPPER(name) LIKE UPPER(?) ORDER BY name LIMIT ? OFFSET ?";
+    private static final String BY_SYMBOL_SEARCH = "FROM stocks WHERE UPPER(symbol) LIKE UPPER(?) ORDER BY symbol LIMIT ? OFFSET ?";
+    private static final String HIGH_PERFORMERS = """
+        FROM stocks
+        WHERE current_price IS NOT NULL
+        AND fifty_two_week_low IS NOT NULL
+        AND current_price > fifty_two_week_low * 1.5
+        ORDER BY (current_price / fifty_two_week_low) DESC, id
+        LIMIT ?
+    """;
+
+    private static final String LOW_PERFORMERS = """
+        FROM stocks
+        WHERE current_price IS NOT NULL
+        AND fifty_two_week_high IS NOT NULL
+        AND current_price < fifty_two_week_high * 0.7
+        ORDER BY (current_price / fifty_two_week_high) ASC, id
+        LIMIT ?
+    """;
+
+    private static final String VALUE_STOCKS = """
+        FROM stocks
+        WHERE pe_ratio IS NOT NULL
+        AND pe_ratio <= ?
+        AND pe_ratio > 0
+        ORDER BY pe_ratio ASC
+        LIMIT ?
+    """;
+
+    private static final String DIVIDEND_STOCKS = """
+        FROM stocks
+        WHERE dividend_yield IS NOT NULL
+        AND dividend_yield >= ?
+        ORDER BY dividend_yield DESC
+        LIMIT ?
+    """;
+
     private final JdbcTemplate jdbcTemplate;
     private final StockRowMapper stockRowMapper;
 
@@ -47,57 +99,171 @@ public class StockReadService {
     }
 
     public List<Stock> findAll(int limit, int offset) {
-        String sql = "SELECT * FROM stocks ORDER BY id LIMIT ? OFFSET ?";
+        String sql = "SELECT * " + ALL;
         return jdbcTemplate.query(sql, stockRowMapper, limit, offset);
     }
 
+    public List<Map<String, Object>> findAll(FieldProjection fields, int limit, int offset) {
+        return project(fields, ALL, limit, offset);
+    }
+
+    /**
+     * A page of projected stocks ordered by {@code sortBy}, with id breaking ties
+     */
+    public List<Map<String, Object>> findAllSorted(FieldProjection fields, StockField sortBy, boolean descending,
+                                                   int limit, int offset) {
+        String sql = fields.select("FROM stocks ORDER BY " + sortBy.getColumn() + (descending ? " DESC" : " ASC")
+            + ", id LIMIT ? OFFSET ?");
+        return new ProjectedStockList(jdbcTemplate.query(sql, fields, limit, offset));
+    }
+
     public List<Stock> findBySector(String sector, int limit, int offset) {
-        String sql = "SELECT * FROM stocks WHERE sector = ? ORDER BY market_cap DESC LIMIT ? OFFSET ?";
+        String sql = "SELECT * " + BY_SECTOR;
         return jdbcTemplate.query(sql, stockRowMapper, sector, limit, offset);
     }
 
+    public List<Map<String, Object>> findBySector(FieldProjection fields, String sector, int limit, int offset) {
+        return project(fields, BY_SECTOR, sector, limit, offset);
+    }
+
     public List<Stock> findByIndustry(String industry, int limit, int offset) {
-        String sql = "SELECT * FROM stocks WHERE industry = ? ORDER BY market_cap DESC LIMIT ? OFFSET ?";
+        String sql = "SELECT * " + BY_INDUSTRY;
         return jdbcTemplate.query(sql, stockRowMapper, industry, limit, offset);
     }
 
+    public List<Map<String, Object>> findByIndustry(FieldProjection fields, String industry, int limit, int offset) {
+        return project(fields, BY_INDUSTRY, industry, limit, offset);
+    }
+
     public List<Stock> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int limit, int offset) {
-        String sql = "SELECT * FROM stocks WHERE current_price BETWEEN ? AND ? ORDER BY current_price ASC LIMIT ? OFFSET ?";
+        String sql = "SELECT * " + BY_PRICE_RANGE;
         return jdbcTemplate.query(sql, stockRowMapper, minPrice, maxPrice, limit, offset);
     }
 
+    public List<Map<String, Object>> findByPriceRange(FieldProjection fields, BigDecimal minPrice, BigDecimal maxPrice,
+                                                      int limit, int offset) {
+        return project(fields, BY_PRICE_RANGE, minPrice, maxPrice, limit, offset);
+    }
+
     public List<Stock> findByMarketCapRange(Long minMarketCap, Long maxMarketCap, int limit, int offset) {
         String sql = "SELECT * FROM stocks WHERE market_cap BETWEEN ? AND ? ORDER BY market_cap DESC LIMIT ? OFFSET ?";
         return jdbcTemplate.query(sql, stockRowMapper, minMarketCap, maxMarketCap, limit, offset);
     }
 
     public List<Stock> findTopByMarketCap(int limit) {
-        String sql = "SELECT * FROM stocks WHERE market_cap IS NOT NULL ORDER BY market_cap DESC LIMIT ?";
+        String sql = "SELECT * " + TOP_BY_MARKET_CAP;
         return jdbcTemplate.query(sql, stockRowMapper, limit);
     }
 
+    public List<Map<String, Object>> findTopByMarketCap(FieldProjection fields, int limit) {
+        return project(fields, TOP_BY_MARKET_CAP, limit);
+    }
+
     public List<Stock> findTopByVolume(int limit) {
-        String sql = "SELECT * FROM stocks WHERE volume IS NOT NULL ORDER BY volume DESC LIMIT ?";
+        String sql = "SELECT * " + TOP_BY_VOLUME;
         return jdbcTemplate.query(sql, stockRowMapper, limit);
     }
 
+    public List<Map<String, Object>> findTopByVolume(FieldProjection fields, int limit) {
+        return project(fields, TOP_BY_VOLUME, limit);
+    }
+
     public List<Stock> findTopByDividendYield(int limit) {
-        String sql = "SELECT * FROM stocks WHERE dividend_yield IS NOT NULL ORDER BY dividend_yield DESC LIMIT ?";
+        String sql = "SELECT * " + TOP_BY_DIVIDEND_YIELD;
         return jdbcTemplate.query(sql, stockRowMapper, limit);
     }
 
+    public List<Map<String, Object>> findTopByDividendYield(FieldProjection fields, int limit) {
+        return project(fields, TOP_BY_DIVIDEND_YIELD, limit);
+    }
+
+    /**
+     * Stocks with the given ids, in the order of the list; ids without a row are skipped
+     */
+    public List<Stock> findByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT * " + byIdsInOrder(ids.size());
+        return jdbcTemplate.query(sql, stockRowMapper, idsInOrderArgs(ids));
+    }
+
+    public List<Map<String, Object>> findByIdsInOrder(FieldProjection fields, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ProjectedStockList();
+        }
+        return project(fields, byIdsInOrder(ids.size()), idsInOrderArgs(ids));
+    }
+
+    /**
+     * Stocks with any of the given upper-case symbols, in one query; symbols without a row are skipped
+     */
+    public List<Stock> findBySymbols(Collection<String> symbols) {
+        if (symbols.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM stocks WHERE symbol IN (");
+        for (int i = 0; i < symbols.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        return jdbcTemplate.query(sql.toString(), stockRowMapper, symbols.toArray());
+    }
+
+    /**
+     * Stocks of a watchlist in watchlist order, joined in one query; symbols without a stock are skipped
+     */
+    public List<Stock> findByWatchlist(long watchlistId) {
+        String sql = "SELECT s.* FROM watchlist_symbols ws JOIN stocks s ON s.symbol = ws.symbol " +
+            "WHERE ws.watchlist_id = ? ORDER BY ws.position";
+        return jdbcTemplate.query(sql, stockRowMapper, watchlistId);
+    }
+
+    private List<Map<String, Object>> project(FieldProjection fields, String fromClause, Object... args) {
+        return new ProjectedStockList(jdbcTemplate.query(fields.select(fromClause), fields, args));
+    }
+
+    private static String byIdsInOrder(int count) {
+        StringBuilder sql = new StringBuilder("FROM stocks WHERE id IN (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY CASE id");
+        for (int i = 0; i < count; i++) {
+            sql.append(" WHEN ? THEN ").append(i);
+        }
+        return sql.append(" END").toString();
+    }
+
+    private static Object[] idsInOrderArgs(List<Long> ids) {
+        Object[] args = new Object[ids.size() * 2];
+        for (int i = 0; i < ids.size(); i++) {
+            args[i] = ids.get(i);
+            args[ids.size() + i] = ids.get(i);
+        }
+        return args;
+    }
+
     public List<Stock> findByNameSearch(String searchTerm, int limit, int offset) {
-        String sql = "SELECT * FROM stocks WHERE UPPER(name) LIKE UPPER(?) ORDER BY name LIMIT ? OFFSET ?";
+        String sql = "SELECT * " + BY_NAME_SEARCH;
         String searchPattern = "%" + searchTerm + "%";
         return jdbcTemplate.query(sql, stockRowMapper, searchPattern, limit, offset);
     }
 
+    public List<Map<String, Object>> findByNameSearch(FieldProjection fields, String searchTerm, int limit, int offset) {
+        return project(fields, BY_NAME_SEARCH, "%" + searchTerm + "%", limit, offset);
+    }
+
     public List<Stock> findBySymbolSearch(String searchTerm, int limit, int offset) {
-        String sql = "SELECT * FROM stocks WHERE UPPER(symbol) LIKE UPPER(?) ORDER BY symbol LIMIT ? OFFSET ?";
+        String sql = "SELECT * " + BY_SYMBOL_SEARCH;
         String searchPattern = "%" + searchTerm + "%";
         return jdbcTemplate.query(sql, stockRowMapper, searchPattern, limit, offset);
     }
 
+    public List<Map<String, Object>> findBySymbolSearch(FieldProjection fields, String searchTerm, int limit, int offset) {
+        return project(fields, BY_SYMBOL_SEARCH, "%" + searchTerm + "%", limit, offset);
+    }
+
     public List<String> findDistinctSectors() {
         String sql = "SELECT DISTINCT sector FROM stocks WHERE sector IS NOT NULL ORDER BY sector";
         return jdbcTemplate.queryForList(sql, String.class);
@@ -124,52 +290,41 @@ public class StockReadService {
     }
 
     public List<Stock> findHighPerformers(int limit) {
-        String sql = """
-            SELECT * FROM stocks 
-            WHERE current_price IS NOT NULL 
-            AND fifty_two_week_low IS NOT NULL 
-            AND current_price > fifty_two_week_low * 1.5 
-            ORDER BY (current_price / fifty_two_week_low) DESC 
-            LIMIT ?
-        """;
+        String sql = "SELECT * " + HIGH_PERFORMERS;
         return jdbcTemplate.query(sql, stockRowMapper, limit);
     }
 
+    public List<Map<String, Object>> findHighPerformers(FieldProjection fields, int limit) {
+        return project(fields, HIGH_PERFORMERS, limit);
+    }
+
     public List<Stock> findLowPerformers(int limit) {
-        String sql = """
-            SELECT * FROM stocks 
-            WHERE current_price IS NOT NULL 
-            AND fifty_two_week_high IS NOT NULL 
-            AND current_price < fifty_two_week_high * 0.7 
-            ORDER BY (current_price / fifty_two_week_high) ASC 
-            LIMIT ?
-        """;
+        String sql = "SELECT * " + LOW_PERFORMERS;
         return jdbcTemplate.query(sql, stockRowMapper, limit);
     }
 
+    public List<Map<String, Object>> findLowPerformers(FieldProjection fields, int limit) {
+        return project(fields, LOW_PERFORMERS, limit);
+    }
+
     public List<Stock> findValueStocks(BigDecimal maxPeRatio, int limit) {
-        String sql = """
-            SELECT * FROM stocks 
-            WHERE pe_ratio IS NOT NULL 
-            AND pe_ratio <= ? 
-            AND pe_ratio > 0 
-            ORDER BY pe_ratio ASC 
-            LIMIT ?
-        """;
+        String sql = "SELECT * " + VALUE_STOCKS;
         return jdbcTemplate.query(sql, stockRowMapper, maxPeRatio, limit);
     }
 
+    public List<Map<String, Object>> findValueStocks(FieldProjection fields, BigDecimal maxPeRatio, int limit) {
+        return project(fields, VALUE_STOCKS, maxPeRatio, limit);
+    }
+
     public List<Stock> findDividendStocks(BigDecimal minDividendYield, int limit) {
-        String sql = """
-            SELECT * FROM stocks 
-            WHERE dividend_yield IS NOT NULL 
-            AND dividend_yield >= ? 
-            ORDER BY dividend_yield DESC 
-            LIMIT ?
-        """;
+        String sql = "SELECT * " + DIVIDEND_STOCKS;
         return jdbcTemplate.query(sql, stockRowMapper, minDividendYield, limit);
     }
 
+    public List<Map<String, Object>> findDividendStocks(FieldProjection fields, BigDecimal minDividendYield, int limit) {
+        return project(fields, DIVIDEND_STOCKS, minDividendYield, limit);
+    }
+
     public List<Stock> findHighBetaStocks(BigDecimal minBeta, int limit) {
         String sql = """
             SELECT * FROM stocks 
@@ -208,6 +363,56 @@ public class StockReadService {
         return jdbcTemplate.queryForObject(sql, BigDecimal.class);
     }
 
+    /**
+     * Stream every stock to the action without materializing the whole table
+     */
+    public void forEachStock(Consumer<Stock> action) {
+        String sql = "SELECT * FROM stocks";
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> action.accept(stockRowMapper.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Count, averages and totals over all stocks in a single scan; sector and industry breakdowns are separate.
+     * PostgreSQL sums a bigint as numeric, so the totals are cast back to be read as longs.
+     */
+    public StockStats findMarketSummary() {
+        String sql = """
+            SELECT COUNT(*) AS total_stocks,
+                   AVG(current_price) AS average_price,
+                   AVG(market_cap) AS average_market_cap,
+                   AVG(pe_ratio) AS average_pe_ratio,
+                   CAST(SUM(market_cap) AS BIGINT) AS total_market_cap,
+                   CAST(SUM(volume) AS BIGINT) AS total_volume
+            FROM stocks
+        """;
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            StockStats stats = new StockStats();
+            stats.setTotalStocks(rs.getLong("total_stocks"));
+            stats.setAveragePrice(rs.getBigDecimal("average_price"));
+            stats.setAverageMarketCap(rs.getBigDecimal("average_market_cap"));
+            stats.setAveragePeRatio(rs.getBigDecimal("average_pe_ratio"));
+            stats.setTotalMarketCap(rs.getObject("total_market_cap", Long.class));
+            stats.setTotalVolume(rs.getObject("total_volume", Long.class));
+            return stats;
+        });
+    }
+
+    public Map<String, Long> countGroupedBySector() {
+        String sql = "SELECT sector, COUNT(*) FROM stocks WHERE sector IS NOT NULL GROUP BY sector ORDER BY sector";
+        return queryCounts(sql);
+    }
+
+    public Map<String, Long> countGroupedByIndustry() {
+        String sql = "SELECT industry, COUNT(*) FROM stocks WHERE industry IS NOT NULL GROUP BY industry ORDER BY industry";
+        return queryCounts(sql);
+    }
+
+    private Map<String, Long> queryCounts(String sql) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> counts.put(rs.getString(1), rs.getLong(2)));
+        return counts;
+    }
+
     static class StockRowMapper implements RowMapper<Stock> {
         @Override
         public Stock mapRow(ResultSet rs, int rowNum) throws SQLException {
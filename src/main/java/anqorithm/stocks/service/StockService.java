@@ -1,8 +1,18 @@
 package anqorithm.stocks.service;
 
+import anqorithm.stocks.aggregate.RankedMetric;
+import anqorithm.stocks.aggregate.StockAggregateRegistry;
+import anqorithm.stocks.aggregate.StockRankingRegistry;
+import anqorithm.stocks.cache.CacheInvalidation;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.dto.StockAggregate;
 import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
 import anqorithm.stocks.repository.jpa.StockRepository;
 import anqorithm.stocks.repository.jdbc.StockJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickPublisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -15,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -24,21 +35,49 @@ public class StockService {
     private final StockRepository stockRepository;
     private final StockJdbcRepository stockJdbcRepository;
     private final StockReadService stockReadService;
+    private final TickPublisher tickPublisher;
+    private final WriteBehindService writeBehindService;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final StockChangeService stockChangeService;
+    private final StockOutboxJdbcRepository stockOutboxJdbcRepository;
+    private final StockAggregateRegistry stockAggregateRegistry;
+    private final StockRankingRegistry stockRankingRegistry;
+    private final FiftyTwoWeekRangeService fiftyTwoWeekRangeService;
+    private final VolumeAverageService volumeAverageService;
 
     @Autowired
-    public StockService(StockRepository stockRepository, StockJdbcRepository stockJdbcRepository, StockReadService stockReadService) {
+    public StockService(StockRepository stockRepository, StockJdbcRepository stockJdbcRepository,
+                        StockReadService stockReadService, TickPublisher tickPublisher,
+                        WriteBehindService writeBehindService,
+                        CacheInvalidationPublisher cacheInvalidationPublisher,
+                        StockChangeService stockChangeService,
+                        StockOutboxJdbcRepository stockOutboxJdbcRepository,
+                        StockAggregateRegistry stockAggregateRegistry,
+                        StockRankingRegistry stockRankingRegistry,
+                        FiftyTwoWeekRangeService fiftyTwoWeekRangeService,
+                        VolumeAverageService volumeAverageService) {
         this.stockRepository = stockRepository;
         this.stockJdbcRepository = stockJdbcRepository;
         this.stockReadService = stockReadService;
+        this.tickPublisher = tickPublisher;
+        this.writeBehindService = writeBehindService;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.stockChangeService = stockChangeService;
+        this.stockOutboxJdbcRepository = stockOutboxJdbcRepository;
+        this.stockAggregateRegistry = stockAggregateRegistry;
+        this.stockRankingRegistry = stockRankingRegistry;
+        this.fiftyTwoWeekRangeService = fiftyTwoWeekRangeService;
+        this.volumeAverageService = volumeAverageService;
     }
 
-    @Cacheable(value = "stocks", key = "#id")
+    @Cacheable(value = "stocks", key = "#id", unless = "#result == null")
     @Transactional(readOnly = true)
     public Optional<Stock> findById(Long id) {
         return stockReadService.findById(id);
     }
 
-    @Cacheable(value = "stocks", key = "#symbol")
+    // Keyed by the upper-case symbol, the form invalidations and portfolio valuation use
+    @Cacheable(value = "stocks", key = "#symbol.toUpperCase()", unless = "#result == null")
     @Transactional(readOnly = true)
     public Optional<Stock> findBySymbol(String symbol) {
         return stockReadService.findBySymbol(symbol);
@@ -58,6 +97,17 @@ public class StockService {
         return stockRepository.findAll(pageable);
     }
 
+    /**
+     * Projected counterpart of {@link #findAllPaged}; {@code sortBy} must name a stock field
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllPaged(FieldProjection fields, int page, int size, String sortBy,
+                                                  String sortDirection) {
+        int offset = page * size;
+        return stockReadService.findAllSorted(fields, StockField.fromJsonName(sortBy),
+            "desc".equalsIgnoreCase(sortDirection), size, offset);
+    }
+
     @CacheEvict(value = "stocks", allEntries = true)
     @Transactional
     public Stock create(Stock stock) {
@@ -69,14 +119,25 @@ public class StockService {
             throw new IllegalArgumentException("Stock with symbol " + stock.getSymbol() + " already exists");
         }
         
-        return stockRepository.save(stock);
+        Stock saved = stockRepository.save(stock);
+        recordChange(StockEvent.Type.CREATED, saved);
+        if (saved.getSymbol() != null && saved.getCurrentPrice() != null) {
+            // The first price, so history and tick consumers start from it
+            publishTick(saved);
+        }
+        return saved;
     }
 
     @CacheEvict(value = "stocks", key = "#id")
     @Transactional
     public Stock update(Long id, Stock updatedStock) {
+        // A journaled price flushed after this write would overwrite it
+        writeBehindService.flushStock(id);
         Stock existingStock = stockRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Stock not found with id: " + id));
+        String previousSymbol = existingStock.getSymbol();
+        BigDecimal previousPrice = existingStock.getCurrentPrice();
+        Long previousVolume = existingStock.getVolume();
 
         if (updatedStock.getSymbol() != null && !updatedStock.getSymbol().equals(existingStock.getSymbol())) {
             String upperSymbol = updatedStock.getSymbol().toUpperCase();
@@ -126,26 +187,62 @@ public class StockService {
             existingStock.setBeta(updatedStock.getBeta());
         }
 
-        return stockRepository.save(existingStock);
+        // A new price or volume goes through the same path as a PATCH, unless the edit also sets what it derives
+        boolean priceChanged = updatedStock.getCurrentPrice() != null
+            && (previousPrice == null || previousPrice.compareTo(updatedStock.getCurrentPrice()) != 0);
+        boolean volumeChanged = updatedStock.getVolume() != null && !updatedStock.getVolume().equals(previousVolume);
+        boolean symbolChanged = !previousSymbol.equals(existingStock.getSymbol());
+        boolean rangeEdited = updatedStock.getFiftyTwoWeekHigh() != null || updatedStock.getFiftyTwoWeekLow() != null;
+        boolean averageEdited = updatedStock.getAverageVolume() != null;
+        long now = System.currentTimeMillis();
+        if (priceChanged && !rangeEdited && !symbolChanged) {
+            fiftyTwoWeekRangeService.observe(existingStock, now);
+        }
+        if (volumeChanged && !averageEdited && !symbolChanged) {
+            volumeAverageService.observe(existingStock, now);
+        }
+
+        Stock saved = stockRepository.save(existingStock);
+        recordChange(StockEvent.Type.UPDATED, saved);
+        if (symbolChanged) {
+            // The stock is also cached under the symbol it no longer has
+            cacheInvalidationPublisher.publish(new CacheInvalidation(CacheInvalidation.Kind.MODIFY, saved.getId(),
+                saved.getVersion(), previousSymbol));
+        }
+        if (rangeEdited || symbolChanged) {
+            fiftyTwoWeekRangeService.forget(previousSymbol);
+        }
+        if (averageEdited || symbolChanged) {
+            volumeAverageService.forget(previousSymbol);
+        }
+        if ((priceChanged || volumeChanged) && saved.getCurrentPrice() != null) {
+            publishTick(saved);
+        }
+        return saved;
     }
 
     @CacheEvict(value = "stocks", key = "#id")
     @Transactional
     public boolean deleteById(Long id) {
-        if (stockRepository.existsById(id)) {
-            stockRepository.deleteById(id);
+        writeBehindService.flushStock(id);
+        Optional<Stock> stock = stockRepository.findById(id);
+        if (stock.isPresent()) {
+            stockRepository.delete(stock.get());
+            recordDeletion(stock.get());
             return true;
         }
         return false;
     }
 
-    @CacheEvict(value = "stocks", key = "#symbol")
+    @CacheEvict(value = "stocks", key = "#symbol.toUpperCase()")
     @Transactional
     public boolean deleteBySymbol(String symbol) {
+        writeBehindService.flushSymbol(symbol.toUpperCase());
         // Use JPA repository for delete operations
         Optional<Stock> stock = stockRepository.findBySymbol(symbol.toUpperCase());
         if (stock.isPresent()) {
             stockRepository.delete(stock.get());
+            recordDeletion(stock.get());
             return true;
         }
         return false;
@@ -153,31 +250,61 @@ public class StockService {
 
     @Transactional
     public Stock updatePrice(String symbol, BigDecimal newPrice) {
+        if (writeBehindService.isEnabled()) {
+            return recordWriteBehind(symbol, newPrice, null);
+        }
         Stock stock = stockRepository.findBySymbol(symbol.toUpperCase())
             .orElseThrow(() -> new IllegalArgumentException("Stock not found with symbol: " + symbol));
         
         stock.setCurrentPrice(newPrice);
-        return stockRepository.save(stock);
+        boolean rangeChanged = fiftyTwoWeekRangeService.observe(stock, System.currentTimeMillis());
+        Stock saved = stockRepository.save(stock);
+        recordChange(rangeChanged ? StockEvent.Type.UPDATED : StockEvent.Type.PRICE_VOLUME_CHANGED, saved);
+        publishTick(saved);
+        return saved;
     }
 
     @Transactional
     public Stock updateVolume(String symbol, Long volume) {
+        if (writeBehindService.isEnabled()) {
+            return recordWriteBehind(symbol, null, volume);
+        }
         Stock stock = stockRepository.findBySymbol(symbol.toUpperCase())
             .orElseThrow(() -> new IllegalArgumentException("Stock not found with symbol: " + symbol));
         
         stock.setVolume(volume);
-        return stockRepository.save(stock);
+        volumeAverageService.observe(stock, System.currentTimeMillis());
+        Stock saved = stockRepository.save(stock);
+        recordChange(StockEvent.Type.PRICE_VOLUME_CHANGED, saved);
+        publishTick(saved);
+        return saved;
     }
 
     @Transactional
     public int bulkUpdatePriceAndVolume(String symbol, BigDecimal price, Long volume) {
+        if (writeBehindService.isEnabled()) {
+            Optional<Stock> stockOpt = stockReadService.findBySymbol(symbol);
+            if (stockOpt.isEmpty()) {
+                return 0;
+            }
+            boolean rangeChanged = observeRange(stockOpt.get(), price);
+            Stock recorded = writeBehindService.record(stockOpt.get(), price, volume, rangeChanged);
+            observeVolume(recorded, volume);
+            publishTick(recorded);
+            return 1;
+        }
         // Use JPA repository for update operations
         Optional<Stock> stockOpt = stockRepository.findBySymbol(symbol.toUpperCase());
         if (stockOpt.isPresent()) {
             Stock stock = stockOpt.get();
             stock.setCurrentPrice(price);
             stock.setVolume(volume);
-            stockRepository.save(stock);
+            long now = System.currentTimeMillis();
+            boolean rangeChanged = fiftyTwoWeekRangeService.observe(stock, now);
+            volumeAverageService.observe(stock, now);
+            Stock saved = stockRepository.save(stock);
+            recordChange(rangeChanged ? StockEvent.Type.UPDATED : StockEvent.Type.PRICE_VOLUME_CHANGED, saved);
+            publishTick(saved);
             return 1;
         }
         return 0;
@@ -189,40 +316,110 @@ public class StockService {
         return stockReadService.findBySector(sector, size, offset);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findBySector(FieldProjection fields, String sector, int page, int size) {
+        int offset = page * size;
+        return stockReadService.findBySector(fields, sector, size, offset);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> findByIndustry(String industry, int page, int size) {
         int offset = page * size;
         return stockReadService.findByIndustry(industry, size, offset);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByIndustry(FieldProjection fields, String industry, int page, int size) {
+        int offset = page * size;
+        return stockReadService.findByIndustry(fields, industry, size, offset);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
         int offset = page * size;
         return stockReadService.findByPriceRange(minPrice, maxPrice, size, offset);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByPriceRange(FieldProjection fields, BigDecimal minPrice, BigDecimal maxPrice,
+                                                      int page, int size) {
+        int offset = page * size;
+        return stockReadService.findByPriceRange(fields, minPrice, maxPrice, size, offset);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> findTopByMarketCap(int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(stockRankingRegistry.top(RankedMetric.MARKET_CAP, limit));
+        }
         return stockReadService.findTopByMarketCap(limit);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findTopByMarketCap(FieldProjection fields, int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(fields, stockRankingRegistry.top(RankedMetric.MARKET_CAP, limit));
+        }
+        return stockReadService.findTopByMarketCap(fields, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> findTopByVolume(int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(stockRankingRegistry.top(RankedMetric.VOLUME, limit));
+        }
         return stockReadService.findTopByVolume(limit);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findTopByVolume(FieldProjection fields, int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(fields, stockRankingRegistry.top(RankedMetric.VOLUME, limit));
+        }
+        return stockReadService.findTopByVolume(fields, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Stock> findTopByDividendYield(int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(stockRankingRegistry.top(RankedMetric.DIVIDEND_YIELD, limit));
+        }
+        return stockReadService.findTopByDividendYield(limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findTopByDividendYield(FieldProjection fields, int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(fields,
+                stockRankingRegistry.top(RankedMetric.DIVIDEND_YIELD, limit));
+        }
+        return stockReadService.findTopByDividendYield(fields, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> searchByName(String searchTerm, int page, int size) {
         int offset = page * size;
         return stockReadService.findByNameSearch(searchTerm, size, offset);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchByName(FieldProjection fields, String searchTerm, int page, int size) {
+        int offset = page * size;
+        return stockReadService.findByNameSearch(fields, searchTerm, size, offset);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> searchBySymbol(String searchTerm, int page, int size) {
         int offset = page * size;
         return stockReadService.findBySymbolSearch(searchTerm, size, offset);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchBySymbol(FieldProjection fields, String searchTerm, int page, int size) {
+        int offset = page * size;
+        return stockReadService.findBySymbolSearch(fields, searchTerm, size, offset);
+    }
+
     @Cacheable(value = "sectors")
     @Transactional(readOnly = true)
     public List<String> getDistinctSectors() {
@@ -237,34 +434,82 @@ public class StockService {
 
     @Transactional(readOnly = true)
     public Long getTotalCount() {
+        if (stockAggregateRegistry.isEnabled()) {
+            return stockAggregateRegistry.getOverall().getCount();
+        }
         return stockReadService.countTotal();
     }
 
     @Transactional(readOnly = true)
     public Long getCountBySector(String sector) {
+        if (stockAggregateRegistry.isEnabled()) {
+            return stockAggregateRegistry.getBySector(sector).map(StockAggregate::getCount).orElse(0L);
+        }
         return stockReadService.countBySector(sector);
     }
 
+    @Transactional(readOnly = true)
+    public Long getCountByIndustry(String industry) {
+        if (stockAggregateRegistry.isEnabled()) {
+            return stockAggregateRegistry.getByIndustry(industry).map(StockAggregate::getCount).orElse(0L);
+        }
+        return stockReadService.countByIndustry(industry);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> getHighPerformers(int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(stockRankingRegistry.top(RankedMetric.PRICE_TO_52_WEEK_LOW, limit));
+        }
         return stockReadService.findHighPerformers(limit);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getHighPerformers(FieldProjection fields, int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(fields,
+                stockRankingRegistry.top(RankedMetric.PRICE_TO_52_WEEK_LOW, limit));
+        }
+        return stockReadService.findHighPerformers(fields, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> getLowPerformers(int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(stockRankingRegistry.top(RankedMetric.PRICE_TO_52_WEEK_HIGH, limit));
+        }
         return stockReadService.findLowPerformers(limit);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getLowPerformers(FieldProjection fields, int limit) {
+        if (stockRankingRegistry.serves(limit)) {
+            return stockReadService.findByIdsInOrder(fields,
+                stockRankingRegistry.top(RankedMetric.PRICE_TO_52_WEEK_HIGH, limit));
+        }
+        return stockReadService.findLowPerformers(fields, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> getValueStocks(BigDecimal maxPeRatio, int limit) {
         return stockReadService.findValueStocks(maxPeRatio, limit);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getValueStocks(FieldProjection fields, BigDecimal maxPeRatio, int limit) {
+        return stockReadService.findValueStocks(fields, maxPeRatio, limit);
+    }
+
     @Transactional(readOnly = true)
     public List<Stock> getDividendStocks(BigDecimal minDividendYield, int limit) {
         return stockReadService.findDividendStocks(minDividendYield, limit);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDividendStocks(FieldProjection fields, BigDecimal minDividendYield, int limit) {
+        return stockReadService.findDividendStocks(fields, minDividendYield, limit);
+    }
+
     @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         return stockRepository.existsById(id);
@@ -274,4 +519,61 @@ public class StockService {
     public boolean existsBySymbol(String symbol) {
         return stockJdbcRepository.existsBySymbol(symbol.toUpperCase());
     }
-}
\ No newline at end of file
+
+    private Stock recordWriteBehind(String symbol, BigDecimal price, Long volume) {
+        // Read through JDBC so the stock stays detached and JPA never flushes it behind the journal's back
+        Stock stock = stockReadService.findBySymbol(symbol)
+            .orElseThrow(() -> new IllegalArgumentException("Stock not found with symbol: " + symbol));
+        boolean rangeChanged = observeRange(stock, price);
+        Stock recorded = writeBehindService.record(stock, price, volume, rangeChanged);
+        observeVolume(recorded, volume);
+        publishTick(recorded);
+        return recorded;
+    }
+
+    /**
+     * Apply a new price to a detached stock's 52-week range; a null price leaves it untouched
+     */
+    private boolean observeRange(Stock stock, BigDecimal price) {
+        if (price == null) {
+            return false;
+        }
+        stock.setCurrentPrice(price);
+        return fiftyTwoWeekRangeService.observe(stock, System.currentTimeMillis());
+    }
+
+    /**
+     * Feed a recorded volume into the moving average, which is written back on its own schedule;
+     * a null volume leaves it untouched
+     */
+    private void observeVolume(Stock stock, Long volume) {
+        if (volume != null) {
+            volumeAverageService.observeDeferred(stock, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Write the change event to the outbox and notify other instances, both in the current transaction
+     */
+    private void recordChange(StockEvent.Type type, Stock stock) {
+        // Flush first so the version recorded is the one being committed
+        stockRepository.flush();
+        stockOutboxJdbcRepository.insert(StockEvent.of(type, stock, System.currentTimeMillis()));
+        CacheInvalidation.Kind kind = type == StockEvent.Type.PRICE_VOLUME_CHANGED
+            ? CacheInvalidation.Kind.UPDATE : CacheInvalidation.Kind.MODIFY;
+        cacheInvalidationPublisher.publish(CacheInvalidation.of(kind, stock));
+    }
+
+    private void recordDeletion(Stock stock) {
+        fiftyTwoWeekRangeService.forget(stock.getSymbol());
+        volumeAverageService.forget(stock.getSymbol());
+        stockChangeService.recordDeletion(stock.getId(), stock.getSymbol());
+        stockOutboxJdbcRepository.insert(StockEvent.of(StockEvent.Type.DELETED, stock, System.currentTimeMillis()));
+        cacheInvalidationPublisher.publish(
+            new CacheInvalidation(CacheInvalidation.Kind.DELETE, stock.getId(), null, stock.getSymbol()));
+    }
+
+    private void publishTick(Stock stock) {
+        tickPublisher.publish(Tick.of(stock, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,171 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.aggregate.StockAggregateRegistry;
+import anqorithm.stocks.dto.StockStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Market-wide statistics for {@code GET /stocks/stats}.
+ * <p>
+ * The summary aggregates and the sector and industry breakdowns are independent scans, so they run
+ * concurrently on a small bounded pool, each in its own read-only transaction. The merged result is
+ * kept for a short TTL and only one caller at a time recomputes it; the others wait for that result.
+ * When the {@link StockAggregateRegistry} is enabled it already holds these figures and is read instead.
+ */
+@Service
+public class StockStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockStatsService.class);
+    private static final int AVERAGE_SCALE = 4;
+
+    private final StockReadService stockReadService;
+    private final StockAggregateRegistry stockAggregateRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public StockStatsService(StockReadService stockReadService,
+                             StockAggregateRegistry stockAggregateRegistry,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${stocks.stats.parallelism:3}") int parallelism,
+                             @Value("${stocks.stats.ttl:5s}") Duration ttl) {
+        this(stockReadService, stockAggregateRegistry, transactionManager, newExecutor(parallelism), ttl,
+            System::currentTimeMillis);
+    }
+
+    StockStatsService(StockReadService stockReadService, StockAggregateRegistry stockAggregateRegistry,
+                      PlatformTransactionManager transactionManager, ExecutorService executor, Duration ttl,
+                      LongSupplier clock) {
+        this.stockReadService = stockReadService;
+        this.stockAggregateRegistry = stockAggregateRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    public StockStats getStats() {
+        if (stockAggregateRegistry.isEnabled()) {
+            return stockAggregateRegistry.getStats();
+        }
+        Snapshot current = snapshot;
+        if (current != null && clock.getAsLong() - current.computedAt < ttlMillis) {
+            return current.stats;
+        }
+        synchronized (this) {
+            current = snapshot;
+            long now = clock.getAsLong();
+            if (current == null || now - current.computedAt >= ttlMillis) {
+                current = new Snapshot(compute(now), now);
+                snapshot = current;
+            }
+            return current.stats;
+        }
+    }
+
+    private StockStats compute(long now) {
+        CompletableFuture<StockStats> summary = submit(stockReadService::findMarketSummary);
+        CompletableFuture<Map<String, Long>> bySector = submit(stockReadService::countGroupedBySector);
+        CompletableFuture<Map<String, Long>> byIndustry = submit(stockReadService::countGroupedByIndustry);
+
+        StockStats stats;
+        try {
+            CompletableFuture.allOf(summary, bySector, byIndustry).join();
+            stats = summary.join();
+            stats.setStocksBySector(bySector.join());
+            stats.setStocksByIndustry(byIndustry.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        stats.setAveragePrice(scale(stats.getAveragePrice()));
+        stats.setAverageMarketCap(scale(stats.getAverageMarketCap()));
+        stats.setAveragePeRatio(scale(stats.getAveragePeRatio()));
+        stats.setSectors(new ArrayList<>(stats.getStocksBySector().keySet()));
+        stats.setIndustries(new ArrayList<>(stats.getStocksByIndustry().keySet()));
+        stats.setGeneratedAt(Instant.ofEpochMilli(now).atZone(ZoneOffset.UTC));
+        return stats;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    private static BigDecimal scale(BigDecimal value) {
+        return value != null ? value.setScale(AVERAGE_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Stock stats executor stopped");
+    }
+
+    // A full queue runs the query on the calling thread instead of failing the request
+    private static ExecutorService newExecutor(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("stocks.stats.parallelism must be at least 1");
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(parallelism * 4),
+            runnable -> {
+                Thread thread = new Thread(runnable, "stock-stats-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class Snapshot {
+        private final StockStats stats;
+        private final long computedAt;
+
+        private Snapshot(StockStats stats, long computedAt) {
+            this.stats = stats;
+            this.computedAt = computedAt;
+        }
+    }
+}
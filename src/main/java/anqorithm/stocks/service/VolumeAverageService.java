@@ -0,0 +1,247 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.VolumeSpike;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.AverageVolumeUpdate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains each symbol's average volume as an exponentially weighted moving average of the volumes passed
+ * through the update path, and ranks symbols by how far their current volume is above it.
+ * <p>
+ * The average is time-weighted: a volume counts for as long as it stood, and its weight halves every
+ * half-life, so bursts of updates do not skew it. It is seeded from the stored average the first time a
+ * symbol's volume changes and set on the stock being written. A JPA save writes it with the rest of the
+ * row; volumes recorded through write-behind, which does not write the average, have it written back for
+ * all such symbols in one batch on a fixed delay, through the {@link DerivedValueWriter}. Symbols are kept
+ * in a set ordered by volume over average, so an update costs O(log n) and the spikes are a walk from the
+ * top of the set, O(k).
+ */
+@Service
+public class VolumeAverageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VolumeAverageService.class);
+
+    private static final Comparator<Average> BY_RATIO = Comparator.comparingDouble((Average average) -> average.ratio)
+        .reversed()
+        .thenComparing(average -> average.symbol);
+
+    private final DerivedValueWriter derivedValueWriter;
+    private final double decayPerMilli;
+    private final double spikeMultiplier;
+
+    // All guarded by this; an average is removed from ranked before its ratio is updated
+    private final Map<String, Average> averages = new HashMap<>();
+    private final TreeSet<Average> ranked = new TreeSet<>(BY_RATIO);
+    private final Set<String> dirty = new LinkedHashSet<>();
+
+    @Autowired
+    public VolumeAverageService(DerivedValueWriter derivedValueWriter,
+                                @Value("${stocks.volume.half-life:1h}") Duration halfLife,
+                                @Value("${stocks.volume.spike-multiplier:3}") double spikeMultiplier,
+                                MeterRegistry meterRegistry) {
+        if (halfLife.isNegative() || halfLife.isZero()) {
+            throw new IllegalArgumentException("stocks.volume.half-life must be positive");
+        }
+        this.derivedValueWriter = derivedValueWriter;
+        this.decayPerMilli = Math.log(2) / halfLife.toMillis();
+        this.spikeMultiplier = spikeMultiplier;
+
+        Gauge.builder("stocks.volume.symbols", this, VolumeAverageService::getSymbolCount)
+            .description("Symbols with a maintained moving average volume")
+            .register(meterRegistry);
+        Gauge.builder("stocks.volume.pending", this, VolumeAverageService::getPendingCount)
+            .description("Average volumes waiting to be written")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Feed the stock's current volume and set its average volume from the moving average, for a stock the
+     * caller is about to save
+     */
+    public synchronized void observe(Stock stock, long timestamp) {
+        if (update(stock, timestamp)) {
+            // The save writes the latest average, so an earlier one still pending is superseded
+            dirty.remove(stock.getSymbol());
+        }
+    }
+
+    /**
+     * Like {@link #observe}, for a stock whose row is written without its average volume; the average is
+     * written by the next flush
+     */
+    public synchronized void observeDeferred(Stock stock, long timestamp) {
+        if (update(stock, timestamp)) {
+            dirty.add(stock.getSymbol());
+        }
+    }
+
+    private boolean update(Stock stock, long timestamp) {
+        if (stock.getVolume() == null) {
+            return false;
+        }
+        Average average = averages.get(stock.getSymbol());
+        if (average == null) {
+            long seed = stock.getAverageVolume() != null && stock.getAverageVolume() > 0
+                ? stock.getAverageVolume() : stock.getVolume();
+            average = new Average(stock.getSymbol(), seed, timestamp);
+            averages.put(average.symbol, average);
+        } else {
+            ranked.remove(average);
+            average.decay(timestamp, decayPerMilli);
+        }
+        average.update(stock.getVolume(), timestamp);
+        ranked.add(average);
+        stock.setAverageVolume(average.rounded());
+        return true;
+    }
+
+    /**
+     * Up to limit symbols whose volume is more than multiplier times their average, largest ratio first.
+     * A null multiplier uses the configured one.
+     */
+    public synchronized List<VolumeSpike> getSpikes(Double multiplier, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        double threshold = multiplier != null ? multiplier : spikeMultiplier;
+        if (!(threshold > 0)) {
+            throw new IllegalArgumentException("multiplier must be positive");
+        }
+        List<VolumeSpike> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        Iterator<Average> iterator = ranked.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            Average average = iterator.next();
+            if (average.ratio <= threshold) {
+                break;
+            }
+            result.add(average.toVolumeSpike());
+        }
+        return result;
+    }
+
+    /**
+     * Drop the symbol's average so its next volume reseeds it from the stored value
+     */
+    public synchronized void forget(String symbol) {
+        Average average = averages.remove(symbol);
+        if (average != null) {
+            ranked.remove(average);
+        }
+        dirty.remove(symbol);
+    }
+
+    /**
+     * Write the averages changed since the last flush in one batch; on failure they are kept for the next one
+     */
+    @Scheduled(fixedDelayString = "${stocks.volume.flush-interval-ms:10000}")
+    public int flush() {
+        List<AverageVolumeUpdate> updates;
+        synchronized (this) {
+            if (dirty.isEmpty()) {
+                return 0;
+            }
+            updates = new ArrayList<>(dirty.size());
+            for (String symbol : dirty) {
+                updates.add(new AverageVolumeUpdate(symbol, averages.get(symbol).rounded()));
+            }
+            dirty.clear();
+        }
+
+        try {
+            return derivedValueWriter.writeAverageVolumes(updates);
+        } catch (DataAccessException | TransactionException e) {
+            logger.error("Failed to write {} average volumes, will retry: {}", updates.size(), e.getMessage());
+            synchronized (this) {
+                for (AverageVolumeUpdate update : updates) {
+                    if (averages.containsKey(update.symbol())) {
+                        dirty.add(update.symbol());
+                    }
+                }
+            }
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public double getSpikeMultiplier() {
+        return spikeMultiplier;
+    }
+
+    public synchronized int getSymbolCount() {
+        return averages.size();
+    }
+
+    public synchronized int getPendingCount() {
+        return dirty.size();
+    }
+
+    private static final class Average {
+        private final String symbol;
+        private double average;
+        private long volume;
+        private long timestamp;
+        private double ratio;
+
+        private Average(String symbol, long seed, long timestamp) {
+            this.symbol = symbol;
+            this.average = seed;
+            this.volume = seed;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Blend in the volume that stood since the last update, weighted by how long it stood
+         */
+        private void decay(long now, double decayPerMilli) {
+            long elapsed = Math.max(0, now - timestamp);
+            double weight = -Math.expm1(-decayPerMilli * elapsed);
+            average += weight * (volume - average);
+        }
+
+        private void update(long volume, long timestamp) {
+            this.volume = volume;
+            this.timestamp = Math.max(this.timestamp, timestamp);
+            this.ratio = average >= 1 ? volume / average : 0;
+        }
+
+        private long rounded() {
+            return Math.round(average);
+        }
+
+        private VolumeSpike toVolumeSpike() {
+            return new VolumeSpike(symbol, volume, rounded(),
+                BigDecimal.valueOf(ratio).setScale(2, RoundingMode.HALF_UP),
+                Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.WatchlistResponse;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.entity.User;
+import anqorithm.stocks.entity.Watchlist;
+import anqorithm.stocks.repository.jpa.UserRepository;
+import anqorithm.stocks.repository.jpa.WatchlistRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * User watchlists. Each user's watchlists are cached together in the {@code watchlists} cache, keyed by
+ * username, and evicted on every change to them (again after commit, so a concurrent read cannot cache the
+ * old state). Hydrating one watchlist with its stocks is a single join against the stocks table, so prices
+ * are as fresh as the stocks table.
+ */
+@Service
+@Transactional
+public class WatchlistService {
+
+    static final String WATCHLISTS_CACHE = "watchlists";
+
+    private final WatchlistRepository watchlistRepository;
+    private final UserRepository userRepository;
+    private final StockReadService stockReadService;
+    private final CacheManager cacheManager;
+    private final int maxPerUser;
+    private final int maxSymbols;
+
+    @Autowired
+    public WatchlistService(WatchlistRepository watchlistRepository, UserRepository userRepository,
+                            StockReadService stockReadService, CacheManager cacheManager,
+                            @Value("${stocks.watchlists.max-per-user:50}") int maxPerUser,
+                            @Value("${stocks.watchlists.max-symbols:500}") int maxSymbols) {
+        this.watchlistRepository = watchlistRepository;
+        this.userRepository = userRepository;
+        this.stockReadService = stockReadService;
+        this.cacheManager = cacheManager;
+        this.maxPerUser = maxPerUser;
+        this.maxSymbols = maxSymbols;
+    }
+
+    /**
+     * The user's watchlists without stock rows, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<WatchlistResponse> findByUsername(String username) {
+        Cache cache = cacheManager.getCache(WATCHLISTS_CACHE);
+        if (cache == null) {
+            return load(username);
+        }
+        return cache.get(username, () -> load(username));
+    }
+
+    /**
+     * One of the user's watchlists with the full rows of its stocks
+     */
+    @Transactional(readOnly = true)
+    public WatchlistResponse findById(String username, long id) {
+        WatchlistResponse watchlist = findByUsername(username).stream()
+            .filter(candidate -> candidate.getId() == id)
+            .findFirst()
+            .orElseThrow(() -> notFound(id));
+        List<Stock> stocks = watchlist.getSymbols().isEmpty() ? List.of() : stockReadService.findByWatchlist(id);
+        return watchlist.withStocks(stocks);
+    }
+
+    public WatchlistResponse create(String username, String name, List<String> symbols) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        if (watchlistRepository.countByUserUsername(username) >= maxPerUser) {
+            throw new IllegalArgumentException("At most " + maxPerUser + " watchlists are allowed per user");
+        }
+        checkNameAvailable(username, name);
+
+        Watchlist saved = watchlistRepository.save(new Watchlist(user, name, normalize(symbols, List.of())));
+        evict(username);
+        return toResponse(saved);
+    }
+
+    /**
+     * Replace the watchlist's name and symbols
+     */
+    public WatchlistResponse update(String username, long id, String name, List<String> symbols) {
+        Watchlist watchlist = find(username, id);
+        if (!watchlist.getName().equals(name)) {
+            checkNameAvailable(username, name);
+        }
+        watchlist.setName(name);
+        watchlist.setSymbols(normalize(symbols, watchlist.getSymbols()));
+        Watchlist saved = watchlistRepository.saveAndFlush(watchlist);
+        evict(username);
+        return toResponse(saved);
+    }
+
+    public WatchlistResponse addSymbol(String username, long id, String symbol) {
+        Watchlist watchlist = find(username, id);
+        List<String> symbols = new ArrayList<>(watchlist.getSymbols());
+        symbols.add(symbol);
+        watchlist.setSymbols(normalize(symbols, watchlist.getSymbols()));
+        Watchlist saved = watchlistRepository.saveAndFlush(watchlist);
+        evict(username);
+        return toResponse(saved);
+    }
+
+    /**
+     * Remove a symbol from the watchlist; removing one it does not hold is a no-op
+     */
+    public WatchlistResponse removeSymbol(String username, long id, String symbol) {
+        Watchlist watchlist = find(username, id);
+        if (watchlist.getSymbols().remove(symbol.toUpperCase())) {
+            watchlist = watchlistRepository.saveAndFlush(watchlist);
+            evict(username);
+        }
+        return toResponse(watchlist);
+    }
+
+    /**
+     * Delete one of the user's watchlists; returns false if they have none with that id
+     */
+    public boolean delete(String username, long id) {
+        return watchlistRepository.findByIdAndUserUsername(id, username)
+            .map(watchlist -> {
+                watchlistRepository.delete(watchlist);
+                evict(username);
+                return true;
+            })
+            .orElse(false);
+    }
+
+    private List<WatchlistResponse> load(String username) {
+        return watchlistRepository.findByUserUsernameOrderById(username).stream()
+            .map(WatchlistService::toResponse)
+            .toList();
+    }
+
+    private Watchlist find(String username, long id) {
+        return watchlistRepository.findByIdAndUserUsername(id, username).orElseThrow(() -> notFound(id));
+    }
+
+    private void checkNameAvailable(String username, String name) {
+        if (watchlistRepository.existsByUserUsernameAndName(username, name)) {
+            throw new IllegalArgumentException("Watchlist named '" + name + "' already exists");
+        }
+    }
+
+    /**
+     * Upper-case and de-duplicate the symbols, keeping first positions, and check the ones not already held have
+     * a stock. Held symbols whose stock has since been deleted are kept, so the watchlist stays editable.
+     */
+    private List<String> normalize(List<String> symbols, Collection<String> held) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            unique.add(symbol.toUpperCase());
+        }
+        if (unique.size() > maxSymbols) {
+            throw new IllegalArgumentException("A watchlist can hold at most " + maxSymbols + " symbols");
+        }
+        Set<String> unknown = new LinkedHashSet<>(unique);
+        unknown.removeAll(held);
+        if (unknown.isEmpty()) {
+            return new ArrayList<>(unique);
+        }
+        stockReadService.findBySymbols(List.copyOf(unknown)).forEach(stock -> unknown.remove(stock.getSymbol()));
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown symbols: " + String.join(", ", unknown));
+        }
+        return new ArrayList<>(unique);
+    }
+
+    private void evict(String username) {
+        Cache cache = cacheManager.getCache(WATCHLISTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(username);
+                }
+            });
+        }
+    }
+
+    private static EntityNotFoundException notFound(long id) {
+        return new EntityNotFoundException("Watchlist not found with id: " + id);
+    }
+
+    private static WatchlistResponse toResponse(Watchlist watchlist) {
+        return new WatchlistResponse(watchlist.getId(), watchlist.getName(), List.copyOf(watchlist.getSymbols()),
+            null, watchlist.getCreatedAt(), watchlist.getUpdatedAt());
+    }
+}
@@ -0,0 +1,330 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.cache.CacheInvalidation;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.journal.FsyncPolicy;
+import anqorithm.stocks.journal.JournalRecord;
+import anqorithm.stocks.journal.TickJournal;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.PriceVolumeUpdate;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Crash-safe write-behind for price and volume updates.
+ * <p>
+ * When enabled, an update is acknowledged as soon as it is appended to the local {@link TickJournal};
+ * the latest state per symbol is then written to the stocks table in batches and the journal is
+ * checkpointed. On startup, journaled updates that never reached the database are replayed into it.
+ */
+@Service
+public class WriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindService.class);
+
+    private final StockBatchJdbcRepository stockBatchJdbcRepository;
+    private final StockOutboxJdbcRepository stockOutboxJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final boolean enabled;
+    private final Path directory;
+    private final DataSize segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final Timer appendTimer;
+
+    // Held for the whole of a flush, so a flush of one stock waits for a batch that may contain it
+    private final Object flushLock = new Object();
+    // Latest unflushed state per symbol and the journal sequence that produced it; guarded by this
+    private Map<String, PendingUpdate> pending = new LinkedHashMap<>();
+    private TickJournal journal;
+
+    @Autowired
+    public WriteBehindService(StockBatchJdbcRepository stockBatchJdbcRepository,
+                              StockOutboxJdbcRepository stockOutboxJdbcRepository,
+                              PlatformTransactionManager transactionManager,
+                              CacheInvalidationPublisher cacheInvalidationPublisher,
+                              @Value("${stocks.journal.enabled:false}") boolean enabled,
+                              @Value("${stocks.journal.directory:data/journal}") Path directory,
+                              @Value("${stocks.journal.segment-size:64MB}") DataSize segmentSize,
+                              @Value("${stocks.journal.fsync-policy:INTERVAL}") FsyncPolicy fsyncPolicy,
+                              MeterRegistry meterRegistry) {
+        this.stockBatchJdbcRepository = stockBatchJdbcRepository;
+        this.stockOutboxJdbcRepository = stockOutboxJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.appendTimer = Timer.builder("stocks.journal.append")
+            .description("Latency of journaling a price or volume update")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        journal = new TickJournal(directory, segmentSize.toBytes(), fsyncPolicy);
+        long started = System.nanoTime();
+        Map<String, PendingUpdate> replayed = new LinkedHashMap<>();
+        long count = journal.replay(record -> replayed.put(record.getSymbol(), PendingUpdate.of(record)));
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        logger.info("Replayed {} journaled ticks for {} symbols in {} ms ({} ticks/s)",
+            count, replayed.size(), elapsedMillis, count * 1000 / elapsedMillis);
+
+        synchronized (this) {
+            pending = replayed;
+        }
+        if (flush() < replayed.size()) {
+            throw new IllegalStateException("Could not apply journaled ticks to the database on startup");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Journal a new price and/or volume for a stock read from the database, and return the stock
+     * carrying its latest acknowledged state. Null arguments keep the current value.
+     */
+    public Stock record(Stock stock, BigDecimal price, Long volume) {
+        return record(stock, price, volume, false);
+    }
+
+    /**
+     * As {@link #record(Stock, BigDecimal, Long)}; when rangeChanged is true, the stock's 52-week high and
+     * low are written along with the price in the next flush.
+     */
+    public Stock record(Stock stock, BigDecimal price, Long volume, boolean rangeChanged) {
+        Timer.Sample sample = Timer.start();
+        synchronized (this) {
+            PendingUpdate previous = pending.get(stock.getSymbol());
+            if (previous != null) {
+                stock.setCurrentPrice(previous.price());
+                stock.setVolume(previous.volume());
+                if (!rangeChanged && previous.hasRange()) {
+                    stock.setFiftyTwoWeekHigh(previous.fiftyTwoWeekHigh());
+                    stock.setFiftyTwoWeekLow(previous.fiftyTwoWeekLow());
+                }
+            }
+            if (price != null) {
+                stock.setCurrentPrice(price);
+            }
+            if (volume != null) {
+                stock.setVolume(volume);
+            }
+            boolean writeRange = rangeChanged || (previous != null && previous.hasRange());
+            long cumulativeVolume = stock.getVolume() != null ? stock.getVolume() : 0L;
+            long sequence = journal.append(System.currentTimeMillis(), stock.getId(),
+                Tick.toScaled(stock.getCurrentPrice()), cumulativeVolume, stock.getSymbol());
+            pending.put(stock.getSymbol(), new PendingUpdate(sequence, stock.getId(), stock.getCurrentPrice(),
+                cumulativeVolume, writeRange ? stock.getFiftyTwoWeekHigh() : null,
+                writeRange ? stock.getFiftyTwoWeekLow() : null));
+        }
+        sample.stop(appendTimer);
+        return stock;
+    }
+
+    /**
+     * Write the latest state of every pending symbol to the database and checkpoint the journal.
+     * Returns the number of symbols written.
+     */
+    @Scheduled(fixedDelayString = "${stocks.journal.flush-interval-ms:200}")
+    public int flush() {
+        if (!enabled) {
+            return 0;
+        }
+        synchronized (flushLock) {
+            Map<String, PendingUpdate> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            try {
+                return write(batch);
+            } catch (DataAccessException | TransactionException e) {
+                logger.error("Write-behind flush of {} symbols failed, will retry: {}", batch.size(), e.getMessage());
+                requeue(batch);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Write any pending state of one stock, identified by id, before it is changed or deleted through JPA.
+     * The batch update bypasses JPA versioning, so a journaled price flushed after such a write would
+     * overwrite it; this waits for a flush already in progress and throws if the write fails.
+     */
+    public void flushStock(long stockId) {
+        flushMatching(entry -> entry.getValue().stockId() == stockId);
+    }
+
+    /**
+     * As {@link #flushStock(long)}, for a stock identified by symbol.
+     */
+    public void flushSymbol(String symbol) {
+        flushMatching(entry -> entry.getKey().equals(symbol));
+    }
+
+    private void flushMatching(Predicate<Map.Entry<String, PendingUpdate>> matcher) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            Map<String, PendingUpdate> batch = new LinkedHashMap<>();
+            synchronized (this) {
+                for (Map.Entry<String, PendingUpdate> entry : pending.entrySet()) {
+                    if (matcher.test(entry)) {
+                        batch.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                pending.keySet().removeAll(batch.keySet());
+            }
+            try {
+                write(batch);
+            } catch (DataAccessException | TransactionException e) {
+                requeue(batch);
+                throw e;
+            }
+        }
+    }
+
+    // Writes the batch in its own transaction, so it is committed before a caller's JPA write reads the row
+    private int write(Map<String, PendingUpdate> batch) {
+        List<PriceVolumeUpdate> updates = new ArrayList<>(batch.size());
+        List<StockEvent> events = new ArrayList<>(batch.size());
+        long highestSequence = 0;
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, PendingUpdate> entry : batch.entrySet()) {
+            PendingUpdate update = entry.getValue();
+            updates.add(new PriceVolumeUpdate(entry.getKey(), update.price(), update.volume(),
+                update.fiftyTwoWeekHigh(), update.fiftyTwoWeekLow()));
+            // The batch update bypasses JPA, so the committed version is unknown; a changed 52-week
+            // range is more than a price move, so listeners are told to re-read the row
+            StockEvent.Type type = update.hasRange() ? StockEvent.Type.UPDATED : StockEvent.Type.PRICE_VOLUME_CHANGED;
+            events.add(new StockEvent(0, type, update.stockId(), entry.getKey(), null, update.price(),
+                update.volume(), now));
+            highestSequence = Math.max(highestSequence, update.sequence());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            stockBatchJdbcRepository.batchUpdatePriceAndVolume(updates);
+            stockOutboxJdbcRepository.batchInsert(events);
+        });
+
+        synchronized (this) {
+            // Anything journaled after this batch was taken is still pending, so only checkpoint
+            // up to the oldest sequence that remains unflushed
+            long checkpoint = highestSequence;
+            for (PendingUpdate update : pending.values()) {
+                checkpoint = Math.min(checkpoint, update.sequence() - 1);
+            }
+            journal.checkpoint(checkpoint);
+        }
+        publishInvalidations(batch);
+        return updates.size();
+    }
+
+    @Scheduled(fixedDelayString = "${stocks.journal.fsync-interval-ms:10}")
+    public void sync() {
+        if (enabled && fsyncPolicy == FsyncPolicy.INTERVAL) {
+            journal.sync();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private void publishInvalidations(Map<String, PendingUpdate> batch) {
+        try {
+            // The batch update bypasses JPA, so the committed version is unknown
+            for (Map.Entry<String, PendingUpdate> entry : batch.entrySet()) {
+                cacheInvalidationPublisher.publish(new CacheInvalidation(CacheInvalidation.Kind.UPDATE,
+                    entry.getValue().stockId(), null, entry.getKey()));
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not publish cache invalidations for {} symbols: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private synchronized void requeue(Map<String, PendingUpdate> batch) {
+        Map<String, PendingUpdate> merged = new LinkedHashMap<>(batch);
+        // Updates journaled while the flush was running are newer than the failed batch, but must not
+        // drop a 52-week range that only the failed batch carried
+        for (Map.Entry<String, PendingUpdate> entry : new HashMap<>(pending).entrySet()) {
+            PendingUpdate failed = batch.get(entry.getKey());
+            PendingUpdate newer = entry.getValue();
+            merged.put(entry.getKey(), failed != null && failed.hasRange() && !newer.hasRange()
+                ? newer.withRange(failed.fiftyTwoWeekHigh(), failed.fiftyTwoWeekLow()) : newer);
+        }
+        pending = merged;
+    }
+
+    /**
+     * Latest unflushed state of one symbol; the 52-week high and low are null unless they are to be written
+     */
+    record PendingUpdate(long sequence, long stockId, BigDecimal price, long volume,
+                         BigDecimal fiftyTwoWeekHigh, BigDecimal fiftyTwoWeekLow) {
+
+        // The journal does not carry the 52-week range, so replayed updates leave it as stored
+        static PendingUpdate of(JournalRecord record) {
+            return new PendingUpdate(record.getSequence(), record.getStockId(),
+                Tick.fromScaled(record.getScaledPrice()), record.getVolume(), null, null);
+        }
+
+        boolean hasRange() {
+            return fiftyTwoWeekHigh != null;
+        }
+
+        PendingUpdate withRange(BigDecimal high, BigDecimal low) {
+            return new PendingUpdate(sequence, stockId, price, volume, high, low);
+        }
+    }
+}
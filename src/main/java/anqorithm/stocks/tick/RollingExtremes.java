@@ -0,0 +1,112 @@
+package anqorithm.stocks.tick;
+
+/**
+ * Highest and lowest price of one symbol over a rolling window of whole days.
+ * <p>
+ * Each extreme is kept in a monotonic deque of (day, value) pairs holding at most one pair per day: a new
+ * price pops the pairs it dominates from the tail, and pairs that leave the window are dropped from the
+ * head, so an observation is amortized O(1) and the extreme is always at the head. Days are counted in
+ * whole days since the epoch. Not thread-safe.
+ */
+public class RollingExtremes {
+
+    private final int windowDays;
+    private final MonotonicDeque highs = new MonotonicDeque(true);
+    private final MonotonicDeque lows = new MonotonicDeque(false);
+
+    public RollingExtremes(int windowDays) {
+        if (windowDays < 1) {
+            throw new IllegalArgumentException("windowDays must be positive");
+        }
+        this.windowDays = windowDays;
+    }
+
+    public boolean isEmpty() {
+        return highs.size == 0;
+    }
+
+    /**
+     * Record a high and low observed on a day, such as previously stored extremes
+     */
+    public void add(long day, long high, long low) {
+        day = Math.max(day, highs.lastDay());
+        highs.offer(day, high, windowDays);
+        lows.offer(day, low, windowDays);
+    }
+
+    public void add(long day, long price) {
+        add(day, price, price);
+    }
+
+    public long high() {
+        return highs.first();
+    }
+
+    public long low() {
+        return lows.first();
+    }
+
+    private static final class MonotonicDeque {
+        private final boolean keepHighest;
+        private long[] days = new long[4];
+        private long[] values = new long[4];
+        private int head;
+        private int size;
+
+        private MonotonicDeque(boolean keepHighest) {
+            this.keepHighest = keepHighest;
+        }
+
+        void offer(long day, long value, int windowDays) {
+            while (size > 0 && days[head] <= day - windowDays) {
+                head = (head + 1) % days.length;
+                size--;
+            }
+            while (size > 0 && !beats(values[tail()], value)) {
+                size--;
+            }
+            // A kept pair for the same day already beats this value
+            if (size > 0 && days[tail()] == day) {
+                return;
+            }
+            if (size == days.length) {
+                grow();
+            }
+            int slot = (head + size) % days.length;
+            days[slot] = day;
+            values[slot] = value;
+            size++;
+        }
+
+        private boolean beats(long kept, long value) {
+            return keepHighest ? kept > value : kept < value;
+        }
+
+        long first() {
+            if (size == 0) {
+                throw new IllegalStateException("No prices observed");
+            }
+            return values[head];
+        }
+
+        long lastDay() {
+            return size > 0 ? days[tail()] : Long.MIN_VALUE;
+        }
+
+        private int tail() {
+            return (head + size - 1) % days.length;
+        }
+
+        private void grow() {
+            long[] grownDays = new long[days.length * 2];
+            long[] grownValues = new long[values.length * 2];
+            for (int i = 0; i < size; i++) {
+                grownDays[i] = days[(head + i) % days.length];
+                grownValues[i] = values[(head + i) % values.length];
+            }
+            days = grownDays;
+            values = grownValues;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package anqorithm.stocks.tick;
+
+import anqorithm.stocks.entity.Stock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Immutable price/volume observation emitted whenever a stock's price or volume changes.
+ * Prices are carried both as BigDecimal and as a long scaled by {@link #PRICE_SCALE}
+ * so that in-memory consumers can work on primitives.
+ */
+public final class Tick {
+
+    /**
+     * Number of decimal places kept for prices, matching DECIMAL(12, 4) in the stocks table
+     */
+    public static final int PRICE_SCALE = 4;
+
+    private final Long stockId;
+    private final String symbol;
+    private final BigDecimal price;
+    private final long scaledPrice;
+    private final long volume;
+    private final boolean volumeKnown;
+    private final long timestamp;
+
+    public Tick(Long stockId, String symbol, BigDecimal price, long volume, long timestamp) {
+        this(stockId, symbol, price, volume, true, timestamp);
+    }
+
+    private Tick(Long stockId, String symbol, BigDecimal price, long volume, boolean volumeKnown, long timestamp) {
+        this.stockId = stockId;
+        this.symbol = Objects.requireNonNull(symbol, "symbol");
+        this.price = Objects.requireNonNull(price, "price");
+        this.scaledPrice = toScaled(price);
+        this.volume = volume;
+        this.volumeKnown = volumeKnown;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Create a tick from the current state of a stock
+     */
+    public static Tick of(Stock stock, long timestamp) {
+        Long volume = stock.getVolume();
+        return new Tick(stock.getId(), stock.getSymbol(), stock.getCurrentPrice(),
+                volume != null ? volume : 0L, volume != null, timestamp);
+    }
+
+    public static long toScaled(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromScaled(long scaledPrice) {
+        return BigDecimal.valueOf(scaledPrice, PRICE_SCALE);
+    }
+
+    public Long getStockId() {
+        return stockId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public long getScaledPrice() {
+        return scaledPrice;
+    }
+
+    /**
+     * Volume at the time of the tick, 0 when the stock had none; see {@link #hasVolume()}
+     */
+    public long getVolume() {
+        return volume;
+    }
+
+    public boolean hasVolume() {
+        return volumeKnown;
+    }
+
+    /**
+     * Epoch milliseconds at which the tick was accepted
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Tick tick = (Tick) o;
+        return scaledPrice == tick.scaledPrice && volume == tick.volume && volumeKnown == tick.volumeKnown
+                && timestamp == tick.timestamp
+                && Objects.equals(stockId, tick.stockId) && symbol.equals(tick.symbol);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(stockId, symbol, scaledPrice, volume, timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return "Tick{" +
+                "symbol='" + symbol + '\'' +
+                ", price=" + price +
+                ", volume=" + volume +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,10 @@
+package anqorithm.stocks.tick;
+
+/**
+ * Consumer of price/volume ticks published by {@link TickPublisher}.
+ * Implementations are invoked on the publishing thread and must be cheap and non-blocking.
+ */
+public interface TickListener {
+
+    void onTick(Tick tick);
+}
@@ -0,0 +1,52 @@
+package anqorithm.stocks.tick;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Fans ticks out to every registered {@link TickListener}.
+ * When called inside a transaction, delivery is deferred until after commit so listeners
+ * never observe a price that was rolled back.
+ */
+@Component
+public class TickPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickPublisher.class);
+
+    private final List<TickListener> listeners;
+
+    @Autowired
+    public TickPublisher(List<TickListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    public void publish(Tick tick) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(tick);
+                }
+            });
+        } else {
+            dispatch(tick);
+        }
+    }
+
+    private void dispatch(Tick tick) {
+        for (TickListener listener : listeners) {
+            try {
+                listener.onTick(tick);
+            } catch (RuntimeException e) {
+                logger.warn("Tick listener {} failed for {}: {}",
+                        listener.getClass().getSimpleName(), tick.getSymbol(), e.getMessage());
+            }
+        }
+    }
+}
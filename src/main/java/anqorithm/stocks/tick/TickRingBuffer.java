@@ -0,0 +1,169 @@
+package anqorithm.stocks.tick;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.OptionalLong;
+
+/**
+ * Fixed-capacity ring of the most recent ticks for one symbol, stored in three parallel primitive arrays.
+ * <p>
+ * Writes never allocate. Writers are serialized on the buffer monitor and announce the slot they are
+ * about to overwrite through {@code claimed} before touching the arrays and bump {@code published}
+ * afterwards. Readers take no lock: they copy the published range and then re-read {@code claimed} to
+ * discard any entries a concurrent writer may have overwritten while the copy was in progress.
+ */
+public class TickRingBuffer {
+
+    /**
+     * Bytes per stored tick: timestamp, scaled price and volume as longs
+     */
+    public static final int BYTES_PER_TICK = 3 * Long.BYTES;
+
+    private static final VarHandle CLAIMED;
+    private static final VarHandle PUBLISHED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CLAIMED = lookup.findVarHandle(TickRingBuffer.class, "claimed", long.class);
+            PUBLISHED = lookup.findVarHandle(TickRingBuffer.class, "published", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] timestamps;
+    private final long[] prices;
+    private final long[] volumes;
+    private final int mask;
+
+    @SuppressWarnings("unused") // accessed through CLAIMED
+    private volatile long claimed;
+    @SuppressWarnings("unused") // accessed through PUBLISHED
+    private volatile long published;
+
+    public TickRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        }
+        this.timestamps = new long[capacity];
+        this.prices = new long[capacity];
+        this.volumes = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public synchronized void add(long timestamp, long scaledPrice, long volume) {
+        long sequence = (long) CLAIMED.getOpaque(this);
+        CLAIMED.setOpaque(this, sequence + 1);
+        VarHandle.storeStoreFence();
+
+        int index = (int) (sequence & mask);
+        timestamps[index] = timestamp;
+        prices[index] = scaledPrice;
+        volumes[index] = volume;
+
+        PUBLISHED.setRelease(this, sequence + 1);
+    }
+
+    /**
+     * Copy every tick with a timestamp at or after {@code since}, oldest first
+     */
+    public Snapshot snapshotSince(long since) {
+        long end = (long) PUBLISHED.getAcquire(this);
+        long start = Math.max(0, end - capacity());
+        int size = (int) (end - start);
+
+        long[] ts = new long[size];
+        long[] px = new long[size];
+        long[] vol = new long[size];
+        // Walk backwards from the newest tick so the copy stops as soon as the window is covered
+        int copied = 0;
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            int index = (int) (sequence & mask);
+            long timestamp = timestamps[index];
+            if (timestamp < since) {
+                break;
+            }
+            int slot = size - 1 - copied;
+            ts[slot] = timestamp;
+            px[slot] = prices[index];
+            vol[slot] = volumes[index];
+            copied++;
+        }
+
+        VarHandle.loadLoadFence();
+        long overwrittenBefore = (long) CLAIMED.getOpaque(this) - capacity();
+        int firstValid = size - copied;
+        long firstSequence = end - copied;
+        if (overwrittenBefore > firstSequence) {
+            firstValid += (int) Math.min(copied, overwrittenBefore - firstSequence);
+        }
+        return new Snapshot(ts, px, vol, firstValid, size);
+    }
+
+    /**
+     * Scaled price of the newest tick, without copying the ring; empty if no tick was added
+     */
+    public OptionalLong latestPrice() {
+        while (true) {
+            long end = (long) PUBLISHED.getAcquire(this);
+            if (end == 0) {
+                return OptionalLong.empty();
+            }
+            long price = prices[(int) ((end - 1) & mask)];
+            VarHandle.loadLoadFence();
+            // Retry in the unlikely case a full lap of writers overwrote the slot while it was read
+            if ((long) CLAIMED.getOpaque(this) - capacity() < end) {
+                return OptionalLong.of(price);
+            }
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long size() {
+        return Math.min((long) PUBLISHED.getAcquire(this), capacity());
+    }
+
+    public long memoryBytes() {
+        return (long) capacity() * BYTES_PER_TICK;
+    }
+
+    /**
+     * Point-in-time copy of a contiguous run of ticks
+     */
+    public static final class Snapshot {
+
+        private final long[] timestamps;
+        private final long[] prices;
+        private final long[] volumes;
+        private final int offset;
+        private final int end;
+
+        Snapshot(long[] timestamps, long[] prices, long[] volumes, int offset, int end) {
+            this.timestamps = timestamps;
+            this.prices = prices;
+            this.volumes = volumes;
+            this.offset = offset;
+            this.end = end;
+        }
+
+        public int size() {
+            return end - offset;
+        }
+
+        public long timestampAt(int i) {
+            return timestamps[offset + i];
+        }
+
+        public long priceAt(int i) {
+            return prices[offset + i];
+        }
+
+        public long volumeAt(int i) {
+            return volumes[offset + i];
+        }
+    }
+}
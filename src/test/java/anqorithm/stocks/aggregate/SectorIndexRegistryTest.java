@@ -0,0 +1,227 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.dto.SectorIndex;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.service.StockReadService;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SectorIndexRegistryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+    private static final long NOW = TODAY.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() + 3_600_000L;
+
+    @Mock
+    private StockReadService stockReadService;
+
+    @Mock
+    private StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+
+    // Stands in for the stocks table
+    private final Map<Long, Stock> table = new TreeMap<>();
+    // Stands in for the last closes before today
+    private final Map<String, BigDecimal> closes = new HashMap<>();
+    private long offset;
+    private SectorIndexRegistry registry;
+    private StockRegistryScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<Stock> action = invocation.getArgument(0);
+            table.values().forEach(action);
+            return null;
+        }).when(stockReadService).forEachStock(any());
+        lenient().when(stockReadService.findById(anyLong()))
+            .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<Long>getArgument(0))));
+        lenient().when(stockDailyCloseJdbcRepository.findLatestBefore(any(), any())).thenReturn(closes);
+        registry = new SectorIndexRegistry(stockReadService, stockDailyCloseJdbcRepository, new SimpleMeterRegistry(),
+            () -> NOW);
+        scanner = new StockRegistryScanner(stockReadService, List.of(registry));
+    }
+
+    private Stock stock(long id, String sector, String price, Long marketCap) {
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setSymbol("S" + id);
+        stock.setSector(sector);
+        stock.setCurrentPrice(new BigDecimal(price));
+        stock.setMarketCap(marketCap);
+        stock.setVersion(0L);
+        table.put(id, stock);
+        return stock;
+    }
+
+    private void tick(long id, String price) {
+        registry.onTick(new Tick(id, "S" + id, new BigDecimal(price), 0L, 1_000L));
+    }
+
+    private void event(StockEvent.Type type, Stock stock) {
+        registry.onEvents(List.of(new StockEvent(++offset, type, stock.getId(), stock.getSymbol(),
+            stock.getVersion(), null, null, 0L)));
+    }
+
+    private BigDecimal level(String sector) {
+        return registry.getIndex(sector).orElseThrow().getLevel();
+    }
+
+    @Test
+    void testSectorsStartAtBaseLevelWithImpliedShares() {
+        stock(1, "Technology", "100.00", 10_000L);
+        stock(2, "Technology", "50.00", 30_000L);
+        stock(3, "Energy", "20.00", 2_000L);
+        stock(4, "Energy", "10.00", null);
+        stock(5, null, "10.00", 1_000L);
+
+        SectorIndex technology = registry.getIndex("Technology").orElseThrow();
+
+        assertEquals(new BigDecimal("1000.00"), technology.getLevel());
+        assertEquals(new BigDecimal("40000"), technology.getMarketCap());
+        assertEquals(2, technology.getConstituents());
+        assertEquals(1, registry.getIndex("Energy").orElseThrow().getConstituents());
+        assertTrue(registry.getIndex("Utilities").isEmpty());
+    }
+
+    @Test
+    void testTicksMoveLevelByCapWeightedChange() {
+        stock(1, "Technology", "100.00", 10_000L);
+        stock(2, "Technology", "50.00", 30_000L);
+        registry.getHeatMap();
+
+        // 100 shares up 10%: the sector's 40000 cap gains 1000
+        tick(1, "110.00");
+        assertEquals(new BigDecimal("1025.00"), level("Technology"));
+
+        // 600 shares down 10%: loses 3000
+        tick(2, "45.00");
+        SectorIndex technology = registry.getIndex("Technology").orElseThrow();
+        assertEquals(new BigDecimal("950.00"), technology.getLevel());
+        assertEquals(new BigDecimal("-50.00"), technology.getChange());
+        assertEquals(new BigDecimal("-5.00"), technology.getChangePercent());
+        assertEquals(new BigDecimal("38000"), technology.getMarketCap());
+    }
+
+    @Test
+    void testConstituentChangesDoNotMoveLevel() {
+        stock(1, "Technology", "100.00", 10_000L);
+        registry.getHeatMap();
+        tick(1, "120.00");
+        assertEquals(new BigDecimal("1200.00"), level("Technology"));
+
+        // A new stock joins without moving the level, then moves it by its weight
+        Stock joined = stock(2, "Technology", "50.00", 12_000L);
+        event(StockEvent.Type.CREATED, joined);
+        assertEquals(new BigDecimal("1200.00"), level("Technology"));
+        tick(2, "100.00");
+        assertEquals(new BigDecimal("1800.00"), level("Technology"));
+
+        // A stock moving to another sector leaves the old level alone and starts the new sector at the base
+        joined.setSector("Energy");
+        event(StockEvent.Type.UPDATED, joined);
+        assertEquals(new BigDecimal("1800.00"), level("Technology"));
+        assertEquals(new BigDecimal("1000.00"), level("Energy"));
+
+        table.remove(2L);
+        event(StockEvent.Type.DELETED, joined);
+        assertTrue(registry.getIndex("Energy").isEmpty());
+        assertEquals(new BigDecimal("1800.00"), level("Technology"));
+    }
+
+    @Test
+    void testHeatMapIsOrderedByChangeSinceSessionOpen() {
+        stock(1, "Technology", "100.00", 10_000L);
+        stock(2, "Energy", "100.00", 10_000L);
+        stock(3, "Utilities", "100.00", 10_000L);
+        registry.getHeatMap();
+        tick(1, "90.00");
+        tick(2, "105.00");
+
+        List<SectorIndex> heatMap = registry.getHeatMap();
+        assertEquals(List.of("Energy", "Utilities", "Technology"), heatMap.stream().map(SectorIndex::getSector).toList());
+        assertEquals(new BigDecimal("5.00"), heatMap.get(0).getChangePercent());
+
+        registry.startSession();
+        SectorIndex energy = registry.getIndex("Energy").orElseThrow();
+        assertEquals(new BigDecimal("1000.00"), energy.getOpenLevel());
+        assertEquals(new BigDecimal("1000.00"), energy.getLevel());
+        assertEquals(0, energy.getChangePercent().signum());
+        tick(2, "94.50");
+        assertEquals(new BigDecimal("-10.00"), registry.getIndex("Energy").orElseThrow().getChangePercent());
+    }
+
+    @Test
+    void testReconcileAppliesMissedChangesWithoutMovingLevels() {
+        stock(1, "Technology", "100.00", 10_000L);
+        stock(2, "Technology", "50.00", 30_000L);
+        registry.getHeatMap();
+        tick(1, "110.00");
+
+        assertFalse(scanner.reconcile());
+        assertEquals(new BigDecimal("1025.00"), level("Technology"));
+
+        // A market cap change that was never relayed doubles stock 2's shares
+        table.get(2L).setMarketCap(60_000L);
+        stock(3, "Energy", "10.00", 1_000L);
+        assertTrue(scanner.reconcile());
+        assertEquals(new BigDecimal("1025.00"), level("Technology"));
+        assertEquals(new BigDecimal("71000"), registry.getIndex("Technology").orElseThrow().getMarketCap());
+        assertEquals(new BigDecimal("1000.00"), level("Energy"));
+    }
+
+    @Test
+    void testTicksBeforeLoadAreAppliedAndUnknownStocksIgnored() {
+        // The row still has the price from before the tick, as under write-behind
+        stock(1, "Technology", "100.00", 10_000L);
+        tick(1, "200.00");
+        assertEquals(new BigDecimal("2000.00"), level("Technology"));
+
+        tick(9, "10.00");
+        assertEquals(1, registry.getHeatMap().size());
+        verify(stockReadService, times(1)).forEachStock(any());
+    }
+
+    @Test
+    void testLoadMidSessionOpensAtLastCloses() {
+        stock(1, "Technology", "110.00", 11_000L);
+        stock(2, "Technology", "50.00", 5_000L);
+        stock(3, "Energy", "20.00", 2_000L);
+        // Stock 1 closed at 100 yesterday; stock 2 has no close and opens at its stored price
+        closes.put("S1", new BigDecimal("100.00"));
+        closes.put("S3", new BigDecimal("25.00"));
+
+        SectorIndex technology = registry.getIndex("Technology").orElseThrow();
+
+        // 100 shares at 100 and 100 at 50 opened at 15000 and are worth 16000 now
+        assertEquals(new BigDecimal("1000.00"), technology.getOpenLevel());
+        assertEquals(new BigDecimal("1066.67"), technology.getLevel());
+        assertEquals(new BigDecimal("-20.00"), registry.getIndex("Energy").orElseThrow().getChangePercent());
+        verify(stockDailyCloseJdbcRepository).findLatestBefore(TODAY, TODAY.minusDays(7));
+
+        // Later scans reconcile constituents without re-reading closes
+        assertFalse(scanner.reconcile());
+        assertEquals(new BigDecimal("1066.67"), level("Technology"));
+        verify(stockDailyCloseJdbcRepository, times(1)).findLatestBefore(any(), any());
+    }
+}
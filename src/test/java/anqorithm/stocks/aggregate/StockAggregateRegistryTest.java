@@ -0,0 +1,199 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.dto.StockAggregate;
+import anqorithm.stocks.dto.StockStats;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.service.StockReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockAggregateRegistryTest {
+
+    @Mock
+    private StockReadService stockReadService;
+
+    // Stands in for the stocks table
+    private final Map<Long, Stock> table = new TreeMap<>();
+    private long offset;
+    private StockRegistryScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<Stock> action = invocation.getArgument(0);
+            table.values().forEach(action);
+            return null;
+        }).when(stockReadService).forEachStock(any());
+        lenient().when(stockReadService.findById(anyLong()))
+            .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<Long>getArgument(0))));
+    }
+
+    private StockAggregateRegistry registry(boolean enabled) {
+        return registry(enabled, new SimpleMeterRegistry());
+    }
+
+    private StockAggregateRegistry registry(boolean enabled, SimpleMeterRegistry meterRegistry) {
+        StockAggregateRegistry registry = new StockAggregateRegistry(stockReadService, enabled, meterRegistry, () -> 0L);
+        scanner = new StockRegistryScanner(stockReadService, List.of(registry));
+        return registry;
+    }
+
+    private Stock stock(long id, String sector, String industry, String price, Long marketCap, String peRatio) {
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setSymbol("S" + id);
+        stock.setSector(sector);
+        stock.setIndustry(industry);
+        stock.setCurrentPrice(new BigDecimal(price));
+        stock.setMarketCap(marketCap);
+        stock.setPeRatio(peRatio != null ? new BigDecimal(peRatio) : null);
+        stock.setVolume(1000L * id);
+        stock.setVersion(0L);
+        table.put(id, stock);
+        return stock;
+    }
+
+    private StockEvent event(StockEvent.Type type, Stock stock) {
+        return new StockEvent(++offset, type, stock.getId(), stock.getSymbol(), stock.getVersion(),
+            type == StockEvent.Type.DELETED ? null : stock.getCurrentPrice(),
+            type == StockEvent.Type.DELETED ? null : stock.getVolume(), 0L);
+    }
+
+    @Test
+    void loadsAggregatesOnFirstRead() {
+        stock(1, "Technology", "Software", "100.00", 1000L, "20.00");
+        stock(2, "Technology", "Semiconductors", "50.00", null, null);
+        stock(3, "Energy", "Oil", "10.50", 3000L, "10.00");
+
+        StockAggregateRegistry registry = registry(true);
+        StockAggregate overall = registry.getOverall();
+
+        assertEquals(3, overall.getCount());
+        assertEquals(new BigDecimal("53.5000"), overall.getAveragePrice());
+        assertEquals(new BigDecimal("2000.0000"), overall.getAverageMarketCap());
+        assertEquals(new BigDecimal("15.0000"), overall.getAveragePeRatio());
+        assertEquals(4000L, overall.getTotalMarketCap());
+        assertEquals(6000L, overall.getTotalVolume());
+        assertEquals(2, registry.getBySector("Technology").orElseThrow().getCount());
+        assertEquals(new BigDecimal("20.0000"), registry.getBySector("Technology").orElseThrow().getAveragePeRatio());
+        assertTrue(registry.getByIndustry("Retail").isEmpty());
+
+        StockStats stats = registry.getStats();
+        assertEquals(List.of("Energy", "Technology"), stats.getSectors());
+        assertEquals(Map.of("Energy", 1L, "Technology", 2L), stats.getStocksBySector());
+        verify(stockReadService, times(1)).forEachStock(any());
+    }
+
+    @Test
+    void appliesEventsAsExactDeltas() {
+        Stock apple = stock(1, "Technology", "Software", "100.10", 1000L, "20.00");
+        Stock exxon = stock(2, "Energy", "Oil", "10.05", 3000L, "10.00");
+        StockAggregateRegistry registry = registry(true);
+        registry.getOverall();
+
+        Stock nvidia = stock(3, "Technology", "Semiconductors", "400.25", 5000L, "60.00");
+        registry.onEvents(List.of(event(StockEvent.Type.CREATED, nvidia)));
+
+        exxon.setSector("Utilities");
+        exxon.setVersion(1L);
+        registry.onEvents(List.of(event(StockEvent.Type.UPDATED, exxon)));
+
+        apple.setCurrentPrice(new BigDecimal("101.35"));
+        apple.setVolume(9999L);
+        apple.setVersion(1L);
+        registry.onEvents(List.of(event(StockEvent.Type.PRICE_VOLUME_CHANGED, apple)));
+
+        table.remove(3L);
+        registry.onEvents(List.of(event(StockEvent.Type.DELETED, nvidia)));
+
+        assertEquals(2, registry.getOverall().getCount());
+        assertEquals(new BigDecimal("55.7000"), registry.getOverall().getAveragePrice());
+        assertTrue(registry.getBySector("Energy").isEmpty());
+        assertEquals(1, registry.getBySector("Technology").orElseThrow().getCount());
+        assertEquals(1, registry.getBySector("Utilities").orElseThrow().getCount());
+        assertFalse(scanner.reconcile(), "incremental state should match a rebuild from the table");
+    }
+
+    @Test
+    void ignoresPriceVolumeEventOlderThanAppliedState() {
+        Stock apple = stock(1, "Technology", "Software", "100.00", 1000L, "20.00");
+        apple.setVersion(5L);
+        StockAggregateRegistry registry = registry(true);
+        registry.getOverall();
+
+        StockEvent stale = new StockEvent(++offset, StockEvent.Type.PRICE_VOLUME_CHANGED, 1L, "S1", 4L,
+            new BigDecimal("1.00"), 1L, 0L);
+        registry.onEvents(List.of(stale));
+
+        assertEquals(new BigDecimal("100.0000"), registry.getOverall().getAveragePrice());
+    }
+
+    @Test
+    void reconcileReplacesDriftedState() {
+        Stock apple = stock(1, "Technology", "Software", "100.00", 1000L, "20.00");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StockAggregateRegistry registry = registry(true, meterRegistry);
+        registry.getOverall();
+
+        // A write that never reached the outbox
+        apple.setCurrentPrice(new BigDecimal("80.00"));
+
+        assertTrue(scanner.reconcile());
+        assertEquals(new BigDecimal("80.0000"), registry.getOverall().getAveragePrice());
+        assertEquals(1.0, meterRegistry.get("stocks.aggregates.drift").counter().count());
+        assertFalse(scanner.reconcile());
+    }
+
+    @Test
+    void eventsDuringScanAreReplayedOntoTheScan() {
+        stock(1, "Technology", "Software", "100.00", 1000L, "20.00");
+        Stock exxon = stock(2, "Energy", "Oil", "10.00", 3000L, "10.00");
+        StockAggregateRegistry registry = registry(true);
+        registry.getOverall();
+
+        // The scan reads exxon's row, then exxon is deleted and its event relayed before the scan ends
+        doAnswer(invocation -> {
+            Consumer<Stock> action = invocation.getArgument(0);
+            List<Stock> rows = List.copyOf(table.values());
+            table.remove(2L);
+            registry.onEvents(List.of(event(StockEvent.Type.DELETED, exxon)));
+            rows.forEach(action);
+            return null;
+        }).when(stockReadService).forEachStock(any());
+
+        assertFalse(scanner.reconcile(), "the deletion was applied, so the registry had not drifted");
+        assertEquals(1, registry.getOverall().getCount());
+        assertTrue(registry.getBySector("Energy").isEmpty());
+    }
+
+    @Test
+    void disabledRegistryIgnoresEventsAndRescans() {
+        Stock apple = stock(1, "Technology", "Software", "100.00", 1000L, "20.00");
+        StockAggregateRegistry registry = registry(false);
+
+        registry.onEvents(List.of(event(StockEvent.Type.UPDATED, apple)));
+        assertFalse(scanner.reconcile());
+        assertEquals(1, registry.getOverall().getCount());
+        assertEquals(1, registry.getOverall().getCount());
+
+        verify(stockReadService, never()).findById(anyLong());
+        verify(stockReadService, times(2)).forEachStock(any());
+    }
+}
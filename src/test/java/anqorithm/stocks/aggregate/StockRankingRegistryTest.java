@@ -0,0 +1,171 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.service.StockReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the incrementally maintained rankings against the SQL top-N queries after random writes
+ */
+@DataJpaTest
+class StockRankingRegistryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private StockReadService stockReadService;
+    private StockRankingRegistry registry;
+    private StockRegistryScanner scanner;
+    private final Random random = new Random(42);
+    private final List<Long> ids = new ArrayList<>();
+    private int symbols;
+    private long offset;
+
+    @BeforeEach
+    void setUp() {
+        stockReadService = new StockReadService(jdbcTemplate);
+        registry = new StockRankingRegistry(stockReadService, true, 1000, new SimpleMeterRegistry());
+        scanner = new StockRegistryScanner(stockReadService, List.of(registry));
+        for (int i = 0; i < 200; i++) {
+            ids.add(insert());
+        }
+    }
+
+    private long insert() {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol(symbols++));
+        stock.setName("Company " + symbols);
+        stock.setCurrentPrice(price());
+        stock.setFiftyTwoWeekLow(random.nextInt(10) == 0 ? null : new BigDecimal(2 + random.nextInt(6)));
+        stock.setFiftyTwoWeekHigh(random.nextInt(10) == 0 ? null : new BigDecimal(10 + random.nextInt(10)));
+        // Few distinct values, so ties are common and the id tie-break is exercised
+        stock.setMarketCap(random.nextInt(10) == 0 ? null : 1_000_000L * random.nextInt(50));
+        stock.setVolume((long) random.nextInt(100));
+        stock.setDividendYield(random.nextBoolean() ? null : new BigDecimal("0.0" + random.nextInt(10) + "00"));
+        return entityManager.persistAndFlush(stock).getId();
+    }
+
+    private BigDecimal price() {
+        return new BigDecimal(1 + random.nextInt(20)).add(new BigDecimal(random.nextInt(4)).movePointLeft(2));
+    }
+
+    private static String symbol(int n) {
+        StringBuilder symbol = new StringBuilder();
+        do {
+            symbol.append((char) ('A' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return symbol.toString();
+    }
+
+    private void relay(StockEvent.Type type, long id) {
+        Stock stock = stockReadService.findById(id).orElse(null);
+        StockEvent event = stock == null
+            ? new StockEvent(++offset, type, id, null, null, null, null, 0L)
+            : new StockEvent(++offset, type, id, stock.getSymbol(), stock.getVersion(), stock.getCurrentPrice(),
+                stock.getVolume(), 0L);
+        registry.onEvents(List.of(event));
+    }
+
+    private void assertMatchesSql() {
+        for (int limit : new int[] {1, 10, 57, 500}) {
+            assertEquals(idsOf(stockReadService::findTopByMarketCap, limit),
+                stockIds(registry.top(RankedMetric.MARKET_CAP, limit)), "market cap top " + limit);
+            assertEquals(idsOf(stockReadService::findTopByVolume, limit),
+                stockIds(registry.top(RankedMetric.VOLUME, limit)), "volume top " + limit);
+            assertEquals(idsOf(stockReadService::findTopByDividendYield, limit),
+                stockIds(registry.top(RankedMetric.DIVIDEND_YIELD, limit)), "dividend yield top " + limit);
+            assertEquals(idsOf(stockReadService::findHighPerformers, limit),
+                stockIds(registry.top(RankedMetric.PRICE_TO_52_WEEK_LOW, limit)), "high performers " + limit);
+            assertEquals(idsOf(stockReadService::findLowPerformers, limit),
+                stockIds(registry.top(RankedMetric.PRICE_TO_52_WEEK_HIGH, limit)), "low performers " + limit);
+        }
+    }
+
+    private static List<Long> idsOf(IntFunction<List<Stock>> query, int limit) {
+        return query.apply(limit).stream().map(Stock::getId).toList();
+    }
+
+    private List<Long> stockIds(List<Long> ranked) {
+        return stockReadService.findByIdsInOrder(ranked).stream().map(Stock::getId).toList();
+    }
+
+    @Test
+    void rankingsMatchSqlAfterRandomWrites() {
+        assertMatchesSql();
+
+        for (int i = 0; i < 300; i++) {
+            long id = ids.get(random.nextInt(ids.size()));
+            switch (random.nextInt(5)) {
+                case 0, 1 -> {
+                    jdbcTemplate.update("UPDATE stocks SET current_price = ?, volume = ?, version = version + 1 WHERE id = ?",
+                        price(), random.nextInt(100), id);
+                    relay(StockEvent.Type.PRICE_VOLUME_CHANGED, id);
+                }
+                case 2 -> {
+                    jdbcTemplate.update("UPDATE stocks SET market_cap = ?, dividend_yield = ?, fifty_two_week_low = ?, version = version + 1 WHERE id = ?",
+                        random.nextBoolean() ? null : 1_000_000L * random.nextInt(50),
+                        random.nextBoolean() ? null : new BigDecimal("0.0" + random.nextInt(10) + "00"),
+                        new BigDecimal(2 + random.nextInt(6)), id);
+                    relay(StockEvent.Type.UPDATED, id);
+                }
+                case 3 -> {
+                    jdbcTemplate.update("DELETE FROM stocks WHERE id = ?", id);
+                    ids.remove(id);
+                    relay(StockEvent.Type.DELETED, id);
+                }
+                default -> {
+                    long created = insert();
+                    ids.add(created);
+                    relay(StockEvent.Type.CREATED, created);
+                }
+            }
+            if (i % 50 == 0) {
+                assertMatchesSql();
+            }
+        }
+
+        assertMatchesSql();
+        assertFalse(scanner.reconcile(), "incremental rankings should match a rebuild from the table");
+    }
+
+    @Test
+    void reconcileRepairsMissedWrites() {
+        assertMatchesSql();
+        long id = ids.get(0);
+
+        // A write whose event never arrived
+        jdbcTemplate.update("UPDATE stocks SET volume = 1000000 WHERE id = ?", id);
+        assertNotEquals(id, registry.top(RankedMetric.VOLUME, 1).get(0));
+
+        assertTrue(scanner.reconcile());
+        assertEquals(id, registry.top(RankedMetric.VOLUME, 1).get(0));
+        assertMatchesSql();
+    }
+
+    @Test
+    void limitsAboveMaximumAreLeftToSql() {
+        StockRankingRegistry small = new StockRankingRegistry(stockReadService, true, 100, new SimpleMeterRegistry());
+        assertTrue(small.serves(100));
+        assertFalse(small.serves(101));
+        assertFalse(new StockRankingRegistry(stockReadService, false, 100, new SimpleMeterRegistry()).serves(1));
+    }
+}
@@ -0,0 +1,99 @@
+package anqorithm.stocks.aggregate;
+
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.service.StockReadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockRegistryScannerTest {
+
+    @Mock
+    private StockReadService stockReadService;
+
+    @Mock
+    private StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+
+    private StockAggregateRegistry aggregates;
+    private StockRankingRegistry rankings;
+    private SectorIndexRegistry sectors;
+    private StockRegistryScanner scanner;
+
+    @BeforeEach
+    void setUp() {
+        aggregates = new StockAggregateRegistry(stockReadService, true, new SimpleMeterRegistry(), () -> 0L);
+        rankings = new StockRankingRegistry(stockReadService, true, 100, new SimpleMeterRegistry());
+        sectors = new SectorIndexRegistry(stockReadService, stockDailyCloseJdbcRepository, new SimpleMeterRegistry(),
+            () -> 0L);
+        scanner = new StockRegistryScanner(stockReadService, List.of(aggregates, rankings, sectors));
+    }
+
+    private void table(Stock... stocks) {
+        doAnswer(invocation -> {
+            Consumer<Stock> action = invocation.getArgument(0);
+            List.of(stocks).forEach(action);
+            return null;
+        }).when(stockReadService).forEachStock(any());
+    }
+
+    private static Stock stock(long id, String sector, long marketCap) {
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setSymbol("S" + id);
+        stock.setSector(sector);
+        stock.setCurrentPrice(new BigDecimal("10.00"));
+        stock.setMarketCap(marketCap);
+        stock.setVolume(id);
+        stock.setVersion(0L);
+        return stock;
+    }
+
+    @Test
+    void testOneScanLoadsEveryRegistry() {
+        table(stock(1, "Technology", 1000L), stock(2, "Energy", 5000L));
+
+        assertEquals(2, aggregates.getOverall().getCount());
+        assertEquals(List.of(2L, 1L), rankings.top(RankedMetric.MARKET_CAP, 10));
+        assertEquals(2, sectors.getHeatMap().size());
+        verify(stockReadService, times(1)).forEachStock(any());
+
+        assertFalse(scanner.reconcile());
+        verify(stockReadService, times(2)).forEachStock(any());
+    }
+
+    @Test
+    void testFailedLoadIsRetriedByTheNextRead() {
+        doThrow(new DataAccessResourceFailureException("down")).when(stockReadService).forEachStock(any());
+
+        assertThrows(DataAccessResourceFailureException.class, () -> aggregates.getOverall());
+        assertFalse(scanner.reconcile());
+
+        table(stock(1, "Technology", 1000L));
+        assertEquals(1, aggregates.getOverall().getCount());
+        assertEquals(1, sectors.getHeatMap().size());
+    }
+
+    @Test
+    void testDisabledRegistriesAreLeftOutOfTheScan() {
+        StockAggregateRegistry disabled = new StockAggregateRegistry(stockReadService, false, new SimpleMeterRegistry(),
+            () -> 0L);
+        StockRegistryScanner scanner = new StockRegistryScanner(stockReadService, List.of(disabled));
+
+        assertFalse(scanner.reconcile());
+        verify(stockReadService, never()).forEachStock(any());
+    }
+}
@@ -0,0 +1,112 @@
+package anqorithm.stocks.alert;
+
+import anqorithm.stocks.alert.PriceAlert.Direction;
+import anqorithm.stocks.tick.Tick;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertIndexTest {
+
+    private final AlertIndex index = new AlertIndex();
+    private long nextId = 1;
+
+    private PriceAlert add(String symbol, Direction direction, String threshold) {
+        PriceAlert alert = new PriceAlert(nextId++, "alice", symbol, direction, new BigDecimal(threshold), 0L);
+        index.add(alert);
+        return alert;
+    }
+
+    private static long price(String price) {
+        return Tick.toScaled(new BigDecimal(price));
+    }
+
+    private static Set<Long> ids(List<PriceAlert> alerts) {
+        Set<Long> ids = new TreeSet<>();
+        alerts.forEach(alert -> ids.add(alert.getId()));
+        return ids;
+    }
+
+    @Test
+    void testPriceTriggersOnlyCrossedThresholds() {
+        PriceAlert above180 = add("AAPL", Direction.ABOVE, "180.00");
+        PriceAlert above185 = add("AAPL", Direction.ABOVE, "185.00");
+        PriceAlert below150 = add("AAPL", Direction.BELOW, "150.00");
+        add("MSFT", Direction.ABOVE, "100.00");
+
+        assertTrue(index.trigger("AAPL", price("179.99")).isEmpty());
+        assertEquals(List.of(above180), index.trigger("AAPL", price("180.00")));
+        assertTrue(index.trigger("AAPL", price("181.00")).isEmpty());
+        assertEquals(List.of(above185), index.trigger("AAPL", price("185.50")));
+        assertEquals(List.of(below150), index.trigger("AAPL", price("149.00")));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testAlertsWithEqualThresholdsFireTogether() {
+        PriceAlert first = add("AAPL", Direction.BELOW, "150.00");
+        PriceAlert second = add("AAPL", Direction.BELOW, "150.00");
+
+        assertEquals(Set.of(first.getId(), second.getId()), ids(index.trigger("AAPL", price("140.00"))));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testRemovedAlertNeverFires() {
+        PriceAlert alert = add("AAPL", Direction.ABOVE, "180.00");
+
+        assertTrue(index.remove(alert.getId()));
+        assertFalse(index.remove(alert.getId()));
+        assertTrue(index.trigger("AAPL", price("200.00")).isEmpty());
+    }
+
+    @Test
+    void testTriggeredAlertCannotBeRemoved() {
+        PriceAlert alert = add("AAPL", Direction.ABOVE, "180.00");
+        index.trigger("AAPL", price("200.00"));
+
+        assertFalse(index.remove(alert.getId()));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testRandomTicksMatchBruteForce() {
+        Random random = new Random(42);
+        String[] symbols = {"AAPL", "MSFT", "XOM"};
+        Map<Long, PriceAlert> active = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            String symbol = symbols[random.nextInt(symbols.length)];
+            String price = BigDecimal.valueOf(9_000 + random.nextInt(2_000), 2).toPlainString();
+            int action = random.nextInt(10);
+            if (action < 4) {
+                PriceAlert alert = add(symbol, random.nextBoolean() ? Direction.ABOVE : Direction.BELOW, price);
+                active.put(alert.getId(), alert);
+            } else if (action == 4 && !active.isEmpty()) {
+                Long id = new ArrayList<>(active.keySet()).get(random.nextInt(active.size()));
+                assertTrue(index.remove(id));
+                active.remove(id);
+            } else {
+                long scaledPrice = price(price);
+                Set<Long> expected = new TreeSet<>();
+                for (PriceAlert alert : active.values()) {
+                    if (alert.getSymbol().equals(symbol) && alert.isTriggeredBy(scaledPrice)) {
+                        expected.add(alert.getId());
+                    }
+                }
+                assertEquals(expected, ids(index.trigger(symbol, scaledPrice)), "step " + step);
+                expected.forEach(active::remove);
+            }
+            assertEquals(active.size(), index.size());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package anqorithm.stocks.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReturnStatisticsTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static CloseSeries series(String symbol, double... closes) {
+        CloseSeries series = new CloseSeries(symbol);
+        for (int i = 0; i < closes.length; i++) {
+            if (closes[i] > 0) {
+                series.add(START.plusDays(i), closes[i]);
+            }
+        }
+        return series;
+    }
+
+    private static CloseSeries random(String symbol, Random random, int days) {
+        CloseSeries series = new CloseSeries(symbol);
+        double close = 100;
+        for (int i = 0; i < days; i++) {
+            close *= Math.exp(random.nextGaussian() * 0.02);
+            series.add(START.plusDays(i), close);
+        }
+        return series;
+    }
+
+    private static double pearson(double[] x, double[] y) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int k = 0; k < x.length; k++) {
+            meanX += x[k] / x.length;
+            meanY += y[k] / y.length;
+        }
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int k = 0; k < x.length; k++) {
+            covariance += (x[k] - meanX) * (y[k] - meanY);
+            varianceX += (x[k] - meanX) * (x[k] - meanX);
+            varianceY += (y[k] - meanY) * (y[k] - meanY);
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+
+    @Test
+    void testReturnsAreAlignedOnCommonDays() {
+        // Day 2 is missing from A and day 4 from B, so the common days are 0, 1, 3 and 5
+        CloseSeries a = series("A", 100, 110, 0, 121, 130, 133.1);
+        CloseSeries b = series("B", 50, 50, 60, 55, 0, 60.5);
+
+        ReturnMatrix matrix = ReturnStatistics.alignedLogReturns(List.of(a, b));
+
+        assertEquals(3, matrix.getObservations());
+        assertEquals(START, matrix.getFrom());
+        assertEquals(START.plusDays(5), matrix.getTo());
+        assertArrayEquals(new double[] {Math.log(1.1), Math.log(1.1), Math.log(133.1 / 121)},
+            matrix.returns()[0], 1e-12);
+        assertArrayEquals(new double[] {0, Math.log(1.1), Math.log(1.1)}, matrix.returns()[1], 1e-12);
+    }
+
+    @Test
+    void testNoCommonDaysGiveNoObservations() {
+        ReturnMatrix matrix = ReturnStatistics.alignedLogReturns(List.of(series("A", 1, 0, 1), series("B", 0, 1)));
+
+        assertEquals(0, matrix.getObservations());
+        assertNull(matrix.getFrom());
+    }
+
+    @Test
+    void testCorrelationsMatchPairwisePearson() {
+        Random random = new Random(42);
+        for (int n : new int[] {2, 7, 40}) {
+            List<CloseSeries> series = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                series.add(random("S" + i, random, 300));
+            }
+            ReturnMatrix matrix = ReturnStatistics.alignedLogReturns(series);
+            double[][] returns = matrix.returns();
+
+            double[][] parallel = ReturnStatistics.correlations(matrix, pool);
+            double[][] sequential = ReturnStatistics.correlations(matrix, new ForkJoinPool(1));
+
+            for (int i = 0; i < n; i++) {
+                assertEquals(1.0, parallel[i][i], 1e-12);
+                for (int j = 0; j < n; j++) {
+                    assertEquals(pearson(returns[i], returns[j]), parallel[i][j], 1e-9, "n=" + n + " " + i + "," + j);
+                    assertEquals(parallel[j][i], parallel[i][j]);
+                    assertEquals(sequential[i][j], parallel[i][j]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFlatSeriesHasNoCorrelation() {
+        CloseSeries up = series("UP", 1, 2, 3, 5, 8);
+        CloseSeries down = series("DOWN", 8, 4, 8.0 / 3, 8.0 / 5, 1);
+        CloseSeries flat = series("FLAT", 7, 7, 7, 7, 7);
+
+        double[][] correlations = ReturnStatistics.correlations(
+            ReturnStatistics.alignedLogReturns(List.of(up, down, flat)), pool);
+
+        assertEquals(-1.0, correlations[0][1], 1e-12);
+        assertTrue(Double.isNaN(correlations[0][2]));
+        assertTrue(Double.isNaN(correlations[2][2]));
+    }
+
+    @Test
+    void testBetaOfLeveragedSeries() {
+        Random random = new Random(7);
+        CloseSeries benchmark = random("SPY", random, 260);
+        CloseSeries leveraged = new CloseSeries("LEV");
+        CloseSeries sparse = new CloseSeries("SPARSE");
+        for (int i = 0; i < benchmark.size(); i++) {
+            double close = Math.pow(benchmark.close(i), 2);
+            leveraged.add(LocalDate.ofEpochDay(benchmark.day(i)), close);
+            if (i % 3 == 0) {
+                sparse.add(LocalDate.ofEpochDay(benchmark.day(i)), Math.sqrt(benchmark.close(i)));
+            }
+        }
+
+        // Log returns of close^2 are twice the benchmark's, including over gaps in the series
+        assertEquals(2.0, ReturnStatistics.beta(leveraged, benchmark, 20), 1e-9);
+        assertEquals(0.5, ReturnStatistics.beta(sparse, benchmark, 20), 1e-9);
+        assertEquals(1.0, ReturnStatistics.beta(benchmark, benchmark, 20), 1e-12);
+        assertTrue(Double.isNaN(ReturnStatistics.beta(sparse, benchmark, 100)));
+    }
+
+    @Test
+    void testParallelBetasMatchSequential() {
+        Random random = new Random(3);
+        CloseSeries benchmark = random("SPY", random, 250);
+        List<CloseSeries> series = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            series.add(random("S" + i, random, 200 + i % 50));
+        }
+
+        double[] betas = ReturnStatistics.betas(series, benchmark, 20, pool);
+
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(ReturnStatistics.beta(series.get(i), benchmark, 20), betas[i]);
+        }
+    }
+
+    @Test
+    void testClosesMustAscendAndBePositive() {
+        CloseSeries series = series("A", 1, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> series.add(START, 3));
+        assertThrows(IllegalArgumentException.class, () -> series.add(START.plusDays(5), 0));
+    }
+
+    @Test
+    void testDotProductHandlesRemainder() {
+        double[] a = {1, 2, 3, 4, 5, 6, 7};
+        double[] b = {7, 6, 5, 4, 3, 2, 1};
+
+        assertEquals(84, ReturnStatistics.dot(a, b));
+    }
+}
@@ -0,0 +1,100 @@
+package anqorithm.stocks.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickBlockCodecTest {
+
+    private List<long[]> decodeAll(byte[] block) {
+        List<long[]> ticks = new ArrayList<>();
+        TickBlockDecoder decoder = new TickBlockDecoder(block);
+        while (decoder.next()) {
+            ticks.add(new long[]{decoder.timestamp(), decoder.scaledPrice(), decoder.volume()});
+        }
+        return ticks;
+    }
+
+    @Test
+    void testRoundTripIrregularTicks() {
+        Random random = new Random(42);
+        TickBlockEncoder encoder = new TickBlockEncoder();
+        List<long[]> expected = new ArrayList<>();
+        long timestamp = 1_767_225_600_000L;
+        long price = 1_754_300L;
+        long volume = 85_000_000L;
+        for (int i = 0; i < 10_000; i++) {
+            timestamp += random.nextInt(5000);
+            price += random.nextInt(201) - 100;
+            volume = random.nextInt(50) == 0 ? 0 : volume + random.nextInt(10_000);
+            encoder.add(timestamp, price, volume);
+            expected.add(new long[]{timestamp, price, volume});
+        }
+
+        List<long[]> decoded = decodeAll(encoder.toByteArray());
+
+        assertEquals(expected.size(), decoded.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), decoded.get(i), "tick " + i);
+        }
+    }
+
+    @Test
+    void testRegularTicksCompressWell() {
+        TickBlockEncoder encoder = new TickBlockEncoder();
+        for (int i = 0; i < 1000; i++) {
+            encoder.add(1_767_225_600_000L + i * 1000L, 1_500_000L + (i % 3), 1000L + i * 10L);
+        }
+
+        byte[] block = encoder.toByteArray();
+
+        // One byte per column per tick once the deltas settle, against 24 bytes as raw longs
+        assertTrue(block.length < 1000 * 4, "block was " + block.length + " bytes");
+        assertEquals(1000, new TickBlockDecoder(block).count());
+    }
+
+    @Test
+    void testEmptyBlock() {
+        TickBlockEncoder encoder = new TickBlockEncoder();
+
+        assertTrue(encoder.isEmpty());
+        assertTrue(decodeAll(encoder.toByteArray()).isEmpty());
+    }
+
+    @Test
+    void testExtremeValues() {
+        TickBlockEncoder encoder = new TickBlockEncoder();
+        encoder.add(0L, Long.MIN_VALUE / 4, Long.MAX_VALUE / 4);
+        encoder.add(Long.MAX_VALUE / 4, Long.MAX_VALUE / 4, 0L);
+
+        List<long[]> decoded = decodeAll(encoder.toByteArray());
+
+        assertArrayEquals(new long[]{0L, Long.MIN_VALUE / 4, Long.MAX_VALUE / 4}, decoded.get(0));
+        assertArrayEquals(new long[]{Long.MAX_VALUE / 4, Long.MAX_VALUE / 4, 0L}, decoded.get(1));
+    }
+
+    @Test
+    void testRejectsOutOfOrderTicks() {
+        TickBlockEncoder encoder = new TickBlockEncoder();
+        encoder.add(2000L, 1L, 1L);
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.add(1000L, 1L, 1L));
+    }
+
+    @Test
+    void testRejectsCorruptBlocks() {
+        TickBlockEncoder encoder = new TickBlockEncoder();
+        encoder.add(1000L, 1_500_000L, 100L);
+        encoder.add(2000L, 1_500_100L, 200L);
+        byte[] block = encoder.toByteArray();
+        byte[] truncated = Arrays.copyOf(block, block.length - 2);
+
+        assertThrows(IllegalArgumentException.class, () -> new TickBlockDecoder(new byte[]{9}));
+        assertThrows(IllegalArgumentException.class, () -> decodeAll(truncated));
+    }
+}
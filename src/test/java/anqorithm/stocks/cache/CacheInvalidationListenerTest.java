@@ -0,0 +1,130 @@
+package anqorithm.stocks.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationListenerTest {
+
+    private final ConcurrentMapCacheManager cacheManager =
+        new ConcurrentMapCacheManager("stocks", "sectors", "industries");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> received = new ArrayList<>();
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("handler", new NotificationHandler() {
+            @Override
+            public String getChannel() {
+                return "other";
+            }
+
+            @Override
+            public void onNotifications(List<String> payloads) {
+                if (payloads.contains("fail")) {
+                    throw new IllegalStateException("fail");
+                }
+                received.addAll(payloads);
+            }
+        });
+        listener = new CacheInvalidationListener(cacheManager, mock(CacheInvalidationPublisher.class),
+            beanFactory.getBeanProvider(NotificationHandler.class), new DataSourceProperties(), 500, 5_000,
+            meterRegistry);
+        stocks().put(1L, "stock-1");
+        stocks().put("AAPL", "stock-1");
+        stocks().put(2L, "stock-2");
+        stocks().put("MSFT", "stock-2");
+        cacheManager.getCache("sectors").put("all", List.of("Technology"));
+        cacheManager.getCache("industries").put("all", List.of("Software"));
+    }
+
+    private Cache stocks() {
+        return cacheManager.getCache("stocks");
+    }
+
+    private static CacheInvalidation update(long id, Long version, String symbol) {
+        return new CacheInvalidation(CacheInvalidation.Kind.UPDATE, id, version, symbol);
+    }
+
+    @Test
+    void testUpdateEvictsOnlyThatStock() {
+        assertTrue(listener.apply(List.of(update(1L, 3L, "AAPL"), update(1L, 4L, "AAPL"))));
+
+        assertNull(stocks().get(1L));
+        assertNull(stocks().get("AAPL"));
+        assertNotNull(stocks().get(2L));
+        assertNotNull(cacheManager.getCache("sectors").get("all"));
+        assertEquals(2.0, meterRegistry.counter("stocks.cache.invalidations").count());
+    }
+
+    @Test
+    void testModifyAlsoClearsListCaches() {
+        listener.apply(List.of(new CacheInvalidation(CacheInvalidation.Kind.MODIFY, 1L, 1L, "AAPL")));
+
+        assertNull(stocks().get(1L));
+        assertNotNull(stocks().get(2L));
+        assertNull(cacheManager.getCache("sectors").get("all"));
+        assertNull(cacheManager.getCache("industries").get("all"));
+    }
+
+    @Test
+    void testVersionGapClearsEverything() {
+        listener.apply(List.of(update(1L, 3L, "AAPL")));
+        stocks().put(1L, "stock-1");
+
+        assertFalse(listener.apply(List.of(update(1L, 5L, "AAPL"))));
+
+        assertNull(stocks().get(2L));
+        assertNull(cacheManager.getCache("sectors").get("all"));
+        assertEquals(1.0, meterRegistry.counter("stocks.cache.invalidation.gaps").count());
+    }
+
+    @Test
+    void testUnversionedUpdateResetsTracking() {
+        listener.apply(List.of(update(1L, 3L, "AAPL")));
+        listener.apply(List.of(update(1L, null, "AAPL")));
+
+        // The unversioned write may have advanced the version any number of times
+        assertTrue(listener.apply(List.of(update(1L, 9L, "AAPL"))));
+        assertNotNull(stocks().get(2L));
+    }
+
+    @Test
+    void testRedeliveredOldVersionIsNotAGap() {
+        listener.apply(List.of(update(1L, 3L, "AAPL"), update(1L, 4L, "AAPL")));
+
+        assertTrue(listener.apply(List.of(update(1L, 4L, "AAPL"))));
+        assertTrue(listener.apply(List.of(update(1L, 5L, "AAPL"))));
+    }
+
+    @Test
+    void testStartDoesNothingWhenPublisherInactive() {
+        listener.start();
+        listener.stop();
+
+        assertNotNull(stocks().get(1L));
+    }
+
+    @Test
+    void testOtherChannelsGoToTheirHandler() {
+        listener.start();
+
+        listener.handle("other", List.of("a", "b"));
+        listener.handle("unknown", List.of("c"));
+        listener.handle("other", List.of("fail"));
+
+        assertEquals(List.of("a", "b"), received);
+    }
+}
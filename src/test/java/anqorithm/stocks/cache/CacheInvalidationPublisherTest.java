@@ -0,0 +1,46 @@
+package anqorithm.stocks.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationPublisherTest {
+
+    private final ConcurrentMapCacheManager cacheManager =
+        new ConcurrentMapCacheManager("stocks", "sectors", "industries");
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(jdbcTemplate, cacheManager,
+        false);
+
+    private Cache stocks() {
+        return cacheManager.getCache("stocks");
+    }
+
+    @Test
+    void testWithoutNotifyInvalidationsEvictLocally() {
+        stocks().put(1L, "stock-1");
+        stocks().put("AAPL", "stock-1");
+        stocks().put("MSFT", "stock-2");
+        cacheManager.getCache("sectors").put("all", List.of("Technology"));
+
+        publisher.publish(new CacheInvalidation(CacheInvalidation.Kind.UPDATE, 1L, 3L, "AAPL"));
+
+        assertNull(stocks().get(1L));
+        assertNull(stocks().get("AAPL"));
+        assertNotNull(stocks().get("MSFT"));
+        assertNotNull(cacheManager.getCache("sectors").get("all"));
+
+        publisher.publish(new CacheInvalidation(CacheInvalidation.Kind.DELETE, 2L, null, "MSFT"));
+
+        assertNull(stocks().get("MSFT"));
+        assertNull(cacheManager.getCache("sectors").get("all"));
+        assertFalse(publisher.isActive());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
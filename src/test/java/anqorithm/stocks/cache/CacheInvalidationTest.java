@@ -0,0 +1,37 @@
+package anqorithm.stocks.cache;
+
+import anqorithm.stocks.entity.Stock;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationTest {
+
+    @Test
+    void testPayloadRoundTrip() {
+        Stock stock = new Stock();
+        stock.setId(42L);
+        stock.setVersion(7L);
+        stock.setSymbol("AAPL");
+
+        CacheInvalidation invalidation = CacheInvalidation.of(CacheInvalidation.Kind.UPDATE, stock);
+
+        assertEquals("U,42,7,AAPL", invalidation.toPayload());
+        assertEquals(invalidation, CacheInvalidation.parse(invalidation.toPayload()));
+    }
+
+    @Test
+    void testMissingFieldsRoundTripAsNull() {
+        CacheInvalidation invalidation = new CacheInvalidation(CacheInvalidation.Kind.DELETE, 42L, null, null);
+
+        assertEquals("D,42,,", invalidation.toPayload());
+        assertEquals(invalidation, CacheInvalidation.parse("D,42,,"));
+    }
+
+    @Test
+    void testMalformedPayloadIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidation.parse("U,42"));
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidation.parse("X,42,1,AAPL"));
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidation.parse("U,abc,1,AAPL"));
+    }
+}
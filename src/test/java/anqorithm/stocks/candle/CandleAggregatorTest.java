@@ -0,0 +1,133 @@
+package anqorithm.stocks.candle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleAggregatorTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long BASE = 1_700_006_400_000L; // 2023-11-15T00:00:00Z, day aligned
+
+    @Test
+    void testOneMinuteBarsTrackOhlcv() {
+        CandleAggregator aggregator = new CandleAggregator(100);
+        aggregator.onTick(BASE, 100, 1_000);
+        aggregator.onTick(BASE + 10_000, 105, 1_200);
+        aggregator.onTick(BASE + 20_000, 95, 1_500);
+        aggregator.onTick(BASE + 30_000, 101, 1_500);
+        aggregator.onTick(BASE + MINUTE, 102, 1_600);
+
+        List<Bar> bars = aggregator.candles(MINUTE, BASE, BASE + 2 * MINUTE);
+
+        assertEquals(2, bars.size());
+        Bar first = bars.get(0);
+        assertEquals(BASE, first.getStart());
+        assertEquals(100, first.getOpen());
+        assertEquals(105, first.getHigh());
+        assertEquals(95, first.getLow());
+        assertEquals(101, first.getClose());
+        assertEquals(500, first.getVolume());
+        Bar second = bars.get(1);
+        assertEquals(102, second.getOpen());
+        assertEquals(100, second.getVolume());
+    }
+
+    @Test
+    void testVolumeResetIsTreatedAsFreshVolume() {
+        CandleAggregator aggregator = new CandleAggregator(100);
+        aggregator.onTick(BASE, 100, 5_000);
+        aggregator.onTick(BASE + 1_000, 100, 300);
+
+        List<Bar> bars = aggregator.candles(MINUTE, BASE, BASE + MINUTE);
+
+        assertEquals(300, bars.get(0).getVolume());
+    }
+
+    @Test
+    void testNativeCoarseResolutions() {
+        CandleAggregator aggregator = new CandleAggregator(100);
+        for (int i = 0; i < 12; i++) {
+            aggregator.onTick(BASE + i * MINUTE, 100 + i, i * 10L);
+        }
+
+        List<Bar> fiveMinute = aggregator.candles(5 * MINUTE, BASE, BASE + 15 * MINUTE);
+        List<Bar> hourly = aggregator.candles(60 * MINUTE, BASE, BASE + 60 * MINUTE);
+
+        assertEquals(3, fiveMinute.size());
+        assertEquals(100, fiveMinute.get(0).getOpen());
+        assertEquals(104, fiveMinute.get(0).getClose());
+        assertEquals(40, fiveMinute.get(0).getVolume());
+        assertEquals(1, hourly.size());
+        assertEquals(111, hourly.get(0).getHigh());
+        assertEquals(110, hourly.get(0).getVolume());
+    }
+
+    @Test
+    void testDownsampledResolutionMatchesDirectAggregation() {
+        CandleAggregator aggregator = new CandleAggregator(100);
+        long[] prices = {100, 90, 120, 110, 105, 130, 80, 95, 99, 101};
+        for (int i = 0; i < prices.length; i++) {
+            aggregator.onTick(BASE + i * MINUTE, prices[i], i * 100L);
+        }
+
+        List<Bar> bars = aggregator.candles(3 * MINUTE, BASE, BASE + 10 * MINUTE);
+
+        assertEquals(4, bars.size());
+        assertEquals(BASE + 3 * MINUTE, bars.get(1).getStart());
+        assertEquals(110, bars.get(1).getOpen());
+        assertEquals(130, bars.get(1).getHigh());
+        assertEquals(105, bars.get(1).getLow());
+        assertEquals(130, bars.get(1).getClose());
+        assertEquals(300, bars.get(1).getVolume());
+        assertEquals(101, bars.get(3).getClose());
+    }
+
+    @Test
+    void testRangeIsAlignedAndBounded() {
+        CandleAggregator aggregator = new CandleAggregator(100);
+        for (int i = 0; i < 5; i++) {
+            aggregator.onTick(BASE + i * MINUTE, 100, 0);
+        }
+
+        List<Bar> bars = aggregator.candles(MINUTE, BASE + MINUTE + 30_000, BASE + 3 * MINUTE);
+
+        assertEquals(2, bars.size());
+        assertEquals(BASE + MINUTE, bars.get(0).getStart());
+    }
+
+    @Test
+    void testRejectsResolutionThatIsNotWholeMinutes() {
+        CandleAggregator aggregator = new CandleAggregator(100);
+
+        assertThrows(IllegalArgumentException.class, () -> aggregator.candles(90_000, BASE, BASE + MINUTE));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.candles(0, BASE, BASE + MINUTE));
+    }
+
+    @Test
+    void testStoreGrowsThenOverwritesOldestBars() {
+        CandleStore store = new CandleStore(20);
+        for (int i = 0; i < 50; i++) {
+            store.append(Bar.opening(i, i, 0));
+        }
+
+        List<Bar> bars = store.range(0, Long.MAX_VALUE);
+
+        assertEquals(20, store.size());
+        assertEquals(30, bars.get(0).getStart());
+        assertEquals(49, bars.get(19).getStart());
+        assertEquals(6L * Long.BYTES * 20, store.memoryBytes());
+        assertEquals(List.of(35L, 36L), store.range(35, 37).stream().map(Bar::getStart).toList());
+    }
+
+    @Test
+    void testNativeSourceSelection() {
+        assertEquals(Resolution.M1, Resolution.nativeSourceFor(3 * MINUTE));
+        assertEquals(Resolution.M5, Resolution.nativeSourceFor(15 * MINUTE));
+        assertEquals(Resolution.H1, Resolution.nativeSourceFor(4 * 60 * MINUTE));
+        assertEquals(Resolution.D1, Resolution.nativeSourceFor(7 * 24 * 60 * MINUTE));
+        assertEquals("1h", Resolution.H1.getLabel());
+    }
+}
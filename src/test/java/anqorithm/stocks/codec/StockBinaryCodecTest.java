@@ -0,0 +1,219 @@
+package anqorithm.stocks.codec;
+
+import anqorithm.stocks.dto.ProjectedStockList;
+import anqorithm.stocks.entity.Stock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockBinaryCodecTest {
+
+    private static final String[] SECTORS = {"Technology", "Healthcare", "Financials", "Energy", "Utilities"};
+    private static final String[] INDUSTRIES = {"Software", "Semiconductors", "Biotechnology", "Banks", "Oil & Gas"};
+
+    private static Stock fullStock(long id, Random random) {
+        Stock stock = new Stock("S" + id, "Company " + id + " Holdings Inc.",
+            BigDecimal.valueOf(100_000 + random.nextInt(5_000_000), 4));
+        stock.setId(id);
+        stock.setMarketCap(1_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+        stock.setSector(SECTORS[random.nextInt(SECTORS.length)]);
+        stock.setIndustry(INDUSTRIES[random.nextInt(INDUSTRIES.length)]);
+        stock.setDividendYield(BigDecimal.valueOf(random.nextInt(500), 4));
+        stock.setPeRatio(BigDecimal.valueOf(500 + random.nextInt(5_000), 2));
+        stock.setEps(BigDecimal.valueOf(random.nextInt(2_000) - 500, 2));
+        stock.setFiftyTwoWeekHigh(BigDecimal.valueOf(5_000_000 + random.nextInt(100_000), 4));
+        stock.setFiftyTwoWeekLow(BigDecimal.valueOf(50_000 + random.nextInt(50_000), 4));
+        stock.setVolume((long) random.nextInt(100_000_000));
+        stock.setAverageVolume((long) random.nextInt(100_000_000));
+        stock.setBeta(BigDecimal.valueOf(random.nextInt(30_000), 4));
+        stock.setCreatedAt(ZonedDateTime.of(2024, 1, 15, 9, 30, 0, 123_456_000, ZoneOffset.UTC));
+        stock.setUpdatedAt(ZonedDateTime.of(2024, 6, 3, 16, 0, random.nextInt(60), 0, ZoneOffset.UTC));
+        stock.setVersion((long) random.nextInt(1_000));
+        return stock;
+    }
+
+    private static void assertSameStock(Stock expected, Stock actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getSymbol(), actual.getSymbol());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getCurrentPrice(), actual.getCurrentPrice());
+        assertEquals(expected.getMarketCap(), actual.getMarketCap());
+        assertEquals(expected.getSector(), actual.getSector());
+        assertEquals(expected.getIndustry(), actual.getIndustry());
+        assertEquals(expected.getDividendYield(), actual.getDividendYield());
+        assertEquals(expected.getPeRatio(), actual.getPeRatio());
+        assertEquals(expected.getEps(), actual.getEps());
+        assertEquals(expected.getFiftyTwoWeekHigh(), actual.getFiftyTwoWeekHigh());
+        assertEquals(expected.getFiftyTwoWeekLow(), actual.getFiftyTwoWeekLow());
+        assertEquals(expected.getVolume(), actual.getVolume());
+        assertEquals(expected.getAverageVolume(), actual.getAverageVolume());
+        assertEquals(expected.getBeta(), actual.getBeta());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+
+    @Test
+    void testRoundTripFullStocks() {
+        Random random = new Random(42);
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            stocks.add(fullStock(i, random));
+        }
+
+        List<Stock> decoded = StockBinaryReader.decode(StockBinaryWriter.encode(stocks));
+
+        assertEquals(stocks.size(), decoded.size());
+        for (int i = 0; i < stocks.size(); i++) {
+            assertSameStock(stocks.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    void testRoundTripSparseStockKeepsNulls() {
+        Stock sparse = new Stock();
+        sparse.setSymbol("NEW");
+        sparse.setVolume(null);
+        sparse.setAverageVolume(null);
+        sparse.setEps(new BigDecimal("-1.25"));
+
+        Stock decoded = StockBinaryReader.decode(StockBinaryWriter.encode(List.of(sparse))).get(0);
+
+        assertSameStock(sparse, decoded);
+        assertNull(decoded.getVolume());
+        assertTrue(StockBinaryReader.decode(StockBinaryWriter.encode(List.of())).isEmpty());
+    }
+
+    @Test
+    void testDecimalsAreScaledToTheirColumn() {
+        Stock stock = new Stock("AAPL", "Apple Inc.", new BigDecimal("150.5"));
+        stock.setPeRatio(new BigDecimal("25.505"));
+
+        Stock decoded = StockBinaryReader.decode(StockBinaryWriter.encode(List.of(stock))).get(0);
+
+        assertEquals(new BigDecimal("150.5000"), decoded.getCurrentPrice());
+        assertEquals(new BigDecimal("25.51"), decoded.getPeRatio());
+    }
+
+    @Test
+    void testSectorsAndIndustriesAreWrittenOnce() {
+        Random random = new Random(7);
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            stocks.add(fullStock(i, random));
+        }
+        String encoded = new String(StockBinaryWriter.encode(stocks), StandardCharsets.ISO_8859_1);
+
+        assertEquals(encoded.indexOf("Technology"), encoded.lastIndexOf("Technology"));
+        assertEquals(encoded.indexOf("Oil & Gas"), encoded.lastIndexOf("Oil & Gas"));
+    }
+
+    @Test
+    void testPayloadIsMuchSmallerThanJson() throws Exception {
+        Random random = new Random(42);
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            stocks.add(fullStock(i, random));
+        }
+        ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+        int jsonBytes = objectMapper.writeValueAsBytes(stocks).length;
+        int binaryBytes = StockBinaryWriter.encode(stocks).length;
+
+        assertTrue(binaryBytes * 4 < jsonBytes, "binary " + binaryBytes + " bytes vs JSON " + jsonBytes + " bytes");
+    }
+
+    @Test
+    void testRejectsCorruptPayloads() {
+        byte[] valid = StockBinaryWriter.encode(List.of(fullStock(1, new Random(1))));
+
+        assertThrows(IllegalArgumentException.class, () -> StockBinaryReader.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> StockBinaryReader.decode(new byte[]{9, 0, 0}));
+        assertThrows(IllegalArgumentException.class,
+            () -> StockBinaryReader.decode(Arrays.copyOf(valid, valid.length - 3)));
+        assertThrows(IllegalArgumentException.class,
+            () -> StockBinaryReader.decode(Arrays.copyOf(valid, valid.length + 1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> StockBinaryReader.decode(new byte[]{1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F, 0}));
+    }
+
+    @Test
+    void testRejectsNegativeVarints() {
+        // Ten-byte varint of -1 (all 64 bits set)
+        byte[] minusOne = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+
+        byte[] negativeDictionary = new byte[12];
+        negativeDictionary[0] = 1;
+        negativeDictionary[1] = 0;
+        System.arraycopy(minusOne, 0, negativeDictionary, 2, minusOne.length);
+        assertThrows(IllegalArgumentException.class, () -> StockBinaryReader.decode(negativeDictionary));
+
+        // One stock, an empty dictionary, presence with only the sector bit, then a sector index of -1
+        long presence = 1L << StockBinaryFormat.SECTOR;
+        byte[] negativeIndex = new byte[3 + 1 + minusOne.length];
+        negativeIndex[0] = 1;
+        negativeIndex[1] = 1;
+        negativeIndex[2] = 0;
+        negativeIndex[3] = (byte) presence;
+        System.arraycopy(minusOne, 0, negativeIndex, 4, minusOne.length);
+        assertThrows(IllegalArgumentException.class, () -> StockBinaryReader.decode(negativeIndex));
+
+        StockBinaryHttpMessageConverter converter = new StockBinaryHttpMessageConverter();
+        Type stockList = new ParameterizedTypeReference<List<Stock>>() { }.getType();
+        assertThrows(HttpMessageNotReadableException.class,
+            () -> converter.read(stockList, null, new MockHttpInputMessage(negativeDictionary)));
+    }
+
+    @Test
+    void testConverterNegotiatesOnlyStockLists() throws Exception {
+        StockBinaryHttpMessageConverter converter = new StockBinaryHttpMessageConverter();
+        MediaType binary = StockBinaryFormat.MEDIA_TYPE;
+        Type stockList = new ParameterizedTypeReference<List<Stock>>() { }.getType();
+        Type anyList = new ParameterizedTypeReference<List<?>>() { }.getType();
+        Type stringList = new ParameterizedTypeReference<List<String>>() { }.getType();
+
+        assertTrue(converter.canWrite(stockList, ArrayList.class, binary));
+        assertTrue(converter.canWrite(anyList, ArrayList.class, binary));
+        assertFalse(converter.canWrite(anyList, ProjectedStockList.class, binary));
+        assertFalse(converter.canWrite(stringList, ArrayList.class, binary));
+        assertFalse(converter.canWrite(stockList, ArrayList.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canRead(stockList, null, binary));
+        assertFalse(converter.canRead(stringList, null, binary));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(List.of(fullStock(1, new Random(1))), stockList, binary, output);
+        assertEquals(binary, output.getHeaders().getContentType());
+        List<?> read = converter.read(stockList, null, new MockHttpInputMessage(output.getBodyAsBytes()));
+        assertEquals("S1", ((Stock) read.get(0)).getSymbol());
+
+        assertThrows(HttpMessageNotWritableException.class, () -> converter.write(
+            List.of(Map.of("symbol", "AAPL")), anyList, binary, new MockHttpOutputMessage()));
+        assertThrows(HttpMessageNotReadableException.class, () -> converter.read(
+            stockList, null, new MockHttpInputMessage(new byte[]{9})));
+    }
+}
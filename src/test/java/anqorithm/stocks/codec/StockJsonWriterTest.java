@@ -0,0 +1,165 @@
+package anqorithm.stocks.codec;
+
+import anqorithm.stocks.dto.StockBatchResult;
+import anqorithm.stocks.dto.StockPage;
+import anqorithm.stocks.entity.Stock;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockJsonWriterTest {
+
+    // Configured as in application.properties
+    private final ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder()
+        .serializationInclusion(JsonInclude.Include.NON_NULL)
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .timeZone("UTC")
+        .build();
+
+    private static StockPage goldenPage() {
+        Stock apple = new Stock("AAPL", "Apple Inc.", new BigDecimal("175.4300"));
+        apple.setId(1L);
+        apple.setMarketCap(2_750_000_000_000L);
+        apple.setSector("Technology");
+        apple.setIndustry("Consumer Electronics");
+        apple.setDividendYield(new BigDecimal("0.0055"));
+        apple.setPeRatio(new BigDecimal("28.50"));
+        apple.setEps(new BigDecimal("-6.15"));
+        apple.setFiftyTwoWeekHigh(new BigDecimal("199.6200"));
+        apple.setFiftyTwoWeekLow(new BigDecimal("124.1700"));
+        apple.setVolume(58_000_000L);
+        apple.setAverageVolume(55_000_000L);
+        apple.setBeta(new BigDecimal("1.2900"));
+        apple.setCreatedAt(ZonedDateTime.of(2024, 1, 15, 14, 30, 0, 123_456_789, ZoneOffset.ofHours(2)));
+        apple.setUpdatedAt(ZonedDateTime.of(2024, 7, 1, 9, 5, 7, 0, ZoneId.of("America/New_York")));
+        apple.setVersion(42L);
+
+        Stock odd = new Stock("ODD", "Quote \" back\\slash\ttab\u0001 caf\u00e9 \uD83D\uDCC8 /", new BigDecimal("0.0001"));
+        odd.setId(2L);
+        odd.setVolume(null);
+        odd.setPeRatio(new BigDecimal("1E+3"));
+        odd.setEps(new BigDecimal("-0.0000001"));
+        odd.setBeta(new BigDecimal("0E-8"));
+
+        return new StockPage(List.of(apple, odd), 0, 2, 1, false, false);
+    }
+
+    private static byte[] golden(String name) throws IOException {
+        try (InputStream in = StockJsonWriterTest.class.getResourceAsStream("/golden/" + name)) {
+            assertNotNull(in, "missing golden file " + name);
+            byte[] bytes = in.readAllBytes();
+            // Drop the file's trailing newline
+            return Arrays.copyOf(bytes, bytes.length - 1);
+        }
+    }
+
+    private static byte[] write(StockPage page) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StockJsonWriter(out).writePage(page);
+        return out.toByteArray();
+    }
+
+    private static BigDecimal randomDecimal(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, random.nextInt(9));
+            case 1 -> BigDecimal.valueOf(random.nextInt(1000), -random.nextInt(4));
+            case 2 -> new BigDecimal(random.nextLong()).multiply(new BigDecimal(random.nextLong()));
+            default -> BigDecimal.valueOf(random.nextInt(100), 4);
+        };
+    }
+
+    @Test
+    void testPageMatchesGoldenFile() throws IOException {
+        byte[] expected = golden("stock-page.json");
+
+        assertArrayEquals(expected, write(goldenPage()));
+        assertArrayEquals(expected, objectMapper.writeValueAsBytes(goldenPage()));
+    }
+
+    @Test
+    void testRandomStocksMatchJackson() throws IOException {
+        Random random = new Random(42);
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Stock stock = new Stock();
+            stock.setId(random.nextBoolean() ? random.nextLong() : null);
+            stock.setSymbol("S" + i);
+            stock.setName(random.ints(random.nextInt(20), 0, 0x20000)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString());
+            stock.setCurrentPrice(randomDecimal(random));
+            stock.setMarketCap(random.nextBoolean() ? random.nextLong() : null);
+            stock.setPeRatio(random.nextBoolean() ? randomDecimal(random) : null);
+            stock.setVolume(random.nextBoolean() ? (long) random.nextInt() : null);
+            if (random.nextBoolean()) {
+                stock.setUpdatedAt(ZonedDateTime.of(1 + random.nextInt(9998), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1_000_000_000),
+                    ZoneOffset.ofHours(random.nextInt(25) - 12)));
+            }
+            stocks.add(stock);
+        }
+        StockPage page = new StockPage(stocks, 3, 20_000, 10, true, true);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(page), write(page));
+    }
+
+    @Test
+    void testProjectedRowsAndBatchResultMatchJackson() throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("symbol", "AAPL");
+        row.put("currentPrice", new BigDecimal("175.4300"));
+        row.put("volume", 58_000_000L);
+        row.put("updatedAt", "2024-07-01T13:05:07.000Z");
+        StockPage page = new StockPage(List.of(row), 0, 1, 1, false, false);
+        StockBatchResult result = new StockBatchResult(1, 1, List.of(new Stock("MSFT", "Microsoft", new BigDecimal("410.10"))));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(page), write(page));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new StockJsonWriter(out).writeBatchResult(result);
+        assertArrayEquals(objectMapper.writeValueAsBytes(result), out.toByteArray());
+    }
+
+    @Test
+    void testConverterWritesStockResponsesAndDelegatesTheRest() throws IOException {
+        StockJsonHttpMessageConverter converter = new StockJsonHttpMessageConverter(objectMapper);
+        Type stockList = new ParameterizedTypeReference<List<Stock>>() { }.getType();
+        Type stringList = new ParameterizedTypeReference<List<String>>() { }.getType();
+
+        assertTrue(converter.canWrite(StockPage.class, StockPage.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(stockList, ArrayList.class, null));
+        assertFalse(converter.canWrite(stringList, ArrayList.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Map.class, LinkedHashMap.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(stockList, null, MediaType.APPLICATION_JSON));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(goldenPage(), StockPage.class, MediaType.APPLICATION_JSON, output);
+        assertArrayEquals(golden("stock-page.json"), output.getBodyAsBytes());
+
+        // A page whose rows are not plain values still serializes, through Jackson
+        StockPage nested = new StockPage(List.of(Map.of("tags", List.of("a"))), 0, 1, 1, false, false);
+        MockHttpOutputMessage fallback = new MockHttpOutputMessage();
+        converter.write(nested, StockPage.class, MediaType.APPLICATION_JSON, fallback);
+        assertArrayEquals(objectMapper.writeValueAsBytes(nested), fallback.getBodyAsBytes());
+    }
+}
@@ -31,12 +31,14 @@ class CacheConfigTest {
         assertNotNull(cacheManager.getCache("stocks"));
         assertNotNull(cacheManager.getCache("sectors"));
         assertNotNull(cacheManager.getCache("industries"));
+        assertNotNull(cacheManager.getCache("watchlists"));
         
         // Test cache names collection
         assertTrue(cacheManager.getCacheNames().contains("stocks"));
         assertTrue(cacheManager.getCacheNames().contains("sectors"));
         assertTrue(cacheManager.getCacheNames().contains("industries"));
-        assertEquals(3, cacheManager.getCacheNames().size());
+        assertTrue(cacheManager.getCacheNames().contains("watchlists"));
+        assertEquals(4, cacheManager.getCacheNames().size());
     }
 
     @Test
@@ -177,7 +179,7 @@ class CacheConfigTest {
         var cacheNames = cacheManager.getCacheNames();
         
         // Verify initial state
-        assertEquals(3, cacheNames.size());
+        assertEquals(4, cacheNames.size());
         
         // The returned collection should be read-only or modifications shouldn't affect the cache manager
         int originalSize = cacheNames.size();
@@ -0,0 +1,73 @@
+package anqorithm.stocks.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaxStalenessInterceptorTest {
+
+    private final MaxStalenessInterceptor interceptor = new MaxStalenessInterceptor();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    static class Handlers {
+        @MaxStaleness("2s")
+        public void bounded() {
+        }
+
+        public void unbounded() {
+        }
+    }
+
+    private HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(name));
+    }
+
+    @AfterEach
+    void tearDown() {
+        StalenessContext.clear();
+    }
+
+    @Test
+    void testUsesEndpointBound() throws Exception {
+        interceptor.preHandle(request, response, handler("bounded"));
+
+        assertEquals(Duration.ofSeconds(2), StalenessContext.get());
+    }
+
+    @Test
+    void testHeaderCanTightenButNotLoosenBound() throws Exception {
+        request.addHeader(MaxStalenessInterceptor.HEADER, "500ms");
+        interceptor.preHandle(request, response, handler("bounded"));
+        assertEquals(Duration.ofMillis(500), StalenessContext.get());
+
+        MockHttpServletRequest loose = new MockHttpServletRequest();
+        loose.addHeader(MaxStalenessInterceptor.HEADER, "1m");
+        interceptor.preHandle(loose, response, handler("bounded"));
+        assertEquals(Duration.ofSeconds(2), StalenessContext.get());
+    }
+
+    @Test
+    void testHeaderAloneAndCleanup() throws Exception {
+        request.addHeader(MaxStalenessInterceptor.HEADER, "10s");
+        interceptor.preHandle(request, response, handler("unbounded"));
+        assertEquals(Duration.ofSeconds(10), StalenessContext.get());
+
+        interceptor.afterCompletion(request, response, handler("unbounded"), null);
+        assertNull(StalenessContext.get());
+    }
+
+    @Test
+    void testRejectsInvalidHeader() throws Exception {
+        request.addHeader(MaxStalenessInterceptor.HEADER, "soon");
+        HandlerMethod handler = handler("unbounded");
+
+        assertThrows(IllegalArgumentException.class, () -> interceptor.preHandle(request, response, handler));
+    }
+}
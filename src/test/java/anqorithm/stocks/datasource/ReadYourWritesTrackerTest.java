@@ -0,0 +1,47 @@
+package anqorithm.stocks.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesTrackerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void testPinnedWithinWindow() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), now::get);
+
+        tracker.recordWrite("alice");
+        now.addAndGet(4_999);
+
+        assertTrue(tracker.isPinned("alice"));
+        assertFalse(tracker.isPinned("bob"));
+    }
+
+    @Test
+    void testExpiresAfterWindow() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), now::get);
+
+        tracker.recordWrite("alice");
+        now.addAndGet(5_000);
+
+        assertFalse(tracker.isPinned("alice"));
+        assertEquals(0, tracker.getTrackedUsers());
+    }
+
+    @Test
+    void testDisabledOrAnonymous() {
+        ReadYourWritesTracker disabled = new ReadYourWritesTracker(Duration.ZERO, now::get);
+        disabled.recordWrite("alice");
+        ReadYourWritesTracker enabled = new ReadYourWritesTracker(Duration.ofSeconds(5), now::get);
+        enabled.recordWrite(null);
+
+        assertFalse(disabled.isPinned("alice"));
+        assertFalse(enabled.isPinned(null));
+        assertEquals(0, enabled.getTrackedUsers());
+    }
+}
@@ -0,0 +1,49 @@
+package anqorithm.stocks.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaLagMonitorTest {
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    @Test
+    void testReplicasWithoutStreamingReplicationAreUpToDate() {
+        Replica replica = new Replica("replica-0", h2("lag-replica"), () -> 0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(h2("lag-primary"), List.of(replica), meterRegistry);
+
+        assertTrue(Double.isNaN(meterRegistry.get("stocks.datasource.replica.lag").gauge().value()));
+
+        monitor.poll();
+
+        assertEquals(0L, replica.getLagMillis());
+        assertEquals(0.0, meterRegistry.get("stocks.datasource.replica.lag").tag("replica", "replica-0").gauge().value());
+    }
+
+    @Test
+    void testUnreachablePrimaryMakesLagUnknown() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        Replica replica = new Replica("replica-0", h2("lag-replica"), () -> 0);
+        replica.setLagMillis(0);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(broken, List.of(replica), new SimpleMeterRegistry());
+
+        monitor.poll();
+
+        assertEquals(Replica.UNKNOWN_LAG, replica.getLagMillis());
+    }
+}
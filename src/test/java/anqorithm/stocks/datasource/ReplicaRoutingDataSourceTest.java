@@ -0,0 +1,209 @@
+package anqorithm.stocks.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private final AtomicReference<String> currentUser = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        StalenessContext.clear();
+    }
+
+    private ReplicaRoutingDataSource routing(List<Replica> replicas, ReplicaSelection selection, Duration window) {
+        return new ReplicaRoutingDataSource(primary, replicas, selection, 30_000,
+            new ReadYourWritesTracker(window), currentUser::get, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    private static Replica caughtUp(String name, DataSource dataSource, int activeConnections) {
+        Replica replica = new Replica(name, dataSource, () -> activeConnections);
+        replica.setLagMillis(0);
+        return replica;
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.counter("stocks.datasource.routing", "target", target, "reason", reason).count();
+    }
+
+    private String nodeFor(DataSource routing, boolean readOnly) {
+        DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+            new JdbcTemplate(lazy).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplica() {
+        ReplicaRoutingDataSource routing = routing(List.of(caughtUp("replica-0", replica, 0)),
+            ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals("replica", nodeFor(routing, true));
+        assertEquals("primary", nodeFor(routing, false));
+    }
+
+    @Test
+    void testNonTransactionalAccessGoesToPrimary() {
+        ReplicaRoutingDataSource routing = routing(List.of(caughtUp("replica-0", replica, 0)),
+            ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals("primary", new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void testFailingReplicaFallsBackToPrimaryAndBacksOff() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        Replica brokenReplica = caughtUp("replica-0", broken, 0);
+        ReplicaRoutingDataSource routing = routing(List.of(brokenReplica), ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals("primary", nodeFor(routing, true));
+        assertEquals("primary", nodeFor(routing, true));
+
+        assertFalse(brokenReplica.isAvailable(System.currentTimeMillis()));
+        verify(broken, times(1)).getConnection();
+    }
+
+    @Test
+    void testFailingReplicaFallsBackToNextReplica() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaRoutingDataSource routing = routing(List.of(
+            caughtUp("replica-0", broken, 0), caughtUp("replica-1", replica, 0)),
+            ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals("replica", nodeFor(routing, true));
+        assertEquals("replica", nodeFor(routing, true));
+    }
+
+    @Test
+    void testReadYourWritesPinsUserToPrimary() {
+        ReplicaRoutingDataSource routing = routing(List.of(caughtUp("replica-0", replica, 0)),
+            ReplicaSelection.ROUND_ROBIN, Duration.ofMinutes(1));
+        currentUser.set("alice");
+
+        assertEquals("replica", nodeFor(routing, true));
+        nodeFor(routing, false);
+        assertEquals("primary", nodeFor(routing, true));
+
+        currentUser.set("bob");
+        assertEquals("replica", nodeFor(routing, true));
+    }
+
+    @Test
+    void testRoundRobinSelection() {
+        Replica first = caughtUp("replica-0", replica, 0);
+        Replica second = caughtUp("replica-1", replica, 0);
+        ReplicaRoutingDataSource routing = routing(List.of(first, second), ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        assertSame(first, routing.select(0, 5_000));
+        assertSame(second, routing.select(0, 5_000));
+        assertSame(first, routing.select(0, 5_000));
+
+        second.markUnavailable(100);
+        assertSame(first, routing.select(50, 5_000));
+        assertSame(first, routing.select(50, 5_000));
+        assertNotNull(routing.select(100, 5_000));
+    }
+
+    @Test
+    void testLeastConnectionsSelection() {
+        Replica busy = caughtUp("replica-0", replica, 7);
+        Replica idle = caughtUp("replica-1", replica, 2);
+        ReplicaRoutingDataSource routing = routing(List.of(busy, idle), ReplicaSelection.LEAST_CONNECTIONS, Duration.ZERO);
+
+        assertSame(idle, routing.select(0, 5_000));
+
+        idle.markUnavailable(100);
+        assertSame(busy, routing.select(50, 5_000));
+
+        busy.markUnavailable(100);
+        assertNull(routing.select(50, 5_000));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkippedForTightBound() {
+        Replica lagging = caughtUp("replica-0", replica, 0);
+        lagging.setLagMillis(2_000);
+        ReplicaRoutingDataSource routing = routing(List.of(lagging), ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals("replica", nodeFor(routing, true));
+
+        StalenessContext.set(Duration.ofSeconds(1));
+        assertEquals("primary", nodeFor(routing, true));
+
+        assertEquals(1.0, routed("replica-0", "replica"));
+        assertEquals(1.0, routed("primary", "staleness"));
+    }
+
+    @Test
+    void testZeroStalenessAlwaysReadsPrimary() {
+        ReplicaRoutingDataSource routing = routing(List.of(caughtUp("replica-0", replica, 0)),
+            ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+        StalenessContext.set(Duration.ZERO);
+
+        assertEquals("primary", nodeFor(routing, true));
+    }
+
+    @Test
+    void testUnknownLagIsNeverEligible() {
+        ReplicaRoutingDataSource routing = routing(List.of(new Replica("replica-0", replica, () -> 0)),
+            ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+        StalenessContext.set(Duration.ofDays(1));
+
+        assertEquals("primary", nodeFor(routing, true));
+    }
+
+    @Test
+    void testRoutingDecisionsAreCounted() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+        ReplicaRoutingDataSource routing = routing(List.of(caughtUp("replica-0", broken, 0)),
+            ReplicaSelection.ROUND_ROBIN, Duration.ZERO);
+
+        new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class);
+        assertEquals(1.0, routed("primary", "write"));
+
+        nodeFor(routing, true);
+        assertEquals(1.0, routed("primary", "failover"));
+        assertEquals(0.0, routed("replica-0", "replica"));
+    }
+}
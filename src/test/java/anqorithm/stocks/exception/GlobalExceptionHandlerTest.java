@@ -79,6 +79,19 @@ class GlobalExceptionHandlerTest {
         assertEquals("/api/v1/stocks/123", errorResponse.getPath());
     }
 
+    @Test
+    void testHandleChangeCursorExpired() {
+        ChangeCursorExpiredException exception = new ChangeCursorExpiredException("Change cursor is older than 7 days");
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleChangeCursorExpired(exception, webRequest);
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        ErrorResponse errorResponse = response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals(410, errorResponse.getStatus());
+        assertEquals("Change Cursor Expired", errorResponse.getError());
+    }
+
     @Test
     void testHandleEntityNotFound() {
         EntityNotFoundException exception = new EntityNotFoundException("Entity not found");
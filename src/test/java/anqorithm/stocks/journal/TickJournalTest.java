@@ -0,0 +1,117 @@
+package anqorithm.stocks.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private List<JournalRecord> replay(TickJournal journal) {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(TickJournal.SEGMENT_SUFFIX)).count();
+        }
+    }
+
+    @Test
+    void testAppendAndReplayAfterReopen() {
+        TickJournal journal = new TickJournal(directory, 4096, FsyncPolicy.NEVER);
+        assertEquals(1L, journal.append(1000L, 1L, 1_500_000L, 100L, "AAPL"));
+        assertEquals(2L, journal.append(2000L, 2L, 2_800_000L, 200L, "MSFT"));
+        journal.close();
+
+        TickJournal reopened = new TickJournal(directory, 4096, FsyncPolicy.NEVER);
+        List<JournalRecord> records = replay(reopened);
+
+        assertEquals(2, records.size());
+        JournalRecord first = records.get(0);
+        assertEquals(1L, first.getSequence());
+        assertEquals(1000L, first.getTimestamp());
+        assertEquals(1L, first.getStockId());
+        assertEquals(1_500_000L, first.getScaledPrice());
+        assertEquals(100L, first.getVolume());
+        assertEquals("AAPL", first.getSymbol());
+        assertEquals("MSFT", records.get(1).getSymbol());
+        assertEquals(3L, reopened.append(3000L, 1L, 1_510_000L, 150L, "AAPL"));
+    }
+
+    @Test
+    void testReplayStopsAtTornRecord() throws IOException {
+        TickJournal journal = new TickJournal(directory, 4096, FsyncPolicy.ALWAYS);
+        journal.append(1000L, 1L, 1_500_000L, 100L, "AAPL");
+        journal.append(2000L, 1L, 1_510_000L, 200L, "AAPL");
+        journal.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(TickJournal.SEGMENT_SUFFIX)).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), JournalRecord.SIZE + 30);
+        }
+
+        List<JournalRecord> records = replay(new TickJournal(directory, 4096, FsyncPolicy.NEVER));
+
+        assertEquals(1, records.size());
+        assertEquals(1L, records.get(0).getSequence());
+    }
+
+    @Test
+    void testRollsToNewSegmentWhenFull() throws IOException {
+        TickJournal journal = new TickJournal(directory, JournalRecord.SIZE * 2, FsyncPolicy.NEVER);
+        for (int i = 0; i < 5; i++) {
+            journal.append(i, 1L, 1_500_000L + i, i, "AAPL");
+        }
+        journal.close();
+
+        assertEquals(3, journal.getSegmentCount());
+        assertEquals(3, segmentFiles());
+        assertEquals(5, replay(new TickJournal(directory, JournalRecord.SIZE * 2, FsyncPolicy.NEVER)).size());
+    }
+
+    @Test
+    void testCheckpointSkipsAppliedRecordsAndDeletesSegments() throws IOException {
+        TickJournal journal = new TickJournal(directory, JournalRecord.SIZE * 2, FsyncPolicy.NEVER);
+        for (int i = 0; i < 5; i++) {
+            journal.append(i, 1L, 1_500_000L + i, i, "AAPL");
+        }
+        journal.checkpoint(4L);
+        journal.close();
+
+        assertEquals(4L, journal.getCheckpoint());
+        assertEquals(1, segmentFiles());
+
+        TickJournal reopened = new TickJournal(directory, JournalRecord.SIZE * 2, FsyncPolicy.NEVER);
+        List<JournalRecord> records = replay(reopened);
+        assertEquals(1, records.size());
+        assertEquals(5L, records.get(0).getSequence());
+        assertEquals(5L, reopened.getLastSequence());
+    }
+
+    @Test
+    void testRejectsLongSymbol() {
+        TickJournal journal = new TickJournal(directory, 4096, FsyncPolicy.NEVER);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> journal.append(1L, 1L, 1L, 1L, "TOOLONGSYMBOL"));
+    }
+}
@@ -0,0 +1,184 @@
+package anqorithm.stocks.outbox;
+
+import anqorithm.stocks.exception.OutboxOffsetExpiredException;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockEventRelayTest {
+
+    @Mock
+    private StockOutboxJdbcRepository stockOutboxJdbcRepository;
+
+    @Mock
+    private ObjectProvider<StockEventListener> listenerProvider;
+
+    private final List<StockEvent> received = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(10_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StockEventRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(listenerProvider.orderedStream()).thenReturn(Stream.of(received::addAll));
+        when(stockOutboxJdbcRepository.findMaxOffset()).thenReturn(10L);
+        relay = new StockEventRelay(stockOutboxJdbcRepository, listenerProvider, 3, Duration.ofSeconds(2),
+            Duration.ofMinutes(10), Duration.ofHours(1), meterRegistry, now::get);
+        relay.init();
+    }
+
+    private static StockEvent event(long offset) {
+        return new StockEvent(offset, StockEvent.Type.PRICE_VOLUME_CHANGED, 1L, "AAPL", null,
+            new BigDecimal("150.00"), 1000L, 9_000);
+    }
+
+    private static List<Long> offsets(List<StockEvent> events) {
+        return events.stream().map(StockEvent::getOffset).toList();
+    }
+
+    @Test
+    void testStartsFromNewestOffsetAndCreatesTable() {
+        verify(stockOutboxJdbcRepository).createTable();
+        assertEquals(10L, relay.getRelayedOffset());
+    }
+
+    @Test
+    void testRelaysFullBatchesUntilCaughtUp() {
+        when(stockOutboxJdbcRepository.findAfter(10L, Long.MAX_VALUE, 3)).thenReturn(List.of(event(11), event(12), event(13)));
+        when(stockOutboxJdbcRepository.findAfter(13L, Long.MAX_VALUE, 3)).thenReturn(List.of(event(14)));
+
+        assertEquals(4, relay.relay());
+
+        assertEquals(List.of(11L, 12L, 13L, 14L), offsets(received));
+        assertEquals(14L, relay.getRelayedOffset());
+        assertEquals(4.0, meterRegistry.counter("stocks.outbox.relayed").count());
+        assertEquals(4, meterRegistry.timer("stocks.outbox.relay.lag").count());
+    }
+
+    @Test
+    void testWaitsAtGapUntilTimeout() {
+        when(stockOutboxJdbcRepository.findAfter(10L, Long.MAX_VALUE, 3)).thenReturn(List.of(event(11), event(13)));
+        when(stockOutboxJdbcRepository.findAfter(11L, Long.MAX_VALUE, 3)).thenReturn(List.of(event(13)));
+
+        relay.relay();
+        assertEquals(List.of(11L), offsets(received));
+
+        now.addAndGet(1_000);
+        relay.relay();
+        assertEquals(11L, relay.getRelayedOffset());
+
+        now.addAndGet(1_000);
+        relay.relay();
+        assertEquals(List.of(11L, 13L), offsets(received));
+        assertEquals(1.0, meterRegistry.counter("stocks.outbox.skipped").count());
+        assertEquals(1, relay.getSkippedCount());
+    }
+
+    @Test
+    void testSkippedOffsetCommittedLateIsRelayed() {
+        when(stockOutboxJdbcRepository.findAfter(10L, Long.MAX_VALUE, 3)).thenReturn(List.of(event(12)));
+        when(stockOutboxJdbcRepository.findByOffsets(List.of(11L))).thenReturn(List.of(event(11)));
+
+        relay.relay();
+        now.addAndGet(2_000);
+        relay.relay();
+        assertEquals(List.of(12L), offsets(received));
+        assertEquals(12L, relay.getRelayedOffset());
+
+        assertEquals(1, relay.relay());
+        assertEquals(List.of(12L, 11L), offsets(received));
+        assertEquals(0, relay.getSkippedCount());
+        assertEquals(1.0, meterRegistry.counter("stocks.outbox.late").count());
+    }
+
+    @Test
+    void testSkippedOffsetIsForgottenAfterLateCommitWindow() {
+        when(stockOutboxJdbcRepository.findAfter(10L, Long.MAX_VALUE, 3)).thenReturn(List.of(event(12)));
+        when(stockOutboxJdbcRepository.findByOffsets(List.of(11L))).thenReturn(List.of());
+
+        relay.relay();
+        now.addAndGet(2_000);
+        relay.relay();
+        relay.relay();
+        assertEquals(1, relay.getSkippedCount());
+
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+        relay.relay();
+        assertEquals(0, relay.getSkippedCount());
+
+        relay.relay();
+        verify(stockOutboxJdbcRepository, times(2)).findByOffsets(List.of(11L));
+    }
+
+    @Test
+    void testGapFilledByLateCommitIsRelayedInOrder() {
+        when(stockOutboxJdbcRepository.findAfter(10L, Long.MAX_VALUE, 3))
+            .thenReturn(List.of(event(12)))
+            .thenReturn(List.of(event(11), event(12)));
+
+        relay.relay();
+        assertTrue(received.isEmpty());
+
+        relay.relay();
+        assertEquals(List.of(11L, 12L), offsets(received));
+    }
+
+    @Test
+    void testReplayDeliversRetainedEventsUpToRelayedOffset() {
+        when(stockOutboxJdbcRepository.findMinOffset()).thenReturn(5L);
+        when(stockOutboxJdbcRepository.findAfter(4L, 10L, 3)).thenReturn(List.of(event(5), event(6), event(7)));
+        when(stockOutboxJdbcRepository.findAfter(7L, 10L, 3)).thenReturn(List.of(event(8), event(9), event(10)));
+        when(stockOutboxJdbcRepository.findAfter(10L, 10L, 3)).thenReturn(List.of());
+        List<StockEvent> replayed = new ArrayList<>();
+
+        assertEquals(10L, relay.replay(4L, replayed::addAll));
+
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, 10L), offsets(replayed));
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void testReplayOfPrunedOffsetIsRejected() {
+        when(stockOutboxJdbcRepository.findMinOffset()).thenReturn(8L);
+
+        assertThrows(OutboxOffsetExpiredException.class, () -> relay.findEvents(3L, 10));
+    }
+
+    @Test
+    void testFailingListenerDoesNotStopRelay() {
+        when(listenerProvider.orderedStream()).thenReturn(Stream.of(
+            events -> { throw new IllegalStateException("boom"); }, received::addAll));
+        relay.init();
+        when(stockOutboxJdbcRepository.findAfter(10L, Long.MAX_VALUE, 3)).thenReturn(List.of(event(11)));
+
+        relay.relay();
+
+        assertEquals(List.of(11L), offsets(received));
+        assertEquals(11L, relay.getRelayedOffset());
+    }
+
+    @Test
+    void testPruneKeepsRetentionWindow() {
+        relay.prune();
+
+        verify(stockOutboxJdbcRepository).deleteRelayedBefore(eq(10L), argThat(cutoff ->
+            cutoff.toEpochMilli() == 10_000 - Duration.ofHours(1).toMillis()));
+    }
+}
@@ -0,0 +1,84 @@
+package anqorithm.stocks.repository;
+
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository.DailyClose;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository.DailyCloseHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(StockDailyCloseJdbcRepository.class)
+class StockDailyCloseJdbcRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+
+    @Autowired
+    private StockDailyCloseJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.createTable();
+    }
+
+    private static DailyClose close(String symbol, LocalDate day, String price) {
+        return new DailyClose(symbol, day, new BigDecimal(price));
+    }
+
+    private List<String> readSince(LocalDate from, List<String> symbols) {
+        List<String> rows = new ArrayList<>();
+        DailyCloseHandler handler = (symbol, day, close) -> rows.add(symbol + " " + day + " " + close);
+        if (symbols == null) {
+            repository.forEachSince(from, handler);
+        } else {
+            repository.forEachBySymbolsSince(symbols, from, handler);
+        }
+        return rows;
+    }
+
+    @Test
+    void testUpsertReplacesClosesOfTheSameDay() {
+        assertEquals(3, repository.batchUpsert(List.of(close("MSFT", DAY, "300.00"),
+            close("AAPL", DAY.minusDays(1), "149.00"), close("AAPL", DAY, "150.00"))));
+        assertEquals(2, repository.batchUpsert(List.of(close("AAPL", DAY, "151.50"),
+            close("AAPL", DAY.plusDays(1), "152.00"))));
+
+        assertEquals(List.of("AAPL 2026-10-18 149.0", "AAPL 2026-10-19 151.5", "AAPL 2026-10-20 152.0",
+            "MSFT 2026-10-19 300.0"), readSince(DAY.minusDays(5), null));
+        assertEquals(List.of("AAPL 2026-10-19 151.5", "AAPL 2026-10-20 152.0"),
+            readSince(DAY, List.of("AAPL", "KO")));
+    }
+
+    @Test
+    void testDeleteBefore() {
+        repository.batchUpsert(List.of(close("AAPL", DAY.minusDays(2), "148.00"),
+            close("AAPL", DAY.minusDays(1), "149.00"), close("AAPL", DAY, "150.00")));
+
+        assertEquals(2, repository.deleteBefore(DAY));
+        assertEquals(List.of("AAPL 2026-10-19 150.0"), readSince(DAY.minusDays(5), null));
+        assertEquals(0, repository.batchUpsert(List.of()));
+    }
+
+    @Test
+    void testFindLatestBefore() {
+        repository.batchUpsert(List.of(close("AAPL", DAY.minusDays(3), "147.00"),
+            close("AAPL", DAY.minusDays(1), "149.00"), close("AAPL", DAY, "150.00"),
+            close("MSFT", DAY.minusDays(3), "300.00"), close("KO", DAY.minusDays(10), "60.00")));
+
+        Map<String, BigDecimal> closes = repository.findLatestBefore(DAY, DAY.minusDays(7));
+
+        assertEquals(2, closes.size());
+        assertEquals(0, new BigDecimal("149.00").compareTo(closes.get("AAPL")));
+        assertEquals(0, new BigDecimal("300.00").compareTo(closes.get("MSFT")));
+    }
+}
@@ -0,0 +1,73 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.Candle;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleServiceTest {
+
+    private static final Instant BASE = Instant.parse("2026-01-05T14:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private CandleService candleService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        candleService = new CandleService(100, 50, meterRegistry);
+    }
+
+    private void tick(String price, long volume, Duration offset) {
+        candleService.onTick(new Tick(1L, "AAPL", new BigDecimal(price), volume, BASE.plus(offset).toEpochMilli()));
+    }
+
+    @Test
+    void testGetCandlesConvertsScaledPrices() {
+        tick("150.10", 1_000, Duration.ZERO);
+        tick("151.25", 1_400, Duration.ofSeconds(20));
+        tick("149.00", 1_500, Duration.ofSeconds(40));
+
+        List<Candle> candles = candleService.getCandles("aapl", Duration.ofMinutes(1), BASE, BASE.plusSeconds(60));
+
+        assertEquals(1, candles.size());
+        Candle candle = candles.get(0);
+        assertEquals(BASE, candle.getTimestamp().toInstant());
+        assertEquals(new BigDecimal("150.1000"), candle.getOpen());
+        assertEquals(new BigDecimal("151.2500"), candle.getHigh());
+        assertEquals(new BigDecimal("149.0000"), candle.getLow());
+        assertEquals(new BigDecimal("149.0000"), candle.getClose());
+        assertEquals(500L, candle.getVolume());
+    }
+
+    @Test
+    void testGetCandlesForUnknownSymbol() {
+        assertTrue(candleService.getCandles("NONE", Duration.ofMinutes(1), BASE, BASE.plusSeconds(60)).isEmpty());
+    }
+
+    @Test
+    void testGetCandlesRejectsInvalidRequests() {
+        assertThrows(IllegalArgumentException.class,
+            () -> candleService.getCandles("AAPL", Duration.ofMinutes(1), BASE.plusSeconds(60), BASE));
+        assertThrows(IllegalArgumentException.class,
+            () -> candleService.getCandles("AAPL", Duration.ofSeconds(30), BASE, BASE.plusSeconds(60)));
+        assertThrows(IllegalArgumentException.class,
+            () -> candleService.getCandles("AAPL", Duration.ofMinutes(1), BASE, BASE.plus(Duration.ofHours(2))));
+    }
+
+    @Test
+    void testMemoryGaugeIsRegistered() {
+        tick("150.00", 0, Duration.ZERO);
+
+        assertTrue(candleService.getMemoryBytes() > 0);
+        assertEquals(candleService.getMemoryBytes(), meterRegistry.get("stocks.candles.memory").gauge().value());
+    }
+}
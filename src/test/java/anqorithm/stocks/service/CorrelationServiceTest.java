@@ -0,0 +1,216 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.CorrelationMatrix;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.BetaUpdate;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository.DailyCloseHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CorrelationServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+    private static final long NOW = TODAY.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    @Mock
+    private StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+
+    @Mock
+    private DerivedValueWriter derivedValueWriter;
+
+    // Stands in for stock_daily_closes, ordered by symbol and day like the queries
+    private final Map<String, TreeMap<LocalDate, Double>> table = new TreeMap<>();
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private long now = NOW;
+    private CorrelationService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Collection<String> symbols = invocation.getArgument(0);
+            stream(symbols, invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(stockDailyCloseJdbcRepository).forEachBySymbolsSince(anyCollection(), any(), any());
+        lenient().doAnswer(invocation -> {
+            stream(table.keySet(), invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(stockDailyCloseJdbcRepository).forEachSince(any(), any());
+
+        service = new CorrelationService(stockDailyCloseJdbcRepository, derivedValueWriter, "spy",
+            365, 5, 3, Duration.ofMinutes(15), pool, new SimpleMeterRegistry(), () -> now);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private void stream(Collection<String> symbols, LocalDate from, DailyCloseHandler handler) {
+        table.forEach((symbol, closes) -> {
+            if (symbols.contains(symbol)) {
+                closes.tailMap(from).forEach((day, close) -> handler.accept(symbol, day, close));
+            }
+        });
+    }
+
+    /**
+     * Closes on consecutive days ending yesterday, compounding the given daily log returns from 100
+     */
+    private void closes(String symbol, double... returns) {
+        TreeMap<LocalDate, Double> closes = new TreeMap<>();
+        double close = 100;
+        LocalDate day = TODAY.minusDays(returns.length + 1);
+        closes.put(day, close);
+        for (double value : returns) {
+            close *= Math.exp(value);
+            day = day.plusDays(1);
+            closes.put(day, close);
+        }
+        table.put(symbol, closes);
+    }
+
+    private static double[] scaled(double[] returns, double factor) {
+        double[] result = new double[returns.length];
+        for (int i = 0; i < returns.length; i++) {
+            result[i] = returns[i] * factor;
+        }
+        return result;
+    }
+
+    private static final double[] MARKET = {0.01, -0.02, 0.015, 0.003, -0.01, 0.02, -0.005, 0.012};
+
+    @Test
+    void testCorrelationMatrixWithBetas() {
+        closes("SPY", MARKET);
+        closes("LEV", scaled(MARKET, 1.5));
+        closes("INV", scaled(MARKET, -0.5));
+        closes("NEW", 0.01, 0.02);
+
+        CorrelationMatrix matrix = service.getCorrelation(List.of("lev", "INV", "NEW", "LEV"));
+
+        assertEquals(List.of("LEV", "INV"), matrix.getSymbols());
+        assertEquals(List.of("NEW"), matrix.getExcludedSymbols());
+        assertEquals(8, matrix.getObservations());
+        assertEquals(TODAY.minusDays(9), matrix.getFrom());
+        assertEquals(TODAY.minusDays(1), matrix.getTo());
+        assertEquals(List.of(new BigDecimal("1.0000"), new BigDecimal("-1.0000")), matrix.getCorrelations().get(0));
+        assertEquals("SPY", matrix.getBenchmark());
+        assertEquals(List.of(new BigDecimal("1.5000"), new BigDecimal("-0.5000")), matrix.getBetas());
+    }
+
+    @Test
+    void testMatrixWithoutBenchmarkClosesHasNoBetas() {
+        closes("LEV", scaled(MARKET, 1.5));
+        closes("INV", scaled(MARKET, -0.5));
+
+        CorrelationMatrix matrix = service.getCorrelation(List.of("LEV", "INV"));
+
+        assertNull(matrix.getBetas());
+        assertEquals(2, matrix.getCorrelations().size());
+    }
+
+    @Test
+    void testMatricesAreCachedForTtl() {
+        closes("LEV", scaled(MARKET, 1.5));
+        closes("INV", scaled(MARKET, -0.5));
+
+        CorrelationMatrix first = service.getCorrelation(List.of("LEV", "INV"));
+        now += Duration.ofMinutes(14).toMillis();
+        assertSame(first, service.getCorrelation(List.of("lev", "inv")));
+        // The matrix follows the requested order, so another order is another matrix
+        assertNotSame(first, service.getCorrelation(List.of("INV", "LEV")));
+        verify(stockDailyCloseJdbcRepository, times(2)).forEachBySymbolsSince(anyCollection(), any(), any());
+
+        now += Duration.ofMinutes(1).toMillis();
+        assertNotSame(first, service.getCorrelation(List.of("LEV", "INV")));
+        verify(stockDailyCloseJdbcRepository, times(3)).forEachBySymbolsSince(anyCollection(), any(), any());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        closes("LEV", scaled(MARKET, 1.5));
+        closes("SHORT", 0.01, 0.02, 0.03);
+        // Enough closes, but none on the same days as LEV
+        closes("OLD", MARKET);
+        TreeMap<LocalDate, Double> old = new TreeMap<>();
+        table.get("OLD").forEach((day, close) -> old.put(day.minusDays(30), close));
+        table.put("OLD", old);
+
+        assertThrows(IllegalArgumentException.class, () -> service.getCorrelation(List.of("LEV", "lev")));
+        assertThrows(IllegalArgumentException.class, () -> service.getCorrelation(List.of("A", "B", "C", "D")));
+        assertThrows(IllegalArgumentException.class, () -> service.getCorrelation(List.of("LEV", "SHORT")));
+        assertThrows(IllegalArgumentException.class, () -> service.getCorrelation(List.of("LEV", "MISSING")));
+        assertThrows(IllegalArgumentException.class, () -> service.getCorrelation(List.of("LEV", "OLD")));
+    }
+
+    @Test
+    void testRecomputeBetasWritesInRangeValues() {
+        closes("SPY", MARKET);
+        closes("LEV", scaled(MARKET, 1.5));
+        closes("INV", scaled(MARKET, -0.5));
+        closes("NEW", 0.01);
+
+        when(derivedValueWriter.writeBetas(anyList())).thenReturn(2);
+
+        assertEquals(2, service.recomputeBetas());
+
+        verify(derivedValueWriter).writeBetas(List.of(
+            new BetaUpdate("LEV", new BigDecimal("1.5000")), new BetaUpdate("SPY", new BigDecimal("1.0000"))));
+    }
+
+    @Test
+    void testRecomputeBetasWithoutBenchmarkWritesNothing() {
+        closes("LEV", scaled(MARKET, 1.5));
+
+        assertEquals(0, service.recomputeBetas());
+        verifyNoInteractions(derivedValueWriter);
+    }
+
+    @Test
+    void testRecomputeBetasFailureIsLogged() {
+        doThrow(new DataAccessResourceFailureException("down"))
+            .when(stockDailyCloseJdbcRepository).forEachSince(any(), any());
+
+        assertEquals(0, service.recomputeBetas());
+        verifyNoInteractions(derivedValueWriter);
+    }
+
+    @Test
+    void testPositivelyScaledReturnsAreFullyCorrelated() {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            closes("S" + i, scaled(MARKET, i + 1));
+            symbols.add("S" + i);
+        }
+
+        CorrelationMatrix matrix = service.getCorrelation(symbols);
+
+        for (List<BigDecimal> row : matrix.getCorrelations()) {
+            for (BigDecimal value : row) {
+                assertEquals(new BigDecimal("1.0000"), value);
+            }
+        }
+    }
+}
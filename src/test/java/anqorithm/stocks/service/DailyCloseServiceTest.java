@@ -0,0 +1,89 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository.DailyClose;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyCloseServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 19);
+    private static final long START = DAY.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+
+    private DailyCloseService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DailyCloseService(stockDailyCloseJdbcRepository, 30, new SimpleMeterRegistry(), () -> START);
+    }
+
+    private void tick(String symbol, String price, long timestamp) {
+        service.onTick(new Tick(1L, symbol, new BigDecimal(price), 0L, timestamp));
+    }
+
+    private static DailyClose close(String symbol, LocalDate day, String price) {
+        return new DailyClose(symbol, day, new BigDecimal(price).setScale(Tick.PRICE_SCALE));
+    }
+
+    @Test
+    void testLastTickOfEachDayIsTheClose() {
+        tick("AAPL", "150.00", START + HOUR);
+        tick("MSFT", "300.00", START + HOUR);
+        tick("AAPL", "151.25", START + 2 * HOUR);
+        tick("AAPL", "152.00", START + 25 * HOUR);
+        // Older than the symbol's last tick, so it does not replace any close
+        tick("AAPL", "149.00", START + 3 * HOUR);
+        when(stockDailyCloseJdbcRepository.batchUpsert(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        assertEquals(3, service.getPendingCount());
+        assertEquals(3, service.flush());
+
+        verify(stockDailyCloseJdbcRepository).batchUpsert(List.of(close("AAPL", DAY, "151.25"),
+            close("MSFT", DAY, "300.00"), close("AAPL", DAY.plusDays(1), "152.00")));
+        assertEquals(0, service.flush());
+        verifyNoMoreInteractions(stockDailyCloseJdbcRepository);
+    }
+
+    @Test
+    void testFailedFlushKeepsNewerCloses() {
+        tick("AAPL", "150.00", START + HOUR);
+        when(stockDailyCloseJdbcRepository.batchUpsert(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("down"))
+            .thenReturn(1);
+
+        assertEquals(0, service.flush());
+        assertEquals(1, service.getPendingCount());
+        tick("AAPL", "155.00", START + 2 * HOUR);
+        assertEquals(1, service.flush());
+
+        verify(stockDailyCloseJdbcRepository, times(2)).batchUpsert(anyList());
+        verify(stockDailyCloseJdbcRepository).batchUpsert(List.of(close("AAPL", DAY, "155.00")));
+    }
+
+    @Test
+    void testPurgeDeletesClosesOlderThanRetention() {
+        service.purge();
+
+        verify(stockDailyCloseJdbcRepository).deleteBefore(DAY.minusDays(30));
+    }
+}
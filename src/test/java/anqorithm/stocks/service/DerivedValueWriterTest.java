@@ -0,0 +1,108 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.cache.CacheInvalidation;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.AverageVolumeUpdate;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.BetaUpdate;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({StockBatchJdbcRepository.class, StockOutboxJdbcRepository.class})
+class DerivedValueWriterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StockBatchJdbcRepository stockBatchJdbcRepository;
+
+    @Autowired
+    private StockOutboxJdbcRepository stockOutboxJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CacheInvalidationPublisher cacheInvalidationPublisher = mock(CacheInvalidationPublisher.class);
+    private DerivedValueWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        stockOutboxJdbcRepository.createTable();
+        writer = new DerivedValueWriter(stockBatchJdbcRepository, stockOutboxJdbcRepository, transactionManager,
+            cacheInvalidationPublisher);
+    }
+
+    private Stock persist(String symbol) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        stock.setName(symbol + " Inc");
+        stock.setCurrentPrice(new BigDecimal("10.00"));
+        stock.setVolume(100L);
+        return entityManager.persistAndFlush(stock);
+    }
+
+    @Test
+    void testWriteBumpsVersionsAndRecordsChanges() {
+        Stock apple = persist("AAPL");
+        persist("MSFT");
+        long version = apple.getVersion();
+
+        assertEquals(1, writer.writeAverageVolumes(List.of(new AverageVolumeUpdate("AAPL", 4_000L),
+            new AverageVolumeUpdate("GONE", 1L))));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT average_volume, version, updated_at FROM stocks WHERE symbol = 'AAPL'");
+        assertEquals(4_000L, ((Number) row.get("average_volume")).longValue());
+        assertEquals(version + 1, ((Number) row.get("version")).longValue());
+        assertNotNull(row.get("updated_at"));
+        assertEquals(version, jdbcTemplate.queryForObject("SELECT version FROM stocks WHERE symbol = 'MSFT'", Long.class));
+
+        List<StockEvent> events = stockOutboxJdbcRepository.findAfter(0, Long.MAX_VALUE, 10);
+        assertEquals(1, events.size());
+        assertEquals(StockEvent.Type.UPDATED, events.get(0).getType());
+        assertEquals(apple.getId(), events.get(0).getStockId());
+        assertEquals(version + 1, events.get(0).getVersion());
+        verify(cacheInvalidationPublisher).publish(
+            new CacheInvalidation(CacheInvalidation.Kind.UPDATE, apple.getId(), version + 1, "AAPL"));
+    }
+
+    @Test
+    void testWriteBetasBumpsVersions() {
+        Stock apple = persist("AAPL");
+        long version = apple.getVersion();
+
+        assertEquals(1, writer.writeBetas(List.of(new BetaUpdate("AAPL", new BigDecimal("1.2500")))));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT beta, version FROM stocks WHERE symbol = 'AAPL'");
+        assertEquals(0, new BigDecimal("1.2500").compareTo((BigDecimal) row.get("beta")));
+        assertEquals(version + 1, ((Number) row.get("version")).longValue());
+        assertEquals(1, stockOutboxJdbcRepository.findAfter(0, Long.MAX_VALUE, 10).size());
+    }
+
+    @Test
+    void testNothingToWrite() {
+        assertEquals(0, writer.writeAverageVolumes(List.of()));
+        verifyNoInteractions(cacheInvalidationPublisher);
+    }
+}
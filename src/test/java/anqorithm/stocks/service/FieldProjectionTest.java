@@ -0,0 +1,58 @@
+package anqorithm.stocks.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FieldProjectionTest {
+
+    @Test
+    void testParseKeepsRequestOrderAndDropsDuplicates() {
+        FieldProjection projection = FieldProjection.parse(" symbol,currentPrice, symbol ,");
+
+        assertEquals(List.of(StockField.SYMBOL, StockField.CURRENT_PRICE), projection.getFields());
+        assertEquals("SELECT symbol, current_price FROM stocks", projection.select("FROM stocks"));
+    }
+
+    @Test
+    void testMissingFieldsMeansFullStocks() {
+        assertNull(FieldProjection.parse(null));
+        assertNull(FieldProjection.parse("  "));
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> FieldProjection.parse("symbol,current_price"));
+
+        assertTrue(e.getMessage().startsWith("Unknown field 'current_price'"));
+        assertTrue(e.getMessage().contains("currentPrice"));
+        assertThrows(IllegalArgumentException.class, () -> FieldProjection.parse(","));
+    }
+
+    @Test
+    void testMapRowReadsColumnsByPositionAndOmitsNulls() throws SQLException {
+        FieldProjection projection = FieldProjection.parse("symbol,currentPrice,marketCap,updatedAt");
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("AAPL");
+        when(rs.getBigDecimal(2)).thenReturn(new BigDecimal("150.0000"));
+        when(rs.getObject(3, Long.class)).thenReturn(null);
+        when(rs.getObject(4, OffsetDateTime.class))
+            .thenReturn(OffsetDateTime.of(2024, 1, 15, 14, 30, 0, 0, ZoneOffset.ofHours(2)));
+
+        Map<String, Object> row = projection.mapRow(rs, 0);
+
+        assertEquals(List.of("symbol", "currentPrice", "updatedAt"), List.copyOf(row.keySet()));
+        assertEquals(new BigDecimal("150.0000"), row.get("currentPrice"));
+        assertEquals("2024-01-15T12:30:00.000Z", row.get("updatedAt"));
+    }
+}
@@ -0,0 +1,76 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.entity.Stock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiftyTwoWeekRangeServiceTest {
+
+    private static final long DAY = 86_400_000L;
+
+    private final FiftyTwoWeekRangeService service = new FiftyTwoWeekRangeService(364, new SimpleMeterRegistry());
+
+    private Stock stock(String price, String high, String low) {
+        Stock stock = new Stock();
+        stock.setSymbol("AAPL");
+        stock.setCurrentPrice(new BigDecimal(price));
+        stock.setFiftyTwoWeekHigh(high != null ? new BigDecimal(high) : null);
+        stock.setFiftyTwoWeekLow(low != null ? new BigDecimal(low) : null);
+        return stock;
+    }
+
+    @Test
+    void testPriceInsideStoredRangeChangesNothing() {
+        Stock stock = stock("150.00", "180.00", "120.00");
+
+        assertFalse(service.observe(stock, 1_000 * DAY));
+        assertEquals(new BigDecimal("180.00"), stock.getFiftyTwoWeekHigh());
+    }
+
+    @Test
+    void testNewHighAndLowAreSet() {
+        Stock stock = stock("190.00", "180.00", "120.00");
+        assertTrue(service.observe(stock, 1_000 * DAY));
+        assertEquals(0, new BigDecimal("190.00").compareTo(stock.getFiftyTwoWeekHigh()));
+
+        stock.setCurrentPrice(new BigDecimal("110.00"));
+        assertTrue(service.observe(stock, 1_001 * DAY));
+        assertEquals(0, new BigDecimal("110.00").compareTo(stock.getFiftyTwoWeekLow()));
+        assertEquals(0, new BigDecimal("190.00").compareTo(stock.getFiftyTwoWeekHigh()));
+    }
+
+    @Test
+    void testMissingStoredRangeIsFilledFromPrice() {
+        Stock stock = stock("150.00", null, null);
+
+        assertTrue(service.observe(stock, 1_000 * DAY));
+        assertEquals(0, new BigDecimal("150.00").compareTo(stock.getFiftyTwoWeekHigh()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(stock.getFiftyTwoWeekLow()));
+    }
+
+    @Test
+    void testHighRollsOffAfterFiftyTwoWeeks() {
+        Stock stock = stock("190.00", "180.00", "120.00");
+        service.observe(stock, 1_000 * DAY);
+
+        stock.setCurrentPrice(new BigDecimal("150.00"));
+        assertTrue(service.observe(stock, (1_000 + 364) * DAY));
+        assertEquals(0, new BigDecimal("150.00").compareTo(stock.getFiftyTwoWeekHigh()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(stock.getFiftyTwoWeekLow()));
+    }
+
+    @Test
+    void testForgetReseedsFromStoredValues() {
+        Stock stock = stock("190.00", "180.00", "120.00");
+        service.observe(stock, 1_000 * DAY);
+
+        service.forget("AAPL");
+        Stock edited = stock("150.00", "175.00", "100.00");
+        assertFalse(service.observe(edited, 1_001 * DAY));
+        assertEquals(new BigDecimal("175.00"), edited.getFiftyTwoWeekHigh());
+    }
+}
@@ -0,0 +1,157 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.StockMover;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.jdbc.StockDailyCloseJdbcRepository;
+import anqorithm.stocks.service.MoversService.Direction;
+import anqorithm.stocks.service.MoversService.Reference;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MoversServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Mock
+    private StockDailyCloseJdbcRepository stockDailyCloseJdbcRepository;
+
+    private long now = TODAY.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    private MoversService service(Reference reference) {
+        return new MoversService(reference, stockDailyCloseJdbcRepository, new SimpleMeterRegistry(), () -> now);
+    }
+
+    private void tick(MoversService service, String symbol, String price) {
+        service.onTick(new Tick(1L, symbol, new BigDecimal(price), 100, now++));
+    }
+
+    private static List<String> symbols(List<StockMover> movers) {
+        return movers.stream().map(StockMover::getSymbol).toList();
+    }
+
+    @Test
+    void testRanksByRelativeChangeSinceSessionOpen() {
+        MoversService service = service(Reference.SESSION_OPEN);
+        tick(service, "AAPL", "100.00");
+        tick(service, "MSFT", "200.00");
+        tick(service, "XOM", "50.00");
+        tick(service, "KO", "60.00");
+
+        tick(service, "AAPL", "105.00");
+        tick(service, "MSFT", "220.00");
+        tick(service, "XOM", "45.00");
+
+        assertEquals(List.of("MSFT", "AAPL"), symbols(service.getMovers(Direction.UP, 10)));
+        assertEquals(List.of("MSFT"), symbols(service.getMovers(Direction.UP, 1)));
+        assertEquals(List.of("XOM"), symbols(service.getMovers(Direction.DOWN, 10)));
+
+        StockMover xom = service.getMovers(Direction.DOWN, 1).get(0);
+        assertEquals(new BigDecimal("45.0000"), xom.getPrice());
+        assertEquals(new BigDecimal("50.0000"), xom.getReferencePrice());
+        assertEquals(new BigDecimal("-5.0000"), xom.getChange());
+        assertEquals(new BigDecimal("-10.00"), xom.getChangePercent());
+    }
+
+    @Test
+    void testRepeatedTicksMoveSymbolWithinRanking() {
+        MoversService service = service(Reference.SESSION_OPEN);
+        tick(service, "AAPL", "100.00");
+        tick(service, "MSFT", "100.00");
+        tick(service, "AAPL", "110.00");
+        tick(service, "MSFT", "105.00");
+        tick(service, "AAPL", "90.00");
+
+        assertEquals(List.of("MSFT"), symbols(service.getMovers(Direction.UP, 10)));
+        assertEquals(List.of("AAPL"), symbols(service.getMovers(Direction.DOWN, 10)));
+        assertEquals(2, service.getSymbolCount());
+    }
+
+    @Test
+    void testNewSessionUsesPreviousClose() {
+        MoversService service = service(Reference.PREVIOUS_CLOSE);
+        tick(service, "AAPL", "100.00");
+        tick(service, "AAPL", "120.00");
+
+        service.startSession();
+        assertTrue(service.getMovers(Direction.UP, 10).isEmpty());
+
+        tick(service, "AAPL", "126.00");
+        StockMover aapl = service.getMovers(Direction.UP, 10).get(0);
+        assertEquals(new BigDecimal("120.0000"), aapl.getReferencePrice());
+        assertEquals(new BigDecimal("5.00"), aapl.getChangePercent());
+    }
+
+    @Test
+    void testNewSessionWithSessionOpenTakesReferenceFromNextTick() {
+        MoversService service = service(Reference.SESSION_OPEN);
+        tick(service, "AAPL", "100.00");
+        tick(service, "AAPL", "120.00");
+
+        service.startSession();
+        tick(service, "AAPL", "130.00");
+        assertTrue(service.getMovers(Direction.UP, 10).isEmpty());
+
+        tick(service, "AAPL", "143.00");
+        assertEquals(new BigDecimal("10.00"), service.getMovers(Direction.UP, 10).get(0).getChangePercent());
+    }
+
+    @Test
+    void testPreviousClosesAreSeededFromStoredCloses() {
+        when(stockDailyCloseJdbcRepository.findLatestBefore(TODAY, TODAY.minusDays(7)))
+            .thenReturn(Map.of("AAPL", new BigDecimal("100.00"), "MSFT", new BigDecimal("200.00")));
+        MoversService service = service(Reference.PREVIOUS_CLOSE);
+        // Ticked before the closes were read, so its reference is replaced
+        tick(service, "AAPL", "110.00");
+
+        service.seedPreviousCloses();
+        tick(service, "MSFT", "190.00");
+        tick(service, "KO", "60.00");
+        tick(service, "KO", "63.00");
+
+        assertEquals(List.of("AAPL", "KO"), symbols(service.getMovers(Direction.UP, 10)));
+        assertEquals(new BigDecimal("100.0000"), service.getMovers(Direction.UP, 1).get(0).getReferencePrice());
+        assertEquals(new BigDecimal("-5.00"), service.getMovers(Direction.DOWN, 1).get(0).getChangePercent());
+    }
+
+    @Test
+    void testSessionOpenDoesNotReadStoredCloses() {
+        service(Reference.SESSION_OPEN).seedPreviousCloses();
+
+        verifyNoInteractions(stockDailyCloseJdbcRepository);
+    }
+
+    @Test
+    void testDeletedStocksAreDropped() {
+        MoversService service = service(Reference.PREVIOUS_CLOSE);
+        tick(service, "AAPL", "100.00");
+        tick(service, "AAPL", "110.00");
+        tick(service, "MSFT", "100.00");
+
+        service.onEvents(List.of(new StockEvent(1L, StockEvent.Type.DELETED, 1L, "AAPL", null, null, null, 0L),
+            new StockEvent(2L, StockEvent.Type.UPDATED, 2L, "MSFT", 1L, null, null, 0L)));
+
+        assertTrue(service.getMovers(Direction.UP, 10).isEmpty());
+        assertEquals(1, service.getSymbolCount());
+    }
+
+    @Test
+    void testParseDirection() {
+        assertEquals(Direction.UP, Direction.parse("up"));
+        assertEquals(Direction.DOWN, Direction.parse("DOWN"));
+        assertThrows(IllegalArgumentException.class, () -> Direction.parse("sideways"));
+    }
+}
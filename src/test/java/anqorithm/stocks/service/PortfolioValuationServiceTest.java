@@ -0,0 +1,127 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.PortfolioHolding;
+import anqorithm.stocks.dto.PortfolioPosition;
+import anqorithm.stocks.dto.PortfolioValuation;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioValuationServiceTest {
+
+    @Mock
+    private StockReadService stockReadService;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("stocks");
+    private RecentTickService recentTickService;
+    private PortfolioValuationService service;
+
+    @BeforeEach
+    void setUp() {
+        recentTickService = new RecentTickService(DataSize.ofKilobytes(1), new SimpleMeterRegistry());
+        service = new PortfolioValuationService(stockReadService, recentTickService, cacheManager, 100,
+            new SimpleMeterRegistry(), () -> 0L);
+    }
+
+    private static Stock stock(String symbol, String price, String sector, String beta) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        stock.setCurrentPrice(new BigDecimal(price));
+        stock.setSector(sector);
+        stock.setBeta(beta != null ? new BigDecimal(beta) : null);
+        return stock;
+    }
+
+    private static PortfolioHolding holding(String symbol, String quantity) {
+        return new PortfolioHolding(symbol, new BigDecimal(quantity));
+    }
+
+    @Test
+    void testValuesHoldingsWithExactTotalsAndWeights() {
+        when(stockReadService.findBySymbols(anyCollection())).thenReturn(List.of(
+            stock("AAPL", "150.00", "Technology", "1.20"),
+            stock("MSFT", "300.00", "Technology", "0.90"),
+            stock("XOM", "100.00", "Energy", null)));
+
+        PortfolioValuation valuation = service.value(List.of(
+            holding("aapl", "10"), holding("MSFT", "5"), holding("XOM", "0.5"), holding("NOPE", "1")));
+
+        assertEquals(0, new BigDecimal("3050.00").compareTo(valuation.getTotalValue()));
+        assertEquals(List.of("NOPE"), valuation.getUnknownSymbols());
+        assertEquals(List.of("Technology", "Energy"), new ArrayList<>(valuation.getSectorWeights().keySet()));
+        assertEquals(new BigDecimal("0.983607"), valuation.getSectorWeights().get("Technology"));
+        assertEquals(new BigDecimal("0.016393"), valuation.getSectorWeights().get("Energy"));
+        // (1500 * 1.20 + 1500 * 0.90) / 3000; XOM has no beta
+        assertEquals(new BigDecimal("1.0500"), valuation.getWeightedBeta());
+
+        PortfolioPosition aapl = valuation.getPositions().get(0);
+        assertEquals("AAPL", aapl.getSymbol());
+        assertEquals(new BigDecimal("0.491803"), aapl.getWeight());
+    }
+
+    @Test
+    void testRepeatedSymbolsAreMerged() {
+        when(stockReadService.findBySymbols(anyCollection())).thenReturn(List.of(stock("AAPL", "150.00", null, null)));
+
+        PortfolioValuation valuation = service.value(List.of(holding("AAPL", "1"), holding("aapl", "2")));
+
+        assertEquals(1, valuation.getPositions().size());
+        assertEquals(0, new BigDecimal("3").compareTo(valuation.getPositions().get(0).getQuantity()));
+        assertEquals(Map.of(PortfolioValuationService.UNCLASSIFIED_SECTOR, new BigDecimal("1.000000")),
+            valuation.getSectorWeights());
+        assertNull(valuation.getWeightedBeta());
+    }
+
+    @Test
+    void testCachedStocksAreNotQueriedAndMissesAreCached() {
+        cacheManager.getCache("stocks").put("AAPL", stock("AAPL", "150.00", "Technology", "1.20"));
+        when(stockReadService.findBySymbols(anyCollection())).thenReturn(List.of(stock("MSFT", "300.00", "Technology", "0.90")));
+
+        service.value(List.of(holding("AAPL", "1"), holding("MSFT", "1")));
+        verify(stockReadService).findBySymbols(List.of("MSFT"));
+
+        service.value(List.of(holding("AAPL", "1"), holding("MSFT", "1")));
+        verifyNoMoreInteractions(stockReadService);
+    }
+
+    @Test
+    void testNewestTickOverridesStoredPrice() {
+        when(stockReadService.findBySymbols(anyCollection())).thenReturn(List.of(stock("AAPL", "150.00", null, null)));
+        recentTickService.onTick(new Tick(1L, "AAPL", new BigDecimal("155.25"), 100, System.currentTimeMillis()));
+
+        PortfolioValuation valuation = service.value(List.of(holding("AAPL", "2")));
+
+        assertEquals(new BigDecimal("155.2500"), valuation.getPositions().get(0).getPrice());
+        assertEquals(0, new BigDecimal("310.50").compareTo(valuation.getTotalValue()));
+    }
+
+    @Test
+    void testTooManyHoldingsAreRejected() {
+        List<PortfolioHolding> holdings = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            holdings.add(holding("S" + i, "1"));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> service.value(holdings));
+        assertThrows(IllegalArgumentException.class, () -> service.value(List.of()));
+        verifyNoInteractions(stockReadService);
+    }
+}
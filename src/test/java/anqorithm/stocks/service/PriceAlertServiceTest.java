@@ -0,0 +1,272 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.alert.PriceAlert;
+import anqorithm.stocks.alert.PriceAlert.Direction;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.exception.StockNotFoundException;
+import anqorithm.stocks.repository.jdbc.PriceAlertJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceAlertServiceTest {
+
+    @Mock
+    private PriceAlertJdbcRepository priceAlertJdbcRepository;
+
+    @Mock
+    private StockReadService stockReadService;
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private PriceAlertService service;
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        service = new PriceAlertService(priceAlertJdbcRepository, stockReadService, publisher, 2, Duration.ofDays(7),
+            Duration.ofMinutes(30), new SimpleMeterRegistry(), () -> 1_000L);
+    }
+
+    private void priceAt(String symbol, String price) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        stock.setCurrentPrice(new BigDecimal(price));
+        when(stockReadService.findBySymbol(symbol)).thenReturn(Optional.of(stock));
+    }
+
+    private PriceAlert create(String symbol, String threshold, Direction direction) {
+        lenient().when(priceAlertJdbcRepository.insert(anyString(), anyString(), any(), any(), anyLong()))
+            .thenAnswer(invocation -> nextId++);
+        return service.create("alice", symbol, new BigDecimal(threshold), direction);
+    }
+
+    private void tick(String symbol, String price) {
+        service.onTick(new Tick(1L, symbol, new BigDecimal(price), 100, 2_000L));
+    }
+
+    @Test
+    void testDirectionIsInferredFromCurrentPrice() {
+        priceAt("AAPL", "170.00");
+
+        assertEquals(Direction.ABOVE, create("aapl", "180", null).getDirection());
+        assertEquals(Direction.BELOW, create("AAPL", "150", null).getDirection());
+        verify(priceAlertJdbcRepository).insert("alice", "AAPL", Direction.ABOVE, new BigDecimal("180.0000"), 1_000L);
+        assertEquals(2, service.getActiveCount());
+    }
+
+    @Test
+    void testAlreadySatisfiedAlertIsRejected() {
+        priceAt("AAPL", "170.00");
+
+        assertThrows(IllegalArgumentException.class, () -> create("AAPL", "160", Direction.ABOVE));
+        assertThrows(IllegalArgumentException.class, () -> create("AAPL", "170", null));
+        verify(priceAlertJdbcRepository, never()).insert(anyString(), anyString(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testUnknownSymbolAndLimitAreRejected() {
+        when(stockReadService.findBySymbol("NOPE")).thenReturn(Optional.empty());
+        assertThrows(StockNotFoundException.class, () -> create("NOPE", "10", null));
+
+        priceAt("AAPL", "170.00");
+        when(priceAlertJdbcRepository.countActiveByUsername("alice")).thenReturn(2L);
+        assertThrows(IllegalArgumentException.class, () -> create("AAPL", "180", null));
+    }
+
+    @Test
+    void testTickFiresCrossedAlertsOnceThroughDispatch() {
+        priceAt("AAPL", "170.00");
+        PriceAlert above = create("AAPL", "180", null);
+        create("AAPL", "150", null);
+
+        tick("AAPL", "175.00");
+        assertEquals(0, service.getPendingCount());
+
+        tick("AAPL", "181.25");
+        tick("AAPL", "190.00");
+        assertEquals(1, service.getPendingCount());
+        assertEquals(1, service.getActiveCount());
+
+        when(priceAlertJdbcRepository.batchMarkFired(anyList())).thenReturn(new int[] {1});
+        assertEquals(1, service.dispatch());
+        verify(priceAlertJdbcRepository).batchMarkFired(argThat(alerts -> alerts.size() == 1
+            && alerts.get(0).getId() == above.getId()
+            && alerts.get(0).getFiredPrice().compareTo(new BigDecimal("181.25")) == 0
+            && alerts.get(0).getFiredAtMillis() == 2_000L));
+        assertEquals(0, service.getPendingCount());
+    }
+
+    @Test
+    void testMarkedAlertIsAnnouncedToEveryInstance() {
+        priceAt("AAPL", "170.00");
+        PriceAlert alert = create("AAPL", "180", null);
+        tick("AAPL", "185.00");
+        when(priceAlertJdbcRepository.batchMarkFired(anyList())).thenReturn(new int[] {1});
+        when(publisher.isActive()).thenReturn(true);
+
+        assertEquals(1, service.dispatch());
+
+        verify(publisher).publish(PriceAlertService.CHANNEL,
+            "F," + alert.fire(Tick.toScaled(new BigDecimal("185.00")), 2_000L).toPayload());
+    }
+
+    @Test
+    void testAlertFiredElsewhereLeavesTheIndex() {
+        priceAt("AAPL", "170.00");
+        PriceAlert alert = create("AAPL", "180", null);
+        PriceAlert fired = alert.fire(Tick.toScaled(new BigDecimal("181.00")), 3_000L);
+
+        service.onNotifications(List.of("garbage", "X,1", "F," + fired.toPayload()));
+
+        assertEquals(0, service.getActiveCount());
+        tick("AAPL", "185.00");
+        assertEquals(0, service.getPendingCount());
+    }
+
+    @Test
+    void testFiredPayloadRoundTrips() {
+        PriceAlert fired = new PriceAlert(9L, "a,b %c", "BRK,B", Direction.ABOVE, new BigDecimal("12.5"), 100L)
+            .fire(Tick.toScaled(new BigDecimal("13.25")), 200L);
+
+        PriceAlert parsed = PriceAlert.parse(fired.toPayload());
+
+        assertEquals(9L, parsed.getId());
+        assertEquals("a,b %c", parsed.getUsername());
+        assertEquals("BRK,B", parsed.getSymbol());
+        assertEquals(Direction.ABOVE, parsed.getDirection());
+        assertEquals(0, new BigDecimal("12.5").compareTo(parsed.getThreshold()));
+        assertEquals(100L, parsed.getCreatedAtMillis());
+        assertEquals(200L, parsed.getFiredAtMillis());
+        assertEquals(0, new BigDecimal("13.25").compareTo(parsed.getFiredPrice()));
+        assertThrows(IllegalArgumentException.class, () -> PriceAlert.parse("1,ABOVE,x,0,0,0,A,b"));
+        assertThrows(IllegalArgumentException.class, () -> PriceAlert.parse("1,ABOVE,1,0,5,,A,b"));
+
+        PriceAlert active = PriceAlert.parse(
+            new PriceAlert(1L, "u", "A", Direction.BELOW, BigDecimal.ONE, 0L).toPayload());
+        assertFalse(active.isFired());
+        assertNull(active.getFiredPrice());
+    }
+
+    @Test
+    void testAlertsAreSharedBetweenInstances() {
+        // Two instances on one database: every announcement reaches both, like NOTIFY
+        PriceAlertService other = new PriceAlertService(priceAlertJdbcRepository, stockReadService, publisher, 2,
+            Duration.ofDays(7), Duration.ofMinutes(30), new SimpleMeterRegistry(), () -> 1_000L);
+        when(publisher.isActive()).thenReturn(true);
+        doAnswer(invocation -> {
+            List<String> payloads = List.of(invocation.<String>getArgument(1));
+            service.onNotifications(payloads);
+            other.onNotifications(payloads);
+            return null;
+        }).when(publisher).publish(eq(PriceAlertService.CHANNEL), anyString());
+        priceAt("AAPL", "170.00");
+        PriceAlert kept = create("AAPL", "180", null);
+        PriceAlert deleted = create("AAPL", "190", null);
+        when(priceAlertJdbcRepository.deleteByIdAndUsername(deleted.getId(), "alice")).thenReturn(true);
+
+        assertEquals(2, other.getActiveCount());
+        assertTrue(service.delete("alice", deleted.getId()));
+        assertEquals(1, other.getActiveCount());
+
+        // The crossing price is written on the other instance, which did not create the alert
+        other.onTick(new Tick(1L, "AAPL", new BigDecimal("185.00"), 100, 2_000L));
+        when(priceAlertJdbcRepository.batchMarkFired(anyList())).thenReturn(new int[] {1});
+        assertEquals(1, other.dispatch());
+
+        verify(priceAlertJdbcRepository).batchMarkFired(argThat(alerts -> alerts.get(0).getId() == kept.getId()));
+        assertEquals(0, service.getActiveCount());
+        assertEquals(0, other.getActiveCount());
+        assertEquals(0, service.dispatch());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testReconnectReloadsActiveAlerts() {
+        doAnswer(invocation -> {
+            Consumer<PriceAlert> consumer = invocation.getArgument(0);
+            consumer.accept(new PriceAlert(7L, "alice", "AAPL", Direction.BELOW, new BigDecimal("150"), 0L));
+            return null;
+        }).when(priceAlertJdbcRepository).forEachActive(any(Consumer.class));
+
+        service.onListening();
+        service.onListening();
+
+        assertEquals(1, service.getActiveCount());
+    }
+
+    @Test
+    void testDeletedAlertIsNotDelivered() {
+        priceAt("AAPL", "170.00");
+        create("AAPL", "180", null);
+        tick("AAPL", "185.00");
+        when(priceAlertJdbcRepository.batchMarkFired(anyList())).thenReturn(new int[] {0});
+
+        assertEquals(0, service.dispatch());
+    }
+
+    @Test
+    void testFailedDispatchIsRetried() {
+        priceAt("AAPL", "170.00");
+        create("AAPL", "180", null);
+        tick("AAPL", "185.00");
+        when(priceAlertJdbcRepository.batchMarkFired(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("down"))
+            .thenReturn(new int[] {1});
+
+        assertEquals(0, service.dispatch());
+        assertEquals(1, service.getPendingCount());
+        assertEquals(1, service.dispatch());
+    }
+
+    @Test
+    void testDeleteRemovesOwnedAlertFromIndex() {
+        priceAt("AAPL", "170.00");
+        PriceAlert alert = create("AAPL", "180", null);
+        when(priceAlertJdbcRepository.deleteByIdAndUsername(alert.getId(), "bob")).thenReturn(false);
+        when(priceAlertJdbcRepository.deleteByIdAndUsername(alert.getId(), "alice")).thenReturn(true);
+
+        assertFalse(service.delete("bob", alert.getId()));
+        assertEquals(1, service.getActiveCount());
+        assertTrue(service.delete("alice", alert.getId()));
+        assertEquals(0, service.getActiveCount());
+
+        tick("AAPL", "185.00");
+        assertEquals(0, service.getPendingCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testInitLoadsActiveAlerts() {
+        doAnswer(invocation -> {
+            Consumer<PriceAlert> consumer = invocation.getArgument(0);
+            consumer.accept(new PriceAlert(7L, "alice", "AAPL", Direction.BELOW, new BigDecimal("150"), 0L));
+            return null;
+        }).when(priceAlertJdbcRepository).forEachActive(any(Consumer.class));
+
+        service.init();
+
+        verify(priceAlertJdbcRepository).createTable();
+        assertEquals(1, service.getActiveCount());
+        tick("AAPL", "149.00");
+        assertEquals(1, service.getPendingCount());
+    }
+}
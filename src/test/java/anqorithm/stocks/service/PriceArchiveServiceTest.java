@@ -0,0 +1,187 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.archive.TickBlockEncoder;
+import anqorithm.stocks.dto.PricePoint;
+import anqorithm.stocks.repository.jdbc.StockPriceArchiveJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockPriceJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceArchiveServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 15);
+    private static final long DAY_START = DAY.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    @Mock
+    private StockPriceJdbcRepository stockPriceJdbcRepository;
+
+    @Mock
+    private StockPriceArchiveJdbcRepository stockPriceArchiveJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PriceArchiveService priceArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        priceArchiveService = new PriceArchiveService(stockPriceJdbcRepository, stockPriceArchiveJdbcRepository,
+            transactionManager, 2, 3);
+    }
+
+    private byte[] block(long... timestamps) {
+        TickBlockEncoder encoder = new TickBlockEncoder();
+        for (long timestamp : timestamps) {
+            encoder.add(timestamp, 1_500_000L, 100L);
+        }
+        return encoder.toByteArray();
+    }
+
+    @Test
+    void testArchiveSkipsNonPostgres() {
+        when(stockPriceJdbcRepository.isPostgres()).thenReturn(false);
+
+        priceArchiveService.archive();
+
+        verifyNoInteractions(stockPriceArchiveJdbcRepository);
+    }
+
+    @Test
+    void testArchiveSwallowsDatabaseErrors() {
+        when(stockPriceJdbcRepository.isPostgres()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(() -> priceArchiveService.archive());
+    }
+
+    @Test
+    void testArchivePartitionsOnlyOldUnarchivedDays() {
+        when(stockPriceJdbcRepository.findPartitionNames()).thenReturn(List.of(
+            "stock_prices_p20260112", "stock_prices_p20260113", "stock_prices_p20260114", "stock_prices_p20260115"));
+        when(stockPriceArchiveJdbcRepository.existsByDay(LocalDate.of(2026, 1, 12))).thenReturn(true);
+        when(stockPriceArchiveJdbcRepository.existsByDay(LocalDate.of(2026, 1, 13))).thenReturn(false);
+        when(stockPriceJdbcRepository.findSymbolsBetween(any(), any())).thenReturn(List.of());
+
+        List<LocalDate> archived = priceArchiveService.archivePartitions(LocalDate.of(2026, 1, 16));
+
+        assertEquals(List.of(LocalDate.of(2026, 1, 13)), archived);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testFailedDayIsRolledBackAndNotReportedArchived() {
+        when(stockPriceJdbcRepository.findPartitionNames()).thenReturn(List.of("stock_prices_p20260113"));
+        when(stockPriceJdbcRepository.findSymbolsBetween(any(), any())).thenReturn(List.of("AAPL", "MSFT"));
+        doAnswer(invocation -> {
+            TickBlockEncoder encoder = invocation.getArgument(3);
+            encoder.add(DAY_START, 1_500_000L, 100L);
+            return null;
+        }).when(stockPriceJdbcRepository).encodeBySymbolBetween(anyString(), any(), any(), any());
+        when(stockPriceArchiveJdbcRepository.insertBlock(anyString(), any(), anyInt(), any()))
+            .thenReturn(1)
+            .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+            () -> priceArchiveService.archivePartitions(LocalDate.of(2026, 1, 16)));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testArchiveDayWritesOneBlockPerSymbol() {
+        when(stockPriceJdbcRepository.findSymbolsBetween(any(), any())).thenReturn(List.of("AAPL", "MSFT"));
+        doAnswer(invocation -> {
+            TickBlockEncoder encoder = invocation.getArgument(3);
+            encoder.add(DAY_START, 1_500_000L, 100L);
+            encoder.add(DAY_START + 1000, 1_500_100L, 200L);
+            return null;
+        }).when(stockPriceJdbcRepository).encodeBySymbolBetween(eq("AAPL"), any(), any(), any());
+
+        long ticks = priceArchiveService.archiveDay(DAY);
+
+        assertEquals(2, ticks);
+        verify(stockPriceJdbcRepository).encodeBySymbolBetween(eq("AAPL"),
+            eq(Instant.ofEpochMilli(DAY_START)), eq(Instant.ofEpochMilli(DAY_START + 86_400_000L)), any());
+        verify(stockPriceArchiveJdbcRepository).insertBlock(eq("AAPL"), eq(DAY), eq(2), any(byte[].class));
+        verify(stockPriceArchiveJdbcRepository, never()).insertBlock(eq("MSFT"), any(), anyInt(), any());
+    }
+
+    @Test
+    void testFindHistoryDecodesWindowAcrossBlocks() {
+        when(stockPriceArchiveJdbcRepository.findBlocksBySymbolBetween("AAPL", DAY, DAY.plusDays(1)))
+            .thenReturn(List.of(block(DAY_START, DAY_START + 1000), block(DAY_START + 86_400_000L)));
+
+        List<PricePoint> points = priceArchiveService.findHistory("aapl",
+            Instant.ofEpochMilli(DAY_START + 500), Instant.ofEpochMilli(DAY_START + 86_400_500L), 100);
+
+        assertEquals(2, points.size());
+        assertEquals(Instant.ofEpochMilli(DAY_START + 1000), points.get(0).getTimestamp().toInstant());
+        assertEquals(new BigDecimal("150.0000"), points.get(0).getPrice());
+        assertEquals(100L, points.get(0).getVolume());
+        assertEquals(Instant.ofEpochMilli(DAY_START + 86_400_000L), points.get(1).getTimestamp().toInstant());
+    }
+
+    @Test
+    void testFindHistoryKeepsMissingVolumes() {
+        TickBlockEncoder encoder = new TickBlockEncoder();
+        encoder.add(DAY_START, 1_500_000L, TickBlockEncoder.NO_VOLUME);
+        encoder.add(DAY_START + 1, 1_500_000L, 0L);
+        when(stockPriceArchiveJdbcRepository.findBlocksBySymbolBetween(anyString(), any(), any()))
+            .thenReturn(List.of(encoder.toByteArray()));
+
+        List<PricePoint> points = priceArchiveService.findHistory("AAPL",
+            Instant.ofEpochMilli(DAY_START), Instant.ofEpochMilli(DAY_START + 1000), 100);
+
+        assertNull(points.get(0).getVolume());
+        assertEquals(0L, points.get(1).getVolume());
+    }
+
+    @Test
+    void testFindHistoryCapsLimit() {
+        when(stockPriceArchiveJdbcRepository.findBlocksBySymbolBetween(anyString(), any(), any()))
+            .thenReturn(List.of(block(DAY_START, DAY_START + 1, DAY_START + 2, DAY_START + 3, DAY_START + 4)));
+
+        List<PricePoint> points = priceArchiveService.findHistory("AAPL",
+            Instant.ofEpochMilli(DAY_START), Instant.ofEpochMilli(DAY_START + 1000), 100);
+
+        assertEquals(3, points.size());
+    }
+
+    @Test
+    void testFindHistoryRejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> priceArchiveService.findHistory("AAPL",
+            Instant.ofEpochMilli(DAY_START + 1), Instant.ofEpochMilli(DAY_START), 10));
+    }
+
+    @Test
+    void testStatsCompareArchiveWithTable() {
+        when(stockPriceJdbcRepository.isPostgres()).thenReturn(true);
+        when(stockPriceArchiveJdbcRepository.findStats())
+            .thenReturn(Map.of("blocks", 2L, "ticks", 1000L, "stored_bytes", 4000L));
+        when(stockPriceJdbcRepository.findTableSize())
+            .thenReturn(Map.of("total_bytes", 80000L, "estimated_rows", 1000L));
+
+        Map<String, Object> stats = priceArchiveService.getStats();
+
+        assertEquals(new BigDecimal("4.00"), stats.get("archiveBytesPerTick"));
+        assertEquals(new BigDecimal("80.00"), stats.get("tableBytesPerTick"));
+        assertEquals(new BigDecimal("20.0"), stats.get("compressionRatio"));
+    }
+}
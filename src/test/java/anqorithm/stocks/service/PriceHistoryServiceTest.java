@@ -0,0 +1,134 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.PricePoint;
+import anqorithm.stocks.repository.jdbc.StockPriceJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryServiceTest {
+
+    @Mock
+    private StockPriceJdbcRepository stockPriceJdbcRepository;
+
+    private PriceHistoryService priceHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        priceHistoryService = new PriceHistoryService(stockPriceJdbcRepository, 4, 2, 100, new SimpleMeterRegistry());
+    }
+
+    private Tick tick(long timestamp) {
+        return new Tick(1L, "AAPL", new BigDecimal("150.00"), 1000L, timestamp);
+    }
+
+    @Test
+    void testOnTickBuffersWithoutWriting() {
+        priceHistoryService.onTick(tick(1L));
+        priceHistoryService.onTick(tick(2L));
+
+        assertEquals(2, priceHistoryService.getPendingCount());
+        verifyNoInteractions(stockPriceJdbcRepository);
+    }
+
+    @Test
+    void testFlushWritesInBatches() {
+        List<List<Tick>> batches = new ArrayList<>();
+        when(stockPriceJdbcRepository.batchInsert(anyList(), eq(2))).thenAnswer(invocation -> {
+            List<Tick> batch = invocation.getArgument(0);
+            batches.add(new ArrayList<>(batch));
+            return batch.size();
+        });
+        priceHistoryService.onTick(tick(1L));
+        priceHistoryService.onTick(tick(2L));
+        priceHistoryService.onTick(tick(3L));
+
+        int written = priceHistoryService.flush();
+
+        assertEquals(3, written);
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+        assertEquals(0, priceHistoryService.getPendingCount());
+    }
+
+    @Test
+    void testFlushWithEmptyBufferDoesNothing() {
+        assertEquals(0, priceHistoryService.flush());
+        verifyNoInteractions(stockPriceJdbcRepository);
+    }
+
+    @Test
+    void testOnTickDropsAndCountsOverflowWithoutWriting() {
+        for (long i = 0; i < 6; i++) {
+            priceHistoryService.onTick(tick(i));
+        }
+
+        assertEquals(4, priceHistoryService.getPendingCount());
+        assertEquals(2, priceHistoryService.getDroppedCount());
+        verifyNoInteractions(stockPriceJdbcRepository);
+    }
+
+    @Test
+    void testFlushSurvivesDatabaseFailure() {
+        when(stockPriceJdbcRepository.batchInsert(anyList(), eq(2)))
+            .thenThrow(new DataAccessResourceFailureException("down"));
+        priceHistoryService.onTick(tick(1L));
+
+        assertEquals(0, priceHistoryService.flush());
+        assertEquals(0, priceHistoryService.getPendingCount());
+    }
+
+    @Test
+    void testShutdownFlushesPendingTicks() {
+        when(stockPriceJdbcRepository.batchInsert(anyList(), eq(2))).thenReturn(1);
+        priceHistoryService.onTick(tick(1L));
+
+        priceHistoryService.shutdown();
+
+        verify(stockPriceJdbcRepository).batchInsert(anyList(), eq(2));
+    }
+
+    @Test
+    void testFindHistoryBoundsLimitAndUppercasesSymbol() {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-01-02T00:00:00Z");
+        PricePoint point = new PricePoint(from.atZone(ZoneOffset.UTC), new BigDecimal("150.0000"), 10L);
+        when(stockPriceJdbcRepository.findBySymbolBetween("AAPL", from, to, 100)).thenReturn(List.of(point));
+
+        List<PricePoint> result = priceHistoryService.findHistory("aapl", from, to, 5000);
+
+        assertEquals(1, result.size());
+        verify(stockPriceJdbcRepository).findBySymbolBetween("AAPL", from, to, 100);
+    }
+
+    @Test
+    void testFindHistoryRejectsInvertedWindow() {
+        Instant from = Instant.parse("2026-01-02T00:00:00Z");
+        Instant to = Instant.parse("2026-01-01T00:00:00Z");
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> priceHistoryService.findHistory("AAPL", from, to, 10)
+        );
+
+        assertEquals("from cannot be after to", exception.getMessage());
+        verifyNoInteractions(stockPriceJdbcRepository);
+    }
+}
@@ -0,0 +1,79 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.TickSeries;
+import anqorithm.stocks.tick.Tick;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentTickServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecentTickService recentTickService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recentTickService = new RecentTickService(DataSize.ofBytes(1024), meterRegistry);
+    }
+
+    @Test
+    void testCapacityIsDerivedFromMemoryBudget() {
+        // 1024 bytes / 24 bytes per tick = 42 ticks, rounded down to 32
+        assertEquals(32, recentTickService.getCapacityPerSymbol());
+        assertEquals(32 * 24, recentTickService.getMemoryPerSymbolBytes());
+        assertEquals(4096, RecentTickService.capacityFor(DataSize.ofKilobytes(96)));
+    }
+
+    @Test
+    void testCapacityRejectsTooSmallBudget() {
+        assertThrows(IllegalArgumentException.class, () -> RecentTickService.capacityFor(DataSize.ofBytes(10)));
+    }
+
+    @Test
+    void testGetRecentTicksWithinWindow() {
+        long now = System.currentTimeMillis();
+        recentTickService.onTick(new Tick(1L, "AAPL", new BigDecimal("150.00"), 100L, now - 60_000));
+        recentTickService.onTick(new Tick(1L, "AAPL", new BigDecimal("151.25"), 200L, now - 1_000));
+
+        TickSeries series = recentTickService.getRecentTicks("aapl", Duration.ofSeconds(30));
+
+        assertEquals("AAPL", series.getSymbol());
+        assertEquals(1, series.getCount());
+        assertEquals(new BigDecimal("151.2500"), series.getPrices()[0]);
+        assertEquals(200L, series.getVolumes()[0]);
+        assertEquals(now - 1_000, series.getTimestamps()[0]);
+    }
+
+    @Test
+    void testGetRecentTicksForUnknownSymbol() {
+        TickSeries series = recentTickService.getRecentTicks("NONE", Duration.ofMinutes(5));
+
+        assertEquals(0, series.getCount());
+        assertEquals(0, series.getTimestamps().length);
+    }
+
+    @Test
+    void testGetRecentTicksRejectsNonPositiveWindow() {
+        assertThrows(IllegalArgumentException.class,
+            () -> recentTickService.getRecentTicks("AAPL", Duration.ZERO));
+    }
+
+    @Test
+    void testMemoryIsReported() {
+        long now = System.currentTimeMillis();
+        recentTickService.onTick(new Tick(1L, "AAPL", BigDecimal.ONE, 1L, now));
+        recentTickService.onTick(new Tick(2L, "MSFT", BigDecimal.ONE, 1L, now));
+
+        assertEquals(2, recentTickService.getSymbolCount());
+        assertEquals(2 * 32 * 24, recentTickService.getTotalMemoryBytes());
+        assertEquals(2.0, meterRegistry.get("stocks.ticks.symbols").gauge().value());
+        assertEquals(2 * 32 * 24.0, meterRegistry.get("stocks.ticks.memory").gauge().value());
+    }
+}
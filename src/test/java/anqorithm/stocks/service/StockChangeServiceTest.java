@@ -0,0 +1,156 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.StockChange;
+import anqorithm.stocks.dto.StockChangeFeed;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.exception.ChangeCursorExpiredException;
+import anqorithm.stocks.repository.jdbc.StockJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockTombstoneJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockTombstoneJdbcRepository.Tombstone;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockChangeServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-15T12:00:00Z");
+
+    @Mock
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Mock
+    private StockTombstoneJdbcRepository stockTombstoneJdbcRepository;
+
+    private StockChangeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StockChangeService(stockJdbcRepository, stockTombstoneJdbcRepository, Duration.ofSeconds(1),
+            Duration.ofDays(7), Duration.ofSeconds(30), new SimpleMeterRegistry(), NOW::toEpochMilli);
+    }
+
+    private static OffsetDateTime at(int second) {
+        return OffsetDateTime.of(2024, 1, 15, 11, 0, second, 0, ZoneOffset.UTC);
+    }
+
+    private static Stock stock(long id, String symbol, OffsetDateTime updatedAt) {
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setSymbol(symbol);
+        stock.setVersion(3L);
+        stock.setUpdatedAt(updatedAt.toZonedDateTime());
+        return stock;
+    }
+
+    @Test
+    void testCursorRoundTrip() {
+        ChangeCursor cursor = ChangeCursor.of(Instant.parse("2024-01-15T11:00:00.123456Z"), 42);
+
+        assertEquals(cursor, ChangeCursor.decode(cursor.encode()));
+        assertEquals(Instant.parse("2024-01-15T11:00:00.123456Z"), cursor.getTimestamp());
+        assertSame(ChangeCursor.START, ChangeCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> ChangeCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void testMergesUpdatesAndTombstonesInOrder() {
+        when(stockJdbcRepository.findChangedSince(any(), eq(0L), any(), eq(11)))
+            .thenReturn(List.of(stock(2, "AAPL", at(1)), stock(1, "MSFT", at(3))));
+        when(stockTombstoneJdbcRepository.findDeletedSince(any(), eq(0L), any(), eq(11)))
+            .thenReturn(List.of(new Tombstone(5, "TSLA", at(2))));
+
+        StockChangeFeed feed = service.findChanges(null, 10);
+
+        assertEquals(List.of("AAPL", "TSLA", "MSFT"), feed.getChanges().stream().map(StockChange::getSymbol).toList());
+        assertEquals(StockChange.Type.DELETE, feed.getChanges().get(1).getType());
+        assertNull(feed.getChanges().get(1).getStock());
+        assertFalse(feed.isHasMore());
+        assertEquals(ChangeCursor.of(at(3).toInstant(), 1), ChangeCursor.decode(feed.getCursor()));
+    }
+
+    @Test
+    void testQueriesAfterCursorUpToSettledHorizon() {
+        ChangeCursor cursor = ChangeCursor.of(at(5).toInstant(), 7);
+
+        service.findChanges(cursor.encode(), 10);
+
+        OffsetDateTime horizon = OffsetDateTime.ofInstant(NOW.minusSeconds(1), ZoneOffset.UTC);
+        verify(stockJdbcRepository).findChangedSince(at(5), 7L, horizon, 11);
+        verify(stockTombstoneJdbcRepository).findDeletedSince(at(5), 7L, horizon, 11);
+    }
+
+    @Test
+    void testHasMoreWhenPageIsFull() {
+        when(stockJdbcRepository.findChangedSince(any(), anyLong(), any(), eq(3)))
+            .thenReturn(List.of(stock(1, "AAPL", at(1)), stock(2, "MSFT", at(1)), stock(3, "NVDA", at(2))));
+
+        StockChangeFeed feed = service.findChanges(null, 2);
+
+        assertEquals(2, feed.getChanges().size());
+        assertTrue(feed.isHasMore());
+        assertEquals(ChangeCursor.of(at(1).toInstant(), 2), ChangeCursor.decode(feed.getCursor()));
+    }
+
+    @Test
+    void testEmptyPageKeepsCursor() {
+        String cursor = ChangeCursor.of(at(5).toInstant(), 7).encode();
+
+        StockChangeFeed feed = service.findChanges(cursor, 10);
+
+        assertTrue(feed.getChanges().isEmpty());
+        assertEquals(cursor, feed.getCursor());
+    }
+
+    @Test
+    void testCursorOlderThanTombstoneRetentionIsRejected() {
+        String cursor = ChangeCursor.of(NOW.minus(Duration.ofDays(8)), 1).encode();
+
+        assertThrows(ChangeCursorExpiredException.class, () -> service.findChanges(cursor, 10));
+    }
+
+    @Test
+    void testLongPollIsAnsweredWhenChangesArrive() {
+        DeferredResult<StockChangeFeed> result = service.pollChanges(null, 10, Duration.ofSeconds(10));
+
+        assertFalse(result.hasResult());
+        assertEquals(1, service.getWaiterCount());
+
+        when(stockJdbcRepository.findChangedSince(any(), anyLong(), any(), anyInt()))
+            .thenReturn(List.of(stock(1, "AAPL", at(1))));
+        service.checkWaiters();
+
+        assertTrue(result.hasResult());
+        assertEquals(1, ((StockChangeFeed) result.getResult()).getChanges().size());
+    }
+
+    @Test
+    void testNoWaitAnswersImmediately() {
+        DeferredResult<StockChangeFeed> result = service.pollChanges(null, 10, Duration.ZERO);
+
+        assertTrue(result.hasResult());
+        assertEquals(0, service.getWaiterCount());
+    }
+
+    @Test
+    void testPruneDeletesTombstonesOutsideRetention() {
+        service.pruneTombstones();
+
+        verify(stockTombstoneJdbcRepository).deleteOlderThan(
+            OffsetDateTime.ofInstant(NOW.minus(Duration.ofDays(7)), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,107 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.repository.jdbc.StockPriceJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockPricePartitionManagerTest {
+
+    @Mock
+    private StockPriceJdbcRepository stockPriceJdbcRepository;
+
+    private StockPricePartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        partitionManager = new StockPricePartitionManager(stockPriceJdbcRepository, 2, 30);
+    }
+
+    @Test
+    void testMaintainPartitionsSkipsNonPostgres() {
+        when(stockPriceJdbcRepository.isPostgres()).thenReturn(false);
+
+        partitionManager.maintainPartitions();
+
+        verify(stockPriceJdbcRepository, never()).createParentTable();
+        verify(stockPriceJdbcRepository, never()).createDailyPartition(any());
+    }
+
+    @Test
+    void testMaintainPartitionsOnPostgres() {
+        when(stockPriceJdbcRepository.isPostgres()).thenReturn(true);
+        when(stockPriceJdbcRepository.findPartitionNames()).thenReturn(List.of());
+
+        partitionManager.onStartup();
+
+        verify(stockPriceJdbcRepository).createParentTable();
+        verify(stockPriceJdbcRepository, times(3)).createDailyPartition(any(LocalDate.class));
+    }
+
+    @Test
+    void testMaintainPartitionsSwallowsDatabaseErrors() {
+        when(stockPriceJdbcRepository.isPostgres()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(() -> partitionManager.maintainPartitions());
+    }
+
+    @Test
+    void testCreatePartitionsCoversTodayAndDaysAhead() {
+        LocalDate today = LocalDate.of(2026, 3, 1);
+
+        partitionManager.createPartitions(today);
+
+        verify(stockPriceJdbcRepository).createDailyPartition(LocalDate.of(2026, 3, 1));
+        verify(stockPriceJdbcRepository).createDailyPartition(LocalDate.of(2026, 3, 2));
+        verify(stockPriceJdbcRepository).createDailyPartition(LocalDate.of(2026, 3, 3));
+    }
+
+    @Test
+    void testDropExpiredPartitions() {
+        LocalDate today = LocalDate.of(2026, 3, 31);
+        when(stockPriceJdbcRepository.findPartitionNames()).thenReturn(List.of(
+            "stock_prices_p20260227", "stock_prices_p20260301", "stock_prices_p20260331", "stock_prices_default"));
+
+        List<String> dropped = partitionManager.dropExpiredPartitions(today);
+
+        assertEquals(List.of("stock_prices_p20260227"), dropped);
+        verify(stockPriceJdbcRepository).dropPartition("stock_prices_p20260227");
+        verify(stockPriceJdbcRepository, times(1)).dropPartition(anyString());
+        verify(stockPriceJdbcRepository).deleteDefaultPartitionBefore(LocalDate.of(2026, 3, 1));
+    }
+
+    @Test
+    void testCreatePartitionsContinuesPastFailedDay() {
+        LocalDate today = LocalDate.of(2026, 3, 1);
+        doThrow(new DataAccessResourceFailureException("default partition has rows"))
+            .when(stockPriceJdbcRepository).createDailyPartition(today);
+
+        partitionManager.createPartitions(today);
+
+        verify(stockPriceJdbcRepository).createDailyPartition(LocalDate.of(2026, 3, 3));
+    }
+
+    @Test
+    void testParsePartitionDay() {
+        assertEquals(LocalDate.of(2026, 1, 15), StockPricePartitionManager.parsePartitionDay("stock_prices_p20260115"));
+        assertNull(StockPricePartitionManager.parsePartitionDay("stock_prices_pXYZ"));
+        assertNull(StockPricePartitionManager.parsePartitionDay("other_table"));
+        assertNull(StockPricePartitionManager.parsePartitionDay(null));
+    }
+
+    @Test
+    void testPartitionName() {
+        assertEquals("stock_prices_p20260115", StockPriceJdbcRepository.partitionName(LocalDate.of(2026, 1, 15)));
+    }
+}
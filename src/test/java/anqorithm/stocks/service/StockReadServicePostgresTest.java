@@ -0,0 +1,59 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.StockStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Queries whose result types differ between H2 and PostgreSQL, run against PostgreSQL
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class StockReadServicePostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private StockReadService stockReadService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+            postgres.getPassword()));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS stocks");
+        jdbcTemplate.execute("CREATE TABLE stocks (id BIGSERIAL PRIMARY KEY, current_price DECIMAL(10,2), " +
+            "market_cap BIGINT, pe_ratio DECIMAL(10,2), volume BIGINT)");
+        stockReadService = new StockReadService(jdbcTemplate);
+    }
+
+    @Test
+    void testMarketSummaryReadsSummedBigints() {
+        jdbcTemplate.update("INSERT INTO stocks (current_price, market_cap, pe_ratio, volume) VALUES " +
+            "(100.00, 2000000000000, 20.00, 1000), (50.00, 1000000000000, NULL, NULL)");
+
+        StockStats stats = stockReadService.findMarketSummary();
+
+        assertEquals(2L, stats.getTotalStocks());
+        assertEquals(3_000_000_000_000L, stats.getTotalMarketCap());
+        assertEquals(1_000L, stats.getTotalVolume());
+        assertEquals(0, new BigDecimal("75").compareTo(stats.getAveragePrice()));
+    }
+
+    @Test
+    void testMarketSummaryOfNoStocks() {
+        StockStats stats = stockReadService.findMarketSummary();
+
+        assertEquals(0L, stats.getTotalStocks());
+        assertNull(stats.getTotalMarketCap());
+        assertNull(stats.getTotalVolume());
+    }
+}
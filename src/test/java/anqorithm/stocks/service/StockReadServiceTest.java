@@ -17,6 +17,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -140,6 +141,27 @@ class StockReadServiceTest {
         verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq("Technology"), eq(10), eq(0));
     }
 
+    @Test
+    void testFindBySectorProjectsOnlyRequestedColumns() {
+        FieldProjection fields = FieldProjection.parse("symbol,currentPrice");
+        List<Map<String, Object>> rows = List.of(Map.of("symbol", "AAPL", "currentPrice", new BigDecimal("150.00")));
+        when(jdbcTemplate.query(startsWith("SELECT symbol, current_price FROM stocks WHERE sector = ?"), same(fields),
+            eq("Technology"), eq(10), eq(0))).thenReturn(rows);
+
+        List<Map<String, Object>> result = stockReadService.findBySector(fields, "Technology", 10, 0);
+
+        assertEquals(rows, result);
+    }
+
+    @Test
+    void testFindAllSortedOrdersBySortColumnThenId() {
+        FieldProjection fields = FieldProjection.parse("symbol");
+        when(jdbcTemplate.query(eq("SELECT symbol FROM stocks ORDER BY market_cap DESC, id LIMIT ? OFFSET ?"),
+            same(fields), eq(20), eq(40))).thenReturn(List.of());
+
+        assertTrue(stockReadService.findAllSorted(fields, StockField.MARKET_CAP, true, 20, 40).isEmpty());
+    }
+
     @Test
     void testFindByIndustry() {
         List<Stock> stocks = Arrays.asList(sampleStock);
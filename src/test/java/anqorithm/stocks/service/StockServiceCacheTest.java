@@ -0,0 +1,69 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.entity.Stock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "server.port=0"
+})
+class StockServiceCacheTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void testSymbolLookupsAreCachedUnderTheUpperCaseSymbol() {
+        Stock stock = new Stock();
+        stock.setSymbol("CASE");
+        stock.setName("Case Inc.");
+        stock.setCurrentPrice(new BigDecimal("10.00"));
+        stockService.create(stock);
+        Cache stocks = cacheManager.getCache("stocks");
+
+        assertTrue(stockService.findBySymbol("case").isPresent());
+        assertNotNull(stocks.get("CASE"));
+        assertNull(stocks.get("case"));
+
+        assertTrue(stockService.deleteBySymbol("case"));
+        assertNull(stocks.get("CASE"));
+    }
+
+    @Test
+    void testPriceWritesEvictTheCachedStock() {
+        Stock stock = new Stock();
+        stock.setSymbol("STALE");
+        stock.setName("Stale Inc.");
+        stock.setCurrentPrice(new BigDecimal("150.00"));
+        Long id = stockService.create(stock).getId();
+        assertTrue(stockService.findBySymbol("stale").isPresent());
+        assertTrue(stockService.findById(id).isPresent());
+
+        stockService.updatePrice("stale", new BigDecimal("40.00"));
+
+        assertEquals(0, new BigDecimal("40.00").compareTo(stockService.findBySymbol("STALE").get().getCurrentPrice()));
+        assertEquals(0, new BigDecimal("40.00").compareTo(stockService.findById(id).get().getCurrentPrice()));
+
+        Stock rename = new Stock();
+        rename.setSymbol("FRESH");
+        stockService.update(id, rename);
+
+        assertTrue(stockService.findBySymbol("STALE").isEmpty());
+        stockService.deleteById(id);
+    }
+}
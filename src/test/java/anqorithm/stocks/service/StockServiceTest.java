@@ -1,11 +1,22 @@
 package anqorithm.stocks.service;
 
+import anqorithm.stocks.aggregate.RankedMetric;
+import anqorithm.stocks.aggregate.StockAggregateRegistry;
+import anqorithm.stocks.aggregate.StockRankingRegistry;
+import anqorithm.stocks.cache.CacheInvalidation;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.dto.StockAggregate;
 import anqorithm.stocks.entity.Stock;
 import anqorithm.stocks.repository.jpa.StockRepository;
+import anqorithm.stocks.outbox.StockEvent;
 import anqorithm.stocks.repository.jdbc.StockJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import anqorithm.stocks.tick.Tick;
+import anqorithm.stocks.tick.TickPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -36,6 +47,33 @@ class StockServiceTest {
     @Mock
     private StockReadService stockReadService;
 
+    @Mock
+    private TickPublisher tickPublisher;
+
+    @Mock
+    private WriteBehindService writeBehindService;
+
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Mock
+    private StockChangeService stockChangeService;
+
+    @Mock
+    private StockOutboxJdbcRepository stockOutboxJdbcRepository;
+
+    @Mock
+    private StockAggregateRegistry stockAggregateRegistry;
+
+    @Mock
+    private StockRankingRegistry stockRankingRegistry;
+
+    @Mock
+    private FiftyTwoWeekRangeService fiftyTwoWeekRangeService;
+
+    @Mock
+    private VolumeAverageService volumeAverageService;
+
     @InjectMocks
     private StockService stockService;
 
@@ -166,6 +204,8 @@ class StockServiceTest {
         assertEquals("GOOGL", result.getSymbol());
         verify(stockJdbcRepository).existsBySymbol("GOOGL");
         verify(stockRepository).save(argThat(stock -> "GOOGL".equals(stock.getSymbol())));
+        verify(tickPublisher).publish(argThat(tick -> "GOOGL".equals(tick.getSymbol())
+            && tick.getPrice().compareTo(new BigDecimal("130.00")) == 0));
     }
 
     @Test
@@ -237,6 +277,34 @@ class StockServiceTest {
         assertEquals("Technology Updated", existingStock.getSector());
         verify(stockRepository).findById(1L);
         verify(stockRepository).save(existingStock);
+        verify(tickPublisher).publish(argThat(tick -> tick.getPrice().compareTo(new BigDecimal("155.00")) == 0
+            && tick.getVolume() == 1100000L));
+        // The edit sets the extremes and the average itself, so they are not derived from the new values
+        verify(fiftyTwoWeekRangeService, never()).observe(any(), anyLong());
+        verify(volumeAverageService, never()).observe(any(), anyLong());
+    }
+
+    @Test
+    void testUpdatePriceFeedsTheDerivedValuesAndTicks() {
+        Stock existingStock = new Stock();
+        existingStock.setId(1L);
+        existingStock.setSymbol("AAPL");
+        existingStock.setCurrentPrice(new BigDecimal("150.00"));
+        existingStock.setVolume(100L);
+
+        Stock updateData = new Stock();
+        updateData.setCurrentPrice(new BigDecimal("150.000"));
+        updateData.setVolume(200L);
+        updateData.setAverageVolume(null);
+
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(existingStock));
+        when(stockRepository.save(any(Stock.class))).thenReturn(existingStock);
+
+        stockService.update(1L, updateData);
+
+        verify(fiftyTwoWeekRangeService, never()).observe(any(), anyLong());
+        verify(volumeAverageService).observe(eq(existingStock), anyLong());
+        verify(tickPublisher).publish(argThat(tick -> tick.getVolume() == 200L));
     }
 
     @Test
@@ -320,28 +388,50 @@ class StockServiceTest {
         assertEquals("Original Name", existingStock.getName());
         assertEquals(new BigDecimal("150.00"), existingStock.getCurrentPrice());
         verify(stockRepository).save(existingStock);
+        verify(tickPublisher, never()).publish(any(Tick.class));
     }
 
     @Test
     void testDeleteByIdSuccess() {
-        when(stockRepository.existsById(1L)).thenReturn(true);
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(sampleStock));
 
         boolean result = stockService.deleteById(1L);
 
         assertTrue(result);
-        verify(stockRepository).existsById(1L);
-        verify(stockRepository).deleteById(1L);
+        verify(stockRepository).findById(1L);
+        verify(stockRepository).delete(sampleStock);
+        verify(stockOutboxJdbcRepository).insert(argThat(event ->
+            event.getType() == StockEvent.Type.DELETED && event.getSymbol().equals("AAPL")));
+    }
+
+    @Test
+    void testUpdateAndDeleteFlushJournaledPricesFirst() {
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(sampleStock));
+        when(stockRepository.save(sampleStock)).thenReturn(sampleStock);
+        when(stockRepository.findBySymbol("AAPL")).thenReturn(Optional.of(sampleStock));
+        Stock updateData = new Stock();
+        updateData.setName("Apple Inc. Updated");
+
+        stockService.update(1L, updateData);
+        stockService.deleteBySymbol("aapl");
+
+        InOrder inOrder = inOrder(writeBehindService, stockRepository);
+        inOrder.verify(writeBehindService).flushStock(1L);
+        inOrder.verify(stockRepository).findById(1L);
+        inOrder.verify(writeBehindService).flushSymbol("AAPL");
+        inOrder.verify(stockRepository).findBySymbol("AAPL");
     }
 
     @Test
     void testDeleteByIdNotFound() {
-        when(stockRepository.existsById(999L)).thenReturn(false);
+        when(stockRepository.findById(999L)).thenReturn(Optional.empty());
 
         boolean result = stockService.deleteById(999L);
 
         assertFalse(result);
-        verify(stockRepository).existsById(999L);
-        verify(stockRepository, never()).deleteById(999L);
+        verify(stockRepository).findById(999L);
+        verify(stockRepository, never()).delete(any());
+        verify(stockOutboxJdbcRepository, never()).insert(any());
     }
 
     @Test
@@ -376,6 +466,65 @@ class StockServiceTest {
         assertEquals(new BigDecimal("155.00"), sampleStock.getCurrentPrice());
         verify(stockRepository).findBySymbol("AAPL");
         verify(stockRepository).save(sampleStock);
+        verify(tickPublisher).publish(argThat(tick ->
+            tick.getSymbol().equals("AAPL") && tick.getScaledPrice() == 1550000L));
+    }
+
+    @Test
+    void testUpdatePricePublishesCacheInvalidationAfterFlush() {
+        sampleStock.setVersion(4L);
+        when(stockRepository.findBySymbol("AAPL")).thenReturn(Optional.of(sampleStock));
+        when(stockRepository.save(any(Stock.class))).thenReturn(sampleStock);
+
+        stockService.updatePrice("AAPL", new BigDecimal("155.00"));
+
+        InOrder inOrder = inOrder(stockRepository, cacheInvalidationPublisher);
+        inOrder.verify(stockRepository).flush();
+        inOrder.verify(cacheInvalidationPublisher).publish(
+            new CacheInvalidation(CacheInvalidation.Kind.UPDATE, sampleStock.getId(), 4L, "AAPL"));
+    }
+
+    @Test
+    void testUpdatePriceWritesOutboxEventAfterFlush() {
+        sampleStock.setVersion(4L);
+        when(stockRepository.findBySymbol("AAPL")).thenReturn(Optional.of(sampleStock));
+        when(stockRepository.save(any(Stock.class))).thenReturn(sampleStock);
+
+        stockService.updatePrice("AAPL", new BigDecimal("155.00"));
+
+        InOrder inOrder = inOrder(stockRepository, stockOutboxJdbcRepository);
+        inOrder.verify(stockRepository).flush();
+        inOrder.verify(stockOutboxJdbcRepository).insert(argThat(event ->
+            event.getType() == StockEvent.Type.PRICE_VOLUME_CHANGED && event.getVersion() == 4L
+                && event.getPrice().compareTo(new BigDecimal("155.00")) == 0));
+    }
+
+    @Test
+    void testDeleteBySymbolRecordsTombstoneAndPublishesCacheInvalidation() {
+        when(stockRepository.findBySymbol("AAPL")).thenReturn(Optional.of(sampleStock));
+
+        stockService.deleteBySymbol("aapl");
+
+        verify(stockChangeService).recordDeletion(sampleStock.getId(), "AAPL");
+        verify(cacheInvalidationPublisher).publish(
+            new CacheInvalidation(CacheInvalidation.Kind.DELETE, sampleStock.getId(), null, "AAPL"));
+    }
+
+    @Test
+    void testRenameInvalidatesBothSymbols() {
+        sampleStock.setVersion(2L);
+        Stock updateData = new Stock();
+        updateData.setSymbol("AAPL2");
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(sampleStock));
+        when(stockJdbcRepository.existsBySymbol("AAPL2")).thenReturn(false);
+        when(stockRepository.save(any(Stock.class))).thenReturn(sampleStock);
+
+        stockService.update(1L, updateData);
+
+        verify(cacheInvalidationPublisher).publish(
+            new CacheInvalidation(CacheInvalidation.Kind.MODIFY, 1L, 2L, "AAPL2"));
+        verify(cacheInvalidationPublisher).publish(
+            new CacheInvalidation(CacheInvalidation.Kind.MODIFY, 1L, 2L, "AAPL"));
     }
 
     @Test
@@ -390,6 +539,7 @@ class StockServiceTest {
         assertEquals("Stock not found with symbol: NONEXISTENT", exception.getMessage());
         verify(stockRepository).findBySymbol("NONEXISTENT");
         verify(stockRepository, never()).save(any(Stock.class));
+        verify(tickPublisher, never()).publish(any(Tick.class));
     }
 
     @Test
@@ -402,6 +552,8 @@ class StockServiceTest {
         assertEquals(1500000L, sampleStock.getVolume());
         verify(stockRepository).findBySymbol("AAPL");
         verify(stockRepository).save(sampleStock);
+        verify(volumeAverageService).observe(eq(sampleStock), anyLong());
+        verify(tickPublisher).publish(argThat(tick -> tick.getVolume() == 1500000L));
     }
 
     @Test
@@ -428,6 +580,65 @@ class StockServiceTest {
         assertEquals(1, result);
         verify(stockRepository).findBySymbol("AAPL");
         verify(stockRepository).save(any(Stock.class));
+        verify(tickPublisher).publish(any(Tick.class));
+    }
+
+    @Test
+    void testUpdatePriceWriteBehind() {
+        when(writeBehindService.isEnabled()).thenReturn(true);
+        when(stockReadService.findBySymbol("aapl")).thenReturn(Optional.of(sampleStock));
+        when(writeBehindService.record(sampleStock, new BigDecimal("155.00"), null, false)).thenAnswer(invocation -> {
+            sampleStock.setCurrentPrice(new BigDecimal("155.00"));
+            return sampleStock;
+        });
+
+        Stock result = stockService.updatePrice("aapl", new BigDecimal("155.00"));
+
+        assertEquals(new BigDecimal("155.00"), result.getCurrentPrice());
+        verify(stockRepository, never()).findBySymbol(anyString());
+        verify(stockRepository, never()).save(any(Stock.class));
+        verify(tickPublisher).publish(argThat(tick -> tick.getScaledPrice() == 1550000L));
+    }
+
+    @Test
+    void testUpdateVolumeWriteBehindNotFound() {
+        when(writeBehindService.isEnabled()).thenReturn(true);
+        when(stockReadService.findBySymbol("NONEXISTENT")).thenReturn(Optional.empty());
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> stockService.updateVolume("NONEXISTENT", 1000000L)
+        );
+
+        assertEquals("Stock not found with symbol: NONEXISTENT", exception.getMessage());
+        verify(writeBehindService, never()).record(any(), any(), any(), anyBoolean());
+        verify(tickPublisher, never()).publish(any(Tick.class));
+    }
+
+    @Test
+    void testBulkUpdatePriceAndVolumeWriteBehind() {
+        when(writeBehindService.isEnabled()).thenReturn(true);
+        when(stockReadService.findBySymbol("aapl")).thenReturn(Optional.of(sampleStock));
+        when(writeBehindService.record(sampleStock, new BigDecimal("155.00"), 1500000L, false)).thenReturn(sampleStock);
+
+        int result = stockService.bulkUpdatePriceAndVolume("aapl", new BigDecimal("155.00"), 1500000L);
+
+        assertEquals(1, result);
+        verify(stockRepository, never()).save(any(Stock.class));
+        verify(volumeAverageService).observeDeferred(eq(sampleStock), anyLong());
+        verify(tickPublisher).publish(any(Tick.class));
+    }
+
+    @Test
+    void testUpdatePriceWritesChangedFiftyTwoWeekRangeAsUpdate() {
+        when(writeBehindService.isEnabled()).thenReturn(false);
+        when(stockRepository.findBySymbol("AAPL")).thenReturn(Optional.of(sampleStock));
+        when(fiftyTwoWeekRangeService.observe(eq(sampleStock), anyLong())).thenReturn(true);
+        when(stockRepository.save(sampleStock)).thenReturn(sampleStock);
+
+        stockService.updatePrice("aapl", new BigDecimal("155.00"));
+
+        verify(stockOutboxJdbcRepository).insert(argThat(event -> event.getType() == StockEvent.Type.UPDATED));
     }
 
     @Test
@@ -490,6 +701,17 @@ class StockServiceTest {
         verify(stockReadService).findTopByVolume(10);
     }
 
+    @Test
+    void testFindTopByVolumeFromRankings() {
+        List<Stock> stocks = Arrays.asList(sampleStock);
+        when(stockRankingRegistry.serves(10)).thenReturn(true);
+        when(stockRankingRegistry.top(RankedMetric.VOLUME, 10)).thenReturn(List.of(1L));
+        when(stockReadService.findByIdsInOrder(List.of(1L))).thenReturn(stocks);
+
+        assertEquals(stocks, stockService.findTopByVolume(10));
+        verify(stockReadService, never()).findTopByVolume(anyInt());
+    }
+
     @Test
     void testSearchByName() {
         List<Stock> stocks = Arrays.asList(sampleStock);
@@ -558,6 +780,19 @@ class StockServiceTest {
         verify(stockReadService).countBySector("Technology");
     }
 
+    @Test
+    void testGetCountsFromAggregateRegistry() {
+        StockAggregate overall = new StockAggregate();
+        overall.setCount(100L);
+        when(stockAggregateRegistry.isEnabled()).thenReturn(true);
+        when(stockAggregateRegistry.getOverall()).thenReturn(overall);
+        when(stockAggregateRegistry.getBySector("Unknown")).thenReturn(Optional.empty());
+
+        assertEquals(100L, stockService.getTotalCount());
+        assertEquals(0L, stockService.getCountBySector("Unknown"));
+        verifyNoInteractions(stockReadService);
+    }
+
     @Test
     void testGetHighPerformers() {
         List<Stock> stocks = Arrays.asList(sampleStock);
@@ -0,0 +1,113 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.aggregate.StockAggregateRegistry;
+import anqorithm.stocks.dto.StockStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockStatsServiceTest {
+
+    @Mock
+    private StockReadService stockReadService;
+
+    @Mock
+    private StockAggregateRegistry stockAggregateRegistry;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private StockStatsService service() {
+        return new StockStatsService(stockReadService, stockAggregateRegistry, transactionManager, executor, Duration.ofSeconds(5), now::get);
+    }
+
+    private void stubQueries() {
+        StockStats summary = new StockStats();
+        summary.setTotalStocks(3);
+        summary.setAveragePrice(new BigDecimal("123.456789"));
+        summary.setTotalVolume(4500L);
+        Map<String, Long> bySector = new LinkedHashMap<>();
+        bySector.put("Energy", 1L);
+        bySector.put("Technology", 2L);
+        when(stockReadService.findMarketSummary()).thenReturn(summary);
+        when(stockReadService.countGroupedBySector()).thenReturn(bySector);
+        when(stockReadService.countGroupedByIndustry()).thenReturn(Map.of("Software", 2L));
+    }
+
+    @Test
+    void getStats_MergesParallelQueries() {
+        stubQueries();
+
+        StockStats stats = service().getStats();
+
+        assertEquals(3, stats.getTotalStocks());
+        assertEquals(new BigDecimal("123.4568"), stats.getAveragePrice());
+        assertNull(stats.getAverageMarketCap());
+        assertEquals(4500L, stats.getTotalVolume());
+        assertEquals(List.of("Energy", "Technology"), stats.getSectors());
+        assertEquals(List.of("Software"), stats.getIndustries());
+        assertEquals(2L, stats.getStocksBySector().get("Technology"));
+        assertNotNull(stats.getGeneratedAt());
+        verify(transactionManager, times(3)).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+
+    @Test
+    void getStats_ReusesResultWithinTtl() {
+        stubQueries();
+        StockStatsService service = service();
+
+        StockStats first = service.getStats();
+        now.addAndGet(4_999);
+        assertSame(first, service.getStats());
+        verify(stockReadService, times(1)).findMarketSummary();
+
+        now.addAndGet(1);
+        stubQueries();
+        assertNotSame(first, service.getStats());
+        verify(stockReadService, times(2)).findMarketSummary();
+    }
+
+    @Test
+    void getStats_PropagatesQueryFailure() {
+        stubQueries();
+        when(stockReadService.countGroupedByIndustry())
+            .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service().getStats());
+    }
+
+    @Test
+    void getStats_ReadsAggregateRegistryWhenEnabled() {
+        StockStats stats = new StockStats();
+        when(stockAggregateRegistry.isEnabled()).thenReturn(true);
+        when(stockAggregateRegistry.getStats()).thenReturn(stats);
+
+        assertSame(stats, service().getStats());
+        verifyNoInteractions(stockReadService, transactionManager);
+    }
+}
@@ -0,0 +1,165 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.VolumeSpike;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.AverageVolumeUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VolumeAverageServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private DerivedValueWriter derivedValueWriter;
+
+    private VolumeAverageService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new VolumeAverageService(derivedValueWriter, Duration.ofHours(1), 3, new SimpleMeterRegistry());
+    }
+
+    private Stock observe(String symbol, long volume, Long storedAverage, long timestamp) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        stock.setVolume(volume);
+        stock.setAverageVolume(storedAverage);
+        service.observeDeferred(stock, timestamp);
+        return stock;
+    }
+
+    private static List<String> symbols(List<VolumeSpike> spikes) {
+        return spikes.stream().map(VolumeSpike::getSymbol).toList();
+    }
+
+    @Test
+    void testAverageIsSeededFromStoredValue() {
+        Stock stock = observe("AAPL", 4_000, 1_000L, 0);
+
+        assertEquals(1_000L, stock.getAverageVolume());
+        VolumeSpike spike = service.getSpikes(null, 10).get(0);
+        assertEquals("AAPL", spike.getSymbol());
+        assertEquals(4_000, spike.getVolume());
+        assertEquals(new BigDecimal("4.00"), spike.getRatio());
+    }
+
+    @Test
+    void testAverageWithoutStoredValueStartsAtVolume() {
+        Stock stock = observe("AAPL", 2_000, null, 0);
+
+        assertEquals(2_000L, stock.getAverageVolume());
+        assertTrue(service.getSpikes(null, 10).isEmpty());
+    }
+
+    @Test
+    void testPreviousVolumeIsWeightedByHowLongItStood() {
+        observe("AAPL", 1_000, 1_000L, 0);
+        // The new volume does not move the average until time passes
+        assertEquals(1_000L, observe("AAPL", 5_000, null, HOUR).getAverageVolume());
+        assertEquals(List.of("AAPL"), symbols(service.getSpikes(null, 10)));
+
+        // One half-life of 5000 moves the average halfway from 1000
+        assertEquals(3_000L, observe("AAPL", 5_000, null, 2 * HOUR).getAverageVolume());
+        assertTrue(service.getSpikes(null, 10).isEmpty());
+    }
+
+    @Test
+    void testBurstOfUpdatesDoesNotSkewAverage() {
+        observe("AAPL", 1_000, 1_000L, 0);
+        for (int i = 1; i <= 1_000; i++) {
+            observe("AAPL", i % 2 == 0 ? 1_000 : 9_000, null, HOUR + i);
+        }
+        assertTrue(observe("AAPL", 1_000, null, HOUR + 1_001).getAverageVolume() < 1_010L);
+    }
+
+    @Test
+    void testSpikesAreRankedByRatioAndFilteredByMultiplier() {
+        observe("AAPL", 5_000, 1_000L, 0);
+        observe("MSFT", 8_000, 1_000L, 0);
+        observe("XOM", 2_000, 1_000L, 0);
+        observe("KO", 500, 1_000L, 0);
+
+        assertEquals(List.of("MSFT", "AAPL"), symbols(service.getSpikes(null, 10)));
+        assertEquals(List.of("MSFT"), symbols(service.getSpikes(null, 1)));
+        assertEquals(List.of("MSFT", "AAPL", "XOM"), symbols(service.getSpikes(1.5, 10)));
+        assertEquals(List.of("MSFT"), symbols(service.getSpikes(6.0, 10)));
+
+        // A symbol leaves the spikes once its volume falls back
+        observe("MSFT", 1_000, null, 0);
+        assertEquals(List.of("AAPL"), symbols(service.getSpikes(null, 10)));
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.getSpikes(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getSpikes(0.0, 10));
+    }
+
+    @Test
+    void testFlushWritesChangedAveragesOnce() {
+        observe("AAPL", 5_000, 1_000L, 0);
+        observe("MSFT", 2_000, 2_000L, 0);
+        observe("AAPL", 5_000, null, HOUR);
+
+        when(derivedValueWriter.writeAverageVolumes(anyList())).thenReturn(2);
+
+        assertEquals(2, service.flush());
+        verify(derivedValueWriter).writeAverageVolumes(List.of(
+            new AverageVolumeUpdate("AAPL", 3_000L), new AverageVolumeUpdate("MSFT", 2_000L)));
+
+        assertEquals(0, service.flush());
+        verifyNoMoreInteractions(derivedValueWriter);
+    }
+
+    @Test
+    void testAverageSavedWithTheStockIsNotWrittenAgain() {
+        observe("AAPL", 5_000, 1_000L, 0);
+        Stock saved = new Stock();
+        saved.setSymbol("AAPL");
+        saved.setVolume(5_000L);
+        service.observe(saved, HOUR);
+
+        assertEquals(3_000L, saved.getAverageVolume());
+        assertEquals(0, service.getPendingCount());
+        assertEquals(0, service.flush());
+        verifyNoInteractions(derivedValueWriter);
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        observe("AAPL", 5_000, 1_000L, 0);
+        when(derivedValueWriter.writeAverageVolumes(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("down"))
+            .thenReturn(1);
+
+        assertEquals(0, service.flush());
+        assertEquals(1, service.getPendingCount());
+        assertEquals(1, service.flush());
+        assertEquals(0, service.getPendingCount());
+    }
+
+    @Test
+    void testForgetReseedsFromStoredValue() {
+        observe("AAPL", 5_000, 1_000L, 0);
+        service.forget("AAPL");
+
+        assertEquals(0, service.getSymbolCount());
+        assertEquals(0, service.getPendingCount());
+        assertEquals(4_000L, observe("AAPL", 5_000, 4_000L, HOUR).getAverageVolume());
+    }
+}
@@ -0,0 +1,157 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.dto.WatchlistResponse;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.entity.User;
+import anqorithm.stocks.repository.jpa.UserRepository;
+import anqorithm.stocks.repository.jpa.WatchlistRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class WatchlistServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WatchlistRepository watchlistRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(WatchlistService.WATCHLISTS_CACHE);
+    private WatchlistService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WatchlistService(watchlistRepository, userRepository, new StockReadService(jdbcTemplate),
+            cacheManager, 2, 3);
+        user("alice");
+        user("bob");
+        stock("AAPL", "150.00");
+        stock("MSFT", "300.00");
+        stock("XOM", "100.00");
+        stock("KO", "60.00");
+    }
+
+    private void user(String username) {
+        User user = new User(username, username + "@example.com", "password123");
+        entityManager.persistAndFlush(user);
+    }
+
+    private Stock stock(String symbol, String price) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        stock.setName(symbol + " Inc.");
+        stock.setCurrentPrice(new BigDecimal(price));
+        return entityManager.persistAndFlush(stock);
+    }
+
+    private static List<String> symbols(List<Stock> stocks) {
+        return stocks.stream().map(Stock::getSymbol).toList();
+    }
+
+    @Test
+    void testCreateNormalizesSymbolsAndHydratesInOrder() {
+        WatchlistResponse created = service.create("alice", "Tech", List.of("msft", "AAPL", "MSFT"));
+
+        assertEquals(List.of("MSFT", "AAPL"), created.getSymbols());
+        assertNull(created.getStocks());
+
+        WatchlistResponse hydrated = service.findById("alice", created.getId());
+        assertEquals(List.of("MSFT", "AAPL"), symbols(hydrated.getStocks()));
+        assertEquals(new BigDecimal("300.0000"), hydrated.getStocks().get(0).getCurrentPrice());
+    }
+
+    @Test
+    void testWatchlistsAreCachedPerUserAndEvictedOnChange() {
+        WatchlistResponse created = service.create("alice", "Tech", List.of("AAPL"));
+        List<WatchlistResponse> first = service.findByUsername("alice");
+        assertSame(first, service.findByUsername("alice"));
+        assertNull(cacheManager.getCache(WatchlistService.WATCHLISTS_CACHE).get("bob"));
+
+        service.addSymbol("alice", created.getId(), "msft");
+        List<WatchlistResponse> second = service.findByUsername("alice");
+        assertNotSame(first, second);
+        assertEquals(List.of("AAPL", "MSFT"), second.get(0).getSymbols());
+
+        service.removeSymbol("alice", created.getId(), "aapl");
+        assertEquals(List.of("MSFT"), service.findByUsername("alice").get(0).getSymbols());
+
+        assertTrue(service.delete("alice", created.getId()));
+        assertTrue(service.findByUsername("alice").isEmpty());
+    }
+
+    @Test
+    void testUpdateReplacesNameAndSymbols() {
+        WatchlistResponse created = service.create("alice", "Tech", List.of("AAPL", "MSFT"));
+
+        WatchlistResponse updated = service.update("alice", created.getId(), "Energy", List.of("XOM", "KO"));
+
+        assertEquals("Energy", updated.getName());
+        assertEquals(List.of("XOM", "KO"), symbols(service.findById("alice", created.getId()).getStocks()));
+    }
+
+    @Test
+    void testDeletedStockDropsOutOfHydration() {
+        WatchlistResponse created = service.create("alice", "Mixed", List.of("AAPL", "XOM"));
+        jdbcTemplate.update("DELETE FROM stocks WHERE symbol = 'AAPL'");
+
+        WatchlistResponse hydrated = service.findById("alice", created.getId());
+
+        assertEquals(List.of("AAPL", "XOM"), hydrated.getSymbols());
+        assertEquals(List.of("XOM"), symbols(hydrated.getStocks()));
+    }
+
+    @Test
+    void testWatchlistHoldingADeletedStockStaysEditable() {
+        WatchlistResponse created = service.create("alice", "Mixed", List.of("AAPL", "XOM"));
+        jdbcTemplate.update("DELETE FROM stocks WHERE symbol = 'AAPL'");
+
+        assertEquals(List.of("AAPL", "XOM", "KO"), service.addSymbol("alice", created.getId(), "ko").getSymbols());
+        assertEquals(List.of("AAPL", "MSFT"),
+            service.update("alice", created.getId(), "Tech", List.of("aapl", "MSFT")).getSymbols());
+        assertThrows(IllegalArgumentException.class, () -> service.addSymbol("alice", created.getId(), "NOPE"));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.update("alice", created.getId(), "Tech", List.of("AAPL", "GONE")));
+    }
+
+    @Test
+    void testOtherUsersWatchlistsAreNotFound() {
+        WatchlistResponse created = service.create("alice", "Tech", List.of("AAPL"));
+
+        assertThrows(EntityNotFoundException.class, () -> service.findById("bob", created.getId()));
+        assertThrows(EntityNotFoundException.class, () -> service.addSymbol("bob", created.getId(), "MSFT"));
+        assertFalse(service.delete("bob", created.getId()));
+        assertEquals(1, service.findByUsername("alice").size());
+    }
+
+    @Test
+    void testInvalidChangesAreRejected() {
+        service.create("alice", "Tech", List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> service.create("alice", "Tech", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> service.create("alice", "Other", List.of("NOPE")));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.create("alice", "Other", List.of("AAPL", "MSFT", "XOM", "KO")));
+
+        service.create("alice", "Energy", List.of("XOM"));
+        assertThrows(IllegalArgumentException.class, () -> service.create("alice", "Third", List.of()));
+    }
+}
@@ -0,0 +1,206 @@
+package anqorithm.stocks.service;
+
+import anqorithm.stocks.cache.CacheInvalidation;
+import anqorithm.stocks.cache.CacheInvalidationPublisher;
+import anqorithm.stocks.entity.Stock;
+import anqorithm.stocks.journal.FsyncPolicy;
+import anqorithm.stocks.journal.TickJournal;
+import anqorithm.stocks.outbox.StockEvent;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository;
+import anqorithm.stocks.repository.jdbc.StockBatchJdbcRepository.PriceVolumeUpdate;
+import anqorithm.stocks.repository.jdbc.StockOutboxJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindServiceTest {
+
+    @Mock
+    private StockBatchJdbcRepository stockBatchJdbcRepository;
+
+    @Mock
+    private StockOutboxJdbcRepository stockOutboxJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @TempDir
+    Path directory;
+
+    private WriteBehindService service(boolean enabled) {
+        WriteBehindService service = new WriteBehindService(stockBatchJdbcRepository, stockOutboxJdbcRepository,
+            transactionManager, cacheInvalidationPublisher, enabled, directory, DataSize.ofKilobytes(64),
+            FsyncPolicy.NEVER, new SimpleMeterRegistry());
+        service.start();
+        return service;
+    }
+
+    private Stock stock(String symbol, String price, long volume) {
+        Stock stock = new Stock();
+        stock.setId(1L);
+        stock.setSymbol(symbol);
+        stock.setCurrentPrice(new BigDecimal(price));
+        stock.setVolume(volume);
+        return stock;
+    }
+
+    @Test
+    void testDisabledDoesNothing() {
+        WriteBehindService service = service(false);
+
+        assertFalse(service.isEnabled());
+        assertEquals(0, service.flush());
+        service.shutdown();
+        verifyNoInteractions(stockBatchJdbcRepository);
+    }
+
+    @Test
+    void testRecordOverlaysPendingState() {
+        WriteBehindService service = service(true);
+
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+        Stock result = service.record(stock("AAPL", "150.00", 1000L), null, 2000L);
+
+        assertEquals(new BigDecimal("151.00"), result.getCurrentPrice());
+        assertEquals(2000L, result.getVolume());
+        assertEquals(1, service.getPendingCount());
+    }
+
+    @Test
+    void testFlushWritesLatestStateAndCheckpoints() {
+        WriteBehindService service = service(true);
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("152.00"), null);
+        service.record(stock("MSFT", "280.00", 500L), null, 700L);
+
+        assertEquals(2, service.flush());
+
+        verify(stockBatchJdbcRepository).batchUpdatePriceAndVolume(List.of(
+            new PriceVolumeUpdate("AAPL", new BigDecimal("152.00"), 1000L),
+            new PriceVolumeUpdate("MSFT", new BigDecimal("280.00"), 700L)));
+        assertEquals(0, service.getPendingCount());
+        verify(stockOutboxJdbcRepository).batchInsert(argThat(events -> events.size() == 2
+            && events.get(0).getSymbol().equals("AAPL") && events.get(0).getVersion() == null));
+        verify(transactionManager).commit(any());
+        service.shutdown();
+        assertEquals(3L, new TickJournal(directory, 65536, FsyncPolicy.NEVER).getCheckpoint());
+    }
+
+    @Test
+    void testFlushWritesChangedFiftyTwoWeekRangeWithPrice() {
+        WriteBehindService service = service(true);
+        Stock high = stock("AAPL", "150.00", 1000L);
+        high.setFiftyTwoWeekHigh(new BigDecimal("160.00"));
+        high.setFiftyTwoWeekLow(new BigDecimal("120.00"));
+        service.record(high, new BigDecimal("160.00"), null, true);
+        // A later volume-only update keeps the range from the earlier one
+        service.record(stock("AAPL", "150.00", 1000L), null, 1200L);
+
+        assertEquals(1, service.flush());
+
+        verify(stockBatchJdbcRepository).batchUpdatePriceAndVolume(List.of(new PriceVolumeUpdate("AAPL",
+            new BigDecimal("160.00"), 1200L, new BigDecimal("160.00"), new BigDecimal("120.00"))));
+        verify(stockOutboxJdbcRepository).batchInsert(argThat(events ->
+            events.get(0).getType() == StockEvent.Type.UPDATED));
+        service.shutdown();
+    }
+
+    @Test
+    void testFlushPublishesUnversionedInvalidations() {
+        WriteBehindService service = service(true);
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+
+        service.flush();
+
+        verify(cacheInvalidationPublisher).publish(
+            new CacheInvalidation(CacheInvalidation.Kind.UPDATE, 1L, null, "AAPL"));
+    }
+
+    @Test
+    void testFailedFlushKeepsUpdatesPending() {
+        WriteBehindService service = service(true);
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+        when(stockBatchJdbcRepository.batchUpdatePriceAndVolume(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertEquals(0, service.flush());
+
+        assertEquals(1, service.getPendingCount());
+    }
+
+    @Test
+    void testFlushStockWritesOnlyThatStock() {
+        WriteBehindService service = service(true);
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+        Stock msft = stock("MSFT", "280.00", 500L);
+        msft.setId(2L);
+        service.record(msft, new BigDecimal("281.00"), null);
+
+        service.flushStock(1L);
+
+        verify(stockBatchJdbcRepository).batchUpdatePriceAndVolume(List.of(
+            new PriceVolumeUpdate("AAPL", new BigDecimal("151.00"), 1000L)));
+        assertEquals(1, service.getPendingCount());
+        // The MSFT update is still unflushed, so the journal stays checkpointed before it
+        service.flushSymbol("MSFT");
+        verify(stockBatchJdbcRepository).batchUpdatePriceAndVolume(List.of(
+            new PriceVolumeUpdate("MSFT", new BigDecimal("281.00"), 500L)));
+        assertEquals(0, service.getPendingCount());
+        service.shutdown();
+        assertEquals(2L, new TickJournal(directory, 65536, FsyncPolicy.NEVER).getCheckpoint());
+    }
+
+    @Test
+    void testFlushStockWithNothingPendingDoesNothing() {
+        WriteBehindService service = service(true);
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+
+        service.flushStock(2L);
+
+        verifyNoInteractions(stockBatchJdbcRepository);
+        assertEquals(1, service.getPendingCount());
+    }
+
+    @Test
+    void testFailedFlushStockThrowsAndKeepsTheUpdatePending() {
+        WriteBehindService service = service(true);
+        service.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+        when(stockBatchJdbcRepository.batchUpdatePriceAndVolume(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service.flushStock(1L));
+
+        assertEquals(1, service.getPendingCount());
+    }
+
+    @Test
+    void testStartupReplaysUnflushedUpdates() {
+        WriteBehindService crashed = service(true);
+        crashed.record(stock("AAPL", "150.00", 1000L), new BigDecimal("151.00"), null);
+        crashed.record(stock("AAPL", "150.00", 1000L), new BigDecimal("153.00"), 1200L);
+        // No flush and no shutdown: the process dies with both updates only in the journal
+
+        service(true);
+
+        verify(stockBatchJdbcRepository).batchUpdatePriceAndVolume(List.of(
+            new PriceVolumeUpdate("AAPL", new BigDecimal("153.0000"), 1200L)));
+    }
+}
@@ -0,0 +1,101 @@
+package anqorithm.stocks.tick;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingExtremesTest {
+
+    @Test
+    void testTracksExtremesWithinDay() {
+        RollingExtremes extremes = new RollingExtremes(364);
+        extremes.add(100, 50);
+        extremes.add(100, 70);
+        extremes.add(100, 40);
+        extremes.add(100, 60);
+
+        assertEquals(70, extremes.high());
+        assertEquals(40, extremes.low());
+    }
+
+    @Test
+    void testExtremesLeaveWindow() {
+        RollingExtremes extremes = new RollingExtremes(3);
+        extremes.add(1, 100);
+        extremes.add(2, 80);
+        extremes.add(3, 90);
+        assertEquals(100, extremes.high());
+        assertEquals(80, extremes.low());
+
+        // Day 1 is out of a 3-day window ending on day 4
+        extremes.add(4, 85);
+        assertEquals(90, extremes.high());
+        assertEquals(80, extremes.low());
+
+        extremes.add(10, 95);
+        assertEquals(95, extremes.high());
+        assertEquals(95, extremes.low());
+    }
+
+    @Test
+    void testSeededRangeIsKeptUntilItLeavesWindow() {
+        RollingExtremes extremes = new RollingExtremes(5);
+        extremes.add(0, 200, 10);
+        extremes.add(2, 100);
+        assertEquals(200, extremes.high());
+        assertEquals(10, extremes.low());
+
+        extremes.add(5, 100);
+        assertEquals(100, extremes.high());
+        assertEquals(100, extremes.low());
+    }
+
+    @Test
+    void testLateTickCountsTowardsLatestDay() {
+        RollingExtremes extremes = new RollingExtremes(2);
+        extremes.add(5, 100);
+        extremes.add(3, 120);
+        extremes.add(6, 90);
+
+        assertEquals(120, extremes.high());
+    }
+
+    @Test
+    void testMatchesBruteForceOverRandomPrices() {
+        Random random = new Random(7);
+        int window = 30;
+        RollingExtremes extremes = new RollingExtremes(window);
+        Deque<long[]> observed = new ArrayDeque<>();
+        long day = 0;
+        for (int i = 0; i < 20_000; i++) {
+            day += random.nextInt(10) == 0 ? 1 + random.nextInt(5) : 0;
+            long price = 1 + random.nextInt(1_000);
+            extremes.add(day, price);
+            observed.addLast(new long[] {day, price});
+            while (observed.peekFirst()[0] <= day - window) {
+                observed.pollFirst();
+            }
+
+            long high = Long.MIN_VALUE;
+            long low = Long.MAX_VALUE;
+            for (long[] entry : observed) {
+                high = Math.max(high, entry[1]);
+                low = Math.min(low, entry[1]);
+            }
+            assertEquals(high, extremes.high(), "high at step " + i);
+            assertEquals(low, extremes.low(), "low at step " + i);
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        RollingExtremes extremes = new RollingExtremes(1);
+        assertTrue(extremes.isEmpty());
+        assertThrows(IllegalStateException.class, extremes::high);
+        assertThrows(IllegalArgumentException.class, () -> new RollingExtremes(0));
+    }
+}
@@ -0,0 +1,90 @@
+package anqorithm.stocks.tick;
+
+import anqorithm.stocks.entity.Stock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickPublisherTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Tick sampleTick() {
+        return new Tick(1L, "AAPL", new BigDecimal("150.1234"), 1000L, 42L);
+    }
+
+    @Test
+    void testPublishDispatchesImmediatelyOutsideTransaction() {
+        List<Tick> received = new ArrayList<>();
+        TickPublisher publisher = new TickPublisher(List.of(received::add));
+
+        publisher.publish(sampleTick());
+
+        assertEquals(1, received.size());
+        assertEquals(1501234L, received.get(0).getScaledPrice());
+    }
+
+    @Test
+    void testPublishDefersUntilAfterCommit() {
+        List<Tick> received = new ArrayList<>();
+        TickPublisher publisher = new TickPublisher(List.of(received::add));
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.publish(sampleTick());
+
+        assertTrue(received.isEmpty());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void testFailingListenerDoesNotBlockOthers() {
+        List<Tick> received = new ArrayList<>();
+        TickListener failing = tick -> {
+            throw new IllegalStateException("boom");
+        };
+        TickPublisher publisher = new TickPublisher(List.of(failing, received::add));
+
+        publisher.publish(sampleTick());
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void testTickFromStock() {
+        Stock stock = new Stock("MSFT", "Microsoft", new BigDecimal("300.5"));
+        stock.setId(7L);
+        stock.setVolume(null);
+
+        Tick tick = Tick.of(stock, 99L);
+
+        assertEquals(7L, tick.getStockId());
+        assertEquals("MSFT", tick.getSymbol());
+        assertEquals(3005000L, tick.getScaledPrice());
+        assertEquals(0L, tick.getVolume());
+        assertEquals(99L, tick.getTimestamp());
+        assertEquals(new BigDecimal("300.5000"), Tick.fromScaled(tick.getScaledPrice()));
+    }
+
+    @Test
+    void testTickEquality() {
+        assertEquals(sampleTick(), sampleTick());
+        assertEquals(sampleTick().hashCode(), sampleTick().hashCode());
+        assertNotEquals(sampleTick(), new Tick(1L, "AAPL", new BigDecimal("150.1234"), 1000L, 43L));
+        assertTrue(sampleTick().toString().contains("AAPL"));
+    }
+}
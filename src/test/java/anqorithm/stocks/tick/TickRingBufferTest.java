@@ -0,0 +1,112 @@
+package anqorithm.stocks.tick;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickRingBufferTest {
+
+    @Test
+    void testRejectsNonPowerOfTwoCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TickRingBuffer(0));
+        assertThrows(IllegalArgumentException.class, () -> new TickRingBuffer(3));
+    }
+
+    @Test
+    void testSnapshotOfEmptyBuffer() {
+        TickRingBuffer buffer = new TickRingBuffer(4);
+
+        assertEquals(0, buffer.snapshotSince(0).size());
+        assertEquals(0, buffer.size());
+        assertEquals(4 * TickRingBuffer.BYTES_PER_TICK, buffer.memoryBytes());
+    }
+
+    @Test
+    void testLatestPriceFollowsNewestTick() {
+        TickRingBuffer buffer = new TickRingBuffer(2);
+        assertTrue(buffer.latestPrice().isEmpty());
+
+        buffer.add(100, 1_000_000, 10);
+        buffer.add(200, 1_010_000, 20);
+        buffer.add(300, 1_020_000, 30);
+
+        assertEquals(1_020_000, buffer.latestPrice().getAsLong());
+    }
+
+    @Test
+    void testSnapshotReturnsTicksOldestFirst() {
+        TickRingBuffer buffer = new TickRingBuffer(8);
+        buffer.add(100, 1_000_000, 10);
+        buffer.add(200, 1_010_000, 20);
+        buffer.add(300, 1_020_000, 30);
+
+        TickRingBuffer.Snapshot snapshot = buffer.snapshotSince(0);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(100, snapshot.timestampAt(0));
+        assertEquals(1_020_000, snapshot.priceAt(2));
+        assertEquals(20, snapshot.volumeAt(1));
+    }
+
+    @Test
+    void testSnapshotStopsAtWindowStart() {
+        TickRingBuffer buffer = new TickRingBuffer(8);
+        for (long t = 1; t <= 5; t++) {
+            buffer.add(t * 100, t, t);
+        }
+
+        TickRingBuffer.Snapshot snapshot = buffer.snapshotSince(300);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(300, snapshot.timestampAt(0));
+        assertEquals(500, snapshot.timestampAt(2));
+    }
+
+    @Test
+    void testOverwritesOldestWhenFull() {
+        TickRingBuffer buffer = new TickRingBuffer(4);
+        for (long t = 1; t <= 10; t++) {
+            buffer.add(t, t * 10, t);
+        }
+
+        TickRingBuffer.Snapshot snapshot = buffer.snapshotSince(0);
+
+        assertEquals(4, buffer.size());
+        assertEquals(4, snapshot.size());
+        assertEquals(7, snapshot.timestampAt(0));
+        assertEquals(100, snapshot.priceAt(3));
+    }
+
+    @Test
+    void testConcurrentReadersOnlySeeConsistentTicks() throws InterruptedException {
+        TickRingBuffer buffer = new TickRingBuffer(64);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            long t = 1;
+            while (running.get()) {
+                // Every field carries the same value so a torn read is detectable
+                buffer.add(t, t, t);
+                t++;
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                TickRingBuffer.Snapshot snapshot = buffer.snapshotSince(0);
+                for (int j = 0; j < snapshot.size(); j++) {
+                    long t = snapshot.timestampAt(j);
+                    assertEquals(t, snapshot.priceAt(j));
+                    assertEquals(t, snapshot.volumeAt(j));
+                    if (j > 0) {
+                        assertEquals(snapshot.timestampAt(j - 1) + 1, t);
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}